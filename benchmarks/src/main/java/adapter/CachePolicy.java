@@ -0,0 +1,52 @@
+package adapter;
+
+import adapter.cache.TinyLfuCache;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 缓存基准中对比的淘汰策略
+ */
+public enum CachePolicy {
+    TINY_LFU {
+        @Override
+        Function<String, UserInfo> create(int maximumSize, Function<String, UserInfo> loader) {
+            TinyLfuCache<String, UserInfo> cache = new TinyLfuCache<>(maximumSize);
+            return phone -> cache.get(phone, loader);
+        }
+    },
+    /**
+     * 按访问顺序排列的LinkedHashMap，整体加锁
+     * 和TINY_LFU一样在锁外加载，未命中时不会让其它线程等待loader，同一个键可能被并发加载多次
+     */
+    LRU {
+        @Override
+        Function<String, UserInfo> create(int maximumSize, Function<String, UserInfo> loader) {
+            Map<String, UserInfo> cache = Collections.synchronizedMap(
+                    new LinkedHashMap<String, UserInfo>(16, 0.75f, true) {
+                        @Override
+                        protected boolean removeEldestEntry(Map.Entry<String, UserInfo> eldest) {
+                            return size() > maximumSize;
+                        }
+                    });
+            return phone -> {
+                UserInfo user = cache.get(phone);
+                if (user == null) {
+                    user = loader.apply(phone);
+                    if (user != null) {
+                        cache.put(phone, user);
+                    }
+                }
+                return user;
+            };
+        }
+    };
+
+    /**
+     * 创建缓存，返回带加载的查找函数
+     */
+    abstract Function<String, UserInfo> create(int maximumSize, Function<String, UserInfo> loader);
+}
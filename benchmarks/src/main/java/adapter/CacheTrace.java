@@ -0,0 +1,54 @@
+package adapter;
+
+import adapter.index.PhoneIndex;
+import adapter.store.UserInfoStore;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * 缓存基准共用的数据：n个用户保存在UserInfoStore中，按手机号查找时经PhoneIndex定位行号再解码出新的UserInfo；
+ * 访问序列服从Zipf分布，第k热的用户被访问的概率与1 / k^skew成正比
+ */
+final class CacheTrace {
+    final String[] phones;
+    final UserInfoStore store;
+    final PhoneIndex index;
+    final String[] trace;
+
+    CacheTrace(int users, int length, double skew, long seed) {
+        Random random = new Random(seed);
+        phones = new String[users];
+        store = new UserInfoStore(users);
+        index = new PhoneIndex(users);
+        for (int i = 0; i < users; i++) {
+            phones[i] = String.valueOf(13000000000L + i * 7919L % 1_000_000_000);
+            index.put(phones[i], store.add("user" + random.nextInt(100_000), 18 + random.nextInt(60), phones[i]));
+        }
+        double[] cumulative = new double[users];
+        double sum = 0;
+        for (int k = 0; k < users; k++) {
+            sum += 1 / Math.pow(k + 1, skew);
+            cumulative[k] = sum;
+        }
+        // 热度排名与用户编号无关，避免热点集中在相邻的手机号上
+        int[] rank = new int[users];
+        for (int i = 0; i < users; i++) {
+            int j = random.nextInt(i + 1);
+            rank[i] = rank[j];
+            rank[j] = i;
+        }
+        trace = new String[length];
+        for (int i = 0; i < length; i++) {
+            int k = Arrays.binarySearch(cumulative, random.nextDouble() * sum);
+            trace[i] = phones[rank[Math.min(users - 1, k < 0 ? -k - 1 : k)]];
+        }
+    }
+
+    /**
+     * 缓存未命中时的加载：查索引并解码
+     */
+    UserInfo load(String phone) {
+        return store.get(index.get(phone));
+    }
+}
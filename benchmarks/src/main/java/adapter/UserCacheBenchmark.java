@@ -0,0 +1,85 @@
+package adapter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * 多线程按Zipf分布的访问序列查找用户，对比TinyLfuCache和同步的LRU的吞吐量
+ * 未命中时经PhoneIndex和UserInfoStore加载，loadTokens模拟更慢的存储
+ * 线程数用-t调整；命中率的对比见UserCacheReplay
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class UserCacheBenchmark {
+    @Param({"TINY_LFU", "LRU"})
+    private CachePolicy policy;
+
+    @Param({"1000000"})
+    private int users;
+
+    @Param({"0.9"})
+    private double skew;
+
+    /**
+     * 缓存容量占用户数的百分比
+     */
+    @Param({"2"})
+    private int percent;
+
+    /**
+     * 未命中时额外消耗的CPU，模拟从磁盘或远程存储加载的开销，0表示只有内存中的查找和解码
+     */
+    @Param({"0", "1000"})
+    private long loadTokens;
+
+    private CacheTrace trace;
+    private Function<String, UserInfo> cache;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        trace = new CacheTrace(users, 1 << 22, skew, 42);
+        cache = policy.create(users / 100 * percent, phone -> {
+            Blackhole.consumeCPU(loadTokens);
+            return trace.load(phone);
+        });
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            next = ThreadLocalRandom.current().nextInt(1 << 22);
+        }
+    }
+
+    @Benchmark
+    public UserInfo lookup(Cursor cursor) {
+        String[] accesses = trace.trace;
+        String phone = accesses[cursor.next];
+        cursor.next = (cursor.next + 1) & (accesses.length - 1);
+        return cache.apply(phone);
+    }
+}
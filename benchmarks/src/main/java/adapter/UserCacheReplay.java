@@ -0,0 +1,34 @@
+package adapter;
+
+import java.util.function.Function;
+
+/**
+ * 按Zipf分布的访问序列回放，对比TinyLfuCache和LRU在不同缓存容量下的命中率
+ * 运行：java -cp benchmarks/target/benchmarks.jar adapter.UserCacheReplay [用户数] [访问次数] [skew]
+ * 命中率只取决于访问序列，单线程回放即可；吞吐量的对比见UserCacheBenchmark
+ */
+public class UserCacheReplay {
+    public static void main(String[] args) {
+        int users = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int length = args.length > 1 ? Integer.parseInt(args[1]) : 5_000_000;
+        double skew = args.length > 2 ? Double.parseDouble(args[2]) : 0.9;
+        CacheTrace trace = new CacheTrace(users, length, skew, 42);
+        System.out.printf("users=%d accesses=%d skew=%.2f%n", users, length, skew);
+        for (int percent : new int[]{1, 2, 5, 10}) {
+            int maximumSize = users / 100 * percent;
+            StringBuilder line = new StringBuilder(String.format("cache %2d%% (%,d):", percent, maximumSize));
+            for (CachePolicy policy : CachePolicy.values()) {
+                long[] loads = new long[1];
+                Function<String, UserInfo> cache = policy.create(maximumSize, phone -> {
+                    loads[0]++;
+                    return trace.load(phone);
+                });
+                for (String phone : trace.trace) {
+                    cache.apply(phone);
+                }
+                line.append(String.format("  %s %.2f%%", policy, 100.0 * (length - loads[0]) / length));
+            }
+            System.out.println(line);
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package adapter;
+
+import adapter.codec.UserInfoCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 一批用户记录在环节之间传递的开销，对比三种做法
+ * 1. map开头的方法是现在的做法：每个环节用HashMap的OutUserInfo传递，mapBuild由UserInfo生成map，
+ *    mapPhone从已有的map中取出每条记录的phone，mapForward把每个map复制一份交给下一环节
+ * 2. mapCodec开头的方法是手写的map编码：键值对个数，之后依次是键和值，字符串为varint长度 + UTF-8字节，
+ *    跨进程传递map时不用Java序列化的最简单做法；mapCodecPhone解码出HashMap后只取phone
+ * 3. codec和view开头的方法是UserInfoCodec：viewPhone从已有的视图中取phone，viewDecodePhone从字节创建视图后只解码phone，
+ *    viewDecodePhoneCode只读取phone的编码而不创建字符串，viewForward不读取字段，把记录原样写入下一环节的缓冲区
+ * 编码后的总字节数在setup中输出
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserInfoCodecBenchmark {
+    @Param({"1000"})
+    private int batch;
+
+    private final UserInfoCodec codec = new UserInfoCodec();
+    private UserInfo[] users;
+    private HashMap<String, String>[] maps;
+    private ByteBuffer mapEncoded;
+    private ByteBuffer encoded;
+    private Map<String, String>[] views;
+    private ByteBuffer forwarded;
+
+    @Setup
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public void setup() {
+        Random random = new Random(42);
+        users = new UserInfo[batch];
+        maps = new HashMap[batch];
+        for (int i = 0; i < batch; i++) {
+            users[i] = new UserInfo("user" + random.nextInt(100_000), 18 + random.nextInt(60),
+                    String.valueOf(13000000000L + random.nextInt(1_000_000_000)));
+            maps[i] = new HashMap<>();
+            maps[i].put("name", users[i].getName());
+            maps[i].put("age", String.valueOf(users[i].getAge()));
+            maps[i].put("phone", users[i].getPhone());
+        }
+        mapEncoded = mapCodecEncode();
+        encoded = codecEncode();
+        forwarded = ByteBuffer.allocate(encoded.remaining());
+        views = new Map[batch];
+        ByteBuffer buffer = encoded.duplicate();
+        for (int i = 0; i < batch; i++) {
+            views[i] = codec.view(buffer);
+        }
+        System.out.printf("%n%d records: map codec %d bytes, codec %d bytes%n",
+                batch, mapEncoded.remaining(), encoded.remaining());
+    }
+
+    @Benchmark
+    public void mapBuild(Blackhole blackhole) {
+        for (UserInfo user : users) {
+            Map<String, String> map = new HashMap<>();
+            map.put("name", user.getName());
+            map.put("age", String.valueOf(user.getAge()));
+            map.put("phone", user.getPhone());
+            OutUserInfo out = new OutUserInfo();
+            out.setUserInfoMap(map);
+            blackhole.consume(out);
+        }
+    }
+
+    @Benchmark
+    public void mapPhone(Blackhole blackhole) {
+        for (HashMap<String, String> map : maps) {
+            blackhole.consume(map.get("phone"));
+        }
+    }
+
+    @Benchmark
+    public void mapForward(Blackhole blackhole) {
+        for (HashMap<String, String> map : maps) {
+            OutUserInfo out = new OutUserInfo();
+            out.setUserInfoMap(new HashMap<>(map));
+            blackhole.consume(out);
+        }
+    }
+
+    @Benchmark
+    public ByteBuffer mapCodecEncode() {
+        int size = 0;
+        for (HashMap<String, String> map : maps) {
+            size += mapSize(map);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        for (HashMap<String, String> map : maps) {
+            putMap(buffer, map);
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    @Benchmark
+    public void mapCodecDecode(Blackhole blackhole) {
+        ByteBuffer buffer = mapEncoded.duplicate();
+        for (int i = 0; i < batch; i++) {
+            blackhole.consume(getMap(buffer));
+        }
+    }
+
+    @Benchmark
+    public void mapCodecPhone(Blackhole blackhole) {
+        ByteBuffer buffer = mapEncoded.duplicate();
+        for (int i = 0; i < batch; i++) {
+            blackhole.consume(getMap(buffer).get("phone"));
+        }
+    }
+
+    @Benchmark
+    public ByteBuffer codecEncode() {
+        int size = 0;
+        for (UserInfo user : users) {
+            size += codec.encodedSize(user);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        for (UserInfo user : users) {
+            codec.encode(user, buffer);
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    @Benchmark
+    public void codecDecode(Blackhole blackhole) {
+        ByteBuffer buffer = encoded.duplicate();
+        for (int i = 0; i < batch; i++) {
+            blackhole.consume(codec.decodeUserInfo(buffer));
+        }
+    }
+
+    @Benchmark
+    public void viewPhone(Blackhole blackhole) {
+        for (Map<String, String> view : views) {
+            blackhole.consume(view.get("phone"));
+        }
+    }
+
+    @Benchmark
+    public void viewDecodePhone(Blackhole blackhole) {
+        ByteBuffer buffer = encoded.duplicate();
+        for (int i = 0; i < batch; i++) {
+            Map<String, String> map = codec.view(buffer);
+            blackhole.consume(map.get("phone"));
+        }
+    }
+
+    @Benchmark
+    public void viewDecodePhoneCode(Blackhole blackhole) {
+        ByteBuffer buffer = encoded.duplicate();
+        for (int i = 0; i < batch; i++) {
+            blackhole.consume(codec.phoneCode(codec.view(buffer)));
+        }
+    }
+
+    @Benchmark
+    public ByteBuffer viewForward() {
+        ByteBuffer buffer = encoded.duplicate();
+        forwarded.clear();
+        for (int i = 0; i < batch; i++) {
+            codec.encode(codec.view(buffer), forwarded);
+        }
+        return forwarded;
+    }
+
+    private static int mapSize(Map<String, String> map) {
+        int size = varintSize(map.size());
+        for (Map.Entry<String, String> e : map.entrySet()) {
+            size += stringSize(e.getKey()) + stringSize(e.getValue());
+        }
+        return size;
+    }
+
+    private static void putMap(ByteBuffer buffer, Map<String, String> map) {
+        putVarint(buffer, map.size());
+        for (Map.Entry<String, String> e : map.entrySet()) {
+            putString(buffer, e.getKey());
+            putString(buffer, e.getValue());
+        }
+    }
+
+    private static HashMap<String, String> getMap(ByteBuffer buffer) {
+        int n = getVarint(buffer);
+        HashMap<String, String> map = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            map.put(getString(buffer), getString(buffer));
+        }
+        return map;
+    }
+
+    private static int stringSize(String s) {
+        int length = s.getBytes(StandardCharsets.UTF_8).length;
+        return varintSize(length) + length;
+    }
+
+    private static void putString(ByteBuffer buffer, String s) {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        putVarint(buffer, bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = getVarint(buffer);
+        String s = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return s;
+    }
+
+    private static int varintSize(int value) {
+        int size = 1;
+        while ((value >>>= 7) != 0) {
+            size++;
+        }
+        return size;
+    }
+
+    private static void putVarint(ByteBuffer buffer, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) (value & 0x7F | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private static int getVarint(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package adapter;
+
+import adapter.convert.UserInfoConverter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 一批记录在OutUserInfo和UserInfo之间往返转换，对比逐字段查map、Integer.parseInt的直接写法和UserInfoConverter
+ * hashMapInput为true时输入是普通的HashMap，转换器只能逐个键查找，两种写法共有的三次查找决定了最多能快多少；
+ * 为false时输入是转换器自己生成的map，按槽位读取，年龄也不必解析
+ * converterReuse把结果写入上一次的结果列表，对应分批处理时复用对象的用法
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserInfoConverterBenchmark {
+    @Param({"1000"})
+    private int batch;
+
+    @Param({"true", "false"})
+    private boolean hashMapInput;
+
+    private final UserInfoConverter converter = new UserInfoConverter();
+    private List<OutUserInfo> outs;
+    private final List<UserInfo> reusedUsers = new ArrayList<>();
+    private final List<OutUserInfo> reusedOuts = new ArrayList<>();
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        outs = new ArrayList<>(batch);
+        for (int i = 0; i < batch; i++) {
+            UserInfo user = new UserInfo("user" + i, 18 + random.nextInt(60), String.valueOf(13000000000L + i));
+            if (hashMapInput) {
+                outs.add(naiveToOut(user));
+            } else {
+                outs.add(converter.toOutUserInfo(user));
+            }
+        }
+    }
+
+    @Benchmark
+    public List<OutUserInfo> naive() {
+        List<OutUserInfo> result = new ArrayList<>();
+        for (OutUserInfo out : outs) {
+            Map<String, String> map = out.getUserInfoMap();
+            UserInfo user = new UserInfo(map.get("name"), Integer.parseInt(map.get("age")), map.get("phone"));
+            result.add(naiveToOut(user));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<OutUserInfo> converter() {
+        return converter.toOutUserInfos(converter.toUserInfos(outs));
+    }
+
+    @Benchmark
+    public List<OutUserInfo> converterReuse() {
+        converter.toUserInfos(outs, reusedUsers);
+        converter.toOutUserInfos(reusedUsers, reusedOuts);
+        return reusedOuts;
+    }
+
+    private static OutUserInfo naiveToOut(UserInfo user) {
+        Map<String, String> map = new HashMap<>();
+        map.put("name", user.getName());
+        map.put("age", String.valueOf(user.getAge()));
+        map.put("phone", user.getPhone());
+        OutUserInfo out = new OutUserInfo();
+        out.setUserInfoMap(map);
+        return out;
+    }
+}
@@ -0,0 +1,69 @@
+package adapter;
+
+import adapter.store.UserInfoStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 遍历全部用户统计年龄，对比UserInfo对象列表和UserInfoStore的游标
+ * 内存占用的对比见UserInfoStoreFootprint
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserInfoStoreBenchmark {
+    @Param({"1000000"})
+    private int users;
+
+    private List<UserInfo> list;
+    private UserInfoStore store;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        list = new ArrayList<>(users);
+        store = new UserInfoStore(users);
+        for (int i = 0; i < users; i++) {
+            UserInfo user = new UserInfo("user" + random.nextInt(100_000), 18 + random.nextInt(60),
+                    String.valueOf(13000000000L + random.nextInt(1_000_000_000)));
+            list.add(user);
+            store.add(user);
+        }
+    }
+
+    @Benchmark
+    public long objects() {
+        long sum = 0;
+        for (UserInfo user : list) {
+            sum += user.getAge();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long cursor() {
+        long sum = 0;
+        UserInfoStore.Cursor cursor = store.cursor();
+        while (cursor.next()) {
+            sum += cursor.getAge();
+        }
+        return sum;
+    }
+}
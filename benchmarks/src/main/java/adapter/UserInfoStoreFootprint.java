@@ -0,0 +1,64 @@
+package adapter;
+
+import adapter.store.UserInfoStore;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+
+/**
+ * 对比同样的用户以UserInfo对象列表和UserInfoStore保存时占用的堆内存，内存节省不到4倍时以状态码1退出
+ * 运行：java -cp benchmarks/target/benchmarks.jar adapter.UserInfoStoreFootprint [用户数] [不同名字数]
+ * 每个用户的name和phone都是新创建的字符串，与从外部反序列化得到的数据一致
+ */
+public class UserInfoStoreFootprint {
+    static final double REQUIRED_RATIO = 4;
+
+    public static void main(String[] args) {
+        int users = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int distinctNames = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+
+        long base = usedHeap();
+        List<UserInfo> list = new ArrayList<>(users);
+        fill(users, distinctNames, list::add);
+        long listBytes = usedHeap() - base;
+        int listSize = list.size();
+        list = null;
+
+        base = usedHeap();
+        UserInfoStore store = new UserInfoStore(users);
+        fill(users, distinctNames, store::add);
+        long storeBytes = usedHeap() - base;
+
+        double ratio = (double) listBytes / storeBytes;
+        System.out.printf("users=%d distinctNames=%d%n", listSize, store.distinctNames());
+        System.out.printf("List<UserInfo>: %,d bytes (%.1f per user)%n", listBytes, (double) listBytes / users);
+        System.out.printf("UserInfoStore:  %,d bytes (%.1f per user), estimated %,d%n",
+                storeBytes, (double) storeBytes / users, store.memoryBytes());
+        System.out.printf("ratio: %.2fx (required %.1fx)%n", ratio, REQUIRED_RATIO);
+        if (ratio < REQUIRED_RATIO) {
+            System.exit(1);
+        }
+    }
+
+    private static void fill(int users, int distinctNames, Consumer<UserInfo> sink) {
+        Random random = new Random(42);
+        for (int i = 0; i < users; i++) {
+            String name = "user" + random.nextInt(distinctNames);
+            String phone = String.valueOf(13000000000L + random.nextInt(1_000_000_000));
+            sink.accept(new UserInfo(name, 18 + random.nextInt(60), phone));
+        }
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        // 多次GC取最小值，减少浮动垃圾的影响
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            used = Math.min(used, runtime.totalMemory() - runtime.freeMemory());
+        }
+        return used;
+    }
+}
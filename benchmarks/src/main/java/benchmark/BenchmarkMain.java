@@ -0,0 +1,56 @@
+package benchmark;
+
+import org.apache.commons.lang3.StringUtils;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * 基准测试入口，参数与JMH自带的命令行相同
+ * 默认开启GC profiler，每个结果旁边都会输出gc.alloc.rate.norm(每次操作分配的字节数)
+ * 打包进来的commons-lang3版本作为-Dcommons-lang3.version传给测试进程，记录在JSON结果的jvmArgs中，便于对比不同版本的结果
+ */
+public class BenchmarkMain {
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions cli = new CommandLineOptions(args);
+        if (cli.shouldHelp() || cli.shouldList() || cli.shouldListProfilers() || cli.shouldListResultFormats()) {
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+        ChainedOptionsBuilder builder = new OptionsBuilder().parent(cli).addProfiler(GCProfiler.class);
+        if (!cli.getResultFormat().hasValue()) {
+            builder.resultFormat(ResultFormatType.JSON);
+        }
+        List<String> jvmArgs = new ArrayList<>();
+        if (cli.getJvmArgsAppend().hasValue()) {
+            jvmArgs.addAll(cli.getJvmArgsAppend().get());
+        }
+        jvmArgs.add("-Dcommons-lang3.version=" + lang3Version());
+        builder.jvmArgsAppend(jvmArgs.toArray(new String[0]));
+        new Runner(builder.build()).run();
+    }
+
+    /**
+     * 从jar中的maven元数据读取commons-lang3的版本，读不到时返回unknown
+     */
+    private static String lang3Version() throws IOException {
+        try (InputStream in = StringUtils.class.getResourceAsStream(
+                "/META-INF/maven/org.apache.commons/commons-lang3/pom.properties")) {
+            if (in == null) {
+                return "unknown";
+            }
+            Properties properties = new Properties();
+            properties.load(in);
+            return properties.getProperty("version", "unknown");
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package lang3;
+
+import org.apache.commons.lang3.compare.ComparableUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 对应CompareTest.timeTest：直接调用compareTo和通过ComparableUtils.is(a).greaterThan(b)比较
+ * 两个值放在非final字段中，避免比较结果被当作常量折叠
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompareBenchmark {
+    @Param({"3.14"})
+    private String left;
+
+    @Param({"5.14", "3.14"})
+    private String right;
+
+    private BigDecimal a;
+    private BigDecimal b;
+
+    @Setup
+    public void setup() {
+        a = new BigDecimal(left);
+        b = new BigDecimal(right);
+    }
+
+    @Benchmark
+    public void compareTo(Blackhole blackhole) {
+        blackhole.consume(a.compareTo(b) > 0);
+    }
+
+    @Benchmark
+    public void comparableUtils(Blackhole blackhole) {
+        blackhole.consume(ComparableUtils.is(a).greaterThan(b));
+    }
+}
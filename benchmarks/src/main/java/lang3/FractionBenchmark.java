@@ -0,0 +1,62 @@
+package lang3;
+
+import org.apache.commons.lang3.math.Fraction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 对应FractionTest.costTest：用BigDecimal和Fraction计算两个均价的差值
+ * 与测试中一样，字符串的解析也计入耗时；prices为"总价1:数量1:总价2:数量2"
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FractionBenchmark {
+    @Param({"3451.21:110:6553.21:70", "12.5:4:7.25:3"})
+    private String prices;
+
+    private String cost1;
+    private String count1;
+    private String cost2;
+    private String count2;
+
+    @Setup
+    public void setup() {
+        String[] parts = prices.split(":");
+        cost1 = parts[0];
+        count1 = parts[1];
+        cost2 = parts[2];
+        count2 = parts[3];
+    }
+
+    @Benchmark
+    public void bigDecimal(Blackhole blackhole) {
+        BigDecimal avg1 = new BigDecimal(cost1).divide(new BigDecimal(count1), 4, RoundingMode.HALF_UP);
+        BigDecimal avg2 = new BigDecimal(cost2).divide(new BigDecimal(count2), 4, RoundingMode.HALF_UP);
+        blackhole.consume(avg1.subtract(avg2));
+    }
+
+    @Benchmark
+    public void fraction(Blackhole blackhole) {
+        Fraction avg1 = Fraction.getFraction(cost1).divideBy(Fraction.getFraction(count1));
+        Fraction avg2 = Fraction.getFraction(cost2).divideBy(Fraction.getFraction(count2));
+        blackhole.consume(BigDecimal.valueOf(avg1.subtract(avg2).doubleValue()).setScale(4, RoundingMode.HALF_UP));
+    }
+}
@@ -0,0 +1,66 @@
+package lang3;
+
+import org.apache.commons.lang3.mutable.MutableInt;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 对应MutableTest.collectionTest：map中的计数各加1，对比Integer重新装箱后put和MutableInt原地自增
+ * 计数从128开始，超出Integer缓存的范围，每次装箱都会创建新对象
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MutableBenchmark {
+    @Param({"1", "1000"})
+    private int keys;
+
+    private String[] names;
+    private Map<String, Integer> boxed;
+    private Map<String, MutableInt> mutable;
+
+    @Setup
+    public void setup() {
+        names = new String[keys];
+        boxed = new HashMap<>();
+        mutable = new HashMap<>();
+        for (int i = 0; i < keys; i++) {
+            names[i] = "key" + i;
+            boxed.put(names[i], 128);
+            mutable.put(names[i], new MutableInt(128));
+        }
+    }
+
+    @Benchmark
+    public void boxedInteger(Blackhole blackhole) {
+        for (String name : names) {
+            boxed.put(name, boxed.get(name) + 1);
+        }
+        blackhole.consume(boxed);
+    }
+
+    @Benchmark
+    public void mutableInt(Blackhole blackhole) {
+        for (String name : names) {
+            mutable.get(name).increment();
+        }
+        blackhole.consume(mutable);
+    }
+}
@@ -0,0 +1,52 @@
+package lang3;
+
+import org.apache.commons.lang3.StringUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 对应StringUtilsTest.replaceTest：StringUtils.replace和String.replace替换同一个子串
+ * Java 8的String.replace(CharSequence, CharSequence)内部使用正则，之后的版本改为直接查找
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StringReplaceBenchmark {
+    @Param({"Hello World!", "Hello World! Hello JStudy! Hello commons-lang3! Hello JMH!"})
+    private String input;
+
+    @Param({"H"})
+    private String search;
+
+    @Param({"A"})
+    private String replacement;
+
+    @Benchmark
+    public void stringUtilsReplace(Blackhole blackhole) {
+        blackhole.consume(StringUtils.replace(input, search, replacement));
+    }
+
+    @Benchmark
+    public void stringUtilsReplaceIgnoreCase(Blackhole blackhole) {
+        blackhole.consume(StringUtils.replaceIgnoreCase(input, search, replacement));
+    }
+
+    @Benchmark
+    public void stringReplace(Blackhole blackhole) {
+        blackhole.consume(input.replace(search, replacement));
+    }
+}
@@ -0,0 +1,44 @@
+package lang3;
+
+import org.apache.commons.lang3.StringUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 对应StringUtilsTest.splitCostTest：String.split和StringUtils.split拆分同一个字符串
+ * 单字符且不是正则元字符的分隔符，String.split走不创建Pattern的快速路径
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StringSplitBenchmark {
+    @Param({"Hello,World", "2024-01-01T12:00:00,INFO,user=bob,phone=13800000000,age=35,took=12ms"})
+    private String input;
+
+    @Param({","})
+    private String separator;
+
+    @Benchmark
+    public void stringSplit(Blackhole blackhole) {
+        blackhole.consume(input.split(separator));
+    }
+
+    @Benchmark
+    public void stringUtilsSplit(Blackhole blackhole) {
+        blackhole.consume(StringUtils.split(input, separator));
+    }
+}
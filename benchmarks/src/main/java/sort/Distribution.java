@@ -0,0 +1,77 @@
+package sort;
+
+import java.util.Random;
+
+/**
+ * 基准测试使用的输入分布
+ */
+public enum Distribution {
+    /**
+     * 均匀随机
+     */
+    RANDOM {
+        @Override
+        int value(int i, int n, Random random) {
+            return random.nextInt();
+        }
+    },
+    /**
+     * 已经升序
+     */
+    SORTED {
+        @Override
+        int value(int i, int n, Random random) {
+            return i;
+        }
+    },
+    /**
+     * 完全逆序
+     */
+    REVERSED {
+        @Override
+        int value(int i, int n, Random random) {
+            return n - i;
+        }
+    },
+    /**
+     * 锯齿形，由32段升序序列组成
+     */
+    SAWTOOTH {
+        @Override
+        int value(int i, int n, Random random) {
+            return i % Math.max(1, n / 32);
+        }
+    },
+    /**
+     * 只有16种不同的值
+     */
+    FEW_UNIQUE {
+        @Override
+        int value(int i, int n, Random random) {
+            return random.nextInt(16);
+        }
+    },
+    /**
+     * 管风琴形，前半段升序，后半段降序
+     */
+    ORGAN_PIPE {
+        @Override
+        int value(int i, int n, Random random) {
+            return i < n / 2 ? i : n - i;
+        }
+    };
+
+    abstract int value(int i, int n, Random random);
+
+    /**
+     * 生成长度为n的数组，种子固定，每次生成的数据相同
+     */
+    public int[] generate(int n) {
+        Random random = new Random(n * 31L + ordinal());
+        int[] array = new int[n];
+        for (int i = 0; i < n; i++) {
+            array[i] = value(i, n, random);
+        }
+        return array;
+    }
+}
@@ -0,0 +1,73 @@
+package sort;
+
+import adapter.UserInfo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * UserInfo按age、name排序，对比比较器排序和缓存键的KeyedSort
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KeyedSortBenchmark {
+    private static final Comparator<UserInfo> COMPARATOR =
+            Comparator.comparingInt(UserInfo::getAge).thenComparing(UserInfo::getName);
+    private static final KeyedSort<UserInfo> KEYED =
+            KeyedSort.comparingInt(UserInfo::getAge).thenComparing(UserInfo::getName);
+
+    @Param({"10000", "1000000"})
+    private int size;
+
+    private List<UserInfo> source;
+    private List<UserInfo> work;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        source = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            source.add(new UserInfo("user" + random.nextInt(size), 18 + random.nextInt(60),
+                    String.valueOf(13000000000L + i)));
+        }
+        work = new ArrayList<>(source);
+    }
+
+    @Setup(Level.Invocation)
+    public void copy() {
+        for (int i = 0; i < size; i++) {
+            work.set(i, source.get(i));
+        }
+    }
+
+    @Benchmark
+    public List<UserInfo> comparator() {
+        work.sort(COMPARATOR);
+        return work;
+    }
+
+    @Benchmark
+    public List<UserInfo> keyed() {
+        KEYED.sort(work);
+        return work;
+    }
+}
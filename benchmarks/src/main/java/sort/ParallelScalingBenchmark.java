@@ -0,0 +1,93 @@
+package sort;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 并行排序的扩展性，threads为ForkJoinPool的并行度，按threads排列结果即为加速比曲线
+ * 默认线程数只到32，核数更多的机器用-p threads=1,2,4,...,N覆盖
+ * 10^8个int的原始数组、工作数组和辅助数组共需约1.2GB堆内存
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ParallelScalingBenchmark {
+    @Param({"SAMPLE", "MERGE", "RADIX"})
+    private Engine engine;
+
+    @Param({"1", "2", "4", "8", "16", "32"})
+    private int threads;
+
+    @Param({"10000000", "100000000"})
+    private int size;
+
+    @Param({"RANDOM", "FEW_UNIQUE"})
+    private Distribution distribution;
+
+    private ForkJoinPool pool;
+    private int[] source;
+    private int[] work;
+
+    @Setup
+    public void setup() {
+        pool = new ForkJoinPool(threads);
+        source = distribution.generate(size);
+        work = new int[size];
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Setup(Level.Invocation)
+    public void copy() {
+        System.arraycopy(source, 0, work, 0, size);
+    }
+
+    @Benchmark
+    public int[] sort() {
+        engine.sort(work, pool);
+        return work;
+    }
+
+    public enum Engine {
+        SAMPLE {
+            @Override
+            void sort(int[] array, ForkJoinPool pool) {
+                SampleSort.parallelSort(array, pool);
+            }
+        },
+        MERGE {
+            @Override
+            void sort(int[] array, ForkJoinPool pool) {
+                Merge.parallelSort(array, pool);
+            }
+        },
+        RADIX {
+            @Override
+            void sort(int[] array, ForkJoinPool pool) {
+                Radix.parallelRadixSort(array, pool);
+            }
+        };
+
+        abstract void sort(int[] array, ForkJoinPool pool);
+    }
+}
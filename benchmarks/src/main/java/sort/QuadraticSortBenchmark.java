@@ -0,0 +1,52 @@
+package sort;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 最坏情况为O(n^2)的排序算法，规模只到4096
+ * Quick.quickSort没有深度限制，最坏情况同样是O(n^2)，作为对照也放在这里
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QuadraticSortBenchmark {
+    @Param({"BUBBLE", "INSERTION", "SELECTION", "QUICK"})
+    private SortAlgorithms engine;
+
+    @Param({"16", "256", "4096"})
+    private int size;
+
+    @Param({"RANDOM", "SORTED", "REVERSED", "SAWTOOTH", "FEW_UNIQUE", "ORGAN_PIPE"})
+    private Distribution distribution;
+
+    private int[] source;
+    private int[] work;
+
+    @Setup
+    public void setup() {
+        source = distribution.generate(size);
+        work = new int[size];
+    }
+
+    @Benchmark
+    public int[] sort() {
+        System.arraycopy(source, 0, work, 0, size);
+        engine.sort(work);
+        return work;
+    }
+}
@@ -0,0 +1,53 @@
+package sort;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 最坏情况为O(nlogn)的排序算法，规模从16到10^7
+ * 每次操作先把原始数据拷贝到工作数组再排序，拷贝的开销对所有算法相同
+ * 加上-jvmArgsAppend -Dsort.metrics=true可以对比开启SortMetrics统计后的吞吐量
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SortBenchmark {
+    @Param({"MERGE", "PARALLEL_MERGE", "ADAPTIVE_MERGE", "INTRO", "HEAP", "RADIX", "PARALLEL_RADIX", "PARALLEL_SAMPLE", "AUTO"})
+    private SortAlgorithms engine;
+
+    @Param({"16", "256", "4096", "65536", "1048576", "10000000"})
+    private int size;
+
+    @Param({"RANDOM", "SORTED", "REVERSED", "SAWTOOTH", "FEW_UNIQUE", "ORGAN_PIPE"})
+    private Distribution distribution;
+
+    private int[] source;
+    private int[] work;
+
+    @Setup
+    public void setup() {
+        source = distribution.generate(size);
+        work = new int[size];
+    }
+
+    @Benchmark
+    public int[] sort() {
+        System.arraycopy(source, 0, work, 0, size);
+        engine.sort(work);
+        return work;
+    }
+}
@@ -0,0 +1,72 @@
+package sort;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 字符串排序，对比Arrays.sort、多键快速排序和MSD基数排序
+ * prefix为所有字符串共有的前缀长度，前缀越长，逐字符比较的compareTo重复比较的部分越多
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StringSortBenchmark {
+    @Param({"ARRAYS_SORT", "MULTIKEY", "MSD_RADIX"})
+    private StringSortEngine engine;
+
+    @Param({"10000", "1000000"})
+    private int size;
+
+    @Param({"0", "32", "128"})
+    private int prefix;
+
+    private String[] source;
+    private String[] work;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        char[] shared = new char[prefix];
+        for (int i = 0; i < prefix; i++) {
+            shared[i] = (char) ('a' + random.nextInt(26));
+        }
+        String head = new String(shared);
+        source = new String[size];
+        for (int i = 0; i < size; i++) {
+            StringBuilder sb = new StringBuilder(head);
+            int length = 4 + random.nextInt(12);
+            for (int j = 0; j < length; j++) {
+                sb.append((char) ('a' + random.nextInt(26)));
+            }
+            source[i] = sb.toString();
+        }
+        work = new String[size];
+    }
+
+    @Setup(Level.Invocation)
+    public void copy() {
+        System.arraycopy(source, 0, work, 0, size);
+    }
+
+    @Benchmark
+    public String[] sort() {
+        engine.sort(work);
+        return work;
+    }
+}
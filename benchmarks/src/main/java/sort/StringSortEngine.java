@@ -0,0 +1,29 @@
+package sort;
+
+import java.util.Arrays;
+
+/**
+ * 字符串排序基准中对比的排序算法
+ */
+public enum StringSortEngine {
+    ARRAYS_SORT {
+        @Override
+        void sort(String[] array) {
+            Arrays.sort(array);
+        }
+    },
+    MULTIKEY {
+        @Override
+        void sort(String[] array) {
+            StringSort.multikeySort(array);
+        }
+    },
+    MSD_RADIX {
+        @Override
+        void sort(String[] array) {
+            StringSort.msdRadixSort(array);
+        }
+    };
+
+    abstract void sort(String[] array);
+}
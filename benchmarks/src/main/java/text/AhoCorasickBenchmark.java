@@ -0,0 +1,86 @@
+package text;
+
+import org.apache.commons.lang3.StringUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 用keywords个关键词过滤一条消息，对比逐个模式串扫描的StringUtils和只扫描一次的AhoCorasick
+ * 关键词为5到8个小写字母，消息为随机单词，末尾带一个关键词，containsAny需要扫描整条消息
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AhoCorasickBenchmark {
+    @Param({"10", "1000"})
+    private int keywords;
+
+    @Param({"512"})
+    private int length;
+
+    private String[] patterns;
+    private String[] replacements;
+    private String message;
+    private AhoCorasick automaton;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        patterns = new String[keywords];
+        for (int i = 0; i < keywords; i++) {
+            patterns[i] = word(random, 5 + random.nextInt(4));
+        }
+        replacements = new String[keywords];
+        Arrays.fill(replacements, "***");
+        StringBuilder text = new StringBuilder(length);
+        while (text.length() < length) {
+            text.append(word(random, 2 + random.nextInt(6))).append(' ');
+        }
+        message = text.append(patterns[keywords - 1]).toString();
+        automaton = AhoCorasick.of(patterns);
+    }
+
+    private static String word(Random random, int length) {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = (char) ('a' + random.nextInt(26));
+        }
+        return new String(chars);
+    }
+
+    @Benchmark
+    public boolean stringUtilsContainsAny() {
+        return StringUtils.containsAny(message, patterns);
+    }
+
+    @Benchmark
+    public boolean automatonContainsAny() {
+        return automaton.containsAny(message);
+    }
+
+    @Benchmark
+    public String stringUtilsReplaceEach() {
+        return StringUtils.replaceEach(message, patterns, replacements);
+    }
+
+    @Benchmark
+    public String automatonReplaceEach() {
+        return automaton.replaceEach(message, replacements);
+    }
+}
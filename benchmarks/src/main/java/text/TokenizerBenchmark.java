@@ -0,0 +1,75 @@
+package text;
+
+import org.apache.commons.lang3.StringUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 拆分一行日志并读取每个token的首字符，对比String.split、StringUtils.split和Tokenizer
+ * tokenizerBytes直接拆分UTF-8字节，对应从网络或文件读入后不解码成字符串的用法
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenizerBenchmark {
+    @Param({"2024-01-01T12:00:00,INFO,user=bob,phone=13800000000,age=35,took=12ms,path=/api/users/42"})
+    private String line;
+
+    @Param({","})
+    private String separator;
+
+    private byte[] bytes;
+    private Tokenizer tokenizer;
+
+    @Setup
+    public void setup() {
+        bytes = line.getBytes(StandardCharsets.UTF_8);
+        tokenizer = Tokenizer.split(separator);
+    }
+
+    @Benchmark
+    public void stringSplit(Blackhole blackhole) {
+        for (String token : line.split(separator)) {
+            blackhole.consume(token.charAt(0));
+        }
+    }
+
+    @Benchmark
+    public void stringUtilsSplit(Blackhole blackhole) {
+        for (String token : StringUtils.split(line, separator)) {
+            blackhole.consume(token.charAt(0));
+        }
+    }
+
+    @Benchmark
+    public void tokenizer(Blackhole blackhole) {
+        tokenizer.reset(line);
+        while (tokenizer.next()) {
+            blackhole.consume(tokenizer.token().charAt(0));
+        }
+    }
+
+    @Benchmark
+    public void tokenizerBytes(Blackhole blackhole) {
+        tokenizer.reset(bytes, 0, bytes.length);
+        while (tokenizer.next()) {
+            blackhole.consume(bytes[tokenizer.start()]);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package adapter.cache;
+
+import lombok.Value;
+
+/**
+ * 缓存的指标快照，计数均为创建以来的累计值
+ */
+@Value
+public class CacheStats {
+    long hits;
+    long misses;
+    /**
+     * 因超出容量被淘汰的条目数
+     */
+    long evictions;
+    /**
+     * 因写入后超时被移除的条目数
+     */
+    long expirations;
+    /**
+     * 当前的条目数
+     */
+    long size;
+
+    public double hitRate() {
+        long requests = hits + misses;
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+}
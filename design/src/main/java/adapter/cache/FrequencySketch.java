@@ -0,0 +1,66 @@
+package adapter.cache;
+
+/**
+ * 记录访问频率的count-min sketch，每个计数器4位，最大为15
+ * 每个long存放16个计数器，一个键的4个计数器位于同一个64字节的块(8个long)中不同的long里，估计值取其中的最小值
+ * 同一个键的读写只访问一个缓存行附近的内存
+ * 累计增加的次数达到sampleSize时所有计数器减半，让过去的热点逐渐冷却
+ * 不是线程安全的，由所在分段的锁保护
+ */
+final class FrequencySketch {
+    private static final long RESET_MASK = 0x7777777777777777L;
+
+    private final long[] table;
+    private final int blockMask;
+    private final int sampleSize;
+    private int additions;
+
+    FrequencySketch(long maximumSize) {
+        int capacity = (int) Math.min(1 << 30, Math.max(8, maximumSize));
+        table = new long[Integer.highestOneBit(capacity - 1) << 1];
+        blockMask = (table.length >>> 3) - 1;
+        sampleSize = (int) Math.min(Integer.MAX_VALUE, 10L * Math.max(1, maximumSize));
+    }
+
+    int frequency(int hash) {
+        int block = (hash & blockMask) << 3;
+        int counterHash = rehash(hash);
+        int frequency = 15;
+        for (int i = 0; i < 4; i++) {
+            int h = counterHash >>> (i << 3);
+            long word = table[block + (h & 1) + (i << 1)];
+            frequency = Math.min(frequency, (int) (word >>> ((h >>> 1 & 15) << 2)) & 15);
+        }
+        return frequency;
+    }
+
+    void increment(int hash) {
+        int block = (hash & blockMask) << 3;
+        int counterHash = rehash(hash);
+        boolean added = false;
+        for (int i = 0; i < 4; i++) {
+            int h = counterHash >>> (i << 3);
+            int slot = block + (h & 1) + (i << 1);
+            int offset = (h >>> 1 & 15) << 2;
+            if ((table[slot] >>> offset & 15) != 15) {
+                table[slot] += 1L << offset;
+                added = true;
+            }
+        }
+        if (added && ++additions == sampleSize) {
+            reset();
+        }
+    }
+
+    private static int rehash(int hash) {
+        int h = hash * 0x31848bab;
+        return h ^ h >>> 14;
+    }
+
+    private void reset() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = table[i] >>> 1 & RESET_MASK;
+        }
+        additions /= 2;
+    }
+}
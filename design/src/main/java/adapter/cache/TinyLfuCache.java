@@ -0,0 +1,401 @@
+package adapter.cache;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * 按W-TinyLFU策略淘汰的有界缓存，用于在UserInfo的存储前面按手机号缓存查找结果
+ * 1. 键按哈希分到多个分段，每个分段是一个独立的W-TinyLFU：新条目先进入占容量1%的窗口LRU，
+ *    被挤出窗口后进入主区的试用队列，再次被访问时晋升到占主区80%的保护队列
+ * 2. 超出容量时比较试用队列中最新进入的候选和队首的牺牲者，用FrequencySketch估计二者的访问频率，频率低的被淘汰，
+ *    偶尔出现一次的键无法挤掉经常访问的键
+ * 3. 读取只访问ConcurrentHashMap，不加锁；命中的条目记入分段的有损读缓冲，缓冲写满一轮时尝试获取分段的锁，
+ *    批量更新频率和队列顺序，获取不到就留给下一次，读缓冲被覆盖的访问记录直接丢弃
+ * 4. 可以设置写入后的过期时间，过期的条目读取时视为不存在，在下一次维护时按写入顺序移除
+ * 带loader的get在未命中时由调用线程加载，同一个键可能被并发加载多次，loader返回null时不缓存
+ * 键和值都不能为null
+ */
+public final class TinyLfuCache<K, V> {
+    public static final int DEFAULT_SEGMENTS = 16;
+
+    static final int READ_BUFFER_SIZE = 16;
+    private static final int READ_BUFFER_MASK = READ_BUFFER_SIZE - 1;
+
+    private static final int WINDOW = 0;
+    private static final int PROBATION = 1;
+    private static final int PROTECTED = 2;
+    private static final int DEAD = 3;
+
+    private final Segment<K, V>[] segments;
+    private final int segmentMask;
+    /**
+     * 写入后的过期时间，0表示不过期
+     */
+    private final long expireAfterWriteNanos;
+    private final LongSupplier ticker;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    public TinyLfuCache(long maximumSize) {
+        this(maximumSize, 0, TimeUnit.NANOSECONDS, DEFAULT_SEGMENTS);
+    }
+
+    /**
+     * @param maximumSize      最多缓存的条目数，平均分到各个分段
+     * @param expireAfterWrite 写入后多久过期，0表示不过期
+     * @param segments         分段数，向上取整为2的幂
+     */
+    public TinyLfuCache(long maximumSize, long expireAfterWrite, TimeUnit unit, int segments) {
+        this(maximumSize, expireAfterWrite, unit, segments, System::nanoTime);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    TinyLfuCache(long maximumSize, long expireAfterWrite, TimeUnit unit, int segments, LongSupplier ticker) {
+        if (maximumSize <= 0 || expireAfterWrite < 0 || segments <= 0 || segments > 1 << 16) {
+            throw new IllegalArgumentException("maximumSize=" + maximumSize + ", expireAfterWrite="
+                    + expireAfterWrite + ", segments=" + segments);
+        }
+        int count = Integer.highestOneBit(segments * 2 - 1);
+        long perSegment = (maximumSize + count - 1) / count;
+        this.segments = new Segment[count];
+        for (int i = 0; i < count; i++) {
+            this.segments[i] = new Segment<>(this, perSegment);
+        }
+        this.segmentMask = count - 1;
+        this.expireAfterWriteNanos = unit.toNanos(expireAfterWrite);
+        this.ticker = ticker;
+    }
+
+    /**
+     * 返回缓存的值，不存在或已过期时返回null
+     */
+    public V get(K key) {
+        int hash = spread(key.hashCode());
+        Segment<K, V> segment = segmentFor(hash);
+        Node<K, V> node = segment.map.get(key);
+        if (node == null || expireAfterWriteNanos > 0 && expired(node, ticker.getAsLong())) {
+            misses.increment();
+            return null;
+        }
+        V value = node.value;
+        segment.recordRead(node);
+        hits.increment();
+        return value;
+    }
+
+    /**
+     * 返回缓存的值，未命中时调用loader加载并放入缓存
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        V value = get(key);
+        if (value == null) {
+            value = loader.apply(key);
+            if (value != null) {
+                put(key, value);
+            }
+        }
+        return value;
+    }
+
+    public void put(K key, V value) {
+        if (value == null) {
+            throw new NullPointerException("value");
+        }
+        int hash = spread(key.hashCode());
+        segmentFor(hash).put(key, hash, value);
+    }
+
+    public void invalidate(K key) {
+        segmentFor(spread(key.hashCode())).invalidate(key);
+    }
+
+    /**
+     * 当前的条目数，包括已过期但还未移除的条目
+     */
+    public long size() {
+        long size = 0;
+        for (Segment<K, V> segment : segments) {
+            size += segment.map.size();
+        }
+        return size;
+    }
+
+    /**
+     * 处理所有分段中积压的读记录和过期条目
+     */
+    public void cleanUp() {
+        for (Segment<K, V> segment : segments) {
+            segment.lock.lock();
+            try {
+                segment.maintenance();
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+    }
+
+    public CacheStats stats() {
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), expirations.sum(), size());
+    }
+
+    private Segment<K, V> segmentFor(int hash) {
+        return segments[(hash >>> 16) & segmentMask];
+    }
+
+    private boolean expired(Node<K, V> node, long now) {
+        return now - node.writeTime >= expireAfterWriteNanos;
+    }
+
+    private static int spread(int h) {
+        h ^= h >>> 16;
+        h *= 0x45d9f3b;
+        return h ^ h >>> 16;
+    }
+
+    private static final class Node<K, V> {
+        final K key;
+        final int hash;
+        volatile V value;
+        volatile long writeTime;
+        /**
+         * 以下字段由分段的锁保护
+         */
+        int queue;
+        Node<K, V> prev;
+        Node<K, V> next;
+        Node<K, V> prevWrite;
+        Node<K, V> nextWrite;
+
+        Node(K key, int hash) {
+            this.key = key;
+            this.hash = hash;
+            prev = next = prevWrite = nextWrite = this;
+        }
+    }
+
+    private static final class Segment<K, V> {
+        final TinyLfuCache<K, V> cache;
+        final ConcurrentHashMap<K, Node<K, V>> map = new ConcurrentHashMap<>();
+        final ReentrantLock lock = new ReentrantLock();
+        final AtomicReferenceArray<Node<K, V>> readBuffer = new AtomicReferenceArray<>(READ_BUFFER_SIZE);
+        final AtomicInteger reads = new AtomicInteger();
+        /**
+         * 已经处理到的读记录序号，由lock保护
+         */
+        int drained;
+
+        /**
+         * 以下字段由lock保护，三个访问队列和写入顺序队列都是带哨兵的循环双向链表
+         */
+        final FrequencySketch sketch;
+        final long maximum;
+        final long windowMaximum;
+        final long protectedMaximum;
+        final Node<K, V> window = new Node<>(null, 0);
+        final Node<K, V> probation = new Node<>(null, 0);
+        final Node<K, V> protectedQueue = new Node<>(null, 0);
+        final Node<K, V> writeOrder = new Node<>(null, 0);
+        long size;
+        long windowSize;
+        long protectedSize;
+
+        Segment(TinyLfuCache<K, V> cache, long maximum) {
+            this.cache = cache;
+            this.maximum = maximum;
+            this.windowMaximum = Math.max(1, maximum / 100);
+            this.protectedMaximum = (maximum - windowMaximum) * 8 / 10;
+            this.sketch = new FrequencySketch(maximum);
+        }
+
+        /**
+         * 把命中的条目记入读缓冲，写满一轮时尝试维护
+         */
+        void recordRead(Node<K, V> node) {
+            int i = reads.getAndIncrement() & READ_BUFFER_MASK;
+            readBuffer.lazySet(i, node);
+            if (i == READ_BUFFER_MASK && lock.tryLock()) {
+                try {
+                    maintenance();
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+
+        void put(K key, int hash, V value) {
+            lock.lock();
+            try {
+                drainReads();
+                long now = cache.ticker.getAsLong();
+                Node<K, V> node = new Node<>(key, hash);
+                node.value = value;
+                node.writeTime = now;
+                Node<K, V> existing = map.putIfAbsent(key, node);
+                if (existing == null) {
+                    node.queue = WINDOW;
+                    linkLast(window, node);
+                    linkLastWrite(node);
+                    windowSize++;
+                    size++;
+                    sketch.increment(hash);
+                    evict();
+                } else {
+                    node = existing;
+                    node.value = value;
+                    node.writeTime = now;
+                    unlinkWrite(node);
+                    linkLastWrite(node);
+                    sketch.increment(hash);
+                    onAccess(node);
+                }
+                expire(now);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void invalidate(K key) {
+            lock.lock();
+            try {
+                drainReads();
+                Node<K, V> node = map.get(key);
+                if (node != null) {
+                    remove(node);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void maintenance() {
+            drainReads();
+            expire(cache.ticker.getAsLong());
+        }
+
+        /**
+         * 只处理上次之后写入的读记录，超过一轮的部分已被覆盖
+         */
+        private void drainReads() {
+            int end = reads.get();
+            int start = end - drained > READ_BUFFER_SIZE ? end - READ_BUFFER_SIZE : drained;
+            drained = end;
+            for (int i = start; i != end; i++) {
+                Node<K, V> node = readBuffer.getAndSet(i & READ_BUFFER_MASK, null);
+                if (node != null && node.queue != DEAD) {
+                    sketch.increment(node.hash);
+                    onAccess(node);
+                }
+            }
+        }
+
+        private void onAccess(Node<K, V> node) {
+            switch (node.queue) {
+                case WINDOW:
+                    unlink(node);
+                    linkLast(window, node);
+                    break;
+                case PROBATION:
+                    unlink(node);
+                    node.queue = PROTECTED;
+                    linkLast(protectedQueue, node);
+                    protectedSize++;
+                    while (protectedSize > protectedMaximum) {
+                        Node<K, V> demoted = protectedQueue.next;
+                        unlink(demoted);
+                        protectedSize--;
+                        demoted.queue = PROBATION;
+                        linkLast(probation, demoted);
+                    }
+                    break;
+                case PROTECTED:
+                    unlink(node);
+                    linkLast(protectedQueue, node);
+                    break;
+                default:
+            }
+        }
+
+        /**
+         * 窗口超出容量时把最久未访问的条目移入试用队列，总数超出容量时在候选和牺牲者之间淘汰频率低的一个
+         */
+        private void evict() {
+            while (windowSize > windowMaximum) {
+                Node<K, V> node = window.next;
+                unlink(node);
+                windowSize--;
+                node.queue = PROBATION;
+                linkLast(probation, node);
+            }
+            while (size > maximum) {
+                Node<K, V> victim = probation.next;
+                Node<K, V> candidate = probation.prev;
+                if (victim == probation) {
+                    victim = protectedQueue.next != protectedQueue ? protectedQueue.next : window.next;
+                } else if (candidate != victim
+                        && sketch.frequency(candidate.hash) <= sketch.frequency(victim.hash)) {
+                    victim = candidate;
+                }
+                remove(victim);
+                cache.evictions.increment();
+            }
+        }
+
+        private void expire(long now) {
+            if (cache.expireAfterWriteNanos == 0) {
+                return;
+            }
+            while (writeOrder.nextWrite != writeOrder && cache.expired(writeOrder.nextWrite, now)) {
+                remove(writeOrder.nextWrite);
+                cache.expirations.increment();
+            }
+        }
+
+        private void remove(Node<K, V> node) {
+            map.remove(node.key, node);
+            unlink(node);
+            unlinkWrite(node);
+            if (node.queue == WINDOW) {
+                windowSize--;
+            } else if (node.queue == PROTECTED) {
+                protectedSize--;
+            }
+            node.queue = DEAD;
+            size--;
+        }
+
+        private static <K, V> void linkLast(Node<K, V> head, Node<K, V> node) {
+            node.prev = head.prev;
+            node.next = head;
+            head.prev.next = node;
+            head.prev = node;
+        }
+
+        private static <K, V> void unlink(Node<K, V> node) {
+            node.prev.next = node.next;
+            node.next.prev = node.prev;
+            node.prev = node.next = node;
+        }
+
+        private void linkLastWrite(Node<K, V> node) {
+            node.prevWrite = writeOrder.prevWrite;
+            node.nextWrite = writeOrder;
+            writeOrder.prevWrite.nextWrite = node;
+            writeOrder.prevWrite = node;
+        }
+
+        private static <K, V> void unlinkWrite(Node<K, V> node) {
+            node.prevWrite.nextWrite = node.nextWrite;
+            node.nextWrite.prevWrite = node.prevWrite;
+            node.prevWrite = node.nextWrite = node;
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package adapter.codec;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 二进制编码共用的读写方法
+ * varint：每字节低7位为数据，最高位为1表示后面还有字节，小端序
+ * 字符串：[UTF-8字节数 varint][UTF-8字节]，写入时直接编码到缓冲区，不创建中间的byte数组
+ */
+final class Bytes {
+    private Bytes() {
+    }
+
+    static int zigzag(int value) {
+        return value << 1 ^ value >> 31;
+    }
+
+    static int unzigzag(int value) {
+        return value >>> 1 ^ -(value & 1);
+    }
+
+    static int varintSize(long value) {
+        int size = 1;
+        while ((value & ~0x7FL) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    static void putVarint(ByteBuffer buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) (value & 0x7F | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    static long getVarint(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("malformed varint");
+    }
+
+    static void skipVarint(ByteBuffer buffer) {
+        while (buffer.get() < 0) {
+            // 跳过最高位为1的字节
+        }
+    }
+
+    /**
+     * 字符串编码后的字节数，包括长度前缀
+     */
+    static int stringSize(String s) {
+        int length = utf8Length(s);
+        return varintSize(length) + length;
+    }
+
+    static void putString(ByteBuffer buffer, String s) {
+        putVarint(buffer, utf8Length(s));
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                buffer.put((byte) c);
+            } else if (c < 0x800) {
+                buffer.put((byte) (0xC0 | c >> 6)).put((byte) (0x80 | c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < s.length()
+                    && Character.isLowSurrogate(s.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, s.charAt(++i));
+                buffer.put((byte) (0xF0 | cp >> 18)).put((byte) (0x80 | cp >> 12 & 0x3F))
+                        .put((byte) (0x80 | cp >> 6 & 0x3F)).put((byte) (0x80 | cp & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                // 不成对的代理字符按String.getBytes的方式替换为'?'
+                buffer.put((byte) '?');
+            } else {
+                buffer.put((byte) (0xE0 | c >> 12)).put((byte) (0x80 | c >> 6 & 0x3F)).put((byte) (0x80 | c & 0x3F));
+            }
+        }
+    }
+
+    static String getString(ByteBuffer buffer) {
+        int length = (int) getVarint(buffer);
+        String s;
+        if (buffer.hasArray()) {
+            s = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+        } else {
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            s = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return s;
+    }
+
+    static void skipString(ByteBuffer buffer) {
+        int length = (int) getVarint(buffer);
+        buffer.position(buffer.position() + length);
+    }
+
+    /**
+     * 以下方法按绝对位置读取，不改变buffer的position
+     */
+    static long getVarint(ByteBuffer buffer, int offset) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get(offset++);
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("malformed varint");
+    }
+
+    /**
+     * offset处的varint之后的位置
+     */
+    static int varintEnd(ByteBuffer buffer, int offset) {
+        while (buffer.get(offset++) < 0) {
+            // 跳过最高位为1的字节
+        }
+        return offset;
+    }
+
+    static int stringEnd(ByteBuffer buffer, int offset) {
+        return varintEnd(buffer, offset) + (int) getVarint(buffer, offset);
+    }
+
+    static String getString(ByteBuffer buffer, int offset) {
+        int length = (int) getVarint(buffer, offset);
+        int start = varintEnd(buffer, offset);
+        if (buffer.hasArray()) {
+            return new String(buffer.array(), buffer.arrayOffset() + start, length, StandardCharsets.UTF_8);
+        }
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = buffer.get(start + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int utf8Length(String s) {
+        int length = s.length();
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c >= 0x800) {
+                if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+                    // 两个char编码为4个字节
+                    length += 2;
+                    i++;
+                } else if (!Character.isSurrogate(c)) {
+                    length += 2;
+                }
+            } else if (c >= 0x80) {
+                length++;
+            }
+        }
+        return length;
+    }
+}
@@ -0,0 +1,131 @@
+package adapter.codec;
+
+/**
+ * 把手机号编码为long，多个模块共用同一种编码
+ * 可以编码的手机号为可选的前导'+'加上1到17位数字，编码后为非负数：
+ * 第62位为'+'标记，第57到61位为数字的位数(保留前导0)，低57位为数字的值(10^17 < 2^57)
+ * null编码为NULL，其它格式编码为UNENCODABLE，调用方需要另外保存原始字符串
+ */
+public final class PhoneCodec {
+    public static final long NULL = -1L;
+    public static final long UNENCODABLE = -2L;
+
+    static final int MAX_DIGITS = 17;
+
+    private static final int LENGTH_SHIFT = 57;
+    private static final long VALUE_MASK = (1L << LENGTH_SHIFT) - 1;
+    private static final long PLUS_BIT = 1L << 62;
+
+    private static final long[] POW10 = new long[MAX_DIGITS];
+
+    static {
+        POW10[0] = 1;
+        for (int i = 1; i < POW10.length; i++) {
+            POW10[i] = POW10[i - 1] * 10;
+        }
+    }
+
+    private PhoneCodec() {
+    }
+
+    public static long encode(CharSequence phone) {
+        if (phone == null) {
+            return NULL;
+        }
+        int start = phone.length() > 0 && phone.charAt(0) == '+' ? 1 : 0;
+        int digits = phone.length() - start;
+        if (digits == 0 || digits > MAX_DIGITS) {
+            return UNENCODABLE;
+        }
+        long value = 0;
+        for (int i = start; i < phone.length(); i++) {
+            int digit = phone.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return UNENCODABLE;
+            }
+            value = value * 10 + digit;
+        }
+        return (start == 1 ? PLUS_BIT : 0) | (long) digits << LENGTH_SHIFT | value;
+    }
+
+    /**
+     * 是否为一个可以解码的编码，NULL和UNENCODABLE都不是
+     */
+    public static boolean isEncoded(long code) {
+        return code >= 0;
+    }
+
+    /**
+     * 解码为字符串，code为NULL时返回null
+     */
+    public static String decode(long code) {
+        if (code == NULL) {
+            return null;
+        }
+        if (!isEncoded(code)) {
+            throw new IllegalArgumentException("not an encoded phone: " + code);
+        }
+        long value = code & VALUE_MASK;
+        int digits = (int) (code >>> LENGTH_SHIFT & 0x1F);
+        if ((code & PLUS_BIT) == 0 && (digits == 1 || value >= POW10[digits - 1])) {
+            // 没有'+'也没有前导0时就是value的十进制表示，Long.toString直接生成字符串，不需要中间的char数组
+            return Long.toString(value);
+        }
+        char[] chars = new char[length(code)];
+        write(code, chars);
+        return new String(chars);
+    }
+
+    /**
+     * 解码后的字符数，包括'+'
+     */
+    public static int length(long code) {
+        return (int) (code >>> LENGTH_SHIFT & 0x1F) + ((code & PLUS_BIT) != 0 ? 1 : 0);
+    }
+
+    /**
+     * 解码后追加到sb，不分配内存
+     */
+    public static void appendTo(long code, StringBuilder sb) {
+        if ((code & PLUS_BIT) != 0) {
+            sb.append('+');
+        }
+        long value = code & VALUE_MASK;
+        for (int d = (int) (code >>> LENGTH_SHIFT & 0x1F) - 1; d >= 0; d--) {
+            sb.append((char) ('0' + value / POW10[d] % 10));
+        }
+    }
+
+    /**
+     * 数字的位数，不包括'+'
+     */
+    static int digits(long code) {
+        return (int) (code >>> LENGTH_SHIFT & 0x1F);
+    }
+
+    static boolean hasPlus(long code) {
+        return (code & PLUS_BIT) != 0;
+    }
+
+    static long value(long code) {
+        return code & VALUE_MASK;
+    }
+
+    /**
+     * 由各部分拼出编码，是digits、hasPlus和value的逆操作
+     */
+    static long pack(boolean plus, int digits, long value) {
+        return (plus ? PLUS_BIT : 0) | (long) digits << LENGTH_SHIFT | value;
+    }
+
+    private static void write(long code, char[] chars) {
+        long value = code & VALUE_MASK;
+        for (int i = chars.length - 1; i >= 0; i--) {
+            chars[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        if ((code & PLUS_BIT) != 0) {
+            chars[0] = '+';
+        }
+    }
+}
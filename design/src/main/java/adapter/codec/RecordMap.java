@@ -0,0 +1,218 @@
+package adapter.codec;
+
+import adapter.convert.UserInfoConverter;
+
+import java.nio.ByteBuffer;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * UserInfoCodec编码的一条记录上的只读map视图，记录为buffer中的[start, end)
+ * 创建时记下标记字节和各固定字段的位置，get某个固定字段时直接跳到该字段，只解码这一个字段，解码结果缓存在对应的成员中
+ * 其它键在第一次被访问时一起解码到一个HashMap里
+ * 所有读取都按绝对位置进行，不复制也不改变buffer
+ * 同一个视图在多个线程之间共享时，重复解码的结果相同，不需要同步
+ */
+final class RecordMap extends AbstractMap<String, String> {
+    private static final int SLOTS = 3;
+
+    private final UserInfoCodec codec;
+    private final ByteBuffer buffer;
+    private final int flags;
+    private final int start;
+    private final int phoneOffset;
+    private final int nameOffset;
+    private final int end;
+    /**
+     * 已经解码的固定字段，没有解码或字段不存在时为null
+     */
+    private String name;
+    private String age;
+    private String phone;
+    private Map<String, String> extras;
+
+    /**
+     * @param phoneOffset phone字段的位置，字段不存在时为name字段的位置
+     * @param nameOffset  name字段的位置，字段不存在时为其它键的位置
+     */
+    RecordMap(UserInfoCodec codec, ByteBuffer buffer, int flags, int start, int phoneOffset, int nameOffset,
+              int end) {
+        this.codec = codec;
+        this.buffer = buffer;
+        this.flags = flags;
+        this.start = start;
+        this.phoneOffset = phoneOffset;
+        this.nameOffset = nameOffset;
+        this.end = end;
+    }
+
+    UserInfoCodec codec() {
+        return codec;
+    }
+
+    /**
+     * 记录的原始字节，position和limit为记录的两端
+     */
+    ByteBuffer record() {
+        ByteBuffer record = buffer.duplicate();
+        record.limit(end).position(start);
+        return record;
+    }
+
+    @Override
+    public String get(Object key) {
+        int slot = codec.slot(key);
+        if (slot < 0) {
+            return (flags & UserInfoCodec.EXTRAS) == 0 ? null : extras().get(key);
+        }
+        switch (slot) {
+            case UserInfoCodec.NAME_SLOT:
+                if (name == null && (flags & UserInfoCodec.NAME) != 0) {
+                    name = Bytes.getString(buffer, nameOffset);
+                }
+                return name;
+            case UserInfoCodec.AGE_SLOT:
+                if (age == null && (flags & (UserInfoCodec.AGE | UserInfoCodec.AGE_RAW)) != 0) {
+                    age = decodeAge();
+                }
+                return age;
+            default:
+                if (phone == null && (flags & (UserInfoCodec.PHONE | UserInfoCodec.PHONE_RAW)) != 0) {
+                    phone = decodePhone();
+                }
+                return phone;
+        }
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        int slot = codec.slot(key);
+        return slot >= 0 ? has(slot) : (flags & UserInfoCodec.EXTRAS) != 0 && extras().containsKey(key);
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (int slot = 0; slot < SLOTS; slot++) {
+            if (has(slot)) {
+                size++;
+            }
+        }
+        return (flags & UserInfoCodec.EXTRAS) == 0 ? size : size + extras().size();
+    }
+
+    @Override
+    public Set<Entry<String, String>> entrySet() {
+        return new AbstractSet<Entry<String, String>>() {
+            @Override
+            public Iterator<Entry<String, String>> iterator() {
+                return new EntryIterator();
+            }
+
+            @Override
+            public int size() {
+                return RecordMap.this.size();
+            }
+        };
+    }
+
+    private boolean has(int slot) {
+        switch (slot) {
+            case UserInfoCodec.NAME_SLOT:
+                return (flags & UserInfoCodec.NAME) != 0;
+            case UserInfoCodec.AGE_SLOT:
+                return (flags & (UserInfoCodec.AGE | UserInfoCodec.AGE_RAW)) != 0;
+            default:
+                return (flags & (UserInfoCodec.PHONE | UserInfoCodec.PHONE_RAW)) != 0;
+        }
+    }
+
+    int ageValue() {
+        if ((flags & UserInfoCodec.AGE) != 0) {
+            return Bytes.unzigzag((int) Bytes.getVarint(buffer, start + 1));
+        }
+        if ((flags & UserInfoCodec.AGE_RAW) != 0) {
+            return UserInfoConverter.parseAge(get(codec.keys()[UserInfoCodec.AGE_SLOT]));
+        }
+        return UserInfoConverter.INVALID_AGE;
+    }
+
+    long phoneCode() {
+        if ((flags & UserInfoCodec.PHONE) != 0) {
+            int header = buffer.get(phoneOffset);
+            return PhoneCodec.pack((header & 0x20) != 0, header & 0x1F, Bytes.getVarint(buffer, phoneOffset + 1));
+        }
+        return (flags & UserInfoCodec.PHONE_RAW) != 0 ? PhoneCodec.UNENCODABLE : PhoneCodec.NULL;
+    }
+
+    private String decodeAge() {
+        return (flags & UserInfoCodec.AGE) != 0
+                ? String.valueOf(Bytes.unzigzag((int) Bytes.getVarint(buffer, start + 1)))
+                : Bytes.getString(buffer, start + 1);
+    }
+
+    private String decodePhone() {
+        if ((flags & UserInfoCodec.PHONE) != 0) {
+            return PhoneCodec.decode(phoneCode());
+        }
+        return Bytes.getString(buffer, phoneOffset);
+    }
+
+    private Map<String, String> extras() {
+        Map<String, String> result = extras;
+        if (result == null) {
+            int offset = nameOffset;
+            if ((flags & UserInfoCodec.NAME) != 0) {
+                offset = Bytes.stringEnd(buffer, offset);
+            }
+            ByteBuffer rest = buffer.duplicate();
+            rest.limit(end).position(offset);
+            result = extras = Collections.unmodifiableMap(UserInfoCodec.getExtras(rest));
+        }
+        return result;
+    }
+
+    /**
+     * 先按name、age、phone的顺序遍历存在的固定字段，再遍历其它键
+     */
+    private final class EntryIterator implements Iterator<Entry<String, String>> {
+        private int slot = advance(0);
+        private Iterator<Entry<String, String>> rest;
+
+        private int advance(int from) {
+            while (from < SLOTS && !has(from)) {
+                from++;
+            }
+            return from;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (slot < SLOTS) {
+                return true;
+            }
+            if (rest == null && (flags & UserInfoCodec.EXTRAS) != 0) {
+                rest = extras().entrySet().iterator();
+            }
+            return rest != null && rest.hasNext();
+        }
+
+        @Override
+        public Entry<String, String> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            if (slot < SLOTS) {
+                String key = codec.keys()[slot];
+                slot = advance(slot + 1);
+                return new SimpleImmutableEntry<>(key, get(key));
+            }
+            return rest.next();
+        }
+    }
+}
@@ -0,0 +1,317 @@
+package adapter.codec;
+
+import adapter.OutUserInfo;
+import adapter.UserInfo;
+import adapter.convert.UserInfoConverter;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * UserInfo和OutUserInfo的紧凑二进制编码，创建时确定name、age、phone在map中的键
+ * 记录格式，各字段按顺序出现，不存在的字段不占空间：
+ * [标记 1字节]
+ * [age：zigzag varint，或者无法按整数还原时的原始字符串]
+ * [phone：1字节的'+'标记和位数 + 数值varint，或者无法用PhoneCodec编码时的原始字符串]
+ * [name：字符串]
+ * [其它键：个数varint + 依次的键和值字符串]
+ * 字符串为[UTF-8字节数 varint][UTF-8字节]；记录本身没有长度前缀，按格式读完即到下一条记录
+ * view返回直接读取缓冲区的只读map，某个字段被读取时才解码；把view再交给encode时直接复制原始字节
+ * 只需要数值时用age和phoneCode读取view，不创建字符串
+ * 编解码器没有可变状态，可以在多个线程之间共享
+ */
+public final class UserInfoCodec {
+    static final int AGE = 1;
+    static final int AGE_RAW = 1 << 1;
+    static final int PHONE = 1 << 2;
+    static final int PHONE_RAW = 1 << 3;
+    static final int NAME = 1 << 4;
+    static final int EXTRAS = 1 << 5;
+
+    static final int NAME_SLOT = 0;
+    static final int AGE_SLOT = 1;
+    static final int PHONE_SLOT = 2;
+
+    /**
+     * 槽位i对应的键
+     */
+    private final String[] keys;
+
+    public UserInfoCodec() {
+        this(UserInfoConverter.NAME, UserInfoConverter.AGE, UserInfoConverter.PHONE);
+    }
+
+    public UserInfoCodec(String nameKey, String ageKey, String phoneKey) {
+        if (nameKey.equals(ageKey) || nameKey.equals(phoneKey) || ageKey.equals(phoneKey)) {
+            throw new IllegalArgumentException("duplicate key: " + nameKey + ", " + ageKey + ", " + phoneKey);
+        }
+        this.keys = new String[]{nameKey, ageKey, phoneKey};
+    }
+
+    public byte[] encode(UserInfo user) {
+        ByteBuffer buffer = ByteBuffer.allocate(encodedSize(user));
+        encode(user, buffer);
+        return buffer.array();
+    }
+
+    public int encodedSize(UserInfo user) {
+        int size = 1 + Bytes.varintSize(Bytes.zigzag(user.getAge()) & 0xFFFFFFFFL);
+        size += phoneSize(user.getPhone());
+        if (user.getName() != null) {
+            size += Bytes.stringSize(user.getName());
+        }
+        return size;
+    }
+
+    /**
+     * 写入buffer的当前位置，空间不足时抛出BufferOverflowException
+     */
+    public void encode(UserInfo user, ByteBuffer buffer) {
+        long phone = PhoneCodec.encode(user.getPhone());
+        buffer.put((byte) (AGE | phoneFlag(phone) | (user.getName() != null ? NAME : 0)));
+        Bytes.putVarint(buffer, Bytes.zigzag(user.getAge()) & 0xFFFFFFFFL);
+        putPhone(buffer, phone, user.getPhone());
+        if (user.getName() != null) {
+            Bytes.putString(buffer, user.getName());
+        }
+    }
+
+    public byte[] encode(OutUserInfo out) {
+        Map<String, String> map = out.getUserInfoMap();
+        ByteBuffer buffer = ByteBuffer.allocate(encodedSize(map));
+        encode(map, buffer);
+        return buffer.array();
+    }
+
+    public int encodedSize(Map<String, String> map) {
+        if (isView(map)) {
+            return ((RecordMap) map).record().remaining();
+        }
+        int size = 1;
+        String age = map.get(keys[AGE_SLOT]);
+        if (age != null) {
+            int value = UserInfoConverter.parseAge(age);
+            size += isCanonical(value, age) ? Bytes.varintSize(Bytes.zigzag(value) & 0xFFFFFFFFL)
+                    : Bytes.stringSize(age);
+        }
+        size += phoneSize(map.get(keys[PHONE_SLOT]));
+        String name = map.get(keys[NAME_SLOT]);
+        if (name != null) {
+            size += Bytes.stringSize(name);
+        }
+        int extras = extraCount(map);
+        if (extras > 0) {
+            size += Bytes.varintSize(extras);
+            for (Map.Entry<String, String> e : map.entrySet()) {
+                if (e.getValue() != null && slot(e.getKey()) < 0) {
+                    size += Bytes.stringSize(e.getKey()) + Bytes.stringSize(e.getValue());
+                }
+            }
+        }
+        return size;
+    }
+
+    /**
+     * 写入buffer的当前位置，值为null的键视为不存在；map是本编解码器的view时直接复制原始字节
+     */
+    public void encode(Map<String, String> map, ByteBuffer buffer) {
+        if (isView(map)) {
+            buffer.put(((RecordMap) map).record());
+            return;
+        }
+        String age = map.get(keys[AGE_SLOT]);
+        int ageValue = age == null ? 0 : UserInfoConverter.parseAge(age);
+        int ageFlag = age == null ? 0 : isCanonical(ageValue, age) ? AGE : AGE_RAW;
+        String phone = map.get(keys[PHONE_SLOT]);
+        long phoneCode = PhoneCodec.encode(phone);
+        String name = map.get(keys[NAME_SLOT]);
+        int extras = extraCount(map);
+        buffer.put((byte) (ageFlag | phoneFlag(phoneCode) | (name != null ? NAME : 0) | (extras > 0 ? EXTRAS : 0)));
+        if (ageFlag == AGE) {
+            Bytes.putVarint(buffer, Bytes.zigzag(ageValue) & 0xFFFFFFFFL);
+        } else if (ageFlag == AGE_RAW) {
+            Bytes.putString(buffer, age);
+        }
+        putPhone(buffer, phoneCode, phone);
+        if (name != null) {
+            Bytes.putString(buffer, name);
+        }
+        if (extras > 0) {
+            Bytes.putVarint(buffer, extras);
+            for (Map.Entry<String, String> e : map.entrySet()) {
+                if (e.getValue() != null && slot(e.getKey()) < 0) {
+                    Bytes.putString(buffer, e.getKey());
+                    Bytes.putString(buffer, e.getValue());
+                }
+            }
+        }
+    }
+
+    /**
+     * 从buffer的当前位置解码一条记录，position移到记录之后
+     * age不存在或不是整数时为UserInfoConverter.INVALID_AGE，其它键被忽略
+     */
+    public UserInfo decodeUserInfo(ByteBuffer buffer) {
+        int flags = buffer.get();
+        int age = UserInfoConverter.INVALID_AGE;
+        if ((flags & AGE) != 0) {
+            age = Bytes.unzigzag((int) Bytes.getVarint(buffer));
+        } else if ((flags & AGE_RAW) != 0) {
+            age = UserInfoConverter.parseAge(Bytes.getString(buffer));
+        }
+        String phone = getPhone(buffer, flags);
+        String name = (flags & NAME) != 0 ? Bytes.getString(buffer) : null;
+        if ((flags & EXTRAS) != 0) {
+            skipExtras(buffer);
+        }
+        return new UserInfo(name, age, phone);
+    }
+
+    /**
+     * 从buffer的当前位置取出一条记录，包装为按需解码的OutUserInfo，position移到记录之后
+     */
+    public OutUserInfo decodeOutUserInfo(ByteBuffer buffer) {
+        OutUserInfo out = new OutUserInfo();
+        out.setUserInfoMap(view(buffer));
+        return out;
+    }
+
+    /**
+     * 从buffer的当前位置取出一条记录，返回直接读取该记录字节的只读map，position移到记录之后
+     * 这里只跳过各字段确定记录的长度和各字段的位置，不解码任何字符串；map直接引用buffer，buffer中的字节不能再被修改
+     */
+    public Map<String, String> view(ByteBuffer buffer) {
+        int start = buffer.position();
+        int flags = buffer.get();
+        if ((flags & AGE) != 0) {
+            Bytes.skipVarint(buffer);
+        } else if ((flags & AGE_RAW) != 0) {
+            Bytes.skipString(buffer);
+        }
+        int phone = buffer.position();
+        skipPhone(buffer, flags);
+        int name = buffer.position();
+        if ((flags & NAME) != 0) {
+            Bytes.skipString(buffer);
+        }
+        if ((flags & EXTRAS) != 0) {
+            skipExtras(buffer);
+        }
+        return new RecordMap(this, buffer, flags, start, phone, name, buffer.position());
+    }
+
+    /**
+     * map中age的数值，不创建字符串：map是本编解码器的view时直接从字节中读取，否则按UserInfoConverter.parseAge解析
+     * age不存在或不是整数时返回UserInfoConverter.INVALID_AGE
+     */
+    public int age(Map<String, String> map) {
+        return isView(map) ? ((RecordMap) map).ageValue() : UserInfoConverter.parseAge(map.get(keys[AGE_SLOT]));
+    }
+
+    /**
+     * map中phone的PhoneCodec编码，map是本编解码器的view时直接从字节中读取，不创建字符串
+     */
+    public long phoneCode(Map<String, String> map) {
+        return isView(map) ? ((RecordMap) map).phoneCode() : PhoneCodec.encode(map.get(keys[PHONE_SLOT]));
+    }
+
+    String[] keys() {
+        return keys;
+    }
+
+    /**
+     * 键对应的槽位，不是固定字段时返回-1
+     */
+    int slot(Object key) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] == key) {
+                return i;
+            }
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i].equals(key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static void skipPhone(ByteBuffer buffer, int flags) {
+        if ((flags & PHONE) != 0) {
+            buffer.get();
+            Bytes.skipVarint(buffer);
+        } else if ((flags & PHONE_RAW) != 0) {
+            Bytes.skipString(buffer);
+        }
+    }
+
+    private static String getPhone(ByteBuffer buffer, int flags) {
+        if ((flags & PHONE) != 0) {
+            int header = buffer.get();
+            return PhoneCodec.decode(PhoneCodec.pack((header & 0x20) != 0, header & 0x1F, Bytes.getVarint(buffer)));
+        }
+        return (flags & PHONE_RAW) != 0 ? Bytes.getString(buffer) : null;
+    }
+
+    private static void skipExtras(ByteBuffer buffer) {
+        for (long n = Bytes.getVarint(buffer); n > 0; n--) {
+            Bytes.skipString(buffer);
+            Bytes.skipString(buffer);
+        }
+    }
+
+    static Map<String, String> getExtras(ByteBuffer buffer) {
+        int n = (int) Bytes.getVarint(buffer);
+        Map<String, String> extras = new HashMap<>(n * 2);
+        for (int i = 0; i < n; i++) {
+            extras.put(Bytes.getString(buffer), Bytes.getString(buffer));
+        }
+        return extras;
+    }
+
+    private boolean isView(Map<String, String> map) {
+        return map instanceof RecordMap && ((RecordMap) map).codec().keys == keys;
+    }
+
+    /**
+     * 值不为null的其它键的个数
+     */
+    private int extraCount(Map<String, String> map) {
+        int count = 0;
+        for (Map.Entry<String, String> e : map.entrySet()) {
+            if (e.getValue() != null && slot(e.getKey()) < 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static boolean isCanonical(int value, String age) {
+        return value != UserInfoConverter.INVALID_AGE && (age.length() == 1 || age.charAt(0) != '0');
+    }
+
+    private static int phoneFlag(long code) {
+        return code == PhoneCodec.NULL ? 0 : code == PhoneCodec.UNENCODABLE ? PHONE_RAW : PHONE;
+    }
+
+    private static int phoneSize(String phone) {
+        long code = PhoneCodec.encode(phone);
+        if (code == PhoneCodec.NULL) {
+            return 0;
+        }
+        if (code == PhoneCodec.UNENCODABLE) {
+            return Bytes.stringSize(phone);
+        }
+        return 1 + Bytes.varintSize(PhoneCodec.value(code));
+    }
+
+    private static void putPhone(ByteBuffer buffer, long code, String phone) {
+        if (code == PhoneCodec.UNENCODABLE) {
+            Bytes.putString(buffer, phone);
+        } else if (code != PhoneCodec.NULL) {
+            buffer.put((byte) ((PhoneCodec.hasPlus(code) ? 0x20 : 0) | PhoneCodec.digits(code)));
+            Bytes.putVarint(buffer, PhoneCodec.value(code));
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package adapter.convert;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * 按槽位存放的map，键固定的几个字段存放在与keys平行的数组中，其它键放在按需创建的HashMap里
+ * 固定字段的读写只需和几个键逐个比较，不计算哈希；值为null表示该键不存在
+ */
+final class SlotMap extends AbstractMap<String, String> {
+    private final String[] keys;
+    private final String[] values;
+    private Map<String, String> others;
+    /**
+     * 转换器写入年龄槽位时记下的数值，槽位中仍是ageSource这个字符串对象时直接使用，不必再解析
+     * 经put修改过的槽位不再是同一个对象，读取时照常解析
+     */
+    private String ageSource;
+    private int age = UserInfoConverter.INVALID_AGE;
+
+    SlotMap(String[] keys, String[] values) {
+        this.keys = keys;
+        this.values = values;
+    }
+
+    String[] keys() {
+        return keys;
+    }
+
+    String[] slots() {
+        return values;
+    }
+
+    void cacheAge(String source, int age) {
+        this.ageSource = source;
+        this.age = age;
+    }
+
+    String ageSource() {
+        return ageSource;
+    }
+
+    int age() {
+        return age;
+    }
+
+    /**
+     * 删除固定字段以外的键，槽位由调用方直接覆盖
+     */
+    void clearOthers() {
+        if (others != null) {
+            others = null;
+        }
+    }
+
+    private int slot(Object key) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] == key) {
+                return i;
+            }
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i].equals(key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int size() {
+        int size = others == null ? 0 : others.size();
+        for (String value : values) {
+            if (value != null) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public String get(Object key) {
+        int slot = slot(key);
+        if (slot >= 0) {
+            return values[slot];
+        }
+        return others == null ? null : others.get(key);
+    }
+
+    /**
+     * 固定字段put null等同于删除
+     */
+    @Override
+    public String put(String key, String value) {
+        int slot = slot(key);
+        if (slot >= 0) {
+            String old = values[slot];
+            values[slot] = value;
+            return old;
+        }
+        if (others == null) {
+            others = new HashMap<>();
+        }
+        return others.put(key, value);
+    }
+
+    @Override
+    public String remove(Object key) {
+        int slot = slot(key);
+        if (slot >= 0) {
+            String old = values[slot];
+            values[slot] = null;
+            return old;
+        }
+        return others == null ? null : others.remove(key);
+    }
+
+    @Override
+    public void clear() {
+        for (int i = 0; i < values.length; i++) {
+            values[i] = null;
+        }
+        others = null;
+    }
+
+    @Override
+    public Set<Entry<String, String>> entrySet() {
+        return new AbstractSet<Entry<String, String>>() {
+            @Override
+            public Iterator<Entry<String, String>> iterator() {
+                return new EntryIterator();
+            }
+
+            @Override
+            public int size() {
+                return SlotMap.this.size();
+            }
+        };
+    }
+
+    /**
+     * 先遍历非空的槽位，再遍历其它键
+     */
+    private final class EntryIterator implements Iterator<Entry<String, String>> {
+        private int next = advance(0);
+        private int last = -1;
+        private Iterator<Entry<String, String>> rest;
+
+        private int advance(int from) {
+            while (from < values.length && values[from] == null) {
+                from++;
+            }
+            return from;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next < values.length) {
+                return true;
+            }
+            if (rest == null && others != null) {
+                rest = others.entrySet().iterator();
+            }
+            return rest != null && rest.hasNext();
+        }
+
+        @Override
+        public Entry<String, String> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            if (next < values.length) {
+                last = next;
+                next = advance(next + 1);
+                return new SlotEntry(last);
+            }
+            last = -1;
+            return rest.next();
+        }
+
+        @Override
+        public void remove() {
+            if (last >= 0) {
+                values[last] = null;
+                last = -1;
+            } else if (rest != null) {
+                rest.remove();
+            } else {
+                throw new IllegalStateException();
+            }
+        }
+    }
+
+    private final class SlotEntry implements Entry<String, String> {
+        private final int slot;
+
+        SlotEntry(int slot) {
+            this.slot = slot;
+        }
+
+        @Override
+        public String getKey() {
+            return keys[slot];
+        }
+
+        @Override
+        public String getValue() {
+            return values[slot];
+        }
+
+        @Override
+        public String setValue(String value) {
+            String old = values[slot];
+            values[slot] = value;
+            return old;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Entry)) {
+                return false;
+            }
+            Entry<?, ?> e = (Entry<?, ?>) o;
+            return getKey().equals(e.getKey()) && Objects.equals(getValue(), e.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return getKey().hashCode() ^ Objects.hashCode(getValue());
+        }
+
+        @Override
+        public String toString() {
+            return getKey() + "=" + getValue();
+        }
+    }
+}
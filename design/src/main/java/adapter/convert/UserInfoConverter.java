@@ -0,0 +1,205 @@
+package adapter.convert;
+
+import adapter.OutUserInfo;
+import adapter.UserInfo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * OutUserInfo与UserInfo之间的转换，创建时确定每个字段在map中的键和槽位，之后的转换不再做任何解析
+ * 1. 转换出的map是按槽位存放的SlotMap，再转换回来时直接按槽位读取，不需要哈希查找
+ * 2. age不用Integer.parseInt解析，格式不对时得到INVALID_AGE而不是抛出异常
+ * 3. 常见年龄对应的字符串预先生成，转换成map时不再分配；生成的map同时记下年龄的数值，转换回来时不再解析
+ * 4. 批量转换可以传入上一批的结果列表，已有的对象和map原地覆盖，稳定运行后每条记录不再分配内存
+ * 转换器没有可变状态，可以在多个线程之间共享
+ */
+public final class UserInfoConverter {
+    public static final String NAME = "name";
+    public static final String AGE = "age";
+    public static final String PHONE = "phone";
+
+    /**
+     * age缺失或格式不对时的值
+     */
+    public static final int INVALID_AGE = -1;
+
+    static final int NAME_SLOT = 0;
+    static final int AGE_SLOT = 1;
+    static final int PHONE_SLOT = 2;
+
+    private static final String[] AGE_STRINGS = new String[200];
+
+    static {
+        for (int i = 0; i < AGE_STRINGS.length; i++) {
+            AGE_STRINGS[i] = String.valueOf(i);
+        }
+    }
+
+    /**
+     * 槽位i对应的键
+     */
+    private final String[] keys;
+
+    public UserInfoConverter() {
+        this(NAME, AGE, PHONE);
+    }
+
+    public UserInfoConverter(String nameKey, String ageKey, String phoneKey) {
+        if (nameKey.equals(ageKey) || nameKey.equals(phoneKey) || ageKey.equals(phoneKey)) {
+            throw new IllegalArgumentException("duplicate key: " + nameKey + ", " + ageKey + ", " + phoneKey);
+        }
+        this.keys = new String[]{nameKey, ageKey, phoneKey};
+    }
+
+    public UserInfo toUserInfo(OutUserInfo out) {
+        return toUserInfo(out.getUserInfoMap());
+    }
+
+    public UserInfo toUserInfo(Map<String, String> map) {
+        UserInfo user = new UserInfo(null, INVALID_AGE, null);
+        copy(map, user);
+        return user;
+    }
+
+    /**
+     * 把map中的字段写入已有的user
+     */
+    public void copy(Map<String, String> map, UserInfo user) {
+        if (map instanceof SlotMap && ((SlotMap) map).keys() == keys) {
+            SlotMap slotMap = (SlotMap) map;
+            String[] values = slotMap.slots();
+            String age = values[AGE_SLOT];
+            user.setName(values[NAME_SLOT]);
+            user.setAge(age == slotMap.ageSource() ? slotMap.age() : parseAge(age));
+            user.setPhone(values[PHONE_SLOT]);
+        } else {
+            user.setName(map.get(keys[NAME_SLOT]));
+            user.setAge(parseAge(map.get(keys[AGE_SLOT])));
+            user.setPhone(map.get(keys[PHONE_SLOT]));
+        }
+    }
+
+    public OutUserInfo toOutUserInfo(UserInfo user) {
+        OutUserInfo out = new OutUserInfo();
+        out.setUserInfoMap(toMap(user));
+        return out;
+    }
+
+    /**
+     * 转换成按槽位存放的map，值为null的字段和负数的age不会出现在map中
+     */
+    public Map<String, String> toMap(UserInfo user) {
+        SlotMap map = new SlotMap(keys, new String[]{user.getName(), null, user.getPhone()});
+        setAge(map, user.getAge());
+        return map;
+    }
+
+    /**
+     * 把user的字段写入已有的out，out的map是本转换器生成的时直接覆盖槽位，否则换成新的map
+     */
+    public void copy(UserInfo user, OutUserInfo out) {
+        Map<String, String> map = out.getUserInfoMap();
+        if (map instanceof SlotMap && ((SlotMap) map).keys() == keys) {
+            SlotMap slotMap = (SlotMap) map;
+            slotMap.clearOthers();
+            String[] values = slotMap.slots();
+            values[NAME_SLOT] = user.getName();
+            setAge(slotMap, user.getAge());
+            values[PHONE_SLOT] = user.getPhone();
+        } else {
+            out.setUserInfoMap(toMap(user));
+        }
+    }
+
+    public List<UserInfo> toUserInfos(List<OutUserInfo> outs) {
+        List<UserInfo> users = new ArrayList<>(outs.size());
+        for (OutUserInfo out : outs) {
+            users.add(toUserInfo(out.getUserInfoMap()));
+        }
+        return users;
+    }
+
+    public List<OutUserInfo> toOutUserInfos(List<UserInfo> users) {
+        List<OutUserInfo> outs = new ArrayList<>(users.size());
+        for (UserInfo user : users) {
+            outs.add(toOutUserInfo(user));
+        }
+        return outs;
+    }
+
+    /**
+     * 批量转换，结果写入users：前面已有的元素原地覆盖，不够时追加，多余的删除
+     */
+    public void toUserInfos(List<OutUserInfo> outs, List<UserInfo> users) {
+        int reused = Math.min(outs.size(), users.size());
+        for (int i = 0; i < outs.size(); i++) {
+            Map<String, String> map = outs.get(i).getUserInfoMap();
+            if (i < reused) {
+                copy(map, users.get(i));
+            } else {
+                users.add(toUserInfo(map));
+            }
+        }
+        if (users.size() > outs.size()) {
+            users.subList(outs.size(), users.size()).clear();
+        }
+    }
+
+    /**
+     * 批量转换，结果写入outs：前面已有的元素原地覆盖，不够时追加，多余的删除
+     */
+    public void toOutUserInfos(List<UserInfo> users, List<OutUserInfo> outs) {
+        int reused = Math.min(users.size(), outs.size());
+        for (int i = 0; i < users.size(); i++) {
+            if (i < reused) {
+                copy(users.get(i), outs.get(i));
+            } else {
+                outs.add(toOutUserInfo(users.get(i)));
+            }
+        }
+        if (outs.size() > users.size()) {
+            outs.subList(users.size(), outs.size()).clear();
+        }
+    }
+
+    /**
+     * 写入年龄槽位，负数(包括INVALID_AGE)写入null，parseAge也不会解析出负数
+     * 常见年龄同时记在map中，转换回来时不必再解析
+     */
+    private static void setAge(SlotMap map, int age) {
+        if (age < 0) {
+            map.slots()[AGE_SLOT] = null;
+            map.cacheAge(null, INVALID_AGE);
+        } else if (age < AGE_STRINGS.length) {
+            map.slots()[AGE_SLOT] = AGE_STRINGS[age];
+            map.cacheAge(AGE_STRINGS[age], age);
+        } else {
+            map.slots()[AGE_SLOT] = String.valueOf(age);
+            map.cacheAge(null, INVALID_AGE);
+        }
+    }
+
+    /**
+     * 解析非负的十进制年龄，null、空串、含非数字字符或超过9位时返回INVALID_AGE
+     */
+    public static int parseAge(CharSequence s) {
+        if (s == null) {
+            return INVALID_AGE;
+        }
+        int length = s.length();
+        if (length == 0 || length > 9) {
+            return INVALID_AGE;
+        }
+        int value = 0;
+        for (int i = 0; i < length; i++) {
+            int digit = s.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return INVALID_AGE;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,175 @@
+package adapter.index;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * 年龄到行号的索引，按年龄范围查询
+ * 不同的年龄升序存放在int数组中，每个年龄对应一个行号的倒排表(posting list)
+ * 查询时用二分查找定位范围两端的年龄，再依次读取中间各年龄的倒排表，不扫描无关的行
+ * 年龄的种类很少，新年龄插入有序数组的移动可以忽略；倒排表按写入顺序追加，删除时后面的行号前移，顺序不变
+ * 不是线程安全的
+ */
+public final class AgeIndex {
+    private int[] ages = new int[16];
+    private int[][] postings = new int[16][];
+    private int[] counts = new int[16];
+    private int distinct;
+    private int size;
+
+    public void add(int age, int row) {
+        int i = Arrays.binarySearch(ages, 0, distinct, age);
+        if (i < 0) {
+            i = insert(-i - 1, age);
+        }
+        int[] posting = postings[i];
+        if (counts[i] == posting.length) {
+            posting = postings[i] = Arrays.copyOf(posting, posting.length * 2);
+        }
+        posting[counts[i]++] = row;
+        size++;
+    }
+
+    /**
+     * 删除一行，返回该行是否在age的倒排表中
+     * 倒排表为空时一并删除这个年龄
+     */
+    public boolean remove(int age, int row) {
+        int i = Arrays.binarySearch(ages, 0, distinct, age);
+        if (i < 0) {
+            return false;
+        }
+        int[] posting = postings[i];
+        int n = counts[i];
+        for (int j = 0; j < n; j++) {
+            if (posting[j] == row) {
+                System.arraycopy(posting, j + 1, posting, j, n - j - 1);
+                size--;
+                if (--counts[i] == 0) {
+                    delete(i);
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 索引中的行数
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 不同年龄的个数
+     */
+    public int distinctAges() {
+        return distinct;
+    }
+
+    /**
+     * 年龄在[from, to]范围内的行数
+     */
+    public int count(int from, int to) {
+        int total = 0;
+        for (int i = lowerBound(from), end = upperBound(to); i < end; i++) {
+            total += counts[i];
+        }
+        return total;
+    }
+
+    /**
+     * 年龄在[from, to]范围内的行号，按年龄升序，同一年龄内按写入顺序
+     */
+    public int[] rows(int from, int to) {
+        int[] result = new int[count(from, to)];
+        int n = 0;
+        for (int i = lowerBound(from), end = upperBound(to); i < end; i++) {
+            System.arraycopy(postings[i], 0, result, n, counts[i]);
+            n += counts[i];
+        }
+        return result;
+    }
+
+    /**
+     * 依次访问年龄在[from, to]范围内的行号，不分配内存，顺序同rows
+     */
+    public void forEach(int from, int to, IntConsumer action) {
+        for (int i = lowerBound(from), end = upperBound(to); i < end; i++) {
+            int[] posting = postings[i];
+            for (int j = 0, n = counts[i]; j < n; j++) {
+                action.accept(posting[j]);
+            }
+        }
+    }
+
+    /**
+     * 各数组实际占用的字节数，包括未使用的容量和数组头
+     */
+    public long memoryBytes() {
+        long bytes = 3 * 16L + 4L * ages.length + 8L * postings.length + 4L * counts.length;
+        for (int i = 0; i < distinct; i++) {
+            bytes += 16 + 4L * postings[i].length;
+        }
+        return bytes;
+    }
+
+    /**
+     * 第一个不小于age的位置
+     */
+    private int lowerBound(int age) {
+        int low = 0;
+        int high = distinct;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (ages[mid] < age) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * 第一个大于age的位置
+     */
+    private int upperBound(int age) {
+        int low = 0;
+        int high = distinct;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (ages[mid] <= age) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private void delete(int i) {
+        System.arraycopy(ages, i + 1, ages, i, distinct - i - 1);
+        System.arraycopy(postings, i + 1, postings, i, distinct - i - 1);
+        System.arraycopy(counts, i + 1, counts, i, distinct - i - 1);
+        distinct--;
+        postings[distinct] = null;
+    }
+
+    private int insert(int i, int age) {
+        if (distinct == ages.length) {
+            ages = Arrays.copyOf(ages, distinct * 2);
+            postings = Arrays.copyOf(postings, distinct * 2);
+            counts = Arrays.copyOf(counts, distinct * 2);
+        }
+        System.arraycopy(ages, i, ages, i + 1, distinct - i);
+        System.arraycopy(postings, i, postings, i + 1, distinct - i);
+        System.arraycopy(counts, i, counts, i + 1, distinct - i);
+        ages[i] = age;
+        postings[i] = new int[4];
+        counts[i] = 0;
+        distinct++;
+        return i;
+    }
+}
@@ -0,0 +1,87 @@
+package adapter.index;
+
+import adapter.UserInfo;
+import adapter.log.UserLog;
+import adapter.modelclass.Adaptee;
+import adapter.store.UserInfoStore;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 保存的同时建立索引的Adaptee，可以按手机号查找用户、按年龄范围筛选用户
+ * 1. 保存过的用户按列存放在UserInfoStore中，行号就是索引中的值
+ * 2. 每次append时增量更新PhoneIndex和AgeIndex，不需要重建，saveUser和saveUsers都经过append
+ *    同一个手机号再次保存时，旧的行从AgeIndex中删除，按手机号和按年龄查到的都是最后保存的用户；
+ *    UserInfoStore和日志仍然保留全部历史，null手机号的用户互不覆盖
+ * 3. 传入UserLog时在同一把锁内追加日志和建索引，保证行号与日志的记录编号一致，之后在锁外等待落盘，
+ *    多个线程的落盘仍然可以合并；创建时把日志中已有的记录按顺序载入
+ * 保存和查询都在this上同步，可以被多个线程同时调用，查询可能看到已经追加但还没有落盘的用户
+ */
+public class IndexedAdaptee extends Adaptee {
+    private final UserInfoStore store = new UserInfoStore();
+    private final PhoneIndex phones = new PhoneIndex();
+    private final AgeIndex ages = new AgeIndex();
+
+    public IndexedAdaptee() {
+        this(null);
+    }
+
+    public IndexedAdaptee(UserLog log) {
+        super(log);
+        if (log != null) {
+            for (long id = 0, n = log.size(); id < n; id++) {
+                index(log.read(id));
+            }
+        }
+    }
+
+    /**
+     * 在同一把锁内追加日志和建索引，落盘由Adaptee在锁外等待
+     */
+    @Override
+    protected long append(UserInfo user) {
+        synchronized (this) {
+            long id = super.append(user);
+            index(user);
+            return id;
+        }
+    }
+
+    /**
+     * 手机号对应的最后保存的用户，没有时返回null
+     */
+    public synchronized UserInfo findByPhone(String phone) {
+        int row = phones.get(phone);
+        return row == PhoneIndex.MISSING ? null : store.get(row);
+    }
+
+    /**
+     * 年龄在[from, to]范围内的用户，按年龄升序，同一年龄内按保存顺序
+     */
+    public synchronized List<UserInfo> findByAge(int from, int to) {
+        List<UserInfo> users = new ArrayList<>(ages.count(from, to));
+        ages.forEach(from, to, row -> users.add(store.get(row)));
+        return users;
+    }
+
+    public synchronized int countByAge(int from, int to) {
+        return ages.count(from, to);
+    }
+
+    /**
+     * 保存过的行数，包括被同一手机号覆盖的旧行
+     */
+    public synchronized int size() {
+        return store.size();
+    }
+
+    private void index(UserInfo user) {
+        int row = store.add(user);
+        int previous = phones.put(user.getPhone(), row);
+        if (previous != PhoneIndex.MISSING) {
+            ages.remove(store.age(previous), previous);
+        }
+        ages.add(user.getAge(), row);
+    }
+}
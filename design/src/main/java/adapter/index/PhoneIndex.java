@@ -0,0 +1,143 @@
+package adapter.index;
+
+import adapter.codec.PhoneCodec;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 手机号到行号的索引，同一个手机号只保留最后写入的行
+ * 手机号先用PhoneCodec编码成long，存放在以long为键的开放寻址哈希表中，线性探测，负载不超过1/2
+ * 键和值分别放在两个平行的基本类型数组里，不为每个手机号创建对象；无法编码的少数手机号另外用HashMap保存
+ * null手机号不建索引；不是线程安全的
+ */
+public final class PhoneIndex {
+    /**
+     * 找不到时返回的行号
+     */
+    public static final int MISSING = -1;
+
+    /**
+     * 空槽的键，PhoneCodec.NULL不会被放进表中
+     */
+    private static final long EMPTY = PhoneCodec.NULL;
+
+    private long[] keys;
+    private int[] rows;
+    private int size;
+    private final Map<String, Integer> rawPhones = new HashMap<>();
+
+    public PhoneIndex() {
+        this(16);
+    }
+
+    public PhoneIndex(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(8, expectedSize) * 2 - 1) << 1;
+        keys = new long[capacity];
+        rows = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+    }
+
+    /**
+     * 返回手机号原来对应的行号，没有时返回MISSING
+     */
+    public int put(String phone, int row) {
+        long code = PhoneCodec.encode(phone);
+        if (code == PhoneCodec.NULL) {
+            return MISSING;
+        }
+        if (code == PhoneCodec.UNENCODABLE) {
+            Integer old = rawPhones.put(phone, row);
+            return old == null ? MISSING : old;
+        }
+        return put(code, row);
+    }
+
+    /**
+     * 按PhoneCodec编码后的手机号写入
+     */
+    public int put(long code, int row) {
+        if (code < 0) {
+            throw new IllegalArgumentException("not an encoded phone: " + code);
+        }
+        int mask = keys.length - 1;
+        for (int slot = slot(code, mask); ; slot = (slot + 1) & mask) {
+            if (keys[slot] == EMPTY) {
+                keys[slot] = code;
+                rows[slot] = row;
+                if (++size * 2 > keys.length) {
+                    rehash();
+                }
+                return MISSING;
+            }
+            if (keys[slot] == code) {
+                int old = rows[slot];
+                rows[slot] = row;
+                return old;
+            }
+        }
+    }
+
+    public int get(String phone) {
+        long code = PhoneCodec.encode(phone);
+        if (code == PhoneCodec.UNENCODABLE) {
+            Integer row = rawPhones.get(phone);
+            return row == null ? MISSING : row;
+        }
+        return get(code);
+    }
+
+    public int get(long code) {
+        if (code < 0) {
+            return MISSING;
+        }
+        int mask = keys.length - 1;
+        for (int slot = slot(code, mask); ; slot = (slot + 1) & mask) {
+            if (keys[slot] == code) {
+                return rows[slot];
+            }
+            if (keys[slot] == EMPTY) {
+                return MISSING;
+            }
+        }
+    }
+
+    /**
+     * 不同手机号的个数
+     */
+    public int size() {
+        return size + rawPhones.size();
+    }
+
+    /**
+     * 哈希表数组占用的字节数，不包括无法编码的手机号
+     */
+    public long memoryBytes() {
+        return 2 * 16L + 8L * keys.length + 4L * rows.length;
+    }
+
+    private static int slot(long code, int mask) {
+        long h = code * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ h >>> 32) & mask;
+    }
+
+    private void rehash() {
+        long[] oldKeys = keys;
+        int[] oldRows = rows;
+        keys = new long[oldKeys.length * 2];
+        rows = new int[oldRows.length * 2];
+        Arrays.fill(keys, EMPTY);
+        int mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = slot(oldKeys[i], mask);
+                while (keys[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                rows[slot] = oldRows[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,396 @@
+package adapter.log;
+
+import adapter.UserInfo;
+import adapter.codec.UserInfoCodec;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32;
+
+/**
+ * 只追加的用户日志，每个UserInfo编码为一条二进制记录，追加到内存映射的段文件中
+ * 1. 段文件名为segment-序号.log，大小固定，开头12字节为魔数、版本和段大小，之后依次存放记录，写满后换下一个段
+ *    段大小与打开时指定的不同会报错，否则按新的大小清零段尾会破坏已经落盘的记录
+ * 2. 记录格式为[payload长度 int][payload的CRC32 int][payload]，payload为UserInfoCodec的编码，长度为0表示段中后面没有记录
+ * 3. append只把记录写入映射内存，sync等待记录落盘：同一时刻只有一个线程调用force，
+ *    它会把调用时已经写入的所有记录一起落盘，等待中的其它线程发现自己的记录已经落盘就直接返回，每批写入只force一次
+ * 4. 启动时顺序扫描所有段，重建记录编号到位置的索引；最后一个段末尾不完整或校验失败的记录视为没有写完，会被清除，
+ *    段头还没有落盘的最后一个段视为空段；之前的段在换段时已经落盘，其中出现坏记录说明文件损坏，抛出IOException
+ * 5. payload为UserInfoCodec的编码，其它版本的段在打开时报错
+ * 记录编号从0开始连续分配，append、sync和read可以被多个线程同时调用
+ */
+public final class UserLog implements AutoCloseable {
+    public static final int DEFAULT_SEGMENT_BYTES = 64 * 1024 * 1024;
+
+    static final int MAGIC = 0x554C4F47;
+    static final int VERSION = 2;
+    static final int SEGMENT_HEADER_BYTES = 12;
+    static final int RECORD_HEADER_BYTES = 8;
+
+    private static final UserInfoCodec CODEC = new UserInfoCodec();
+
+    private static final String PREFIX = "segment-";
+    private static final String SUFFIX = ".log";
+
+    private final Path dir;
+    private final int segmentBytes;
+    private final List<FileChannel> channels = new ArrayList<>();
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+    /**
+     * 记录i的位置，高32位为段序号，低32位为段内偏移
+     */
+    private long[] positions = new long[1024];
+    private long size;
+    private MappedByteBuffer current;
+    private int writeOffset;
+    private boolean closed;
+
+    private final Object forceLock = new Object();
+    /**
+     * 编号小于durable的记录都已经落盘
+     */
+    private volatile long durable;
+    /**
+     * sync在forceLock下、换段和恢复在this的锁下调用force，计数器不能依赖同一把锁
+     */
+    private final LongAdder forces = new LongAdder();
+
+    public UserLog(Path dir) throws IOException {
+        this(dir, DEFAULT_SEGMENT_BYTES);
+    }
+
+    public UserLog(Path dir, int segmentBytes) throws IOException {
+        if (segmentBytes < SEGMENT_HEADER_BYTES + RECORD_HEADER_BYTES + 64) {
+            throw new IllegalArgumentException("segmentBytes too small: " + segmentBytes);
+        }
+        this.dir = Files.createDirectories(dir);
+        this.segmentBytes = segmentBytes;
+        try {
+            recover();
+        } catch (IOException | RuntimeException e) {
+            closeChannels();
+            throw e;
+        }
+        durable = size;
+    }
+
+    /**
+     * 追加一条记录，返回记录编号，返回时记录还不一定落盘
+     */
+    public long append(UserInfo user) {
+        byte[] payload = CODEC.encode(user);
+        int length = RECORD_HEADER_BYTES + payload.length;
+        if (SEGMENT_HEADER_BYTES + length > segmentBytes) {
+            throw new IllegalArgumentException("record of " + length + " bytes does not fit in a segment");
+        }
+        CRC32 crc = new CRC32();
+        crc.update(payload, 0, payload.length);
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("log closed");
+            }
+            if (writeOffset + length > segmentBytes) {
+                try {
+                    roll();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            ByteBuffer buffer = current.duplicate();
+            buffer.position(writeOffset + RECORD_HEADER_BYTES);
+            buffer.put(payload);
+            buffer.putInt(writeOffset + 4, (int) crc.getValue());
+            // 长度最后写入，崩溃时要么看到完整的长度和内容，要么长度仍为0
+            buffer.putInt(writeOffset, payload.length);
+            addPosition((long) (segments.size() - 1) << 32 | writeOffset);
+            writeOffset += length;
+            return size - 1;
+        }
+    }
+
+    /**
+     * 等待编号不大于id的记录全部落盘
+     */
+    public void sync(long id) {
+        if (durable > id) {
+            return;
+        }
+        synchronized (forceLock) {
+            if (durable > id) {
+                return;
+            }
+            MappedByteBuffer segment;
+            long target;
+            synchronized (this) {
+                segment = current;
+                target = size;
+            }
+            // 之前的段在换段时已经落盘，只需要force当前段
+            segment.force();
+            forces.increment();
+            durable = target;
+        }
+    }
+
+    /**
+     * 追加并等待落盘
+     */
+    public long save(UserInfo user) {
+        long id = append(user);
+        sync(id);
+        return id;
+    }
+
+    /**
+     * 全部追加后只等待一次落盘
+     */
+    public void saveAll(List<UserInfo> users) {
+        long last = -1;
+        for (UserInfo user : users) {
+            last = append(user);
+        }
+        if (last >= 0) {
+            sync(last);
+        }
+    }
+
+    public synchronized long size() {
+        return size;
+    }
+
+    public synchronized int segmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * 创建以来调用force的次数，用于观察组提交的效果
+     */
+    public long forceCount() {
+        return forces.sum();
+    }
+
+    public UserInfo read(long id) {
+        return CODEC.decodeUserInfo(payload(id));
+    }
+
+    /**
+     * 直接读取映射内存的只读map，字段被读取时才解码，键为UserInfoConverter的默认键
+     */
+    public Map<String, String> view(long id) {
+        return CODEC.view(payload(id));
+    }
+
+    private ByteBuffer payload(long id) {
+        ByteBuffer buffer;
+        int offset;
+        synchronized (this) {
+            if (id < 0 || id >= size) {
+                throw new IndexOutOfBoundsException("record " + id + ", size " + size);
+            }
+            long position = positions[(int) id];
+            buffer = segments.get((int) (position >>> 32)).duplicate();
+            offset = (int) position;
+        }
+        int length = buffer.getInt(offset);
+        buffer.position(offset + RECORD_HEADER_BYTES).limit(offset + RECORD_HEADER_BYTES + length);
+        return buffer;
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        synchronized (forceLock) {
+            current.force();
+            forces.increment();
+            durable = size;
+        }
+        closeChannels();
+    }
+
+    /**
+     * 启动时扫描已有的段，没有段时创建第一个段
+     */
+    private void recover() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, PREFIX + "*" + SUFFIX)) {
+            for (Path file : stream) {
+                files.add(file);
+            }
+        }
+        files.sort(null);
+        for (int i = 0; i < files.size(); i++) {
+            if (!files.get(i).equals(segmentPath(i))) {
+                throw new IOException("missing segment " + segmentPath(i));
+            }
+            boolean last = i == files.size() - 1;
+            checkSegmentBytes(files.get(i));
+            MappedByteBuffer segment = open(files.get(i));
+            current = segment;
+            if (last && segment.getInt(0) == 0 && segment.getInt(4) == 0 && segment.getInt(8) == 0) {
+                // 换段时崩溃，段头没有落盘，段中也不可能有已经sync过的记录
+                zero(segment, 0);
+                writeHeader(segment);
+                writeOffset = SEGMENT_HEADER_BYTES;
+                continue;
+            }
+            if (segment.getInt(0) != MAGIC) {
+                throw new IOException("bad segment header: " + files.get(i));
+            }
+            int version = segment.getInt(4);
+            if (version != VERSION) {
+                throw new IOException("unsupported segment version " + version + ": " + files.get(i));
+            }
+            writeOffset = scan(segment, i, last);
+        }
+        if (current == null) {
+            roll();
+        }
+    }
+
+    /**
+     * 映射之前先检查段头中的段大小，映射会把文件扩展到segmentBytes，必须在此之前报错
+     * 段头还没有写入的段(换段时崩溃)不检查
+     */
+    private void checkSegmentBytes(Path file) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(SEGMENT_HEADER_BYTES);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (header.hasRemaining() && channel.read(header, header.position()) > 0) {
+                // 读满段头或读到文件末尾
+            }
+        }
+        if (header.hasRemaining() || header.getInt(0) != MAGIC) {
+            return;
+        }
+        int stored = header.getInt(8);
+        if (stored != segmentBytes) {
+            throw new IOException("segment size " + stored + " does not match " + segmentBytes + ": " + file);
+        }
+    }
+
+    /**
+     * 扫描一个段，把其中的记录加入索引，返回最后一条完整记录之后的偏移
+     * 最后一个段遇到不完整或校验失败的记录时，把从它开始到段末尾的内容清零并落盘，其它段直接报错
+     */
+    private int scan(MappedByteBuffer segment, int index, boolean last) throws IOException {
+        ByteBuffer buffer = segment.duplicate();
+        CRC32 crc = new CRC32();
+        int offset = SEGMENT_HEADER_BYTES;
+        while (offset + RECORD_HEADER_BYTES <= segmentBytes) {
+            int length = buffer.getInt(offset);
+            if (length == 0) {
+                return offset;
+            }
+            if (length < 0 || offset + RECORD_HEADER_BYTES + length > segmentBytes) {
+                break;
+            }
+            buffer.limit(offset + RECORD_HEADER_BYTES + length).position(offset + RECORD_HEADER_BYTES);
+            crc.reset();
+            crc.update(buffer);
+            buffer.limit(segmentBytes);
+            if ((int) crc.getValue() != buffer.getInt(offset + 4)) {
+                break;
+            }
+            addPosition((long) index << 32 | offset);
+            offset += RECORD_HEADER_BYTES + length;
+        }
+        if (offset + RECORD_HEADER_BYTES > segmentBytes) {
+            // 段尾剩下的空间放不下记录头，没有被截断的记录
+            return offset;
+        }
+        if (!last) {
+            throw new IOException("corrupt record at offset " + offset + " in " + segmentPath(index));
+        }
+        zero(segment, offset);
+        return offset;
+    }
+
+    /**
+     * 把段中从offset开始到末尾的内容清零并落盘
+     */
+    private void zero(MappedByteBuffer segment, int offset) {
+        ByteBuffer buffer = segment.duplicate();
+        buffer.position(offset);
+        byte[] zeros = new byte[Math.min(8192, segmentBytes)];
+        while (buffer.hasRemaining()) {
+            buffer.put(zeros, 0, Math.min(zeros.length, buffer.remaining()));
+        }
+        segment.force();
+        forces.increment();
+    }
+
+    /**
+     * 当前段落盘后换到一个新的段
+     */
+    private void roll() throws IOException {
+        if (current != null) {
+            current.force();
+            forces.increment();
+        }
+        MappedByteBuffer segment = open(segmentPath(segments.size()));
+        writeHeader(segment);
+        current = segment;
+        writeOffset = SEGMENT_HEADER_BYTES;
+    }
+
+    /**
+     * 写入段头并立即落盘，之后写入这个段的记录才可能被sync
+     */
+    private void writeHeader(MappedByteBuffer segment) {
+        segment.putInt(0, MAGIC);
+        segment.putInt(4, VERSION);
+        segment.putInt(8, segmentBytes);
+        segment.force();
+        forces.increment();
+    }
+
+    private MappedByteBuffer open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        channels.add(channel);
+        MappedByteBuffer segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        segments.add(segment);
+        return segment;
+    }
+
+    private Path segmentPath(int index) {
+        return dir.resolve(String.format("%s%010d%s", PREFIX, index, SUFFIX));
+    }
+
+    private void addPosition(long position) {
+        if (size == positions.length) {
+            positions = Arrays.copyOf(positions, positions.length * 2);
+        }
+        positions[(int) size++] = position;
+    }
+
+    private void closeChannels() throws IOException {
+        IOException failure = null;
+        for (FileChannel channel : channels) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
@@ -1,12 +1,55 @@
 package adapter.modelclass;
 
 import adapter.UserInfo;
+import adapter.log.UserLog;
+
+import java.util.List;
 
 /**
  * 类适配器，被适配的类
+ * 创建时传入UserLog则把用户持久化到日志中，saveUser返回时记录已经落盘
+ * saveUser和saveUsers都通过append逐个写入用户，子类要对每个用户做额外处理时覆盖append，两条路径都会经过它；
+ * 只覆盖saveUser不会影响saveUsers
  */
 public class Adaptee {
+    private final UserLog log;
+
+    public Adaptee() {
+        this(null);
+    }
+
+    public Adaptee(UserLog log) {
+        this.log = log;
+    }
+
     public void saveUser(UserInfo user){
+        sync(append(user));
+    }
+
+    /**
+     * 批量保存，逐个append后只落盘一次
+     */
+    public void saveUsers(List<UserInfo> users) {
+        long last = -1;
+        for (UserInfo user : users) {
+            last = append(user);
+        }
+        sync(last);
+    }
+
+    /**
+     * 写入一个用户但不等待落盘，返回日志中的记录编号，没有日志时返回-1
+     */
+    protected long append(UserInfo user) {
+        return log == null ? -1 : log.append(user);
+    }
 
+    /**
+     * 等待编号不大于id的记录落盘，id为负数时什么也不做
+     */
+    protected void sync(long id) {
+        if (log != null && id >= 0) {
+            log.sync(id);
+        }
     }
 }
@@ -0,0 +1,45 @@
+package adapter.modelclass;
+
+import adapter.OutUserInfo;
+import adapter.convert.UserInfoConverter;
+import adapter.log.UserLog;
+
+import java.util.List;
+
+/**
+ * 类适配器，继承被适配的类，把新业务的OutUserInfo转换为UserInfo后交给原有实现
+ */
+public class Adapter extends Adaptee {
+    private final UserInfoConverter converter;
+
+    public Adapter() {
+        this(new UserInfoConverter());
+    }
+
+    public Adapter(UserInfoConverter converter) {
+        this(null, converter);
+    }
+
+    /**
+     * 转换后的用户持久化到log中
+     */
+    public Adapter(UserLog log) {
+        this(log, new UserInfoConverter());
+    }
+
+    public Adapter(UserLog log, UserInfoConverter converter) {
+        super(log);
+        this.converter = converter;
+    }
+
+    public void saveUser(OutUserInfo out) {
+        saveUser(converter.toUserInfo(out));
+    }
+
+    /**
+     * 整批转换后走saveUsers批量保存
+     */
+    public void saveOutUsers(List<OutUserInfo> outs) {
+        saveUsers(converter.toUserInfos(outs));
+    }
+}
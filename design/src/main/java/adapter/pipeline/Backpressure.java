@@ -0,0 +1,19 @@
+package adapter.pipeline;
+
+/**
+ * 队列已满时对新提交的用户的处理方式
+ */
+public enum Backpressure {
+    /**
+     * 提交的线程等待，直到队列有空位
+     */
+    BLOCK,
+    /**
+     * 丢弃这个用户，submit返回false
+     */
+    DROP,
+    /**
+     * 由提交的线程自己同步保存，相当于临时多了一个消费者
+     */
+    CALLER_RUNS
+}
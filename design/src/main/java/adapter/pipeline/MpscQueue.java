@@ -0,0 +1,93 @@
+package adapter.pipeline;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 有界无锁队列，多个生产者、单个消费者
+ * 每个槽位带一个序号：序号等于写入位置时槽位空闲，等于写入位置+1时槽位已写好可以读取
+ * 生产者用CAS争抢写入位置，抢到后写入元素再发布序号；消费者只有一个，读取位置不需要CAS
+ */
+final class MpscQueue<E> {
+    private final int mask;
+    private final AtomicReferenceArray<E> elements;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+
+    MpscQueue(int capacity) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("capacity must be at least 2: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = size - 1;
+        this.elements = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * 队列已满时返回false，可以被多个线程同时调用
+     */
+    boolean offer(E e) {
+        while (true) {
+            long t = tail.get();
+            int index = (int) t & mask;
+            long diff = sequences.get(index) - t;
+            if (diff == 0) {
+                if (tail.compareAndSet(t, t + 1)) {
+                    elements.lazySet(index, e);
+                    sequences.lazySet(index, t + 1);
+                    return true;
+                }
+            } else if (diff < 0) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * 只能由消费者线程调用，队列为空或下一个元素还没写好时返回null
+     */
+    E poll() {
+        long h = head;
+        int index = (int) h & mask;
+        if (sequences.get(index) != h + 1) {
+            return null;
+        }
+        E e = elements.get(index);
+        elements.lazySet(index, null);
+        sequences.lazySet(index, h + mask + 1);
+        head = h + 1;
+        return e;
+    }
+
+    /**
+     * 只能由消费者线程调用，最多取出max个元素追加到target，返回取出的个数
+     */
+    int drain(List<? super E> target, int max) {
+        int count = 0;
+        E e;
+        while (count < max && (e = poll()) != null) {
+            target.add(e);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * 近似的元素个数，并发修改时只作为监控指标使用
+     */
+    int size() {
+        long size = tail.get() - head;
+        return (int) Math.max(0, Math.min(size, mask + 1));
+    }
+}
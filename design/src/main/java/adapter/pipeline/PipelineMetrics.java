@@ -0,0 +1,43 @@
+package adapter.pipeline;
+
+import lombok.Value;
+
+/**
+ * 批量保存流水线的指标快照，计数均为创建以来的累计值
+ */
+@Value
+public class PipelineMetrics {
+    /**
+     * 当前排队的用户数
+     */
+    int queueDepth;
+    /**
+     * 成功进入队列的用户数
+     */
+    long enqueued;
+    /**
+     * 因队列已满被丢弃的用户数
+     */
+    long dropped;
+    /**
+     * 因队列已满由提交线程同步保存的用户数
+     */
+    long callerRuns;
+    /**
+     * 消费者调用saveUsers的次数和保存的用户数
+     */
+    long batches;
+    long saved;
+    /**
+     * 最大的一批的大小
+     */
+    int largestBatch;
+    /**
+     * saveUsers抛出异常的批数，这些批中的用户视为丢失
+     */
+    long failedBatches;
+
+    public double averageBatchSize() {
+        return batches == 0 ? 0 : (double) saved / batches;
+    }
+}
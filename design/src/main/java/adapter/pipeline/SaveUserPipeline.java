@@ -0,0 +1,231 @@
+package adapter.pipeline;
+
+import adapter.UserInfo;
+import adapter.modelclass.Adaptee;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiConsumer;
+
+/**
+ * 在Adaptee前面的异步批量保存流水线
+ * 1. 生产者调用submit把用户放进有界无锁队列，立即返回
+ * 2. 唯一的消费者线程从队列中取出用户攒成一批，攒够maxBatch个或者第一个用户等待超过maxDelay时调用一次saveUsers
+ * 3. 队列满时按Backpressure处理：等待、丢弃或由提交线程同步保存
+ * 4. saveUsers抛出异常时整批交给onFailure处理，消费者继续运行；不传onFailure时只在PipelineMetrics.failedBatches中计数
+ * CALLER_RUNS时提交线程和消费者线程可能同时调用Adaptee，Adaptee需要是线程安全的
+ * close会保存完队列中剩余的用户后再返回
+ */
+public class SaveUserPipeline implements AutoCloseable {
+    public static final int DEFAULT_CAPACITY = 8192;
+    public static final int DEFAULT_MAX_BATCH = 256;
+    public static final long DEFAULT_MAX_DELAY_MILLIS = 10;
+
+    /**
+     * BLOCK时生产者每次等待的时间
+     */
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final Adaptee target;
+    private final MpscQueue<UserInfo> queue;
+    private final int maxBatch;
+    private final long maxDelayNanos;
+    private final Backpressure backpressure;
+    private final BiConsumer<? super List<UserInfo>, ? super Throwable> onFailure;
+    private final Thread consumer;
+    private volatile boolean closed;
+    /**
+     * 消费者手上没有用户、准备无限期等待时为true，生产者看到后负责唤醒它
+     */
+    private final AtomicBoolean idle = new AtomicBoolean();
+    /**
+     * 正在执行submit的线程数，关闭时消费者要等它们都结束后才能退出
+     */
+    private final AtomicInteger submitting = new AtomicInteger();
+
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder callerRuns = new LongAdder();
+    /**
+     * 以下计数只由消费者线程修改
+     */
+    private volatile long batches;
+    private volatile long saved;
+    private volatile int largestBatch;
+    private volatile long failedBatches;
+
+    public SaveUserPipeline(Adaptee target) {
+        this(target, DEFAULT_CAPACITY, DEFAULT_MAX_BATCH, DEFAULT_MAX_DELAY_MILLIS, TimeUnit.MILLISECONDS,
+                Backpressure.BLOCK);
+    }
+
+    /**
+     * @param capacity     队列容量，向上取整为2的幂
+     * @param maxBatch     每批最多保存的用户数
+     * @param maxDelay     一批中第一个用户最多等待多久就必须保存
+     * @param backpressure 队列满时的处理方式
+     */
+    public SaveUserPipeline(Adaptee target, int capacity, int maxBatch, long maxDelay, TimeUnit unit,
+                            Backpressure backpressure) {
+        this(target, capacity, maxBatch, maxDelay, unit, backpressure, SaveUserPipeline::ignoreFailure);
+    }
+
+    /**
+     * @param onFailure 消费者保存一批失败时调用，参数是这一批用户和saveUsers抛出的异常，在消费者线程中执行
+     */
+    public SaveUserPipeline(Adaptee target, int capacity, int maxBatch, long maxDelay, TimeUnit unit,
+                            Backpressure backpressure, BiConsumer<? super List<UserInfo>, ? super Throwable> onFailure) {
+        if (maxBatch <= 0) {
+            throw new IllegalArgumentException("maxBatch must be positive: " + maxBatch);
+        }
+        long maxDelayNanos = unit.toNanos(maxDelay);
+        if (maxDelayNanos <= 0) {
+            throw new IllegalArgumentException("maxDelay must be positive: " + maxDelay + " " + unit);
+        }
+        this.target = target;
+        this.queue = new MpscQueue<>(capacity);
+        this.maxBatch = maxBatch;
+        this.maxDelayNanos = maxDelayNanos;
+        this.backpressure = backpressure;
+        this.onFailure = onFailure;
+        this.consumer = new Thread(this::consume, "save-user-pipeline");
+        this.consumer.setDaemon(true);
+        this.consumer.start();
+    }
+
+    /**
+     * 提交一个用户，返回false表示队列已满且被丢弃
+     */
+    public boolean submit(UserInfo user) {
+        submitting.incrementAndGet();
+        try {
+            return offer(user);
+        } finally {
+            submitting.decrementAndGet();
+        }
+    }
+
+    private boolean offer(UserInfo user) {
+        if (closed) {
+            throw new IllegalStateException("pipeline closed");
+        }
+        if (!queue.offer(user)) {
+            switch (backpressure) {
+                case DROP:
+                    dropped.increment();
+                    return false;
+                case CALLER_RUNS:
+                    callerRuns.increment();
+                    target.saveUsers(Collections.singletonList(user));
+                    return true;
+                default:
+                    // 关闭期间消费者也会等正在submit的线程结束，所以只要消费者还活着这里总能等到空位
+                    do {
+                        if (!consumer.isAlive()) {
+                            throw new IllegalStateException("pipeline consumer terminated");
+                        }
+                        LockSupport.unpark(consumer);
+                        LockSupport.parkNanos(this, BLOCK_PARK_NANOS);
+                    } while (!queue.offer(user));
+            }
+        }
+        enqueued.increment();
+        // 队列从空变为非空时消费者可能正在无限期等待，攒够一批时也要尽快叫醒它
+        if (idle.get() && idle.compareAndSet(true, false) || queue.size() >= maxBatch) {
+            LockSupport.unpark(consumer);
+        }
+        return true;
+    }
+
+    public PipelineMetrics metrics() {
+        return new PipelineMetrics(queue.size(), enqueued.sum(), dropped.sum(), callerRuns.sum(),
+                batches, saved, largestBatch, failedBatches);
+    }
+
+    /**
+     * 停止接收新的用户，等待消费者保存完队列中剩余的用户
+     * 等待期间不响应中断，被中断时在返回前恢复中断标志
+     */
+    @Override
+    public void close() {
+        closed = true;
+        LockSupport.unpark(consumer);
+        boolean interrupted = false;
+        while (true) {
+            try {
+                consumer.join();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void consume() {
+        List<UserInfo> batch = new ArrayList<>(maxBatch);
+        long deadline = 0;
+        while (true) {
+            boolean closing = closed;
+            boolean wasEmpty = batch.isEmpty();
+            queue.drain(batch, maxBatch - batch.size());
+            if (wasEmpty && !batch.isEmpty()) {
+                deadline = System.nanoTime() + maxDelayNanos;
+            }
+            if (batch.size() >= maxBatch || !batch.isEmpty() && (closing || System.nanoTime() - deadline >= 0)) {
+                save(batch);
+                batch = new ArrayList<>(maxBatch);
+                continue;
+            }
+            if (closing && batch.isEmpty() && submitting.get() == 0 && queue.size() == 0) {
+                // 之后的submit都会看到closed而失败，不会再有用户进入队列
+                return;
+            }
+            if (!batch.isEmpty()) {
+                LockSupport.parkNanos(this, deadline - System.nanoTime());
+            } else if (!closing) {
+                // 先声明空闲再检查队列：生产者先入队再检查idle，两边至少有一边能看到对方
+                idle.set(true);
+                if (queue.size() == 0 && !closed) {
+                    LockSupport.park(this);
+                }
+                idle.set(false);
+            } else {
+                Thread.yield();
+            }
+        }
+    }
+
+    /**
+     * 捕获Throwable，Error也不能让消费者线程退出，否则BLOCK的生产者会一直等下去
+     */
+    private void save(List<UserInfo> batch) {
+        try {
+            target.saveUsers(batch);
+            saved += batch.size();
+        } catch (Throwable e) {
+            failedBatches++;
+            try {
+                onFailure.accept(batch, e);
+            } catch (Throwable ignored) {
+                // onFailure自己的异常无处可报，忽略
+            }
+        }
+        batches++;
+        if (batch.size() > largestBatch) {
+            largestBatch = batch.size();
+        }
+    }
+
+    private static void ignoreFailure(List<UserInfo> batch, Throwable e) {
+        // 失败只在failedBatches中计数
+    }
+}
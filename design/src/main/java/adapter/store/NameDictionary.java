@@ -0,0 +1,129 @@
+package adapter.store;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * 名字字典，每个不同的名字只保存一份UTF-8字节，编号从0开始连续分配
+ * 所有名字的字节依次追加到同一个byte数组中，编号i的名字占[offsets[i], offsets[i + 1])
+ * 查找用开放寻址的哈希表，表中只存编号，比较时直接比较字节，不保留任何String对象
+ */
+final class NameDictionary {
+    private byte[] arena = new byte[1024];
+    private int[] offsets = new int[17];
+    private int[] hashes = new int[16];
+    private int size;
+    /**
+     * 槽位中存放编号 + 1，0表示空槽
+     */
+    private int[] table = new int[32];
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * 返回名字的编号，第一次出现时分配新编号
+     */
+    int intern(String name) {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        int hash = hash(bytes);
+        int mask = table.length - 1;
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            int id = table[slot] - 1;
+            if (id < 0) {
+                id = append(bytes, hash);
+                table[slot] = id + 1;
+                if (size * 2 > table.length) {
+                    rehash();
+                }
+                return id;
+            }
+            if (hashes[id] == hash && matches(id, bytes)) {
+                return id;
+            }
+        }
+    }
+
+    String get(int id) {
+        return new String(arena, offsets[id], offsets[id + 1] - offsets[id], StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 把编号id的名字解码后追加到sb，不创建String
+     * 字节都来自String.getBytes，一定是合法的UTF-8，四字节的字符解码为代理对
+     */
+    void appendTo(int id, StringBuilder sb) {
+        for (int i = offsets[id], end = offsets[id + 1]; i < end; ) {
+            int b = arena[i++];
+            if (b >= 0) {
+                sb.append((char) b);
+            } else if ((b & 0xE0) == 0xC0) {
+                sb.append((char) ((b & 0x1F) << 6 | arena[i++] & 0x3F));
+            } else if ((b & 0xF0) == 0xE0) {
+                sb.append((char) ((b & 0x0F) << 12 | (arena[i++] & 0x3F) << 6 | arena[i++] & 0x3F));
+            } else {
+                int cp = (b & 0x07) << 18 | (arena[i++] & 0x3F) << 12 | (arena[i++] & 0x3F) << 6 | arena[i++] & 0x3F;
+                sb.append(Character.highSurrogate(cp)).append(Character.lowSurrogate(cp));
+            }
+        }
+    }
+
+    /**
+     * 各数组实际占用的字节数，包括未使用的容量和数组头
+     */
+    long memoryBytes() {
+        return 16L * 4 + arena.length + 4L * (offsets.length + hashes.length + table.length);
+    }
+
+    private int append(byte[] bytes, int hash) {
+        int start = offsets[size];
+        if (start + bytes.length > arena.length) {
+            arena = Arrays.copyOf(arena, Math.max(arena.length * 2, start + bytes.length));
+        }
+        System.arraycopy(bytes, 0, arena, start, bytes.length);
+        if (size + 1 == hashes.length) {
+            hashes = Arrays.copyOf(hashes, hashes.length * 2);
+            offsets = Arrays.copyOf(offsets, offsets.length * 2);
+        }
+        hashes[size] = hash;
+        offsets[size + 1] = start + bytes.length;
+        return size++;
+    }
+
+    private boolean matches(int id, byte[] bytes) {
+        int start = offsets[id];
+        if (offsets[id + 1] - start != bytes.length) {
+            return false;
+        }
+        for (int i = 0; i < bytes.length; i++) {
+            if (arena[start + i] != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void rehash() {
+        int[] next = new int[table.length * 2];
+        int mask = next.length - 1;
+        for (int id = 0; id < size; id++) {
+            int slot = hashes[id] & mask;
+            while (next[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            next[slot] = id + 1;
+        }
+        table = next;
+    }
+
+    private static int hash(byte[] bytes) {
+        int h = 1;
+        for (byte b : bytes) {
+            h = 31 * h + b;
+        }
+        // 打散低位，避免相近的名字落在相邻的槽位
+        h = (h ^ (h >>> 16)) * 0x85EBCA6B;
+        return h ^ (h >>> 13);
+    }
+}
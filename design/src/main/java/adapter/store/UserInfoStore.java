@@ -0,0 +1,240 @@
+package adapter.store;
+
+import adapter.UserInfo;
+import adapter.codec.PhoneCodec;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 按列存放的UserInfo集合，每个用户只占一个下标(行号)，不为每个用户创建对象
+ * 1. age存放在int数组中
+ * 2. phone用PhoneCodec编码后存放在long数组中，无法编码的少数手机号另外保存原始字符串
+ * 3. name去重后存入NameDictionary，每行只存名字的编号
+ * 读取时可以按行号取出单个字段，也可以用Cursor在各行之间移动，Cursor本身就是一个UserInfo
+ * 不是线程安全的，写入和读取需要由调用方同步
+ */
+public class UserInfoStore {
+    /**
+     * name为null时的名字编号
+     */
+    static final int NULL_NAME = -1;
+
+    private int[] ages;
+    private long[] phones;
+    private int[] nameIds;
+    private int size;
+    private final NameDictionary names = new NameDictionary();
+    /**
+     * 无法编码的手机号，键为行号
+     */
+    private final Map<Integer, String> rawPhones = new HashMap<>();
+
+    public UserInfoStore() {
+        this(16);
+    }
+
+    public UserInfoStore(int initialCapacity) {
+        int capacity = Math.max(1, initialCapacity);
+        ages = new int[capacity];
+        phones = new long[capacity];
+        nameIds = new int[capacity];
+    }
+
+    /**
+     * 追加一个用户，返回它的行号
+     */
+    public int add(UserInfo user) {
+        return add(user.getName(), user.getAge(), user.getPhone());
+    }
+
+    public int add(String name, int age, String phone) {
+        if (size == ages.length) {
+            int capacity = size * 2;
+            ages = Arrays.copyOf(ages, capacity);
+            phones = Arrays.copyOf(phones, capacity);
+            nameIds = Arrays.copyOf(nameIds, capacity);
+        }
+        int row = size++;
+        ages[row] = age;
+        long code = PhoneCodec.encode(phone);
+        phones[row] = code;
+        if (code == PhoneCodec.UNENCODABLE) {
+            rawPhones.put(row, phone);
+        }
+        nameIds[row] = name == null ? NULL_NAME : names.intern(name);
+        return row;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 不同名字的个数
+     */
+    public int distinctNames() {
+        return names.size();
+    }
+
+    public int age(int row) {
+        checkRow(row);
+        return ages[row];
+    }
+
+    /**
+     * PhoneCodec编码后的手机号，不分配内存
+     */
+    public long phoneCode(int row) {
+        checkRow(row);
+        return phones[row];
+    }
+
+    public String phone(int row) {
+        checkRow(row);
+        long code = phones[row];
+        return code == PhoneCodec.UNENCODABLE ? rawPhones.get(row) : PhoneCodec.decode(code);
+    }
+
+    /**
+     * 名字的编号，同名的用户编号相同，name为null时返回-1
+     */
+    public int nameId(int row) {
+        checkRow(row);
+        return nameIds[row];
+    }
+
+    public String name(int row) {
+        checkRow(row);
+        return nameIds[row] == NULL_NAME ? null : names.get(nameIds[row]);
+    }
+
+    /**
+     * 创建一个独立的UserInfo对象
+     */
+    public UserInfo get(int row) {
+        return new UserInfo(name(row), age(row), phone(row));
+    }
+
+    /**
+     * 创建一个位于第一行之前的游标
+     */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * 各列数组实际占用的字节数，包括未使用的容量，不包括无法编码的手机号
+     */
+    public long memoryBytes() {
+        return 3 * 16L + 4L * ages.length + 8L * phones.length + 4L * nameIds.length + names.memoryBytes();
+    }
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("row " + row + ", size " + size);
+        }
+    }
+
+    /**
+     * 指向某一行的UserInfo视图，移动时不分配内存，同一个游标可以反复使用
+     * age、phoneCode和nameId直接读取列数组；getName和getPhone每次调用都会解码出新的字符串，
+     * 需要避免分配时用appendName和appendPhone追加到调用方复用的StringBuilder
+     * 视图是只读的，调用setter会抛出UnsupportedOperationException
+     */
+    public final class Cursor extends UserInfo {
+        private int row = -1;
+
+        private Cursor() {
+            super(null, 0, null);
+        }
+
+        public int row() {
+            return row;
+        }
+
+        public Cursor moveTo(int row) {
+            checkRow(row);
+            this.row = row;
+            return this;
+        }
+
+        /**
+         * 移动到下一行，已经是最后一行时返回false
+         */
+        public boolean next() {
+            if (row + 1 >= size) {
+                return false;
+            }
+            row++;
+            return true;
+        }
+
+        public long phoneCode() {
+            return phones[row];
+        }
+
+        public int nameId() {
+            return nameIds[row];
+        }
+
+        /**
+         * 把名字追加到sb，不分配内存，name为null时不追加并返回false
+         */
+        public boolean appendName(StringBuilder sb) {
+            int id = nameIds[row];
+            if (id == NULL_NAME) {
+                return false;
+            }
+            names.appendTo(id, sb);
+            return true;
+        }
+
+        /**
+         * 把手机号追加到sb，能编码的手机号不分配内存，phone为null时不追加并返回false
+         */
+        public boolean appendPhone(StringBuilder sb) {
+            long code = phones[row];
+            if (code == PhoneCodec.NULL) {
+                return false;
+            }
+            if (code == PhoneCodec.UNENCODABLE) {
+                sb.append(rawPhones.get(row));
+            } else {
+                PhoneCodec.appendTo(code, sb);
+            }
+            return true;
+        }
+
+        @Override
+        public int getAge() {
+            return ages[row];
+        }
+
+        @Override
+        public String getName() {
+            return name(row);
+        }
+
+        @Override
+        public String getPhone() {
+            return phone(row);
+        }
+
+        @Override
+        public void setName(String name) {
+            throw new UnsupportedOperationException("cursor is read-only");
+        }
+
+        @Override
+        public void setAge(int age) {
+            throw new UnsupportedOperationException("cursor is read-only");
+        }
+
+        @Override
+        public void setPhone(String phone) {
+            throw new UnsupportedOperationException("cursor is read-only");
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package adapter.cache;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * adapter.cache.TinyLfuCache测试，用可控的时钟测试过期
+ */
+public class TinyLfuCacheTest {
+    @Test
+    public void evictsDownToMaximumSize() {
+        TinyLfuCache<Integer, Integer> cache = new TinyLfuCache<>(100, 0, TimeUnit.NANOSECONDS, 1);
+        for (int i = 0; i < 1000; i++) {
+            cache.put(i, i);
+        }
+        CacheStats stats = cache.stats();
+        Assert.assertEquals(100, stats.getSize());
+        Assert.assertEquals(900, stats.getEvictions());
+        Assert.assertEquals(0, stats.getExpirations());
+    }
+
+    /**
+     * 经常访问的键不会被只出现一次的键挤掉
+     */
+    @Test
+    public void frequentKeysSurviveScan() {
+        TinyLfuCache<Integer, Integer> cache = new TinyLfuCache<>(100, 0, TimeUnit.NANOSECONDS, 1);
+        for (int hot = 0; hot < 50; hot++) {
+            cache.put(hot, hot);
+        }
+        for (int round = 0; round < 10; round++) {
+            for (int hot = 0; hot < 50; hot++) {
+                Assert.assertEquals(Integer.valueOf(hot), cache.get(hot));
+            }
+            cache.cleanUp();
+        }
+        for (int cold = 1000; cold < 1500; cold++) {
+            cache.put(cold, cold);
+        }
+        for (int hot = 0; hot < 50; hot++) {
+            Assert.assertEquals(Integer.valueOf(hot), cache.get(hot));
+        }
+        Assert.assertEquals(100, cache.size());
+    }
+
+    @Test
+    public void entriesExpireAfterWrite() {
+        AtomicLong now = new AtomicLong();
+        TinyLfuCache<String, String> cache = new TinyLfuCache<>(100, 10, TimeUnit.SECONDS, 2, now::get);
+        cache.put("a", "1");
+        now.addAndGet(TimeUnit.SECONDS.toNanos(5));
+        cache.put("b", "2");
+        Assert.assertEquals("1", cache.get("a"));
+        now.addAndGet(TimeUnit.SECONDS.toNanos(5));
+        // a已过期但还没有移除，读取时视为不存在
+        Assert.assertNull(cache.get("a"));
+        Assert.assertEquals("2", cache.get("b"));
+        Assert.assertEquals(2, cache.size());
+        cache.cleanUp();
+        Assert.assertEquals(1, cache.size());
+        Assert.assertEquals(1, cache.stats().getExpirations());
+        // 重新写入后重新计时
+        cache.put("b", "3");
+        now.addAndGet(TimeUnit.SECONDS.toNanos(9));
+        Assert.assertEquals("3", cache.get("b"));
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        cache.cleanUp();
+        Assert.assertEquals(0, cache.size());
+        Assert.assertEquals(2, cache.stats().getExpirations());
+    }
+
+    @Test
+    public void statsCountHitsMissesAndLoads() {
+        TinyLfuCache<String, String> cache = new TinyLfuCache<>(100);
+        AtomicInteger loads = new AtomicInteger();
+        Assert.assertEquals("A", cache.get("a", key -> {
+            loads.incrementAndGet();
+            return key.toUpperCase();
+        }));
+        Assert.assertEquals("A", cache.get("a", key -> {
+            loads.incrementAndGet();
+            return key.toUpperCase();
+        }));
+        Assert.assertNull(cache.get("b", key -> null));
+        Assert.assertNull(cache.get("b"));
+        cache.invalidate("a");
+        Assert.assertNull(cache.get("a"));
+        CacheStats stats = cache.stats();
+        Assert.assertEquals(1, loads.get());
+        Assert.assertEquals(1, stats.getHits());
+        Assert.assertEquals(4, stats.getMisses());
+        Assert.assertEquals(0.2, stats.hitRate(), 1e-9);
+        Assert.assertEquals(0, stats.getSize());
+    }
+}
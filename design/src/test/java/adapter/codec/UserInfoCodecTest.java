@@ -0,0 +1,165 @@
+package adapter.codec;
+
+import adapter.OutUserInfo;
+import adapter.UserInfo;
+import adapter.convert.UserInfoConverter;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * adapter.codec.UserInfoCodec测试，编码后再解码或通过view读取应得到相同的内容
+ */
+public class UserInfoCodecTest {
+    private final UserInfoCodec codec = new UserInfoCodec();
+
+    private static final UserInfo[] USERS = {
+            new UserInfo("alice", 30, "13800138000"),
+            new UserInfo("\u5f20\u4e09", 0, "+8613800138000"),
+            new UserInfo(null, -5, null),
+            new UserInfo("", Integer.MAX_VALUE, ""),
+            new UserInfo("bob", Integer.MIN_VALUE, "0010"),
+            new UserInfo("carol", 41, "138-0013-8000"),
+            new UserInfo("\ud83d\ude00", 7, "123456789012345678901234"),
+    };
+
+    @Test
+    public void userInfoRoundTrip() {
+        int size = 0;
+        for (UserInfo user : USERS) {
+            size += codec.encodedSize(user);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        for (UserInfo user : USERS) {
+            int before = buffer.position();
+            codec.encode(user, buffer);
+            Assert.assertEquals(codec.encodedSize(user), buffer.position() - before);
+            Assert.assertArrayEquals(codec.encode(user), copy(buffer, before, buffer.position()));
+        }
+        Assert.assertFalse(buffer.hasRemaining());
+        buffer.flip();
+        for (UserInfo user : USERS) {
+            Assert.assertEquals(user, codec.decodeUserInfo(buffer));
+        }
+        Assert.assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    public void randomUserInfoRoundTrip() {
+        Random random = new Random(7);
+        for (int i = 0; i < 100_000; i++) {
+            UserInfo user = new UserInfo(random.nextInt(10) == 0 ? null : "user" + random.nextInt(),
+                    random.nextInt(), random.nextInt(10) == 0 ? null
+                    : String.valueOf(random.nextLong() & Long.MAX_VALUE));
+            Assert.assertEquals(user, codec.decodeUserInfo(ByteBuffer.wrap(codec.encode(user))));
+        }
+    }
+
+    /**
+     * map中的原始字符串（如带前导零的年龄）和其它键都能原样还原
+     */
+    @Test
+    public void mapRoundTripThroughView() {
+        Map<String, String> map = new LinkedHashMap<>();
+        map.put(UserInfoConverter.NAME, "alice");
+        map.put(UserInfoConverter.AGE, "007");
+        map.put(UserInfoConverter.PHONE, "+8613800138000");
+        map.put("email", "alice@example.com");
+        map.put("city", "\u5317\u4eac");
+        OutUserInfo out = new OutUserInfo();
+        out.setUserInfoMap(map);
+        byte[] bytes = codec.encode(out);
+        Assert.assertEquals(codec.encodedSize(map), bytes.length);
+
+        Map<String, String> view = codec.view(ByteBuffer.wrap(bytes));
+        Assert.assertEquals("alice@example.com", view.get("email"));
+        Assert.assertEquals("007", view.get(UserInfoConverter.AGE));
+        Assert.assertNull(view.get("missing"));
+        Assert.assertEquals(new HashMap<>(map), new HashMap<>(view));
+        Assert.assertEquals(map.size(), view.size());
+        Assert.assertEquals(new HashMap<>(map), new HashMap<>(codec.decodeOutUserInfo(ByteBuffer.wrap(bytes))
+                .getUserInfoMap()));
+
+        UserInfo user = codec.decodeUserInfo(ByteBuffer.wrap(bytes));
+        Assert.assertEquals(new UserInfo("alice", 7, "+8613800138000"), user);
+    }
+
+    /**
+     * age和phoneCode读取view与读取普通map的结果相同
+     */
+    @Test
+    public void numericAccessors() {
+        for (UserInfo user : USERS) {
+            Map<String, String> view = codec.view(ByteBuffer.wrap(codec.encode(user)));
+            Assert.assertEquals(user.getAge(), codec.age(view));
+            Assert.assertEquals(PhoneCodec.encode(user.getPhone()), codec.phoneCode(view));
+            Assert.assertEquals(user.getPhone(), view.get(UserInfoConverter.PHONE));
+        }
+        Map<String, String> map = new HashMap<>();
+        map.put(UserInfoConverter.AGE, "007");
+        map.put(UserInfoConverter.PHONE, "0010");
+        Map<String, String> view = codec.view(ByteBuffer.wrap(codec.encode(outUserInfo(map))));
+        Assert.assertEquals(7, codec.age(view));
+        Assert.assertEquals(7, codec.age(map));
+        Assert.assertEquals(PhoneCodec.encode("0010"), codec.phoneCode(view));
+        Assert.assertEquals(PhoneCodec.encode("0010"), codec.phoneCode(map));
+        Assert.assertEquals("0010", view.get(UserInfoConverter.PHONE));
+        Map<String, String> empty = codec.view(ByteBuffer.wrap(codec.encode(outUserInfo(new HashMap<>()))));
+        Assert.assertEquals(UserInfoConverter.INVALID_AGE, codec.age(empty));
+        Assert.assertEquals(PhoneCodec.NULL, codec.phoneCode(empty));
+    }
+
+    /**
+     * 把view交给encode时复制原始字节，转发后的记录和原记录完全相同
+     */
+    @Test
+    public void forwardingViewCopiesRecordBytes() {
+        ByteBuffer source = ByteBuffer.allocate(1024);
+        for (UserInfo user : USERS) {
+            codec.encode(user, source);
+        }
+        source.flip();
+        ByteBuffer target = ByteBuffer.allocate(source.remaining());
+        ByteBuffer reader = source.duplicate();
+        for (int i = 0; i < USERS.length; i++) {
+            Map<String, String> view = codec.view(reader);
+            Assert.assertEquals(USERS[i].getPhone(), view.get(UserInfoConverter.PHONE));
+            codec.encode(view, target);
+        }
+        Assert.assertEquals(source, target.flip());
+    }
+
+    @Test
+    public void viewWithCustomKeys() {
+        UserInfoCodec custom = new UserInfoCodec("n", "a", "p");
+        Map<String, String> view = custom.view(ByteBuffer.wrap(custom.encode(USERS[0])));
+        Assert.assertEquals("alice", view.get("n"));
+        Assert.assertEquals("30", view.get("a"));
+        Assert.assertEquals("13800138000", view.get("p"));
+        Assert.assertNull(view.get(UserInfoConverter.NAME));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void viewIsReadOnly() {
+        codec.view(ByteBuffer.wrap(codec.encode(USERS[0]))).put("name", "bob");
+    }
+
+    private static OutUserInfo outUserInfo(Map<String, String> map) {
+        OutUserInfo out = new OutUserInfo();
+        out.setUserInfoMap(map);
+        return out;
+    }
+
+    private static byte[] copy(ByteBuffer buffer, int from, int to) {
+        byte[] bytes = new byte[to - from];
+        ByteBuffer source = buffer.duplicate();
+        source.position(from).limit(to);
+        source.get(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,190 @@
+package adapter.convert;
+
+import adapter.OutUserInfo;
+import adapter.UserInfo;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * adapter.convert.UserInfoConverter和SlotMap测试
+ */
+public class UserInfoConverterTest {
+    private final UserInfoConverter converter = new UserInfoConverter();
+
+    private static UserInfo user(int i) {
+        return new UserInfo("user" + i, i % 100, String.valueOf(13800000000L + i));
+    }
+
+    private static Map<String, String> hashMap(UserInfo user) {
+        Map<String, String> map = new HashMap<>();
+        map.put(UserInfoConverter.NAME, user.getName());
+        map.put(UserInfoConverter.AGE, String.valueOf(user.getAge()));
+        map.put(UserInfoConverter.PHONE, user.getPhone());
+        return map;
+    }
+
+    @Test
+    public void parseAge() {
+        Assert.assertEquals(0, UserInfoConverter.parseAge("0"));
+        Assert.assertEquals(42, UserInfoConverter.parseAge("42"));
+        Assert.assertEquals(7, UserInfoConverter.parseAge("007"));
+        Assert.assertEquals(999_999_999, UserInfoConverter.parseAge("999999999"));
+        Assert.assertEquals(42, UserInfoConverter.parseAge(new StringBuilder("42")));
+        String[] invalid = {null, "", "-1", "+1", "4 2", "4a", "1.5", "1234567890"};
+        for (String s : invalid) {
+            Assert.assertEquals(s, UserInfoConverter.INVALID_AGE, UserInfoConverter.parseAge(s));
+        }
+    }
+
+    @Test
+    public void roundTrip() {
+        for (int i = 0; i < 300; i++) {
+            UserInfo user = new UserInfo("user" + i, i, String.valueOf(i));
+            Map<String, String> map = converter.toMap(user);
+            Assert.assertEquals(hashMap(user), map);
+            Assert.assertEquals(user, converter.toUserInfo(map));
+            Assert.assertEquals(user, converter.toUserInfo(hashMap(user)));
+        }
+    }
+
+    /**
+     * 负数的age和null字段都不出现在map中，转换回来是INVALID_AGE和null
+     */
+    @Test
+    public void invalidAgeLeavesSlotEmpty() {
+        UserInfo user = new UserInfo(null, UserInfoConverter.INVALID_AGE, "1");
+        Map<String, String> map = converter.toMap(user);
+        Assert.assertFalse(map.containsKey(UserInfoConverter.AGE));
+        Assert.assertFalse(map.containsKey(UserInfoConverter.NAME));
+        Assert.assertEquals(Collections.singletonMap(UserInfoConverter.PHONE, "1"), map);
+        Assert.assertEquals(user, converter.toUserInfo(map));
+
+        Map<String, String> negative = converter.toMap(new UserInfo("a", -5, "1"));
+        Assert.assertNull(negative.get(UserInfoConverter.AGE));
+        Assert.assertEquals(UserInfoConverter.INVALID_AGE, converter.toUserInfo(negative).getAge());
+    }
+
+    /**
+     * 通过Map接口修改过的年龄槽位按新值解析
+     */
+    @Test
+    public void putAgeOverridesCachedValue() {
+        Map<String, String> map = converter.toMap(user(30));
+        map.put(UserInfoConverter.AGE, "31");
+        Assert.assertEquals(31, converter.toUserInfo(map).getAge());
+        map.put(UserInfoConverter.AGE, "x");
+        Assert.assertEquals(UserInfoConverter.INVALID_AGE, converter.toUserInfo(map).getAge());
+        map.remove(UserInfoConverter.AGE);
+        Assert.assertEquals(UserInfoConverter.INVALID_AGE, converter.toUserInfo(map).getAge());
+        // 超出预先生成范围的年龄
+        Assert.assertEquals(12345, converter.toUserInfo(converter.toMap(new UserInfo("a", 12345, "1"))).getAge());
+    }
+
+    @Test
+    public void slotMapEqualsAndHashCode() {
+        UserInfo user = user(7);
+        Map<String, String> map = converter.toMap(user);
+        Map<String, String> expected = hashMap(user);
+        Assert.assertEquals(expected, map);
+        Assert.assertEquals(map, expected);
+        Assert.assertEquals(expected.hashCode(), map.hashCode());
+        Assert.assertEquals(expected.entrySet(), map.entrySet());
+        Assert.assertEquals(3, map.size());
+    }
+
+    /**
+     * 固定字段以外的键存放在另外的map中，clear同时清空两部分
+     */
+    @Test
+    public void slotMapForeignKeys() {
+        UserInfo user = user(7);
+        Map<String, String> map = converter.toMap(user);
+        Assert.assertNull(map.put("email", "a@b.c"));
+        Assert.assertEquals("a@b.c", map.get("email"));
+        Assert.assertEquals(4, map.size());
+        Map<String, String> expected = hashMap(user);
+        expected.put("email", "a@b.c");
+        Assert.assertEquals(expected, map);
+        Assert.assertEquals(expected.hashCode(), map.hashCode());
+        // 用不是同一对象的键也能找到固定字段
+        Assert.assertEquals(user.getName(), map.get(new String(UserInfoConverter.NAME)));
+        Assert.assertEquals(user, converter.toUserInfo(map));
+
+        Assert.assertEquals("a@b.c", map.remove("email"));
+        Assert.assertEquals(hashMap(user), map);
+        map.put("email", "a@b.c");
+        map.clear();
+        Assert.assertTrue(map.isEmpty());
+        Assert.assertEquals(Collections.emptyMap(), map);
+        Assert.assertNull(map.get("email"));
+    }
+
+    @Test
+    public void copyIntoOutReplacesForeignKeys() {
+        OutUserInfo out = converter.toOutUserInfo(user(1));
+        Map<String, String> map = out.getUserInfoMap();
+        map.put("email", "a@b.c");
+        converter.copy(user(2), out);
+        Assert.assertSame(map, out.getUserInfoMap());
+        Assert.assertEquals(hashMap(user(2)), map);
+
+        // 不是本转换器生成的map整个换掉
+        OutUserInfo foreign = new OutUserInfo();
+        foreign.setUserInfoMap(hashMap(user(3)));
+        converter.copy(user(4), foreign);
+        Assert.assertTrue(foreign.getUserInfoMap() instanceof SlotMap);
+        Assert.assertEquals(hashMap(user(4)), foreign.getUserInfoMap());
+    }
+
+    /**
+     * 批量转换复用已有的对象，多余的删除，不够的追加
+     */
+    @Test
+    public void batchReuse() {
+        List<UserInfo> users = new ArrayList<>();
+        List<OutUserInfo> outs = new ArrayList<>();
+        List<OutUserInfo> input = converter.toOutUserInfos(Arrays.asList(user(0), user(1), user(2)));
+        converter.toUserInfos(input, users);
+        converter.toOutUserInfos(users, outs);
+        Assert.assertEquals(Arrays.asList(user(0), user(1), user(2)), users);
+        UserInfo first = users.get(0);
+        OutUserInfo firstOut = outs.get(0);
+        Map<String, String> firstMap = firstOut.getUserInfoMap();
+
+        converter.toUserInfos(converter.toOutUserInfos(Arrays.asList(user(5), user(6))), users);
+        converter.toOutUserInfos(users, outs);
+        Assert.assertEquals(Arrays.asList(user(5), user(6)), users);
+        Assert.assertEquals(2, outs.size());
+        Assert.assertSame(first, users.get(0));
+        Assert.assertSame(firstOut, outs.get(0));
+        Assert.assertSame(firstMap, outs.get(0).getUserInfoMap());
+        Assert.assertEquals(hashMap(user(5)), firstMap);
+
+        List<OutUserInfo> longer = new ArrayList<>();
+        for (int i = 10; i < 14; i++) {
+            OutUserInfo out = new OutUserInfo();
+            out.setUserInfoMap(hashMap(user(i)));
+            longer.add(out);
+        }
+        converter.toUserInfos(longer, users);
+        converter.toOutUserInfos(users, outs);
+        Assert.assertEquals(Arrays.asList(user(10), user(11), user(12), user(13)), users);
+        Assert.assertSame(first, users.get(0));
+        Assert.assertEquals(4, outs.size());
+        for (int i = 0; i < 4; i++) {
+            Assert.assertEquals(hashMap(user(10 + i)), outs.get(i).getUserInfoMap());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void duplicateKeysRejected() {
+        new UserInfoConverter("k", "age", "k");
+    }
+}
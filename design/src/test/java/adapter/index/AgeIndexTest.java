@@ -0,0 +1,99 @@
+package adapter.index;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * adapter.index.AgeIndex测试
+ */
+public class AgeIndexTest {
+    @Test
+    public void rangeQueries() {
+        AgeIndex index = new AgeIndex();
+        index.add(30, 0);
+        index.add(20, 1);
+        index.add(30, 2);
+        index.add(40, 3);
+        index.add(25, 4);
+        Assert.assertEquals(5, index.size());
+        Assert.assertEquals(4, index.distinctAges());
+        Assert.assertArrayEquals(new int[]{1, 4, 0, 2}, index.rows(20, 30));
+        Assert.assertArrayEquals(new int[]{0, 2, 3}, index.rows(26, 100));
+        Assert.assertEquals(0, index.count(31, 39));
+        Assert.assertEquals(0, index.rows(50, 60).length);
+        Assert.assertEquals(0, index.count(30, 20));
+        List<Integer> visited = new ArrayList<>();
+        index.forEach(0, 100, visited::add);
+        Assert.assertEquals(Arrays.asList(1, 4, 0, 2, 3), visited);
+    }
+
+    /**
+     * 删除后同一年龄内剩下的行号保持写入顺序，倒排表为空时年龄也被删除
+     */
+    @Test
+    public void remove() {
+        AgeIndex index = new AgeIndex();
+        for (int row = 0; row < 6; row++) {
+            index.add(row % 2 == 0 ? 30 : 40, row);
+        }
+        Assert.assertTrue(index.remove(30, 2));
+        Assert.assertArrayEquals(new int[]{0, 4}, index.rows(30, 30));
+        Assert.assertFalse(index.remove(30, 2));
+        Assert.assertFalse(index.remove(40, 0));
+        Assert.assertFalse(index.remove(35, 0));
+        Assert.assertEquals(5, index.size());
+
+        Assert.assertTrue(index.remove(30, 0));
+        Assert.assertTrue(index.remove(30, 4));
+        Assert.assertEquals(1, index.distinctAges());
+        Assert.assertEquals(0, index.count(30, 30));
+        Assert.assertArrayEquals(new int[]{1, 3, 5}, index.rows(0, 100));
+        index.add(30, 6);
+        Assert.assertArrayEquals(new int[]{6, 1, 3, 5}, index.rows(0, 100));
+    }
+
+    /**
+     * 年龄数组和倒排表都从很小的容量开始扩容，结果与逐行筛选相同
+     */
+    @Test
+    public void growthMatchesLinearScan() {
+        AgeIndex index = new AgeIndex();
+        Random random = new Random(2);
+        int[] ages = new int[20_000];
+        boolean[] removed = new boolean[ages.length];
+        for (int row = 0; row < ages.length; row++) {
+            ages[row] = random.nextInt(120);
+            index.add(ages[row], row);
+            if (row % 7 == 0 && row > 0) {
+                int victim = random.nextInt(row);
+                if (!removed[victim]) {
+                    Assert.assertTrue(index.remove(ages[victim], victim));
+                    removed[victim] = true;
+                }
+            }
+        }
+        for (int from = 0; from < 120; from += 13) {
+            int to = from + 17;
+            List<Integer> expected = new ArrayList<>();
+            for (int age = from; age <= to; age++) {
+                for (int row = 0; row < ages.length; row++) {
+                    if (ages[row] == age && !removed[row]) {
+                        expected.add(row);
+                    }
+                }
+            }
+            List<Integer> actual = new ArrayList<>();
+            for (int row : index.rows(from, to)) {
+                actual.add(row);
+            }
+            Assert.assertEquals(expected, actual);
+            Assert.assertEquals(expected.size(), index.count(from, to));
+        }
+        Assert.assertEquals(120, index.distinctAges());
+    }
+}
@@ -0,0 +1,93 @@
+package adapter.index;
+
+import adapter.UserInfo;
+import adapter.log.UserLog;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * adapter.index.IndexedAdaptee测试
+ */
+public class IndexedAdapteeTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * 多个线程同时保存时行号仍与日志的记录编号一致：年龄相同的用户按行号返回，应与日志中的顺序相同
+     */
+    @Test
+    public void rowsFollowLogOrderUnderConcurrentSaves() throws IOException, InterruptedException {
+        int threads = 4;
+        int perThread = 2_000;
+        try (UserLog log = new UserLog(folder.getRoot().toPath(), 64 * 1024)) {
+            IndexedAdaptee adaptee = new IndexedAdaptee(log);
+            List<Thread> workers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                Thread worker = new Thread(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        String phone = String.valueOf(13800000000L + thread * perThread + i);
+                        if (i % 2 == 0) {
+                            adaptee.saveUser(new UserInfo("u", 30, phone));
+                        } else {
+                            adaptee.saveUsers(Arrays.asList(new UserInfo("u", 30, phone)));
+                        }
+                    }
+                });
+                worker.start();
+                workers.add(worker);
+            }
+            for (Thread worker : workers) {
+                worker.join();
+            }
+            Assert.assertEquals(threads * perThread, log.size());
+            List<UserInfo> byRow = adaptee.findByAge(30, 30);
+            for (int id = 0; id < log.size(); id++) {
+                Assert.assertEquals(log.read(id), byRow.get(id));
+            }
+            Assert.assertEquals(byRow, new IndexedAdaptee(log).findByAge(30, 30));
+        }
+    }
+
+    @Test
+    public void findsSavedUsersWithoutLog() {
+        IndexedAdaptee adaptee = new IndexedAdaptee();
+        adaptee.saveUser(new UserInfo("a", 20, "13800000001"));
+        adaptee.saveUsers(Arrays.asList(new UserInfo("b", 30, "13800000002"), new UserInfo("c", 40, "13800000001")));
+        Assert.assertEquals(3, adaptee.size());
+        Assert.assertEquals("c", adaptee.findByPhone("13800000001").getName());
+        Assert.assertNull(adaptee.findByPhone("13800000003"));
+        Assert.assertEquals(2, adaptee.countByAge(25, 45));
+    }
+
+    /**
+     * 同一个手机号再次保存后，按年龄只能查到最后保存的用户，重新载入日志后结果相同
+     */
+    @Test
+    public void resavedPhoneReplacesAgeEntry() throws IOException {
+        try (UserLog log = new UserLog(folder.getRoot().toPath(), 64 * 1024)) {
+            IndexedAdaptee adaptee = new IndexedAdaptee(log);
+            adaptee.saveUser(new UserInfo("a", 20, "13800000001"));
+            adaptee.saveUser(new UserInfo("b", 20, "13800000002"));
+            adaptee.saveUsers(Arrays.asList(new UserInfo("a2", 35, "13800000001"), new UserInfo("x", 50, null),
+                    new UserInfo("y", 50, null)));
+            adaptee.saveUser(new UserInfo("b2", 20, "13800000002"));
+            for (IndexedAdaptee indexed : Arrays.asList(adaptee, new IndexedAdaptee(log))) {
+                Assert.assertEquals(6, indexed.size());
+                Assert.assertEquals(Arrays.asList(new UserInfo("b2", 20, "13800000002")), indexed.findByAge(20, 20));
+                Assert.assertEquals(Arrays.asList(new UserInfo("a2", 35, "13800000001")), indexed.findByAge(30, 40));
+                // null手机号的用户互不覆盖
+                Assert.assertEquals(2, indexed.countByAge(50, 50));
+                Assert.assertEquals(4, indexed.countByAge(0, 100));
+                Assert.assertEquals("a2", indexed.findByPhone("13800000001").getName());
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package adapter.index;
+
+import adapter.codec.PhoneCodec;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * adapter.index.PhoneIndex测试
+ */
+public class PhoneIndexTest {
+    @Test
+    public void putReturnsPreviousRow() {
+        PhoneIndex index = new PhoneIndex();
+        Assert.assertEquals(PhoneIndex.MISSING, index.put("13800000001", 0));
+        Assert.assertEquals(PhoneIndex.MISSING, index.put("13800000002", 1));
+        Assert.assertEquals(0, index.put("13800000001", 2));
+        Assert.assertEquals(2, index.get("13800000001"));
+        Assert.assertEquals(1, index.get("13800000002"));
+        Assert.assertEquals(PhoneIndex.MISSING, index.get("13800000003"));
+        Assert.assertEquals(2, index.size());
+    }
+
+    /**
+     * 无法编码的手机号保存在HashMap中，同样返回原来的行号
+     */
+    @Test
+    public void unencodablePhones() {
+        PhoneIndex index = new PhoneIndex();
+        String dashed = "138-0013-8000";
+        String spaced = "+86 138 0013 8000";
+        Assert.assertEquals(PhoneCodec.UNENCODABLE, PhoneCodec.encode(dashed));
+        Assert.assertEquals(PhoneCodec.UNENCODABLE, PhoneCodec.encode(spaced));
+        Assert.assertEquals(PhoneIndex.MISSING, index.put(dashed, 3));
+        Assert.assertEquals(PhoneIndex.MISSING, index.put(spaced, 4));
+        Assert.assertEquals(3, index.put(dashed, 5));
+        Assert.assertEquals(5, index.get(dashed));
+        Assert.assertEquals(4, index.get(spaced));
+        Assert.assertEquals(PhoneIndex.MISSING, index.get("138-0000-0000"));
+        Assert.assertEquals(2, index.size());
+        // 编码后的查找不会命中无法编码的手机号
+        Assert.assertEquals(PhoneIndex.MISSING, index.get(PhoneCodec.UNENCODABLE));
+    }
+
+    /**
+     * null手机号不建索引
+     */
+    @Test
+    public void nullPhoneIsNotIndexed() {
+        PhoneIndex index = new PhoneIndex();
+        Assert.assertEquals(PhoneIndex.MISSING, index.put(null, 1));
+        Assert.assertEquals(PhoneIndex.MISSING, index.put(null, 2));
+        Assert.assertEquals(PhoneIndex.MISSING, index.get((String) null));
+        Assert.assertEquals(0, index.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNegativeCode() {
+        new PhoneIndex().put(-5L, 0);
+    }
+
+    /**
+     * 从最小容量开始写入，经过多次扩容后所有手机号仍能查到最后的行号
+     */
+    @Test
+    public void rehashKeepsEntries() {
+        PhoneIndex index = new PhoneIndex(1);
+        Map<String, Integer> expected = new HashMap<>();
+        Random random = new Random(1);
+        for (int row = 0; row < 50_000; row++) {
+            String phone = String.valueOf(13000000000L + random.nextInt(30_000));
+            Integer old = expected.put(phone, row);
+            Assert.assertEquals(old == null ? PhoneIndex.MISSING : old, index.put(phone, row));
+        }
+        Assert.assertEquals(expected.size(), index.size());
+        for (Map.Entry<String, Integer> entry : expected.entrySet()) {
+            Assert.assertEquals((int) entry.getValue(), index.get(entry.getKey()));
+            Assert.assertEquals((int) entry.getValue(), index.get(PhoneCodec.encode(entry.getKey())));
+        }
+        // 负载不超过1/2
+        Assert.assertTrue(index.memoryBytes() >= 12L * 2 * expected.size());
+    }
+}
@@ -0,0 +1,173 @@
+package adapter.log;
+
+import adapter.UserInfo;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * adapter.log.UserLog测试，用临时目录模拟重启和写到一半时崩溃
+ */
+public class UserLogTest {
+    private static final int SEGMENT_BYTES = 512;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static UserInfo user(int i) {
+        return new UserInfo("user" + i, i % 100, String.valueOf(13800000000L + i));
+    }
+
+    /**
+     * 写入count个用户，返回最后一个段中第一条记录的编号
+     */
+    private static long fill(UserLog log, int count) {
+        long firstOfLast = 0;
+        for (int i = 0; i < count; i++) {
+            int segments = log.segmentCount();
+            long id = log.save(user(i));
+            if (log.segmentCount() != segments) {
+                firstOfLast = id;
+            }
+        }
+        return firstOfLast;
+    }
+
+    private static void assertUsers(UserLog log, long count) {
+        Assert.assertEquals(count, log.size());
+        for (int i = 0; i < count; i++) {
+            Assert.assertEquals(user(i), log.read(i));
+        }
+    }
+
+    private Path segment(Path dir, int index) {
+        return dir.resolve(String.format("segment-%010d.log", index));
+    }
+
+    private static void write(Path file, long position, byte[] bytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(bytes), position);
+        }
+    }
+
+    @Test
+    public void reopenAfterRollKeepsAllRecords() throws IOException {
+        Path dir = folder.getRoot().toPath();
+        try (UserLog log = new UserLog(dir, SEGMENT_BYTES)) {
+            fill(log, 100);
+            Assert.assertTrue(log.segmentCount() > 1);
+        }
+        try (UserLog log = new UserLog(dir, SEGMENT_BYTES)) {
+            assertUsers(log, 100);
+            Assert.assertEquals(100, log.save(user(100)));
+        }
+        try (UserLog log = new UserLog(dir, SEGMENT_BYTES)) {
+            assertUsers(log, 101);
+        }
+    }
+
+    /**
+     * 最后一个段中校验失败的记录及其之后的记录被清除，之后可以继续追加
+     */
+    @Test
+    public void tornWriteInLastSegmentIsTruncated() throws IOException {
+        Path dir = folder.getRoot().toPath();
+        long firstOfLast;
+        int segments;
+        try (UserLog log = new UserLog(dir, SEGMENT_BYTES)) {
+            firstOfLast = fill(log, 100);
+            segments = log.segmentCount();
+        }
+        Assert.assertTrue(100 - firstOfLast > 1);
+        write(segment(dir, segments - 1), UserLog.SEGMENT_HEADER_BYTES + UserLog.RECORD_HEADER_BYTES,
+                new byte[]{(byte) 0xFF});
+        try (UserLog log = new UserLog(dir, SEGMENT_BYTES)) {
+            assertUsers(log, firstOfLast);
+            Assert.assertEquals(firstOfLast, log.save(user((int) firstOfLast)));
+        }
+        try (UserLog log = new UserLog(dir, SEGMENT_BYTES)) {
+            assertUsers(log, firstOfLast + 1);
+        }
+        // 被清除的内容已经清零，段中没有残留的旧记录
+        byte[] tail = Files.readAllBytes(segment(dir, segments - 1));
+        for (int i = UserLog.SEGMENT_HEADER_BYTES + 200; i < tail.length; i++) {
+            Assert.assertEquals(0, tail[i]);
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void corruptRecordInEarlierSegmentFails() throws IOException {
+        Path dir = folder.getRoot().toPath();
+        try (UserLog log = new UserLog(dir, SEGMENT_BYTES)) {
+            fill(log, 100);
+        }
+        write(segment(dir, 0), UserLog.SEGMENT_HEADER_BYTES + UserLog.RECORD_HEADER_BYTES, new byte[]{(byte) 0xFF});
+        new UserLog(dir, SEGMENT_BYTES).close();
+    }
+
+    /**
+     * 换段时崩溃，新段文件已经创建但段头没有落盘
+     */
+    @Test
+    public void headerlessLastSegmentIsTreatedAsEmpty() throws IOException {
+        Path dir = folder.getRoot().toPath();
+        int segments;
+        try (UserLog log = new UserLog(dir, SEGMENT_BYTES)) {
+            fill(log, 10);
+            segments = log.segmentCount();
+        }
+        write(segment(dir, segments), SEGMENT_BYTES - 1, new byte[1]);
+        try (UserLog log = new UserLog(dir, SEGMENT_BYTES)) {
+            assertUsers(log, 10);
+            Assert.assertEquals(segments + 1, log.segmentCount());
+            Assert.assertEquals(10, log.save(user(10)));
+        }
+        try (UserLog log = new UserLog(dir, SEGMENT_BYTES)) {
+            assertUsers(log, 11);
+        }
+    }
+
+    /**
+     * 只支持当前版本的段，其它版本打开时报错而不是当作损坏的记录清除
+     */
+    @Test(expected = IOException.class)
+    public void otherVersionFails() throws IOException {
+        Path dir = folder.getRoot().toPath();
+        ByteBuffer header = ByteBuffer.allocate(UserLog.SEGMENT_HEADER_BYTES);
+        header.putInt(UserLog.MAGIC).putInt(UserLog.VERSION - 1);
+        write(segment(dir, 0), 0, header.array());
+        write(segment(dir, 0), SEGMENT_BYTES - 1, new byte[1]);
+        new UserLog(dir, SEGMENT_BYTES).close();
+    }
+
+    /**
+     * 用不同的段大小重新打开时报错，文件大小和已经落盘的记录都不受影响
+     */
+    @Test
+    public void segmentSizeMismatchFails() throws IOException {
+        Path dir = folder.getRoot().toPath();
+        try (UserLog log = new UserLog(dir, SEGMENT_BYTES)) {
+            fill(log, 100);
+        }
+        for (int segmentBytes : new int[]{SEGMENT_BYTES / 2, SEGMENT_BYTES * 2}) {
+            try {
+                new UserLog(dir, segmentBytes).close();
+                Assert.fail("segmentBytes=" + segmentBytes);
+            } catch (IOException expected) {
+                Assert.assertTrue(expected.getMessage(), expected.getMessage().contains("segment size"));
+            }
+            Assert.assertEquals(SEGMENT_BYTES, Files.size(segment(dir, 0)));
+        }
+        try (UserLog log = new UserLog(dir, SEGMENT_BYTES)) {
+            assertUsers(log, 100);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package adapter.modelclass;
+
+import adapter.UserInfo;
+import adapter.convert.UserInfoConverter;
+import adapter.log.UserLog;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * adapter.modelclass.Adaptee和Adapter测试
+ */
+public class AdapterTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static UserInfo user(int i) {
+        return new UserInfo("user" + i, i % 100, String.valueOf(13800000000L + i));
+    }
+
+    /**
+     * 覆盖append后saveUser和saveUsers都经过它
+     */
+    @Test
+    public void appendSeesBothPaths() {
+        List<UserInfo> appended = new ArrayList<>();
+        Adaptee adaptee = new Adaptee() {
+            @Override
+            protected long append(UserInfo user) {
+                appended.add(user);
+                return super.append(user);
+            }
+        };
+        adaptee.saveUser(user(0));
+        adaptee.saveUsers(Arrays.asList(user(1), user(2)));
+        Assert.assertEquals(Arrays.asList(user(0), user(1), user(2)), appended);
+    }
+
+    @Test
+    public void adapterWithLogPersistsUsers() throws IOException {
+        UserInfoConverter converter = new UserInfoConverter();
+        try (UserLog log = new UserLog(folder.getRoot().toPath())) {
+            Adapter adapter = new Adapter(log);
+            adapter.saveUser(converter.toOutUserInfo(user(0)));
+            adapter.saveOutUsers(converter.toOutUserInfos(Arrays.asList(user(1), user(2))));
+            Assert.assertEquals(3, log.size());
+            for (int i = 0; i < 3; i++) {
+                Assert.assertEquals(user(i), log.read(i));
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package adapter.pipeline;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * adapter.pipeline.MpscQueue测试
+ */
+public class MpscQueueTest {
+    @Test
+    public void capacityRoundsUpToPowerOfTwo() {
+        Assert.assertEquals(2, new MpscQueue<Integer>(2).capacity());
+        Assert.assertEquals(8, new MpscQueue<Integer>(5).capacity());
+        Assert.assertEquals(8, new MpscQueue<Integer>(8).capacity());
+    }
+
+    @Test
+    public void offerFailsWhenFullAndSucceedsAfterPoll() {
+        MpscQueue<Integer> queue = new MpscQueue<>(4);
+        for (int i = 0; i < 4; i++) {
+            Assert.assertTrue(queue.offer(i));
+        }
+        Assert.assertFalse(queue.offer(4));
+        Assert.assertEquals(4, queue.size());
+        Assert.assertEquals(Integer.valueOf(0), queue.poll());
+        Assert.assertTrue(queue.offer(4));
+        List<Integer> drained = new ArrayList<>();
+        Assert.assertEquals(3, queue.drain(drained, 3));
+        Assert.assertEquals(Arrays.asList(1, 2, 3), drained);
+        Assert.assertEquals(Integer.valueOf(4), queue.poll());
+        Assert.assertNull(queue.poll());
+        Assert.assertEquals(0, queue.size());
+    }
+
+    /**
+     * 多个生产者并发写入，每个元素恰好取出一次，且同一个生产者的元素保持先后顺序
+     */
+    @Test
+    public void concurrentProducersLoseNothing() throws InterruptedException {
+        int producers = 4;
+        int perProducer = 50_000;
+        MpscQueue<long[]> queue = new MpscQueue<>(64);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < perProducer; i++) {
+                    long[] e = {producer, i};
+                    while (!queue.offer(e)) {
+                        Thread.yield();
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        int[] next = new int[producers];
+        int received = 0;
+        while (received < producers * perProducer) {
+            long[] e = queue.poll();
+            if (e == null) {
+                Thread.yield();
+                continue;
+            }
+            int producer = (int) e[0];
+            Assert.assertEquals(next[producer], e[1]);
+            next[producer]++;
+            received++;
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Assert.assertNull(queue.poll());
+    }
+}
@@ -0,0 +1,182 @@
+package adapter.pipeline;
+
+import adapter.UserInfo;
+import adapter.modelclass.Adaptee;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * adapter.pipeline.SaveUserPipeline测试
+ */
+public class SaveUserPipelineTest {
+    private static UserInfo user(int i) {
+        return new UserInfo("user" + i, i % 100, String.valueOf(13800000000L + i));
+    }
+
+    /**
+     * 记录保存的用户，前failures次saveUsers抛出指定的异常
+     */
+    private static class RecordingAdaptee extends Adaptee {
+        final List<UserInfo> saved = Collections.synchronizedList(new ArrayList<>());
+        volatile int failures;
+        volatile Throwable failure;
+
+        @Override
+        public void saveUsers(List<UserInfo> users) {
+            if (failures > 0) {
+                failures--;
+                if (failure instanceof Error) {
+                    throw (Error) failure;
+                }
+                throw (RuntimeException) failure;
+            }
+            saved.addAll(users);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsZeroMaxDelay() {
+        new SaveUserPipeline(new Adaptee(), 16, 4, 0, TimeUnit.MILLISECONDS, Backpressure.BLOCK);
+    }
+
+    @Test
+    public void closeSavesEverySubmittedUser() {
+        RecordingAdaptee target = new RecordingAdaptee();
+        SaveUserPipeline pipeline = new SaveUserPipeline(target, 64, 16, 5, TimeUnit.MILLISECONDS,
+                Backpressure.BLOCK);
+        for (int i = 0; i < 10_000; i++) {
+            Assert.assertTrue(pipeline.submit(user(i)));
+        }
+        pipeline.close();
+        Assert.assertEquals(10_000, target.saved.size());
+        for (int i = 0; i < 10_000; i++) {
+            Assert.assertEquals(user(i), target.saved.get(i));
+        }
+        PipelineMetrics metrics = pipeline.metrics();
+        Assert.assertEquals(10_000, metrics.getEnqueued());
+        Assert.assertEquals(10_000, metrics.getSaved());
+        Assert.assertTrue(metrics.getLargestBatch() <= 16);
+    }
+
+    /**
+     * 消费者空闲时提交的单个用户不需要close也会被保存，消费者没有被唤醒时会超时
+     */
+    @Test(timeout = 10_000)
+    public void loneUserSavedWithoutClose() throws InterruptedException {
+        RecordingAdaptee target = new RecordingAdaptee();
+        SaveUserPipeline pipeline = new SaveUserPipeline(target, 16, 16, 1, TimeUnit.MILLISECONDS,
+                Backpressure.BLOCK);
+        try {
+            for (int i = 0; i < 3; i++) {
+                awaitIdle(target, i);
+                pipeline.submit(user(i));
+            }
+            awaitIdle(target, 3);
+        } finally {
+            pipeline.close();
+        }
+    }
+
+    /**
+     * 没有onFailure时失败的批次只计数
+     */
+    @Test
+    public void failedBatchIsCountedWithoutHandler() {
+        RecordingAdaptee target = new RecordingAdaptee();
+        target.failures = 1;
+        target.failure = new IllegalStateException("disk full");
+        SaveUserPipeline pipeline = new SaveUserPipeline(target, 16, 4, 1, TimeUnit.MILLISECONDS,
+                Backpressure.BLOCK);
+        for (int i = 0; i < 4; i++) {
+            pipeline.submit(user(i));
+        }
+        awaitBatches(pipeline, 1);
+        pipeline.close();
+        Assert.assertEquals(1, pipeline.metrics().getFailedBatches());
+        Assert.assertTrue(target.saved.isEmpty());
+    }
+
+    @Test
+    public void failedBatchIsReportedAndConsumerKeepsRunning() {
+        RecordingAdaptee target = new RecordingAdaptee();
+        target.failures = 1;
+        target.failure = new IllegalStateException("disk full");
+        List<UserInfo> lost = Collections.synchronizedList(new ArrayList<>());
+        List<Throwable> causes = Collections.synchronizedList(new ArrayList<>());
+        SaveUserPipeline pipeline = new SaveUserPipeline(target, 16, 4, 1, TimeUnit.MILLISECONDS,
+                Backpressure.BLOCK, (batch, e) -> {
+            lost.addAll(batch);
+            causes.add(e);
+        });
+        for (int i = 0; i < 4; i++) {
+            pipeline.submit(user(i));
+        }
+        awaitBatches(pipeline, 1);
+        pipeline.submit(user(4));
+        pipeline.close();
+        Assert.assertEquals(4, lost.size());
+        Assert.assertEquals(Collections.singletonList(target.failure), causes);
+        Assert.assertEquals(Collections.singletonList(user(4)), target.saved);
+        Assert.assertEquals(1, pipeline.metrics().getFailedBatches());
+    }
+
+    /**
+     * saveUsers抛出Error后消费者不能退出，否则BLOCK的生产者会一直等待
+     */
+    @Test(timeout = 10_000)
+    public void errorDoesNotKillConsumer() {
+        RecordingAdaptee target = new RecordingAdaptee();
+        target.failures = 1;
+        target.failure = new StackOverflowError();
+        List<UserInfo> lost = Collections.synchronizedList(new ArrayList<>());
+        List<Throwable> causes = Collections.synchronizedList(new ArrayList<>());
+        SaveUserPipeline pipeline = new SaveUserPipeline(target, 2, 2, 1, TimeUnit.MILLISECONDS,
+                Backpressure.BLOCK, (batch, e) -> {
+            lost.addAll(batch);
+            causes.add(e);
+        });
+        for (int i = 0; i < 100; i++) {
+            pipeline.submit(user(i));
+        }
+        pipeline.close();
+        Assert.assertEquals(1, causes.size());
+        Assert.assertTrue(causes.get(0) instanceof StackOverflowError);
+        Assert.assertEquals(100, lost.size() + target.saved.size());
+    }
+
+    @Test
+    public void closeRestoresInterruptFlag() {
+        SaveUserPipeline pipeline = new SaveUserPipeline(new Adaptee());
+        pipeline.submit(user(0));
+        Thread.currentThread().interrupt();
+        pipeline.close();
+        Assert.assertTrue(Thread.interrupted());
+        Assert.assertEquals(1, pipeline.metrics().getSaved());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void submitAfterCloseFails() {
+        SaveUserPipeline pipeline = new SaveUserPipeline(new Adaptee());
+        pipeline.close();
+        pipeline.submit(user(0));
+    }
+
+    private static void awaitIdle(RecordingAdaptee target, int saved) throws InterruptedException {
+        while (target.saved.size() < saved) {
+            Thread.sleep(1);
+        }
+        // 给消费者时间进入无限期等待
+        Thread.sleep(5);
+    }
+
+    private static void awaitBatches(SaveUserPipeline pipeline, long batches) {
+        while (pipeline.metrics().getBatches() < batches) {
+            Thread.yield();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package adapter.store;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * adapter.store.NameDictionary测试
+ */
+public class NameDictionaryTest {
+    private static String decode(NameDictionary names, int id) {
+        StringBuilder sb = new StringBuilder();
+        names.appendTo(id, sb);
+        return sb.toString();
+    }
+
+    @Test
+    public void sameNameSameId() {
+        NameDictionary names = new NameDictionary();
+        int alice = names.intern("alice");
+        int bob = names.intern("bob");
+        Assert.assertNotEquals(alice, bob);
+        Assert.assertEquals(alice, names.intern(new String("alice")));
+        Assert.assertEquals(2, names.size());
+        Assert.assertEquals("bob", names.get(bob));
+    }
+
+    /**
+     * 远超初始表大小，经过多次rehash和数组扩容后编号和内容都不变
+     */
+    @Test
+    public void rehashKeepsIds() {
+        NameDictionary names = new NameDictionary();
+        int n = 10_000;
+        for (int i = 0; i < n; i++) {
+            Assert.assertEquals(i, names.intern("name" + i));
+        }
+        for (int i = 0; i < n; i++) {
+            Assert.assertEquals(i, names.intern("name" + i));
+            Assert.assertEquals("name" + i, names.get(i));
+        }
+        Assert.assertEquals(n, names.size());
+    }
+
+    /**
+     * 一到四字节的UTF-8字符，get和appendTo的结果相同
+     */
+    @Test
+    public void utf8Names() {
+        String[] samples = {
+                "",
+                "caf\u00e9",
+                "\u5f20\u4e09",
+                "\ud83d\ude00 smile",
+                "a\u00e9\u4e2d\ud83d\ude00z",
+        };
+        NameDictionary names = new NameDictionary();
+        for (String sample : samples) {
+            int id = names.intern(sample);
+            Assert.assertEquals(sample, names.get(id));
+            Assert.assertEquals(sample, decode(names, id));
+        }
+        // 字节不同的名字编号不同
+        Assert.assertEquals(samples.length, names.size());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void nullNameFails() {
+        // null由UserInfoStore用NULL_NAME表示，不进入字典
+        new NameDictionary().intern(null);
+    }
+}
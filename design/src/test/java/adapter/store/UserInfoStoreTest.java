@@ -0,0 +1,141 @@
+package adapter.store;
+
+import adapter.UserInfo;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * adapter.store.UserInfoStore测试
+ */
+public class UserInfoStoreTest {
+    private static UserInfo user(int i) {
+        return new UserInfo("user" + i % 7, i % 100, String.valueOf(13800000000L + i));
+    }
+
+    @Test
+    public void addAndGet() {
+        UserInfoStore store = new UserInfoStore(1);
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertEquals(i, store.add(user(i)));
+        }
+        Assert.assertEquals(1000, store.size());
+        Assert.assertEquals(7, store.distinctNames());
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertEquals(user(i), store.get(i));
+            Assert.assertEquals(store.nameId(i % 7), store.nameId(i));
+        }
+    }
+
+    /**
+     * null字段和无法编码的手机号原样取回
+     */
+    @Test
+    public void nullsAndUnencodablePhones() {
+        UserInfoStore store = new UserInfoStore();
+        UserInfo[] users = {
+                new UserInfo(null, 1, null),
+                new UserInfo("\u5f20\u4e09", 2, "+86 138 0013 8000"),
+                new UserInfo("a", 3, ""),
+                new UserInfo("b", 4, "+8613800138000"),
+        };
+        for (UserInfo user : users) {
+            store.add(user);
+        }
+        for (int i = 0; i < users.length; i++) {
+            Assert.assertEquals(users[i], store.get(i));
+        }
+        Assert.assertEquals(UserInfoStore.NULL_NAME, store.nameId(0));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void rowOutOfRange() {
+        UserInfoStore store = new UserInfoStore();
+        store.add(user(0));
+        store.age(1);
+    }
+
+    @Test
+    public void cursorVisitsEveryRow() {
+        UserInfoStore store = new UserInfoStore();
+        for (int i = 0; i < 100; i++) {
+            store.add(user(i));
+        }
+        UserInfoStore.Cursor cursor = store.cursor();
+        Assert.assertEquals(-1, cursor.row());
+        StringBuilder sb = new StringBuilder();
+        int rows = 0;
+        while (cursor.next()) {
+            UserInfo expected = user(rows);
+            Assert.assertEquals(rows, cursor.row());
+            Assert.assertEquals(expected.getAge(), cursor.getAge());
+            Assert.assertEquals(expected.getName(), cursor.getName());
+            Assert.assertEquals(expected.getPhone(), cursor.getPhone());
+            sb.setLength(0);
+            Assert.assertTrue(cursor.appendName(sb));
+            sb.append('|');
+            Assert.assertTrue(cursor.appendPhone(sb));
+            Assert.assertEquals(expected.getName() + "|" + expected.getPhone(), sb.toString());
+            rows++;
+        }
+        Assert.assertEquals(100, rows);
+        Assert.assertEquals(user(42).getPhone(), cursor.moveTo(42).getPhone());
+    }
+
+    @Test
+    public void cursorAppendsNullsAsNothing() {
+        UserInfoStore store = new UserInfoStore();
+        store.add(null, 1, null);
+        store.add("\u5f20\u4e09", 2, "+86 138 0013 8000");
+        UserInfoStore.Cursor cursor = store.cursor().moveTo(0);
+        StringBuilder sb = new StringBuilder();
+        Assert.assertFalse(cursor.appendName(sb));
+        Assert.assertFalse(cursor.appendPhone(sb));
+        Assert.assertEquals(0, sb.length());
+        cursor.moveTo(1);
+        Assert.assertTrue(cursor.appendName(sb));
+        Assert.assertTrue(cursor.appendPhone(sb));
+        Assert.assertEquals("\u5f20\u4e09+86 138 0013 8000", sb.toString());
+    }
+
+    @Test
+    public void cursorIsReadOnly() {
+        UserInfoStore store = new UserInfoStore();
+        store.add(user(0));
+        UserInfoStore.Cursor cursor = store.cursor().moveTo(0);
+        try {
+            cursor.setName("x");
+            Assert.fail();
+        } catch (UnsupportedOperationException e) {
+            // 预期的异常
+        }
+        try {
+            cursor.setAge(1);
+            Assert.fail();
+        } catch (UnsupportedOperationException e) {
+            // 预期的异常
+        }
+        try {
+            cursor.setPhone("1");
+            Assert.fail();
+        } catch (UnsupportedOperationException e) {
+            // 预期的异常
+        }
+        Assert.assertEquals(user(0), store.get(0));
+    }
+
+    /**
+     * memoryBytes的上限，UserInfoStoreFootprint用实际堆内存做同样的对比
+     * List<UserInfo>中每个用户至少有UserInfo对象和两个String及其数组，对象头和引用就超过100字节，
+     * 要节省4倍以上，按列存放时每个用户不能超过24字节
+     */
+    @Test
+    public void footprintPerUser() {
+        int users = 100_000;
+        UserInfoStore store = new UserInfoStore(users);
+        for (int i = 0; i < users; i++) {
+            store.add("user" + i % 10_000, 18 + i % 60, String.valueOf(13000000000L + i * 7919L));
+        }
+        double perUser = (double) store.memoryBytes() / users;
+        Assert.assertTrue(perUser + " bytes per user", perUser <= 24);
+    }
+}
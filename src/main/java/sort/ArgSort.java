@@ -0,0 +1,278 @@
+package sort;
+
+/**
+ * 间接排序(argsort)，不移动键数组，而是对下标数组排序，使keys[indices[0]] <= keys[indices[1]] <= ...
+ * 1. 排序是稳定的，键相等的下标保持原有的相对顺序，便于按多列依次排序
+ * 2. 排序后可以用同一组下标重排多个平行的数组，全程不需要装箱
+ * 3. 浮点数的顺序与Double.compare一致，-0.0排在0.0之前，NaN排在最后
+ */
+public class ArgSort {
+    /**
+     * 区间长度小于该值时，改用插入排序
+     */
+    static final int INSERTION_THRESHOLD = 16;
+
+    /**
+     * 生成0到n-1的下标数组
+     */
+    public static int[] identity(int n) {
+        int[] indices = new int[n];
+        for (int i = 0; i < n; i++) {
+            indices[i] = i;
+        }
+        return indices;
+    }
+
+    public static int[] argSort(int[] keys) {
+        int[] indices = identity(keys.length);
+        argSort(indices, keys);
+        return indices;
+    }
+
+    public static void argSort(int[] indices, int[] keys) {
+        if (indices.length > 1) {
+            sort(indices, 0, indices.length - 1, keys, new int[(indices.length + 1) >>> 1]);
+        }
+    }
+
+    private static void sort(int[] indices, int start, int end, int[] keys, int[] temp) {
+        if (end - start < INSERTION_THRESHOLD) {
+            for (int i = start + 1; i <= end; i++) {
+                int curr = indices[i];
+                int j = i - 1;
+                while (j >= start && keys[indices[j]] > keys[curr]) {
+                    indices[j + 1] = indices[j];
+                    j--;
+                }
+                indices[j + 1] = curr;
+            }
+            return;
+        }
+        int mid = (start + end) >>> 1;
+        sort(indices, start, mid, keys, temp);
+        sort(indices, mid + 1, end, keys, temp);
+        if (keys[indices[mid]] <= keys[indices[mid + 1]]) {
+            return;
+        }
+        int leftLen = mid - start + 1;
+        System.arraycopy(indices, start, temp, 0, leftLen);
+        int i = 0;
+        int j = mid + 1;
+        int k = start;
+        while (i < leftLen && j <= end) {
+            if (keys[temp[i]] <= keys[indices[j]]) {
+                indices[k++] = temp[i++];
+            } else {
+                indices[k++] = indices[j++];
+            }
+        }
+        if (i < leftLen) {
+            System.arraycopy(temp, i, indices, k, leftLen - i);
+        }
+    }
+
+    public static int[] argSort(long[] keys) {
+        int[] indices = identity(keys.length);
+        argSort(indices, keys);
+        return indices;
+    }
+
+    public static void argSort(int[] indices, long[] keys) {
+        if (indices.length > 1) {
+            sort(indices, 0, indices.length - 1, keys, new int[(indices.length + 1) >>> 1]);
+        }
+    }
+
+    private static void sort(int[] indices, int start, int end, long[] keys, int[] temp) {
+        if (end - start < INSERTION_THRESHOLD) {
+            for (int i = start + 1; i <= end; i++) {
+                int curr = indices[i];
+                int j = i - 1;
+                while (j >= start && keys[indices[j]] > keys[curr]) {
+                    indices[j + 1] = indices[j];
+                    j--;
+                }
+                indices[j + 1] = curr;
+            }
+            return;
+        }
+        int mid = (start + end) >>> 1;
+        sort(indices, start, mid, keys, temp);
+        sort(indices, mid + 1, end, keys, temp);
+        if (keys[indices[mid]] <= keys[indices[mid + 1]]) {
+            return;
+        }
+        int leftLen = mid - start + 1;
+        System.arraycopy(indices, start, temp, 0, leftLen);
+        int i = 0;
+        int j = mid + 1;
+        int k = start;
+        while (i < leftLen && j <= end) {
+            if (keys[temp[i]] <= keys[indices[j]]) {
+                indices[k++] = temp[i++];
+            } else {
+                indices[k++] = indices[j++];
+            }
+        }
+        if (i < leftLen) {
+            System.arraycopy(temp, i, indices, k, leftLen - i);
+        }
+    }
+
+    public static int[] argSort(double[] keys) {
+        int[] indices = identity(keys.length);
+        argSort(indices, keys);
+        return indices;
+    }
+
+    public static void argSort(int[] indices, double[] keys) {
+        if (indices.length > 1) {
+            sort(indices, 0, indices.length - 1, keys, new int[(indices.length + 1) >>> 1]);
+        }
+    }
+
+    private static void sort(int[] indices, int start, int end, double[] keys, int[] temp) {
+        if (end - start < INSERTION_THRESHOLD) {
+            for (int i = start + 1; i <= end; i++) {
+                int curr = indices[i];
+                int j = i - 1;
+                while (j >= start && Double.compare(keys[indices[j]], keys[curr]) > 0) {
+                    indices[j + 1] = indices[j];
+                    j--;
+                }
+                indices[j + 1] = curr;
+            }
+            return;
+        }
+        int mid = (start + end) >>> 1;
+        sort(indices, start, mid, keys, temp);
+        sort(indices, mid + 1, end, keys, temp);
+        if (Double.compare(keys[indices[mid]], keys[indices[mid + 1]]) <= 0) {
+            return;
+        }
+        int leftLen = mid - start + 1;
+        System.arraycopy(indices, start, temp, 0, leftLen);
+        int i = 0;
+        int j = mid + 1;
+        int k = start;
+        while (i < leftLen && j <= end) {
+            if (Double.compare(keys[temp[i]], keys[indices[j]]) <= 0) {
+                indices[k++] = temp[i++];
+            } else {
+                indices[k++] = indices[j++];
+            }
+        }
+        if (i < leftLen) {
+            System.arraycopy(temp, i, indices, k, leftLen - i);
+        }
+    }
+
+    public static int[] argSort(float[] keys) {
+        int[] indices = identity(keys.length);
+        argSort(indices, keys);
+        return indices;
+    }
+
+    public static void argSort(int[] indices, float[] keys) {
+        if (indices.length > 1) {
+            sort(indices, 0, indices.length - 1, keys, new int[(indices.length + 1) >>> 1]);
+        }
+    }
+
+    private static void sort(int[] indices, int start, int end, float[] keys, int[] temp) {
+        if (end - start < INSERTION_THRESHOLD) {
+            for (int i = start + 1; i <= end; i++) {
+                int curr = indices[i];
+                int j = i - 1;
+                while (j >= start && Float.compare(keys[indices[j]], keys[curr]) > 0) {
+                    indices[j + 1] = indices[j];
+                    j--;
+                }
+                indices[j + 1] = curr;
+            }
+            return;
+        }
+        int mid = (start + end) >>> 1;
+        sort(indices, start, mid, keys, temp);
+        sort(indices, mid + 1, end, keys, temp);
+        if (Float.compare(keys[indices[mid]], keys[indices[mid + 1]]) <= 0) {
+            return;
+        }
+        int leftLen = mid - start + 1;
+        System.arraycopy(indices, start, temp, 0, leftLen);
+        int i = 0;
+        int j = mid + 1;
+        int k = start;
+        while (i < leftLen && j <= end) {
+            if (Float.compare(keys[temp[i]], keys[indices[j]]) <= 0) {
+                indices[k++] = temp[i++];
+            } else {
+                indices[k++] = indices[j++];
+            }
+        }
+        if (i < leftLen) {
+            System.arraycopy(temp, i, indices, k, leftLen - i);
+        }
+    }
+
+    /**
+     * 按Comparable的自然顺序排序，keys中不能有null
+     */
+    public static <T extends Comparable<? super T>> int[] argSort(T[] keys) {
+        int[] indices = identity(keys.length);
+        argSort(indices, keys);
+        return indices;
+    }
+
+    public static <T extends Comparable<? super T>> void argSort(int[] indices, T[] keys) {
+        if (indices.length > 1) {
+            sort(indices, 0, indices.length - 1, keys, new int[(indices.length + 1) >>> 1]);
+        }
+    }
+
+    /**
+     * 对indices的区间[start, end]排序，temp的长度不能小于(end - start + 2) / 2
+     */
+    static <T extends Comparable<? super T>> void sort(int[] indices, int start, int end, T[] keys, int[] temp) {
+        if (end - start < INSERTION_THRESHOLD) {
+            for (int i = start + 1; i <= end; i++) {
+                int curr = indices[i];
+                int j = i - 1;
+                while (j >= start && keys[indices[j]].compareTo(keys[curr]) > 0) {
+                    indices[j + 1] = indices[j];
+                    j--;
+                }
+                indices[j + 1] = curr;
+            }
+            return;
+        }
+        int mid = (start + end) >>> 1;
+        sort(indices, start, mid, keys, temp);
+        sort(indices, mid + 1, end, keys, temp);
+        merge(indices, start, mid, end, keys, temp);
+    }
+
+    /**
+     * 合并indices中两个有序区间[start, mid]和[mid + 1, end]，temp的长度不能小于mid - start + 1
+     */
+    static <T extends Comparable<? super T>> void merge(int[] indices, int start, int mid, int end, T[] keys, int[] temp) {
+        if (keys[indices[mid]].compareTo(keys[indices[mid + 1]]) <= 0) {
+            return;
+        }
+        int leftLen = mid - start + 1;
+        System.arraycopy(indices, start, temp, 0, leftLen);
+        int i = 0;
+        int j = mid + 1;
+        int k = start;
+        while (i < leftLen && j <= end) {
+            if (keys[temp[i]].compareTo(keys[indices[j]]) <= 0) {
+                indices[k++] = temp[i++];
+            } else {
+                indices[k++] = indices[j++];
+            }
+        }
+        if (i < leftLen) {
+            System.arraycopy(temp, i, indices, k, leftLen - i);
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package sort;
+
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+
+/**
+ * 直接在IntBuffer、LongBuffer上原地排序，适用于堆外内存(ByteBuffer.allocateDirect)和内存映射文件(FileChannel.map)
+ * 数据不需要先拷贝到堆内数组、排序后再拷贝回去，排序过程不占用额外的堆内存
+ * 算法与Quick.introSort相同：三数取中或九数取中选枢轴、三路划分、小区间插入排序、递归过深时改用堆排序
+ * 只使用绝对下标的get和put，不会改变缓冲区的position和limit
+ */
+public class BufferSort {
+    /**
+     * 对缓冲区中[position, limit)的元素排序，不改变position和limit
+     */
+    public static IntBuffer introSort(IntBuffer buffer) {
+        introSort(buffer, buffer.position(), buffer.limit() - 1);
+        return buffer;
+    }
+
+    /**
+     * 对缓冲区中绝对下标[start, end]的元素排序
+     */
+    public static void introSort(IntBuffer buffer, int start, int end) {
+        if (start < end) {
+            intro(buffer, start, end, Quick.depthLimit(end - start + 1));
+        }
+    }
+
+    private static void intro(IntBuffer buffer, int left, int right, int depth) {
+        while (right - left + 1 > Quick.INSERTION_THRESHOLD) {
+            if (depth-- == 0) {
+                heapSort(buffer, left, right);
+                return;
+            }
+            long range = partition3(buffer, left, right, buffer.get(choosePivot(buffer, left, right)));
+            int lt = (int) (range >>> 32);
+            int gt = (int) range;
+            if (lt - left < right - gt) {
+                intro(buffer, left, lt - 1, depth);
+                left = gt + 1;
+            } else {
+                intro(buffer, gt + 1, right, depth);
+                right = lt - 1;
+            }
+        }
+        insertionSort(buffer, left, right);
+    }
+
+    private static int choosePivot(IntBuffer buffer, int start, int end) {
+        int mid = (start + end) >>> 1;
+        if (end - start + 1 > Quick.NINTHER_THRESHOLD) {
+            int step = (end - start + 1) >>> 3;
+            int a = median3(buffer, start, start + step, start + 2 * step);
+            int b = median3(buffer, mid - step, mid, mid + step);
+            int c = median3(buffer, end - 2 * step, end - step, end);
+            return median3(buffer, a, b, c);
+        }
+        return median3(buffer, start, mid, end);
+    }
+
+    private static int median3(IntBuffer buffer, int i, int j, int k) {
+        int a = buffer.get(i);
+        int b = buffer.get(j);
+        int c = buffer.get(k);
+        if (a < b) {
+            return b < c ? j : (a < c ? k : i);
+        }
+        return c < b ? j : (c < a ? k : i);
+    }
+
+    private static long partition3(IntBuffer buffer, int start, int end, int pivot) {
+        int lt = start;
+        int i = start;
+        int gt = end;
+        while (i <= gt) {
+            int value = buffer.get(i);
+            if (value < pivot) {
+                buffer.put(i++, buffer.get(lt));
+                buffer.put(lt++, value);
+            } else if (value > pivot) {
+                buffer.put(i, buffer.get(gt));
+                buffer.put(gt--, value);
+            } else {
+                i++;
+            }
+        }
+        return ((long) lt << 32) | (gt & 0xFFFFFFFFL);
+    }
+
+    private static void insertionSort(IntBuffer buffer, int start, int end) {
+        for (int i = start + 1; i <= end; i++) {
+            int curr = buffer.get(i);
+            int j = i - 1;
+            while (j >= start && buffer.get(j) > curr) {
+                buffer.put(j + 1, buffer.get(j));
+                j--;
+            }
+            buffer.put(j + 1, curr);
+        }
+    }
+
+    private static void heapSort(IntBuffer buffer, int start, int end) {
+        int n = end - start + 1;
+        for (int i = (n >>> 1) - 1; i >= 0; i--) {
+            siftDown(buffer, start, i, n);
+        }
+        for (int size = n - 1; size > 0; size--) {
+            int top = buffer.get(start);
+            buffer.put(start, buffer.get(start + size));
+            buffer.put(start + size, top);
+            siftDown(buffer, start, 0, size);
+        }
+    }
+
+    private static void siftDown(IntBuffer buffer, int start, int node, int size) {
+        int value = buffer.get(start + node);
+        int half = size >>> 1;
+        while (node < half) {
+            int child = (node << 1) + 1;
+            int childValue = buffer.get(start + child);
+            if (child + 1 < size) {
+                int right = buffer.get(start + child + 1);
+                if (right > childValue) {
+                    child++;
+                    childValue = right;
+                }
+            }
+            if (value >= childValue) {
+                break;
+            }
+            buffer.put(start + node, childValue);
+            node = child;
+        }
+        buffer.put(start + node, value);
+    }
+
+    /**
+     * 对缓冲区中[position, limit)的元素排序，不改变position和limit
+     */
+    public static LongBuffer introSort(LongBuffer buffer) {
+        introSort(buffer, buffer.position(), buffer.limit() - 1);
+        return buffer;
+    }
+
+    /**
+     * 对缓冲区中绝对下标[start, end]的元素排序
+     */
+    public static void introSort(LongBuffer buffer, int start, int end) {
+        if (start < end) {
+            intro(buffer, start, end, Quick.depthLimit(end - start + 1));
+        }
+    }
+
+    private static void intro(LongBuffer buffer, int left, int right, int depth) {
+        while (right - left + 1 > Quick.INSERTION_THRESHOLD) {
+            if (depth-- == 0) {
+                heapSort(buffer, left, right);
+                return;
+            }
+            long range = partition3(buffer, left, right, buffer.get(choosePivot(buffer, left, right)));
+            int lt = (int) (range >>> 32);
+            int gt = (int) range;
+            if (lt - left < right - gt) {
+                intro(buffer, left, lt - 1, depth);
+                left = gt + 1;
+            } else {
+                intro(buffer, gt + 1, right, depth);
+                right = lt - 1;
+            }
+        }
+        insertionSort(buffer, left, right);
+    }
+
+    private static int choosePivot(LongBuffer buffer, int start, int end) {
+        int mid = (start + end) >>> 1;
+        if (end - start + 1 > Quick.NINTHER_THRESHOLD) {
+            int step = (end - start + 1) >>> 3;
+            int a = median3(buffer, start, start + step, start + 2 * step);
+            int b = median3(buffer, mid - step, mid, mid + step);
+            int c = median3(buffer, end - 2 * step, end - step, end);
+            return median3(buffer, a, b, c);
+        }
+        return median3(buffer, start, mid, end);
+    }
+
+    private static int median3(LongBuffer buffer, int i, int j, int k) {
+        long a = buffer.get(i);
+        long b = buffer.get(j);
+        long c = buffer.get(k);
+        if (a < b) {
+            return b < c ? j : (a < c ? k : i);
+        }
+        return c < b ? j : (c < a ? k : i);
+    }
+
+    private static long partition3(LongBuffer buffer, int start, int end, long pivot) {
+        int lt = start;
+        int i = start;
+        int gt = end;
+        while (i <= gt) {
+            long value = buffer.get(i);
+            if (value < pivot) {
+                buffer.put(i++, buffer.get(lt));
+                buffer.put(lt++, value);
+            } else if (value > pivot) {
+                buffer.put(i, buffer.get(gt));
+                buffer.put(gt--, value);
+            } else {
+                i++;
+            }
+        }
+        return ((long) lt << 32) | (gt & 0xFFFFFFFFL);
+    }
+
+    private static void insertionSort(LongBuffer buffer, int start, int end) {
+        for (int i = start + 1; i <= end; i++) {
+            long curr = buffer.get(i);
+            int j = i - 1;
+            while (j >= start && buffer.get(j) > curr) {
+                buffer.put(j + 1, buffer.get(j));
+                j--;
+            }
+            buffer.put(j + 1, curr);
+        }
+    }
+
+    private static void heapSort(LongBuffer buffer, int start, int end) {
+        int n = end - start + 1;
+        for (int i = (n >>> 1) - 1; i >= 0; i--) {
+            siftDown(buffer, start, i, n);
+        }
+        for (int size = n - 1; size > 0; size--) {
+            long top = buffer.get(start);
+            buffer.put(start, buffer.get(start + size));
+            buffer.put(start + size, top);
+            siftDown(buffer, start, 0, size);
+        }
+    }
+
+    private static void siftDown(LongBuffer buffer, int start, int node, int size) {
+        long value = buffer.get(start + node);
+        int half = size >>> 1;
+        while (node < half) {
+            int child = (node << 1) + 1;
+            long childValue = buffer.get(start + child);
+            if (child + 1 < size) {
+                long right = buffer.get(start + child + 1);
+                if (right > childValue) {
+                    child++;
+                    childValue = right;
+                }
+            }
+            if (value >= childValue) {
+                break;
+            }
+            buffer.put(start + node, childValue);
+            node = child;
+        }
+        buffer.put(start + node, value);
+    }
+}
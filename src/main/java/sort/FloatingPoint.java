@@ -0,0 +1,97 @@
+package sort;
+
+/**
+ * 浮点数排序的辅助方法
+ * 普通的比较运算中NaN与任何数都不可比，-0.0与0.0相等，排序时需要单独处理，使结果与Double.compare一致
+ */
+class FloatingPoint {
+    /**
+     * 把区间[start, end]中的NaN移到末尾，返回剩余非NaN元素的最后一个下标
+     */
+    static int moveNaNs(double[] array, int start, int end) {
+        int last = end;
+        for (int i = end; i >= start; i--) {
+            double value = array[i];
+            if (value != value) {
+                array[i] = array[last];
+                array[last--] = value;
+            }
+        }
+        return last;
+    }
+
+    static int moveNaNs(float[] array, int start, int end) {
+        int last = end;
+        for (int i = end; i >= start; i--) {
+            float value = array[i];
+            if (value != value) {
+                array[i] = array[last];
+                array[last--] = value;
+            }
+        }
+        return last;
+    }
+
+    /**
+     * 区间[start, end]已经按普通比较排好序，其中的0.0与-0.0是混在一起的
+     * 找到这一段零值，统计-0.0的个数，再依次写入-0.0和0.0
+     */
+    static void orderZeros(double[] array, int start, int end) {
+        int zero = firstNonNegative(array, start, end);
+        int negative = 0;
+        int i = zero;
+        for (; i <= end && array[i] == 0.0d; i++) {
+            if (Double.doubleToRawLongBits(array[i]) < 0) {
+                negative++;
+            }
+        }
+        for (int j = zero; j < i; j++) {
+            array[j] = j < zero + negative ? -0.0d : 0.0d;
+        }
+    }
+
+    static void orderZeros(float[] array, int start, int end) {
+        int zero = firstNonNegative(array, start, end);
+        int negative = 0;
+        int i = zero;
+        for (; i <= end && array[i] == 0.0f; i++) {
+            if (Float.floatToRawIntBits(array[i]) < 0) {
+                negative++;
+            }
+        }
+        for (int j = zero; j < i; j++) {
+            array[j] = j < zero + negative ? -0.0f : 0.0f;
+        }
+    }
+
+    /**
+     * 二分查找第一个不小于0的元素
+     */
+    private static int firstNonNegative(double[] array, int start, int end) {
+        int low = start;
+        int high = end + 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (array[mid] < 0.0d) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int firstNonNegative(float[] array, int start, int end) {
+        int low = start;
+        int high = end + 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (array[mid] < 0.0f) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,134 @@
+package sort;
+
+/**
+ * 堆排序
+ */
+public class Heap {
+    public static int[] heapSort(int[] array) {
+        heapSort(array, 0, array.length - 1);
+        return array;
+    }
+
+    /**
+     * 对区间[start, end]进行堆排序，区间内下标i对应堆中的第i - start个节点
+     */
+    public static void heapSort(int[] array, int start, int end) {
+        int n = end - start + 1;
+        // 从最后一个非叶子节点开始，自下而上建立大顶堆
+        for (int i = (n >>> 1) - 1; i >= 0; i--) {
+            siftDown(array, start, i, n);
+        }
+        // 每次把堆顶的最大值交换到末尾，堆的大小减1后重新调整
+        for (int size = n - 1; size > 0; size--) {
+            Quick.swap(array, start, start + size);
+            siftDown(array, start, 0, size);
+        }
+    }
+
+    private static void siftDown(int[] array, int start, int node, int size) {
+        int value = array[start + node];
+        int half = size >>> 1;
+        while (node < half) {
+            int child = (node << 1) + 1;
+            if (SortMetrics.ENABLED) {
+                SortMetrics.compare(child + 1 < size ? 2 : 1);
+            }
+            if (child + 1 < size && array[start + child + 1] > array[start + child]) {
+                child++;
+            }
+            if (value >= array[start + child]) {
+                break;
+            }
+            array[start + node] = array[start + child];
+            node = child;
+            if (SortMetrics.ENABLED) {
+                SortMetrics.move(1);
+            }
+        }
+        array[start + node] = value;
+    }
+
+    public static void heapSort(long[] array, int start, int end) {
+        int n = end - start + 1;
+        for (int i = (n >>> 1) - 1; i >= 0; i--) {
+            siftDown(array, start, i, n);
+        }
+        for (int size = n - 1; size > 0; size--) {
+            Quick.swap(array, start, start + size);
+            siftDown(array, start, 0, size);
+        }
+    }
+
+    private static void siftDown(long[] array, int start, int node, int size) {
+        long value = array[start + node];
+        int half = size >>> 1;
+        while (node < half) {
+            int child = (node << 1) + 1;
+            if (child + 1 < size && array[start + child + 1] > array[start + child]) {
+                child++;
+            }
+            if (value >= array[start + child]) {
+                break;
+            }
+            array[start + node] = array[start + child];
+            node = child;
+        }
+        array[start + node] = value;
+    }
+
+    public static void heapSort(double[] array, int start, int end) {
+        int n = end - start + 1;
+        for (int i = (n >>> 1) - 1; i >= 0; i--) {
+            siftDown(array, start, i, n);
+        }
+        for (int size = n - 1; size > 0; size--) {
+            Quick.swap(array, start, start + size);
+            siftDown(array, start, 0, size);
+        }
+    }
+
+    private static void siftDown(double[] array, int start, int node, int size) {
+        double value = array[start + node];
+        int half = size >>> 1;
+        while (node < half) {
+            int child = (node << 1) + 1;
+            if (child + 1 < size && array[start + child + 1] > array[start + child]) {
+                child++;
+            }
+            if (value >= array[start + child]) {
+                break;
+            }
+            array[start + node] = array[start + child];
+            node = child;
+        }
+        array[start + node] = value;
+    }
+
+    public static void heapSort(float[] array, int start, int end) {
+        int n = end - start + 1;
+        for (int i = (n >>> 1) - 1; i >= 0; i--) {
+            siftDown(array, start, i, n);
+        }
+        for (int size = n - 1; size > 0; size--) {
+            Quick.swap(array, start, start + size);
+            siftDown(array, start, 0, size);
+        }
+    }
+
+    private static void siftDown(float[] array, int start, int node, int size) {
+        float value = array[start + node];
+        int half = size >>> 1;
+        while (node < half) {
+            int child = (node << 1) + 1;
+            if (child + 1 < size && array[start + child + 1] > array[start + child]) {
+                child++;
+            }
+            if (value >= array[start + child]) {
+                break;
+            }
+            array[start + node] = array[start + child];
+            node = child;
+        }
+        array[start + node] = value;
+    }
+}
@@ -5,24 +5,97 @@ package sort;
  */
 public class Insertion {
     public static int[] insertionSort(int[] array) {
+        insertionSort(array, 0, array.length - 1);
+        return array;
+    }
+
+    /**
+     * 对区间[start, end]进行插入排序，供快速排序等算法在小区间上使用
+     */
+    public static void insertionSort(int[] array, int start, int end) {
         /*
-         * 从1开始循环，因为第一个元素可以认为是默认排序的
+         * 从start+1开始循环，因为第一个元素可以认为是默认排序的
          */
-        for (int i = 1; i < array.length; i++) {
-            int lastIndex = i - 1;
+        for (int i = start + 1; i <= end; i++) {
             int curr = array[i];
             /*
-             * 从已排序的末尾开始往前遍历，找到位置插入
+             * 从已排序的末尾开始往前遍历，比curr大的元素依次后移一位，直到找到插入位置
              */
-            for (int j = lastIndex; j >= 0; j--) {
-                if (array[j] > curr) {
-                    array[j + 1] = array[j];
+            int j = i - 1;
+            while (j >= start && array[j] > curr) {
+                array[j + 1] = array[j];
+                j--;
+            }
+            array[j + 1] = curr;
+            if (SortMetrics.ENABLED) {
+                SortMetrics.compare(i - 1 - j + (j >= start ? 1 : 0));
+                SortMetrics.move(i - j);
+            }
+        }
+    }
+
+    /**
+     * 二分插入排序，[start, sortedEnd)已经有序，把[sortedEnd, end]中的元素依次插入
+     * 用二分查找确定插入位置，比较次数为O(nlogn)，移动元素用System.arraycopy整段完成
+     * 相等元素插入到已有元素之后，排序是稳定的
+     */
+    public static void binaryInsertionSort(int[] array, int start, int end, int sortedEnd) {
+        for (int i = Math.max(sortedEnd, start + 1); i <= end; i++) {
+            int curr = array[i];
+            int left = start;
+            int right = i;
+            while (left < right) {
+                int mid = (left + right) >>> 1;
+                if (SortMetrics.ENABLED) {
+                    SortMetrics.compare();
+                }
+                if (curr < array[mid]) {
+                    right = mid;
                 } else {
-                    array[j + 1] = curr;
-                    break;
+                    left = mid + 1;
                 }
             }
+            System.arraycopy(array, left, array, left + 1, i - left);
+            array[left] = curr;
+            if (SortMetrics.ENABLED) {
+                SortMetrics.move(i - left + 1);
+            }
+        }
+    }
+
+    public static void insertionSort(long[] array, int start, int end) {
+        for (int i = start + 1; i <= end; i++) {
+            long curr = array[i];
+            int j = i - 1;
+            while (j >= start && array[j] > curr) {
+                array[j + 1] = array[j];
+                j--;
+            }
+            array[j + 1] = curr;
+        }
+    }
+
+    public static void insertionSort(double[] array, int start, int end) {
+        for (int i = start + 1; i <= end; i++) {
+            double curr = array[i];
+            int j = i - 1;
+            while (j >= start && array[j] > curr) {
+                array[j + 1] = array[j];
+                j--;
+            }
+            array[j + 1] = curr;
+        }
+    }
+
+    public static void insertionSort(float[] array, int start, int end) {
+        for (int i = start + 1; i <= end; i++) {
+            float curr = array[i];
+            int j = i - 1;
+            while (j >= start && array[j] > curr) {
+                array[j + 1] = array[j];
+                j--;
+            }
+            array[j + 1] = curr;
         }
-        return array;
     }
 }
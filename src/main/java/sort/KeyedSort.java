@@ -0,0 +1,371 @@
+package sort;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * 按缓存的键对对象排序(Schwartzian transform)，用法与Comparator类似：
+ * KeyedSort.comparingInt(UserInfo::getAge).thenComparing(UserInfo::getName).sort(users)
+ * 1. 每个元素的每个键只提取一次，存入与元素平行的数组，long键换算为名次(相等的键名次相同)
+ * 2. 把第一列键和元素下标打包成long，用并行基数排序排好，下标在低位，所以相等的键保持原有顺序，排序是稳定的
+ * 3. 第一列键相等的段再依次按后面的列重新打包排序，各段之间并行
+ * 4. 最后按排好的下标重排对象，排序过程中不会调用比较器，也不会访问对象本身
+ * String键按String.compareTo的顺序，不支持null，字符串只在需要区分的段内比较：
+ * 作为第一列时先并行归并排序换算为名次，作为后续的列时只在前面的列相等的段内排序
+ */
+public final class KeyedSort<T> {
+    /**
+     * 并行提取键时每个分块的最小长度
+     */
+    static final int CHUNK_MIN = 1 << 14;
+
+    private final List<Column<T>> columns;
+
+    private KeyedSort(List<Column<T>> columns) {
+        this.columns = columns;
+    }
+
+    public static <T> KeyedSort<T> comparingInt(ToIntFunction<? super T> key) {
+        return new KeyedSort<T>(Collections.emptyList()).thenComparingInt(key);
+    }
+
+    public static <T> KeyedSort<T> comparingLong(ToLongFunction<? super T> key) {
+        return new KeyedSort<T>(Collections.emptyList()).thenComparingLong(key);
+    }
+
+    public static <T> KeyedSort<T> comparing(Function<? super T, String> key) {
+        return new KeyedSort<T>(Collections.emptyList()).thenComparing(key);
+    }
+
+    public KeyedSort<T> thenComparingInt(ToIntFunction<? super T> key) {
+        return then(new IntColumn<>(key));
+    }
+
+    public KeyedSort<T> thenComparingLong(ToLongFunction<? super T> key) {
+        return then(new LongColumn<>(key));
+    }
+
+    public KeyedSort<T> thenComparing(Function<? super T, String> key) {
+        return then(new StringColumn<>(key));
+    }
+
+    private KeyedSort<T> then(Column<T> column) {
+        List<Column<T>> next = new ArrayList<>(columns);
+        next.add(column);
+        return new KeyedSort<>(next);
+    }
+
+    public void sort(T[] array) {
+        sort(array, ForkJoinPool.commonPool());
+    }
+
+    public void sort(T[] array, ForkJoinPool pool) {
+        int[] order = order(array, pool);
+        Object[] copy = array.clone();
+        for (int i = 0; i < order.length; i++) {
+            @SuppressWarnings("unchecked")
+            T item = (T) copy[order[i]];
+            array[i] = item;
+        }
+    }
+
+    public void sort(List<T> list) {
+        sort(list, ForkJoinPool.commonPool());
+    }
+
+    public void sort(List<T> list, ForkJoinPool pool) {
+        Object[] items = list.toArray();
+        int[] order = order(items, pool);
+        ListIterator<T> iterator = list.listIterator();
+        for (int index : order) {
+            @SuppressWarnings("unchecked")
+            T item = (T) items[index];
+            iterator.next();
+            iterator.set(item);
+        }
+    }
+
+    /**
+     * 返回排序后的下标，items[order[0]], items[order[1]], ...为有序序列，items本身不会被修改
+     */
+    public int[] order(Object[] items, ForkJoinPool pool) {
+        int n = items.length;
+        if (n < 2) {
+            return ArgSort.identity(n);
+        }
+        int chunks = Math.max(1, Math.min(pool.getParallelism(), n / CHUNK_MIN));
+        int[] bounds = Radix.chunkBounds(n, chunks);
+        Keys[] keys = new Keys[columns.size()];
+        for (int c = 0; c < keys.length; c++) {
+            keys[c] = columns.get(c).keys(items, pool, bounds);
+        }
+        long[] packed = new long[n];
+        // 某一列的键全部相同时这一列不影响顺序，直接用下一列整体排序
+        int column = 0;
+        do {
+            int[] key = keys[column++].global(pool);
+            Radix.invoke(pool, chunks, c -> {
+                for (int i = bounds[c]; i < bounds[c + 1]; i++) {
+                    packed[i] = pack(key[i], i);
+                }
+            });
+            Radix.parallelRadixSort(packed, pool);
+        } while (column < keys.length && (packed[0] >>> 32) == (packed[n - 1] >>> 32));
+        if (column < keys.length) {
+            refine(packed, keys, column, pool);
+        }
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = (int) packed[i];
+        }
+        return order;
+    }
+
+    /**
+     * 找出前一列键相等的段，各段并行按剩余的列排序
+     */
+    private static void refine(long[] packed, Keys[] keys, int column, ForkJoinPool pool) {
+        List<int[]> runs = new ArrayList<>();
+        for (int start = 0, end; start < packed.length; start = end + 1) {
+            end = runEnd(packed, start, packed.length - 1);
+            if (end > start) {
+                runs.add(new int[]{start, end});
+            }
+        }
+        if (!runs.isEmpty()) {
+            Radix.invoke(pool, runs.size(), r -> refine(packed, runs.get(r)[0], runs.get(r)[1], keys, column));
+        }
+    }
+
+    private static void refine(long[] packed, int start, int end, Keys[] keys, int column) {
+        keys[column].sort(packed, start, end);
+        if (column + 1 < keys.length) {
+            for (int s = start, e; s <= end; s = e + 1) {
+                e = runEnd(packed, s, end);
+                if (e > s) {
+                    refine(packed, s, e, keys, column + 1);
+                }
+            }
+        }
+    }
+
+    /**
+     * 从start开始高32位相同的最后一个位置
+     */
+    private static int runEnd(long[] packed, int start, int end) {
+        long high = packed[start] >>> 32;
+        int i = start;
+        while (i < end && packed[i + 1] >>> 32 == high) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * 键放在高32位，非负的下标放在低32位，打包后long的有符号顺序就是先按键、再按下标的顺序
+     */
+    private static long pack(int key, int index) {
+        return (long) key << 32 | index;
+    }
+
+    /**
+     * 一列排序键的定义，每次排序时提取出与元素平行的键
+     */
+    private abstract static class Column<T> {
+        abstract Keys keys(Object[] items, ForkJoinPool pool, int[] bounds);
+
+        @SuppressWarnings("unchecked")
+        static <T> T item(Object[] items, int i) {
+            return (T) items[i];
+        }
+    }
+
+    /**
+     * 一次排序中提取出的一列键
+     */
+    private abstract static class Keys {
+        /**
+         * 作为第一列时，返回与元素平行的int键，int的有符号顺序即为该列的顺序
+         */
+        abstract int[] global(ForkJoinPool pool);
+
+        /**
+         * 作为后续的列时，把packed的区间[start, end]按这一列排序，高32位换成这一列的键，相等的键高32位也相等
+         * 区间内的下标进入时是升序的
+         */
+        abstract void sort(long[] packed, int start, int end);
+    }
+
+    private static final class IntKeys extends Keys {
+        private final int[] keys;
+
+        IntKeys(int[] keys) {
+            this.keys = keys;
+        }
+
+        @Override
+        int[] global(ForkJoinPool pool) {
+            return keys;
+        }
+
+        @Override
+        void sort(long[] packed, int start, int end) {
+            for (int i = start; i <= end; i++) {
+                int index = (int) packed[i];
+                packed[i] = pack(keys[index], index);
+            }
+            Quick.introSort(packed, start, end);
+        }
+    }
+
+    private static final class StringKeys extends Keys {
+        private final String[] values;
+
+        StringKeys(String[] values) {
+            this.values = values;
+        }
+
+        @Override
+        int[] global(ForkJoinPool pool) {
+            int[] indices = ArgSort.identity(values.length);
+            pool.invoke(new StringSortTask(indices, 0, indices.length - 1, values));
+            int[] ranks = new int[values.length];
+            int rank = 0;
+            for (int i = 1; i < indices.length; i++) {
+                if (!values[indices[i]].equals(values[indices[i - 1]])) {
+                    rank++;
+                }
+                ranks[indices[i]] = rank;
+            }
+            return ranks;
+        }
+
+        @Override
+        void sort(long[] packed, int start, int end) {
+            int[] indices = new int[end - start + 1];
+            for (int i = start; i <= end; i++) {
+                indices[i - start] = (int) packed[i];
+            }
+            ArgSort.sort(indices, 0, indices.length - 1, values, new int[(indices.length + 1) >>> 1]);
+            int rank = 0;
+            for (int i = 0; i < indices.length; i++) {
+                if (i > 0 && !values[indices[i]].equals(values[indices[i - 1]])) {
+                    rank++;
+                }
+                packed[start + i] = pack(rank, indices[i]);
+            }
+        }
+    }
+
+    private static final class IntColumn<T> extends Column<T> {
+        private final ToIntFunction<? super T> key;
+
+        IntColumn(ToIntFunction<? super T> key) {
+            this.key = key;
+        }
+
+        @Override
+        Keys keys(Object[] items, ForkJoinPool pool, int[] bounds) {
+            int[] keys = new int[items.length];
+            Radix.invoke(pool, bounds.length - 1, c -> {
+                for (int i = bounds[c]; i < bounds[c + 1]; i++) {
+                    keys[i] = key.applyAsInt(item(items, i));
+                }
+            });
+            return new IntKeys(keys);
+        }
+    }
+
+    /**
+     * long键排序去重后，用二分查找换算为名次
+     */
+    private static final class LongColumn<T> extends Column<T> {
+        private final ToLongFunction<? super T> key;
+
+        LongColumn(ToLongFunction<? super T> key) {
+            this.key = key;
+        }
+
+        @Override
+        Keys keys(Object[] items, ForkJoinPool pool, int[] bounds) {
+            long[] values = new long[items.length];
+            Radix.invoke(pool, bounds.length - 1, c -> {
+                for (int i = bounds[c]; i < bounds[c + 1]; i++) {
+                    values[i] = key.applyAsLong(item(items, i));
+                }
+            });
+            long[] sorted = Radix.parallelRadixSort(values.clone(), pool);
+            int distinct = 1;
+            for (int i = 1; i < sorted.length; i++) {
+                if (sorted[i] != sorted[distinct - 1]) {
+                    sorted[distinct++] = sorted[i];
+                }
+            }
+            int size = distinct;
+            int[] ranks = new int[items.length];
+            Radix.invoke(pool, bounds.length - 1, c -> {
+                for (int i = bounds[c]; i < bounds[c + 1]; i++) {
+                    ranks[i] = Arrays.binarySearch(sorted, 0, size, values[i]);
+                }
+            });
+            return new IntKeys(ranks);
+        }
+    }
+
+    private static final class StringColumn<T> extends Column<T> {
+        private final Function<? super T, String> key;
+
+        StringColumn(Function<? super T, String> key) {
+            this.key = key;
+        }
+
+        @Override
+        Keys keys(Object[] items, ForkJoinPool pool, int[] bounds) {
+            String[] values = new String[items.length];
+            Radix.invoke(pool, bounds.length - 1, c -> {
+                for (int i = bounds[c]; i < bounds[c + 1]; i++) {
+                    values[i] = key.apply(item(items, i));
+                }
+            });
+            return new StringKeys(values);
+        }
+    }
+
+    /**
+     * 按字符串对下标并行归并排序，区间较短时在当前线程排序
+     */
+    private static final class StringSortTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] indices;
+        private final int start;
+        private final int end;
+        private final String[] keys;
+
+        StringSortTask(int[] indices, int start, int end, String[] keys) {
+            this.indices = indices;
+            this.start = start;
+            this.end = end;
+            this.keys = keys;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start < Merge.PARALLEL_THRESHOLD) {
+                ArgSort.sort(indices, start, end, keys, new int[(end - start + 2) >>> 1]);
+                return;
+            }
+            int mid = (start + end) >>> 1;
+            invokeAll(new StringSortTask(indices, start, mid, keys), new StringSortTask(indices, mid + 1, end, keys));
+            ArgSort.merge(indices, start, mid, end, keys, new int[mid - start + 1]);
+        }
+    }
+}
@@ -1,33 +1,320 @@
 package sort;
 
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 归并排序
+ */
 public class Merge {
+    /**
+     * 并行排序时，区间长度小于该值就不再拆分任务，直接在当前线程顺序排序
+     */
+    static final int PARALLEL_THRESHOLD = 1 << 13;
+
     public static void mergeSort(int[] arr, int start, int end) {
         if (start < end) {
-            int mid = (start + end) / 2;
-            mergeSort(arr, start, mid);
-            mergeSort(arr, mid + 1, end);
-            merge(arr, start, mid, end);
+            if (SortMetrics.ENABLED) {
+                SortMetrics.allocate((long) (end - start + 1) * Integer.BYTES);
+            }
+            mergeSort(arr, start, end, new int[end - start + 1]);
         }
     }
 
-    public static void merge(int[] arr, int start, int mid, int end) {
+    /**
+     * 使用外部传入的辅助数组排序，整个过程不再分配内存
+     * temp的长度不能小于end - start + 1，可以在多次排序之间复用
+     */
+    public static void mergeSort(int[] arr, int start, int end, int[] temp) {
+        sort(arr, start, end, temp, start);
+    }
+
+    /**
+     * 并行归并排序，使用公共的ForkJoinPool
+     */
+    public static void parallelSort(int[] arr) {
+        parallelSort(arr, 0, arr.length - 1, ForkJoinPool.commonPool());
+    }
+
+    public static void parallelSort(int[] arr, ForkJoinPool pool) {
+        parallelSort(arr, 0, arr.length - 1, pool);
+    }
+
+    /**
+     * 并行归并排序，辅助数组只分配一次，所有子任务共用
+     * 每个子任务只会读写辅助数组中与自己区间对应的那一段，因此互不干扰
+     */
+    public static void parallelSort(int[] arr, int start, int end, ForkJoinPool pool) {
+        if (start >= end) {
+            return;
+        }
         int[] temp = new int[end - start + 1];
-        int i = start;
+        if (SortMetrics.ENABLED) {
+            SortMetrics.allocate((long) temp.length * Integer.BYTES);
+        }
+        if (end - start < PARALLEL_THRESHOLD || pool.getParallelism() == 1) {
+            sort(arr, start, end, temp, start);
+            return;
+        }
+        pool.invoke(new MergeTask(arr, start, end, temp, start));
+    }
+
+    /**
+     * 自适应归并排序，利用输入中已有的升序段和降序段，已经有序的输入只需O(n)
+     */
+    public static void adaptiveSort(int[] arr) {
+        adaptiveSort(arr, 0, arr.length - 1);
+    }
+
+    public static void adaptiveSort(int[] arr, int start, int end) {
+        NaturalMerge.sort(arr, start, end + 1);
+    }
+
+    public static void merge(int[] arr, int start, int mid, int end) {
+        if (SortMetrics.ENABLED) {
+            SortMetrics.allocate((long) (mid - start + 1) * Integer.BYTES);
+        }
+        merge(arr, start, mid, end, new int[mid - start + 1], start);
+    }
+
+    /**
+     * 合并两个有序区间[start, mid]和[mid + 1, end]，temp的长度不能小于mid - start + 1
+     */
+    public static void merge(int[] arr, int start, int mid, int end, int[] temp) {
+        merge(arr, start, mid, end, temp, start);
+    }
+
+    /**
+     * base为辅助数组下标0对应的原数组下标，区间[start, end]使用辅助数组中[start - base, end - base]这一段
+     */
+    private static void sort(int[] arr, int start, int end, int[] temp, int base) {
+        if (start < end) {
+            if (SortMetrics.ENABLED) {
+                SortMetrics.enter();
+            }
+            int mid = (start + end) >>> 1;
+            sort(arr, start, mid, temp, base);
+            sort(arr, mid + 1, end, temp, base);
+            merge(arr, start, mid, end, temp, base);
+            if (SortMetrics.ENABLED) {
+                SortMetrics.exit();
+            }
+        }
+    }
+
+    private static void merge(int[] arr, int start, int mid, int end, int[] temp, int base) {
+        // 有一半为空时没有需要合并的元素，也不能读取arr[mid]或arr[mid + 1]
+        if (mid < start || mid >= end) {
+            return;
+        }
+        if (SortMetrics.ENABLED) {
+            SortMetrics.compare();
+        }
+        // 左半边的最大值不超过右半边的最小值，说明已经有序
+        if (arr[mid] <= arr[mid + 1]) {
+            return;
+        }
+        /*
+         * 只把左半边拷贝到辅助数组，再从前往后合并回原数组
+         * 写入位置k始终小于右半边的读取位置j，所以右半边可以直接在原数组中读取
+         */
+        int i = start - base;
+        int leftEnd = i + mid - start + 1;
+        System.arraycopy(arr, start, temp, i, leftEnd - i);
         int j = mid + 1;
-        int k = 0;
-        while (i <= mid && j <= end) {
-            if (arr[i] < arr[j]) {
-                temp[k++] = arr[i++];
+        int k = start;
+        while (i < leftEnd && j <= end) {
+            if (SortMetrics.ENABLED) {
+                SortMetrics.compare();
+            }
+            if (temp[i] <= arr[j]) {
+                arr[k++] = temp[i++];
             } else {
-                temp[k++] = arr[j++];
+                arr[k++] = arr[j++];
             }
         }
-        while (i <= mid) {
-            temp[k++] = arr[i++];
+        // 右半边剩下的元素本来就在正确的位置上，只需拷贝左半边剩下的
+        if (i < leftEnd) {
+            System.arraycopy(temp, i, arr, k, leftEnd - i);
+        }
+        if (SortMetrics.ENABLED) {
+            // 左半边拷出、拷回各一次，右半边只有在循环中被取走的元素移动过
+            SortMetrics.move(2L * (mid - start + 1) + j - mid - 1);
         }
-        while (j <= end) {
-            temp[k++] = arr[j++];
+    }
+
+    /*
+     * ---------------------long、double、float版本的归并排序---------------------------
+     */
+    public static void mergeSort(long[] arr, int start, int end) {
+        if (start < end) {
+            mergeSort(arr, start, end, new long[(end - start + 2) >>> 1]);
+        }
+    }
+
+    /**
+     * temp的长度不能小于(end - start + 2) / 2，即左半边的最大长度
+     */
+    public static void mergeSort(long[] arr, int start, int end, long[] temp) {
+        sort(arr, start, end, temp);
+    }
+
+    private static void sort(long[] arr, int start, int end, long[] temp) {
+        if (start < end) {
+            int mid = (start + end) >>> 1;
+            sort(arr, start, mid, temp);
+            sort(arr, mid + 1, end, temp);
+            merge(arr, start, mid, end, temp);
+        }
+    }
+
+    /**
+     * 合并两个有序区间[start, mid]和[mid + 1, end]，temp的长度不能小于mid - start + 1
+     */
+    public static void merge(long[] arr, int start, int mid, int end, long[] temp) {
+        if (mid < start || mid >= end || arr[mid] <= arr[mid + 1]) {
+            return;
+        }
+        int leftLen = mid - start + 1;
+        System.arraycopy(arr, start, temp, 0, leftLen);
+        int i = 0;
+        int j = mid + 1;
+        int k = start;
+        while (i < leftLen && j <= end) {
+            if (temp[i] <= arr[j]) {
+                arr[k++] = temp[i++];
+            } else {
+                arr[k++] = arr[j++];
+            }
+        }
+        if (i < leftLen) {
+            System.arraycopy(temp, i, arr, k, leftLen - i);
+        }
+    }
+
+    public static void mergeSort(double[] arr, int start, int end) {
+        if (start < end) {
+            mergeSort(arr, start, end, new double[(end - start + 2) >>> 1]);
+        }
+    }
+
+    /**
+     * NaN和-0.0的处理方式与Quick.introSort(double[])相同，排序是稳定的
+     */
+    public static void mergeSort(double[] arr, int start, int end, double[] temp) {
+        if (start < end) {
+            int last = FloatingPoint.moveNaNs(arr, start, end);
+            sort(arr, start, last, temp);
+            FloatingPoint.orderZeros(arr, start, last);
+        }
+    }
+
+    private static void sort(double[] arr, int start, int end, double[] temp) {
+        if (start < end) {
+            int mid = (start + end) >>> 1;
+            sort(arr, start, mid, temp);
+            sort(arr, mid + 1, end, temp);
+            merge(arr, start, mid, end, temp);
+        }
+    }
+
+    /**
+     * 合并两个有序区间[start, mid]和[mid + 1, end]，temp的长度不能小于mid - start + 1
+     */
+    public static void merge(double[] arr, int start, int mid, int end, double[] temp) {
+        if (mid < start || mid >= end || arr[mid] <= arr[mid + 1]) {
+            return;
+        }
+        int leftLen = mid - start + 1;
+        System.arraycopy(arr, start, temp, 0, leftLen);
+        int i = 0;
+        int j = mid + 1;
+        int k = start;
+        while (i < leftLen && j <= end) {
+            if (temp[i] <= arr[j]) {
+                arr[k++] = temp[i++];
+            } else {
+                arr[k++] = arr[j++];
+            }
+        }
+        if (i < leftLen) {
+            System.arraycopy(temp, i, arr, k, leftLen - i);
+        }
+    }
+
+    public static void mergeSort(float[] arr, int start, int end) {
+        if (start < end) {
+            mergeSort(arr, start, end, new float[(end - start + 2) >>> 1]);
+        }
+    }
+
+    public static void mergeSort(float[] arr, int start, int end, float[] temp) {
+        if (start < end) {
+            int last = FloatingPoint.moveNaNs(arr, start, end);
+            sort(arr, start, last, temp);
+            FloatingPoint.orderZeros(arr, start, last);
+        }
+    }
+
+    private static void sort(float[] arr, int start, int end, float[] temp) {
+        if (start < end) {
+            int mid = (start + end) >>> 1;
+            sort(arr, start, mid, temp);
+            sort(arr, mid + 1, end, temp);
+            merge(arr, start, mid, end, temp);
+        }
+    }
+
+    /**
+     * 合并两个有序区间[start, mid]和[mid + 1, end]，temp的长度不能小于mid - start + 1
+     */
+    public static void merge(float[] arr, int start, int mid, int end, float[] temp) {
+        if (mid < start || mid >= end || arr[mid] <= arr[mid + 1]) {
+            return;
+        }
+        int leftLen = mid - start + 1;
+        System.arraycopy(arr, start, temp, 0, leftLen);
+        int i = 0;
+        int j = mid + 1;
+        int k = start;
+        while (i < leftLen && j <= end) {
+            if (temp[i] <= arr[j]) {
+                arr[k++] = temp[i++];
+            } else {
+                arr[k++] = arr[j++];
+            }
+        }
+        if (i < leftLen) {
+            System.arraycopy(temp, i, arr, k, leftLen - i);
+        }
+    }
+
+    private static final class MergeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] arr;
+        private final int start;
+        private final int end;
+        private final int[] temp;
+        private final int base;
+
+        MergeTask(int[] arr, int start, int end, int[] temp, int base) {
+            this.arr = arr;
+            this.start = start;
+            this.end = end;
+            this.temp = temp;
+            this.base = base;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start < PARALLEL_THRESHOLD) {
+                sort(arr, start, end, temp, base);
+                return;
+            }
+            int mid = (start + end) >>> 1;
+            invokeAll(new MergeTask(arr, start, mid, temp, base), new MergeTask(arr, mid + 1, end, temp, base));
+            merge(arr, start, mid, end, temp, base);
         }
-        System.arraycopy(temp, 0, arr, start, temp.length);
     }
 }
@@ -0,0 +1,241 @@
+package sort;
+
+/**
+ * 自然归并排序，Merge.adaptiveSort的实现
+ * 1. 从左到右识别天然的有序段：非降序段原样保留，严格降序段原地翻转，长度不足minRun的段用二分插入排序补齐
+ * 2. 有序段依次入栈，栈顶一段的两倍不小于下面一段时先把这两段合并，栈中的长度因此至少按2倍递减，栈深不超过33
+ * 3. 合并前用倍增查找(galloping)裁掉已经就位的元素：左段中不大于右段首元素的前缀，右段中不小于左段末元素的后缀
+ * 4. 裁剪后左段较短时交给Merge.merge从前往后合并，右段较短时从后往前合并，辅助数组只需容纳较短的一段
+ * 排序是稳定的：只翻转严格降序的段，合并时相等的元素总是左段的在前
+ * 内部的区间都是左闭右开
+ */
+final class NaturalMerge {
+    /**
+     * 长度小于该值时整个区间直接用二分插入排序
+     */
+    static final int MIN_MERGE = 32;
+
+    private static final int MAX_DEPTH = 40;
+
+    private final int[] a;
+    private int[] temp = new int[0];
+
+    /**
+     * 待合并的有序段栈，第i段为a[runStart[i], runStart[i] + runLength[i])
+     */
+    private final int[] runStart = new int[MAX_DEPTH];
+    private final int[] runLength = new int[MAX_DEPTH];
+    private int depth;
+
+    NaturalMerge(int[] a) {
+        this.a = a;
+    }
+
+    static void sort(int[] a, int lo, int hi) {
+        int n = hi - lo;
+        if (n >= 2) {
+            new NaturalMerge(a).sort(lo, hi, minRun(n));
+        }
+    }
+
+    /**
+     * 对a[lo, hi)排序，短于minRun的有序段先补齐到minRun
+     */
+    void sort(int lo, int hi, int minRun) {
+        for (int start = lo; start < hi; ) {
+            int run = countRun(a, start, hi);
+            if (run < minRun) {
+                int forced = Math.min(minRun, hi - start);
+                Insertion.binaryInsertionSort(a, start, start + forced - 1, start + run);
+                run = forced;
+            }
+            push(start, run);
+            start += run;
+        }
+        while (depth > 1) {
+            mergeTop();
+        }
+    }
+
+    /**
+     * 已分配的辅助数组长度
+     */
+    int scratchLength() {
+        return temp.length;
+    }
+
+    /**
+     * n小于MIN_MERGE时返回n，否则取n的最高5位，其余位不全为0时再加1
+     * 结果在[MIN_MERGE / 2, MIN_MERGE]之间，n / minRun等于或略小于2的幂，最后的合并比较平衡
+     */
+    static int minRun(int n) {
+        int shift = Math.max(0, 32 - Integer.numberOfLeadingZeros(n) - 5);
+        int run = n >>> shift;
+        return (n & ((1 << shift) - 1)) == 0 ? run : run + 1;
+    }
+
+    /**
+     * 返回从lo开始的有序段长度，严格降序的段被原地翻转
+     * 相等的元素不算降序，翻转后它们的相对顺序不会改变
+     */
+    static int countRun(int[] a, int lo, int hi) {
+        int end = lo + 1;
+        if (end == hi) {
+            return 1;
+        }
+        if (a[end] < a[lo]) {
+            while (++end < hi && a[end] < a[end - 1]) {
+                // 继续扫描严格降序段
+            }
+            for (int i = lo, j = end - 1; i < j; i++, j--) {
+                Quick.swap(a, i, j);
+            }
+        } else {
+            while (++end < hi && a[end] >= a[end - 1]) {
+                // 继续扫描非降序段
+            }
+        }
+        if (SortMetrics.ENABLED) {
+            SortMetrics.compare(end - lo - 1 + (end < hi ? 1 : 0));
+        }
+        return end - lo;
+    }
+
+    /**
+     * 在有序区间a[lo, hi)中找第一个大于key的位置，从lo开始按1、2、4...的步长探测，再在最后一步内二分
+     * 要找的位置离lo越近，比较次数越少，位置为lo + k时只需O(log k)次比较
+     */
+    static int gallopRight(int[] a, int key, int lo, int hi) {
+        int n = hi - lo;
+        int low = lo;
+        int offset = 0;
+        int compares = 0;
+        while (offset < n && a[lo + offset] <= key) {
+            compares++;
+            low = lo + offset + 1;
+            offset = (offset << 1) + 1;
+        }
+        int high = offset < n ? lo + offset : hi;
+        // 停止探测的那次比较
+        if (offset < n) {
+            compares++;
+        }
+        while (low < high) {
+            compares++;
+            int mid = (low + high) >>> 1;
+            if (a[mid] <= key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        if (SortMetrics.ENABLED) {
+            SortMetrics.compare(compares);
+        }
+        return low;
+    }
+
+    /**
+     * 在有序区间a[lo, hi)中找第一个不小于key的位置，与gallopRight对称，从hi - 1开始向左探测
+     */
+    static int gallopLeft(int[] a, int key, int lo, int hi) {
+        int n = hi - lo;
+        int high = hi;
+        int offset = 0;
+        int compares = 0;
+        while (offset < n && a[hi - 1 - offset] >= key) {
+            compares++;
+            high = hi - 1 - offset;
+            offset = (offset << 1) + 1;
+        }
+        int low = offset < n ? hi - offset : lo;
+        if (offset < n) {
+            compares++;
+        }
+        while (low < high) {
+            compares++;
+            int mid = (low + high) >>> 1;
+            if (a[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        if (SortMetrics.ENABLED) {
+            SortMetrics.compare(compares);
+        }
+        return low;
+    }
+
+    private void push(int start, int length) {
+        runStart[depth] = start;
+        runLength[depth] = length;
+        depth++;
+        while (depth > 1 && runLength[depth - 2] - runLength[depth - 1] <= runLength[depth - 1]) {
+            mergeTop();
+        }
+    }
+
+    /**
+     * 合并栈顶的两段
+     */
+    private void mergeTop() {
+        int i = depth - 2;
+        int lo = runStart[i];
+        int mid = lo + runLength[i];
+        int hi = mid + runLength[i + 1];
+        runLength[i] += runLength[i + 1];
+        depth--;
+        merge(lo, mid, hi);
+    }
+
+    private void merge(int lo, int mid, int hi) {
+        lo = gallopRight(a, a[mid], lo, mid);
+        if (lo == mid) {
+            return;
+        }
+        hi = gallopLeft(a, a[mid - 1], mid, hi);
+        if (mid - lo <= hi - mid) {
+            Merge.merge(a, lo, mid - 1, hi - 1, scratch(mid - lo));
+        } else {
+            mergeHigh(lo, mid, hi, scratch(hi - mid));
+        }
+    }
+
+    /**
+     * 把右段拷贝到辅助数组，从后往前合并，写入位置始终在左段的读取位置之后
+     */
+    private void mergeHigh(int lo, int mid, int hi, int[] temp) {
+        int rightLength = hi - mid;
+        System.arraycopy(a, mid, temp, 0, rightLength);
+        int i = mid - 1;
+        int j = rightLength - 1;
+        int k = hi - 1;
+        while (i >= lo && j >= 0) {
+            if (SortMetrics.ENABLED) {
+                SortMetrics.compare();
+            }
+            // 相等时先放右段的元素，左段的相等元素就排在它前面
+            if (a[i] > temp[j]) {
+                a[k--] = a[i--];
+            } else {
+                a[k--] = temp[j--];
+            }
+        }
+        // 左段剩下的元素本来就在正确的位置上，只需拷贝右段剩下的
+        System.arraycopy(temp, 0, a, lo, j + 1);
+        if (SortMetrics.ENABLED) {
+            SortMetrics.move(2L * rightLength + mid - 1 - i);
+        }
+    }
+
+    private int[] scratch(int length) {
+        if (temp.length < length) {
+            temp = new int[length];
+            if (SortMetrics.ENABLED) {
+                SortMetrics.allocate((long) length * Integer.BYTES);
+            }
+        }
+        return temp;
+    }
+}
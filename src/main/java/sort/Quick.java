@@ -1,39 +1,432 @@
 package sort;
 
+/**
+ * 快速排序
+ */
 public class Quick {
+    /**
+     * 区间长度小于该值时，改用插入排序
+     */
+    static final int INSERTION_THRESHOLD = 24;
+
+    /**
+     * 区间长度大于该值时，使用九数取中(ninther)选择枢轴，否则使用三数取中
+     */
+    static final int NINTHER_THRESHOLD = 128;
+
     public static int[] quickSort(int[] array) {
         quick(array, 0, array.length - 1);
         return array;
     }
 
+    public static void quickSort(int[] array, int start, int end) {
+        quick(array, start, end);
+    }
+
+    /**
+     * 三路划分，与枢轴相等的元素一次归位，重复元素多时不再退化
+     * 只对较短的一侧递归，较长的一侧在循环中继续处理，栈深度为O(logn)
+     */
     private static void quick(int[] array, int left, int right) {
-        if (left >= right) {
-            return;
+        if (SortMetrics.ENABLED) {
+            SortMetrics.enter();
+        }
+        while (left < right) {
+            long range = partition3(array, left, right, array[choosePivot(array, left, right)]);
+            int lt = (int) (range >>> 32);
+            int gt = (int) range;
+            if (lt - left < right - gt) {
+                quick(array, left, lt - 1);
+                left = gt + 1;
+            } else {
+                quick(array, gt + 1, right);
+                right = lt - 1;
+            }
+        }
+        if (SortMetrics.ENABLED) {
+            SortMetrics.exit();
         }
-        int partition = partition(array, left, right);
-        quick(array, left, partition - 1);
-        quick(array, partition + 1, right);
     }
 
+    /**
+     * 以枢轴划分区间[start, end]，返回枢轴最终的下标
+     * 枢轴先按三数取中(区间较长时九数取中)选出，再交换到区间首部，有序或逆序的输入不再退化
+     */
     public static int partition(int[] array, int start, int end) {
+        swap(array, start, choosePivot(array, start, end));
         int i = start;
         int key = array[start];
         while (start < end) {
             while (start < end && array[end] >= key) {
+                if (SortMetrics.ENABLED) {
+                    SortMetrics.compare();
+                }
                 end--;
             }
+            // 因比较失败而退出循环时，最后一次比较也要计入
+            if (SortMetrics.ENABLED && start < end) {
+                SortMetrics.compare();
+            }
             while (start < end && array[start] <= key) {
+                if (SortMetrics.ENABLED) {
+                    SortMetrics.compare();
+                }
                 start++;
             }
+            if (SortMetrics.ENABLED && start < end) {
+                SortMetrics.compare();
+            }
             swap(array, start, end);
         }
         swap(array, start, i);
         return start;
     }
 
+    /**
+     * 内省排序(introsort)
+     * 1. 使用三数取中或九数取中选择枢轴，避免有序输入退化为O(n^2)
+     * 2. 三路划分，与枢轴相等的元素一次归位，重复元素多时不再退化
+     * 3. 小区间改用插入排序
+     * 4. 递归深度超过2*log2(n)时改用堆排序，保证最坏情况O(nlogn)
+     */
+    public static int[] introSort(int[] array) {
+        introSort(array, 0, array.length - 1);
+        return array;
+    }
+
+    public static void introSort(int[] array, int start, int end) {
+        if (start < end) {
+            intro(array, start, end, depthLimit(end - start + 1));
+        }
+    }
+
+    static int depthLimit(int length) {
+        return 2 * (31 - Integer.numberOfLeadingZeros(length));
+    }
+
+    static void intro(int[] array, int left, int right, int depth) {
+        if (SortMetrics.ENABLED) {
+            SortMetrics.enter();
+        }
+        while (right - left + 1 > INSERTION_THRESHOLD) {
+            if (depth-- == 0) {
+                Heap.heapSort(array, left, right);
+                if (SortMetrics.ENABLED) {
+                    SortMetrics.exit();
+                }
+                return;
+            }
+            long range = partition3(array, left, right, array[choosePivot(array, left, right)]);
+            int lt = (int) (range >>> 32);
+            int gt = (int) range;
+            /*
+             * 只对较短的一侧递归，较长的一侧在循环中继续处理，保证栈深度为O(logn)
+             */
+            if (lt - left < right - gt) {
+                intro(array, left, lt - 1, depth);
+                left = gt + 1;
+            } else {
+                intro(array, gt + 1, right, depth);
+                right = lt - 1;
+            }
+        }
+        Insertion.insertionSort(array, left, right);
+        if (SortMetrics.ENABLED) {
+            SortMetrics.exit();
+        }
+    }
+
+    /**
+     * 选择枢轴，返回枢轴的下标
+     */
+    static int choosePivot(int[] array, int start, int end) {
+        int mid = (start + end) >>> 1;
+        if (end - start + 1 > NINTHER_THRESHOLD) {
+            int step = (end - start + 1) >>> 3;
+            int a = median3(array, start, start + step, start + 2 * step);
+            int b = median3(array, mid - step, mid, mid + step);
+            int c = median3(array, end - 2 * step, end - step, end);
+            return median3(array, a, b, c);
+        }
+        return median3(array, start, mid, end);
+    }
+
+    private static int median3(int[] array, int i, int j, int k) {
+        if (SortMetrics.ENABLED) {
+            // 按最多3次计
+            SortMetrics.compare(3);
+        }
+        if (array[i] < array[j]) {
+            return array[j] < array[k] ? j : (array[i] < array[k] ? k : i);
+        }
+        return array[k] < array[j] ? j : (array[k] < array[i] ? k : i);
+    }
+
+    /**
+     * 三路划分(荷兰国旗问题)，pivot必须是区间内的某个元素
+     * 划分完成后[start, lt)小于pivot，[lt, gt]等于pivot，(gt, end]大于pivot
+     * 返回值高32位为lt，低32位为gt
+     */
+    static long partition3(int[] array, int start, int end, int pivot) {
+        int lt = start;
+        int i = start;
+        int gt = end;
+        while (i <= gt) {
+            int value = array[i];
+            if (SortMetrics.ENABLED) {
+                SortMetrics.compare(value < pivot ? 1 : 2);
+            }
+            if (value < pivot) {
+                swap(array, lt++, i++);
+            } else if (value > pivot) {
+                swap(array, i, gt--);
+            } else {
+                i++;
+            }
+        }
+        return ((long) lt << 32) | (gt & 0xFFFFFFFFL);
+    }
+
     public static void swap(int[] array, int n, int m) {
         int temp = array[n];
         array[n] = array[m];
         array[m] = temp;
+        if (SortMetrics.ENABLED) {
+            SortMetrics.swap();
+        }
+    }
+
+    /*
+     * ---------------------long、double、float版本的内省排序，逻辑与int版本相同---------------------------
+     */
+    public static long[] introSort(long[] array) {
+        introSort(array, 0, array.length - 1);
+        return array;
+    }
+
+    public static void introSort(long[] array, int start, int end) {
+        if (start < end) {
+            intro(array, start, end, depthLimit(end - start + 1));
+        }
+    }
+
+    private static void intro(long[] array, int left, int right, int depth) {
+        while (right - left + 1 > INSERTION_THRESHOLD) {
+            if (depth-- == 0) {
+                Heap.heapSort(array, left, right);
+                return;
+            }
+            long range = partition3(array, left, right, array[choosePivot(array, left, right)]);
+            int lt = (int) (range >>> 32);
+            int gt = (int) range;
+            if (lt - left < right - gt) {
+                intro(array, left, lt - 1, depth);
+                left = gt + 1;
+            } else {
+                intro(array, gt + 1, right, depth);
+                right = lt - 1;
+            }
+        }
+        Insertion.insertionSort(array, left, right);
+    }
+
+    static int choosePivot(long[] array, int start, int end) {
+        int mid = (start + end) >>> 1;
+        if (end - start + 1 > NINTHER_THRESHOLD) {
+            int step = (end - start + 1) >>> 3;
+            int a = median3(array, start, start + step, start + 2 * step);
+            int b = median3(array, mid - step, mid, mid + step);
+            int c = median3(array, end - 2 * step, end - step, end);
+            return median3(array, a, b, c);
+        }
+        return median3(array, start, mid, end);
+    }
+
+    private static int median3(long[] array, int i, int j, int k) {
+        if (array[i] < array[j]) {
+            return array[j] < array[k] ? j : (array[i] < array[k] ? k : i);
+        }
+        return array[k] < array[j] ? j : (array[k] < array[i] ? k : i);
+    }
+
+    static long partition3(long[] array, int start, int end, long pivot) {
+        int lt = start;
+        int i = start;
+        int gt = end;
+        while (i <= gt) {
+            long value = array[i];
+            if (value < pivot) {
+                swap(array, lt++, i++);
+            } else if (value > pivot) {
+                swap(array, i, gt--);
+            } else {
+                i++;
+            }
+        }
+        return ((long) lt << 32) | (gt & 0xFFFFFFFFL);
+    }
+
+    public static void swap(long[] array, int n, int m) {
+        long temp = array[n];
+        array[n] = array[m];
+        array[m] = temp;
+    }
+
+    public static double[] introSort(double[] array) {
+        introSort(array, 0, array.length - 1);
+        return array;
+    }
+
+    /**
+     * NaN先被移到区间末尾，剩下的元素用普通比较排序，最后再把-0.0调整到0.0之前
+     * 排序结果与Arrays.sort一致：-0.0 < 0.0，NaN排在最后
+     */
+    public static void introSort(double[] array, int start, int end) {
+        if (start < end) {
+            int last = FloatingPoint.moveNaNs(array, start, end);
+            if (start < last) {
+                intro(array, start, last, depthLimit(last - start + 1));
+            }
+            FloatingPoint.orderZeros(array, start, last);
+        }
+    }
+
+    private static void intro(double[] array, int left, int right, int depth) {
+        while (right - left + 1 > INSERTION_THRESHOLD) {
+            if (depth-- == 0) {
+                Heap.heapSort(array, left, right);
+                return;
+            }
+            long range = partition3(array, left, right, array[choosePivot(array, left, right)]);
+            int lt = (int) (range >>> 32);
+            int gt = (int) range;
+            if (lt - left < right - gt) {
+                intro(array, left, lt - 1, depth);
+                left = gt + 1;
+            } else {
+                intro(array, gt + 1, right, depth);
+                right = lt - 1;
+            }
+        }
+        Insertion.insertionSort(array, left, right);
+    }
+
+    static int choosePivot(double[] array, int start, int end) {
+        int mid = (start + end) >>> 1;
+        if (end - start + 1 > NINTHER_THRESHOLD) {
+            int step = (end - start + 1) >>> 3;
+            int a = median3(array, start, start + step, start + 2 * step);
+            int b = median3(array, mid - step, mid, mid + step);
+            int c = median3(array, end - 2 * step, end - step, end);
+            return median3(array, a, b, c);
+        }
+        return median3(array, start, mid, end);
+    }
+
+    private static int median3(double[] array, int i, int j, int k) {
+        if (array[i] < array[j]) {
+            return array[j] < array[k] ? j : (array[i] < array[k] ? k : i);
+        }
+        return array[k] < array[j] ? j : (array[k] < array[i] ? k : i);
+    }
+
+    static long partition3(double[] array, int start, int end, double pivot) {
+        int lt = start;
+        int i = start;
+        int gt = end;
+        while (i <= gt) {
+            double value = array[i];
+            if (value < pivot) {
+                swap(array, lt++, i++);
+            } else if (value > pivot) {
+                swap(array, i, gt--);
+            } else {
+                i++;
+            }
+        }
+        return ((long) lt << 32) | (gt & 0xFFFFFFFFL);
+    }
+
+    public static void swap(double[] array, int n, int m) {
+        double temp = array[n];
+        array[n] = array[m];
+        array[m] = temp;
+    }
+
+    public static float[] introSort(float[] array) {
+        introSort(array, 0, array.length - 1);
+        return array;
+    }
+
+    public static void introSort(float[] array, int start, int end) {
+        if (start < end) {
+            int last = FloatingPoint.moveNaNs(array, start, end);
+            if (start < last) {
+                intro(array, start, last, depthLimit(last - start + 1));
+            }
+            FloatingPoint.orderZeros(array, start, last);
+        }
+    }
+
+    private static void intro(float[] array, int left, int right, int depth) {
+        while (right - left + 1 > INSERTION_THRESHOLD) {
+            if (depth-- == 0) {
+                Heap.heapSort(array, left, right);
+                return;
+            }
+            long range = partition3(array, left, right, array[choosePivot(array, left, right)]);
+            int lt = (int) (range >>> 32);
+            int gt = (int) range;
+            if (lt - left < right - gt) {
+                intro(array, left, lt - 1, depth);
+                left = gt + 1;
+            } else {
+                intro(array, gt + 1, right, depth);
+                right = lt - 1;
+            }
+        }
+        Insertion.insertionSort(array, left, right);
+    }
+
+    static int choosePivot(float[] array, int start, int end) {
+        int mid = (start + end) >>> 1;
+        if (end - start + 1 > NINTHER_THRESHOLD) {
+            int step = (end - start + 1) >>> 3;
+            int a = median3(array, start, start + step, start + 2 * step);
+            int b = median3(array, mid - step, mid, mid + step);
+            int c = median3(array, end - 2 * step, end - step, end);
+            return median3(array, a, b, c);
+        }
+        return median3(array, start, mid, end);
+    }
+
+    private static int median3(float[] array, int i, int j, int k) {
+        if (array[i] < array[j]) {
+            return array[j] < array[k] ? j : (array[i] < array[k] ? k : i);
+        }
+        return array[k] < array[j] ? j : (array[k] < array[i] ? k : i);
+    }
+
+    static long partition3(float[] array, int start, int end, float pivot) {
+        int lt = start;
+        int i = start;
+        int gt = end;
+        while (i <= gt) {
+            float value = array[i];
+            if (value < pivot) {
+                swap(array, lt++, i++);
+            } else if (value > pivot) {
+                swap(array, i, gt--);
+            } else {
+                i++;
+            }
+        }
+        return ((long) lt << 32) | (gt & 0xFFFFFFFFL);
+    }
+
+    public static void swap(float[] array, int n, int m) {
+        float temp = array[n];
+        array[n] = array[m];
+        array[m] = temp;
     }
 }
@@ -0,0 +1,154 @@
+package sort;
+
+import java.util.Arrays;
+
+/**
+ * 快速选择，只需要第k小的元素、前k个元素或者若干个分位数时，不必对整个数组排序
+ * 1. 复用Quick的枢轴选择和三路划分，每轮只需要继续处理目标所在的一侧，期望O(n)
+ * 2. 内省选择(introselect)：划分轮数超过2*log2(n)后改用中位数的中位数(BFPRT)选择枢轴，保证最坏情况O(n)
+ * 3. 多个分位数一起查询时，一次划分同时服务所有目标，而不是每个分位数各做一次选择
+ * 以下方法都会重排数组
+ */
+public class QuickSelect {
+    /**
+     * 重排数组，使array[k]恰好是排序后位于下标k的元素，左侧的元素都不大于它，右侧的元素都不小于它
+     */
+    public static int nthElement(int[] array, int k) {
+        return nthElement(array, 0, array.length - 1, k);
+    }
+
+    public static int nthElement(int[] array, int start, int end, int k) {
+        if (k < start || k > end) {
+            throw new IllegalArgumentException("k " + k + " is out of range [" + start + ", " + end + "]");
+        }
+        select(array, start, end, k, Quick.depthLimit(end - start + 1));
+        return array[k];
+    }
+
+    /**
+     * 部分排序，重排后数组的前k个元素是最小的k个，并且已经升序排列
+     */
+    public static int[] partialSort(int[] array, int k) {
+        int n = array.length;
+        k = Math.min(k, n);
+        if (k <= 0) {
+            return array;
+        }
+        if (k < n) {
+            nthElement(array, k - 1);
+        }
+        Quick.introSort(array, 0, k - 1);
+        return array;
+    }
+
+    /**
+     * 返回最大的k个元素，按降序排列
+     */
+    public static int[] topK(int[] array, int k) {
+        int n = array.length;
+        k = Math.min(k, n);
+        if (k <= 0) {
+            return new int[0];
+        }
+        if (k < n) {
+            nthElement(array, n - k);
+        }
+        int[] top = Arrays.copyOfRange(array, n - k, n);
+        Quick.introSort(top);
+        for (int i = 0, j = k - 1; i < j; i++, j--) {
+            Quick.swap(top, i, j);
+        }
+        return top;
+    }
+
+    /**
+     * 查询多个分位数，percents取值为[0, 100]，按最近秩(nearest-rank)定义
+     * 第p百分位数是排序后第ceil(p / 100 * n)个元素，p为0时取最小值
+     */
+    public static int[] percentiles(int[] array, double... percents) {
+        int n = array.length;
+        if (n == 0) {
+            throw new IllegalArgumentException("array is empty");
+        }
+        int[] ranks = new int[percents.length];
+        for (int i = 0; i < percents.length; i++) {
+            double p = percents[i];
+            if (!(p >= 0 && p <= 100)) {
+                throw new IllegalArgumentException("percent " + p + " is out of range [0, 100]");
+            }
+            ranks[i] = Math.max(0, (int) Math.ceil(p / 100 * n) - 1);
+        }
+        int[] sorted = ranks.clone();
+        Arrays.sort(sorted);
+        multiSelect(array, 0, n - 1, sorted, 0, sorted.length - 1, Quick.depthLimit(n));
+        int[] values = new int[ranks.length];
+        for (int i = 0; i < ranks.length; i++) {
+            values[i] = array[ranks[i]];
+        }
+        return values;
+    }
+
+    static void select(int[] array, int left, int right, int k, int depth) {
+        while (right - left + 1 > Quick.INSERTION_THRESHOLD) {
+            int pivot = depth-- > 0 ? Quick.choosePivot(array, left, right) : medianOfMedians(array, left, right);
+            long range = Quick.partition3(array, left, right, array[pivot]);
+            int lt = (int) (range >>> 32);
+            int gt = (int) range;
+            if (k < lt) {
+                right = lt - 1;
+            } else if (k > gt) {
+                left = gt + 1;
+            } else {
+                return;
+            }
+        }
+        Insertion.insertionSort(array, left, right);
+    }
+
+    /**
+     * ranks[from..to]为升序的目标下标，划分后落在等值区间内的目标已经归位
+     * 左侧的目标递归处理，右侧的目标在循环中继续处理
+     */
+    private static void multiSelect(int[] array, int left, int right, int[] ranks, int from, int to, int depth) {
+        while (from <= to) {
+            if (right - left + 1 <= Quick.INSERTION_THRESHOLD) {
+                Insertion.insertionSort(array, left, right);
+                return;
+            }
+            if (from == to) {
+                select(array, left, right, ranks[from], depth);
+                return;
+            }
+            int pivot = depth-- > 0 ? Quick.choosePivot(array, left, right) : medianOfMedians(array, left, right);
+            long range = Quick.partition3(array, left, right, array[pivot]);
+            int lt = (int) (range >>> 32);
+            int gt = (int) range;
+            int mid = from;
+            while (mid <= to && ranks[mid] < lt) {
+                mid++;
+            }
+            multiSelect(array, left, lt - 1, ranks, from, mid - 1, depth);
+            while (mid <= to && ranks[mid] <= gt) {
+                mid++;
+            }
+            from = mid;
+            left = gt + 1;
+        }
+    }
+
+    /**
+     * 中位数的中位数：每5个元素一组取中位数，移到区间首部，再递归选出这些中位数的中位数
+     * 以它为枢轴时，每一侧至少有约3/10的元素，返回枢轴的下标
+     */
+    private static int medianOfMedians(int[] array, int left, int right) {
+        int groups = 0;
+        for (int i = left; i <= right; i += 5) {
+            int groupEnd = Math.min(i + 4, right);
+            Insertion.insertionSort(array, i, groupEnd);
+            Quick.swap(array, left + groups++, (i + groupEnd) >>> 1);
+        }
+        int mid = left + (groups - 1) / 2;
+        select(array, left, left + groups - 1, mid, 0);
+        return mid;
+    }
+}
@@ -0,0 +1,347 @@
+package sort;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * 基数排序(LSD)，从最低位的数字开始，每一轮按一个数字做稳定的计数排序
+ * 1. int按8位一个数字分4轮，long按11位一个数字分6轮
+ * 2. 排序前先把符号位取反，负数的键就会小于正数，从而正确处理负数
+ * 3. 所有元素在某一轮的数字都相同时，这一轮不会改变顺序，直接跳过
+ */
+public class Radix {
+    private static final int INT_BITS = 8;
+    private static final int INT_RADIX = 1 << INT_BITS;
+    private static final int INT_PASSES = 32 / INT_BITS;
+
+    private static final int LONG_BITS = 11;
+    private static final int LONG_RADIX = 1 << LONG_BITS;
+    private static final int LONG_PASSES = (64 + LONG_BITS - 1) / LONG_BITS;
+
+    /**
+     * 长度小于该值时，计数数组的开销比排序本身还大，改用内省排序
+     */
+    static final int SMALL_THRESHOLD = 256;
+
+    /**
+     * 并行排序时每个分块的最小长度，分块太小时线程调度的开销会超过收益
+     */
+    static final int PARALLEL_CHUNK_MIN = 1 << 16;
+
+    public static int[] radixSort(int[] array) {
+        radixSort(array, 0, array.length - 1);
+        return array;
+    }
+
+    public static void radixSort(int[] array, int start, int end) {
+        int n = end - start + 1;
+        if (n < SMALL_THRESHOLD) {
+            Quick.introSort(array, start, end);
+            return;
+        }
+        // 一次遍历统计出所有轮次的数字分布
+        int[][] counts = new int[INT_PASSES][INT_RADIX];
+        for (int i = start; i <= end; i++) {
+            int key = array[i] ^ Integer.MIN_VALUE;
+            for (int d = 0; d < INT_PASSES; d++) {
+                counts[d][(key >>> d * INT_BITS) & (INT_RADIX - 1)]++;
+            }
+        }
+        // src和dst在原数组(从start开始)与辅助数组(从0开始)之间交替
+        int[] src = array;
+        int srcOffset = start;
+        int[] dst = new int[n];
+        int dstOffset = 0;
+        if (SortMetrics.ENABLED) {
+            SortMetrics.allocate((long) n * Integer.BYTES + INT_PASSES * INT_RADIX * Integer.BYTES);
+        }
+        for (int d = 0; d < INT_PASSES; d++) {
+            int shift = d * INT_BITS;
+            int[] count = counts[d];
+            if (count[digit(src[srcOffset], shift)] == n) {
+                continue;
+            }
+            toOffsets(count);
+            if (SortMetrics.ENABLED) {
+                SortMetrics.move(n);
+            }
+            for (int i = srcOffset; i < srcOffset + n; i++) {
+                int value = src[i];
+                dst[dstOffset + count[digit(value, shift)]++] = value;
+            }
+            int[] temp = src;
+            src = dst;
+            dst = temp;
+            int tempOffset = srcOffset;
+            srcOffset = dstOffset;
+            dstOffset = tempOffset;
+        }
+        if (src != array) {
+            System.arraycopy(src, 0, array, start, n);
+        }
+    }
+
+    public static long[] radixSort(long[] array) {
+        int n = array.length;
+        if (n < SMALL_THRESHOLD) {
+            return Quick.introSort(array);
+        }
+        int[][] counts = new int[LONG_PASSES][LONG_RADIX];
+        for (long value : array) {
+            long key = value ^ Long.MIN_VALUE;
+            for (int d = 0; d < LONG_PASSES; d++) {
+                counts[d][(int) (key >>> d * LONG_BITS) & (LONG_RADIX - 1)]++;
+            }
+        }
+        long[] src = array;
+        long[] dst = new long[n];
+        if (SortMetrics.ENABLED) {
+            SortMetrics.allocate((long) n * Long.BYTES + LONG_PASSES * LONG_RADIX * Integer.BYTES);
+        }
+        for (int d = 0; d < LONG_PASSES; d++) {
+            int shift = d * LONG_BITS;
+            int[] count = counts[d];
+            if (count[digit(src[0], shift)] == n) {
+                continue;
+            }
+            toOffsets(count);
+            if (SortMetrics.ENABLED) {
+                SortMetrics.move(n);
+            }
+            for (long value : src) {
+                dst[count[digit(value, shift)]++] = value;
+            }
+            long[] temp = src;
+            src = dst;
+            dst = temp;
+        }
+        if (src != array) {
+            System.arraycopy(src, 0, array, 0, n);
+        }
+        return array;
+    }
+
+    public static int[] parallelRadixSort(int[] array) {
+        return parallelRadixSort(array, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 并行基数排序，数组被切成若干分块，每一轮分两步：
+     * 1. 各分块并行统计自己的数字分布
+     * 2. 按(数字, 分块)的顺序计算每个分块在每个桶中的起始位置，各分块再并行写入
+     * 同一个桶内，前面分块的元素总是排在后面分块的元素之前，因此排序依然是稳定的
+     */
+    public static int[] parallelRadixSort(int[] array, ForkJoinPool pool) {
+        parallelRadixSort(array, 0, array.length - 1, pool);
+        return array;
+    }
+
+    public static void parallelRadixSort(int[] array, int start, int end, ForkJoinPool pool) {
+        int n = end - start + 1;
+        int chunks = Math.min(pool.getParallelism(), n / PARALLEL_CHUNK_MIN);
+        if (chunks < 2) {
+            radixSort(array, start, end);
+            return;
+        }
+        // 分块边界和桶的起始位置都相对于区间起点
+        int[] bounds = chunkBounds(n, chunks);
+        // 各分块并行统计所有轮次的数字分布，汇总后用于判断哪些轮次可以跳过
+        int[][] totals = new int[chunks][INT_PASSES * INT_RADIX];
+        invoke(pool, chunks, c -> {
+            int[] total = totals[c];
+            for (int i = start + bounds[c]; i < start + bounds[c + 1]; i++) {
+                int key = array[i] ^ Integer.MIN_VALUE;
+                for (int d = 0; d < INT_PASSES; d++) {
+                    total[d * INT_RADIX + ((key >>> d * INT_BITS) & (INT_RADIX - 1))]++;
+                }
+            }
+        });
+        int[][] offsets = new int[chunks][INT_RADIX];
+        int[] src = array;
+        int srcOffset = start;
+        int[] dst = new int[n];
+        int dstOffset = 0;
+        if (SortMetrics.ENABLED) {
+            SortMetrics.allocate((long) n * Integer.BYTES + 2L * chunks * INT_PASSES * INT_RADIX * Integer.BYTES);
+        }
+        for (int d = 0; d < INT_PASSES; d++) {
+            int shift = d * INT_BITS;
+            if (skippable(totals, d * INT_RADIX, digit(src[srcOffset], shift), n)) {
+                continue;
+            }
+            final int[] from = src;
+            final int fromOffset = srcOffset;
+            final int[] to = dst;
+            final int toOffset = dstOffset;
+            invoke(pool, chunks, c -> {
+                int[] count = offsets[c];
+                Arrays.fill(count, 0);
+                for (int i = fromOffset + bounds[c]; i < fromOffset + bounds[c + 1]; i++) {
+                    count[digit(from[i], shift)]++;
+                }
+            });
+            chunkOffsets(offsets, INT_RADIX);
+            if (SortMetrics.ENABLED) {
+                SortMetrics.move(n);
+            }
+            invoke(pool, chunks, c -> {
+                int[] offset = offsets[c];
+                for (int i = fromOffset + bounds[c]; i < fromOffset + bounds[c + 1]; i++) {
+                    int value = from[i];
+                    to[toOffset + offset[digit(value, shift)]++] = value;
+                }
+            });
+            src = to;
+            srcOffset = toOffset;
+            dst = from;
+            dstOffset = fromOffset;
+        }
+        if (src != array) {
+            System.arraycopy(src, 0, array, start, n);
+        }
+    }
+
+    public static long[] parallelRadixSort(long[] array) {
+        return parallelRadixSort(array, ForkJoinPool.commonPool());
+    }
+
+    public static long[] parallelRadixSort(long[] array, ForkJoinPool pool) {
+        int n = array.length;
+        int chunks = Math.min(pool.getParallelism(), n / PARALLEL_CHUNK_MIN);
+        if (chunks < 2) {
+            return radixSort(array);
+        }
+        int[] bounds = chunkBounds(n, chunks);
+        int[][] totals = new int[chunks][LONG_PASSES * LONG_RADIX];
+        invoke(pool, chunks, c -> {
+            int[] total = totals[c];
+            for (int i = bounds[c]; i < bounds[c + 1]; i++) {
+                long key = array[i] ^ Long.MIN_VALUE;
+                for (int d = 0; d < LONG_PASSES; d++) {
+                    total[d * LONG_RADIX + ((int) (key >>> d * LONG_BITS) & (LONG_RADIX - 1))]++;
+                }
+            }
+        });
+        int[][] offsets = new int[chunks][LONG_RADIX];
+        long[] src = array;
+        long[] dst = new long[n];
+        if (SortMetrics.ENABLED) {
+            SortMetrics.allocate((long) n * Long.BYTES + 2L * chunks * LONG_PASSES * LONG_RADIX * Integer.BYTES);
+        }
+        for (int d = 0; d < LONG_PASSES; d++) {
+            int shift = d * LONG_BITS;
+            if (skippable(totals, d * LONG_RADIX, digit(src[0], shift), n)) {
+                continue;
+            }
+            final long[] from = src;
+            final long[] to = dst;
+            invoke(pool, chunks, c -> {
+                int[] count = offsets[c];
+                Arrays.fill(count, 0);
+                for (int i = bounds[c]; i < bounds[c + 1]; i++) {
+                    count[digit(from[i], shift)]++;
+                }
+            });
+            chunkOffsets(offsets, LONG_RADIX);
+            if (SortMetrics.ENABLED) {
+                SortMetrics.move(n);
+            }
+            invoke(pool, chunks, c -> {
+                int[] offset = offsets[c];
+                for (int i = bounds[c]; i < bounds[c + 1]; i++) {
+                    long value = from[i];
+                    to[offset[digit(value, shift)]++] = value;
+                }
+            });
+            src = to;
+            dst = from;
+        }
+        if (src != array) {
+            System.arraycopy(src, 0, array, 0, n);
+        }
+        return array;
+    }
+
+    private static int digit(int value, int shift) {
+        return ((value ^ Integer.MIN_VALUE) >>> shift) & (INT_RADIX - 1);
+    }
+
+    private static int digit(long value, int shift) {
+        return (int) ((value ^ Long.MIN_VALUE) >>> shift) & (LONG_RADIX - 1);
+    }
+
+    /**
+     * 把计数数组原地转换为每个桶的起始位置
+     */
+    private static void toOffsets(int[] count) {
+        int sum = 0;
+        for (int i = 0; i < count.length; i++) {
+            int c = count[i];
+            count[i] = sum;
+            sum += c;
+        }
+    }
+
+    /**
+     * 把每个分块的计数原地转换为该分块在每个桶中的起始位置，桶在外层、分块在内层
+     */
+    static void chunkOffsets(int[][] counts, int radix) {
+        int sum = 0;
+        for (int b = 0; b < radix; b++) {
+            for (int[] count : counts) {
+                int c = count[b];
+                count[b] = sum;
+                sum += c;
+            }
+        }
+    }
+
+    private static boolean skippable(int[][] totals, int from, int digit, int n) {
+        int sum = 0;
+        for (int[] total : totals) {
+            sum += total[from + digit];
+        }
+        return sum == n;
+    }
+
+    static int[] chunkBounds(int n, int chunks) {
+        int[] bounds = new int[chunks + 1];
+        for (int c = 0; c <= chunks; c++) {
+            bounds[c] = (int) ((long) n * c / chunks);
+        }
+        return bounds;
+    }
+
+    static void invoke(ForkJoinPool pool, int chunks, IntConsumer body) {
+        pool.invoke(new ChunkTask(body, 0, chunks));
+    }
+
+    /**
+     * 对分块[from, to)执行body，不断二分直到每个任务只处理一个分块
+     */
+    private static final class ChunkTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final IntConsumer body;
+        private final int from;
+        private final int to;
+
+        ChunkTask(IntConsumer body, int from, int to) {
+            this.body = body;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                body.accept(from);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new ChunkTask(body, from, mid), new ChunkTask(body, mid, to));
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package sort;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 并行样本排序，适合10^8以上规模的数组，没有归并排序最后几轮只能由少数线程完成的合并
+ * 1. 随机抽取样本并排序，等距选出splitter，把值域划分为若干个桶
+ * 2. 数组切成与并行度相同的分块，各分块并行统计每个桶的元素个数，再按(桶, 分块)的顺序计算写入位置
+ * 3. 各分块并行把元素分配到辅助数组中对应的桶里
+ * 4. 各桶并行用内省排序排好后拷贝回原数组
+ * 每个splitter单独对应一个"相等桶"，里面的元素全部相同，不需要排序，重复值很多时也不会出现过大的桶
+ */
+public class SampleSort {
+    /**
+     * 长度小于该值时直接使用内省排序
+     */
+    static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    /**
+     * 每个线程分到的桶数，桶越多负载越均衡，但计数数组和二分查找的开销也越大
+     */
+    static final int BUCKETS_PER_THREAD = 8;
+
+    /**
+     * 每个splitter对应的样本个数，样本越多桶的大小越均匀
+     */
+    static final int OVERSAMPLING = 32;
+
+    public static int[] parallelSort(int[] array) {
+        parallelSort(array, 0, array.length - 1, ForkJoinPool.commonPool());
+        return array;
+    }
+
+    public static int[] parallelSort(int[] array, ForkJoinPool pool) {
+        parallelSort(array, 0, array.length - 1, pool);
+        return array;
+    }
+
+    public static void parallelSort(int[] array, int start, int end, ForkJoinPool pool) {
+        int n = end - start + 1;
+        int threads = pool.getParallelism();
+        if (n < PARALLEL_THRESHOLD || threads == 1) {
+            Quick.introSort(array, start, end);
+            return;
+        }
+        int[] splitters = splitters(array, start, n, threads * BUCKETS_PER_THREAD - 1);
+        // 桶2i存放(splitters[i-1], splitters[i])之间的元素，桶2i+1存放等于splitters[i]的元素
+        int buckets = 2 * splitters.length + 1;
+        int chunks = Math.min(threads, n / (PARALLEL_THRESHOLD >>> 2));
+        int[] bounds = Radix.chunkBounds(n, chunks);
+        int[][] offsets = new int[chunks][buckets];
+        Radix.invoke(pool, chunks, c -> {
+            int[] count = offsets[c];
+            for (int i = start + bounds[c]; i < start + bounds[c + 1]; i++) {
+                count[bucket(splitters, array[i])]++;
+            }
+        });
+        // 汇总后offsets[c][b]为分块c在桶b中的写入位置，最后一个分块写完后恰好是桶b的结束位置
+        Radix.chunkOffsets(offsets, buckets);
+        int[] temp = new int[n];
+        if (SortMetrics.ENABLED) {
+            SortMetrics.allocate((long) n * Integer.BYTES + (long) chunks * buckets * Integer.BYTES);
+            SortMetrics.move(2L * n);
+        }
+        int[] bucketStart = offsets[0].clone();
+        Radix.invoke(pool, chunks, c -> {
+            int[] offset = offsets[c];
+            for (int i = start + bounds[c]; i < start + bounds[c + 1]; i++) {
+                int value = array[i];
+                temp[offset[bucket(splitters, value)]++] = value;
+            }
+        });
+        int[] bucketEnd = offsets[chunks - 1];
+        Radix.invoke(pool, buckets, b -> {
+            int from = bucketStart[b];
+            int to = bucketEnd[b];
+            if ((b & 1) == 0) {
+                Quick.introSort(temp, from, to - 1);
+            }
+            System.arraycopy(temp, from, array, start + from, to - from);
+        });
+    }
+
+    /**
+     * 从[start, start + n)中随机抽取样本，排序后等距选出最多count个splitter并去重
+     */
+    private static int[] splitters(int[] array, int start, int n, int count) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int[] sample = new int[(count + 1) * OVERSAMPLING];
+        for (int i = 0; i < sample.length; i++) {
+            sample[i] = array[start + random.nextInt(n)];
+        }
+        Quick.introSort(sample);
+        int[] splitters = new int[count];
+        int size = 0;
+        for (int i = 1; i <= count; i++) {
+            int value = sample[i * OVERSAMPLING];
+            if (size == 0 || splitters[size - 1] != value) {
+                splitters[size++] = value;
+            }
+        }
+        return size == count ? splitters : Arrays.copyOf(splitters, size);
+    }
+
+    /**
+     * 二分查找第一个不小于value的splitter，等于它时落入相等桶，否则落入它左边的区间桶
+     */
+    private static int bucket(int[] splitters, int value) {
+        int left = 0;
+        int right = splitters.length;
+        while (left < right) {
+            int mid = (left + right) >>> 1;
+            if (splitters[mid] < value) {
+                left = mid + 1;
+            } else {
+                right = mid;
+            }
+        }
+        return left < splitters.length && splitters[left] == value ? 2 * left + 1 : 2 * left;
+    }
+}
@@ -5,13 +5,18 @@ package sort;
  */
 public class Selection {
     public static int[] selectionSort(int[] array) {
+        selectionSort(array, 0, array.length - 1);
+        return array;
+    }
+
+    public static void selectionSort(int[] array, int start, int end) {
         /*
          * 外层排序只需执行length-1次
          */
-        for (int i = 0; i < array.length - 1; i++) {
+        for (int i = start; i < end; i++) {
             // 取剩下元素中的极值
             int minIndex = i;
-            for (int j = i + 1; j < array.length; j++) {
+            for (int j = i + 1; j <= end; j++) {
                 if (array[j] < array[minIndex]) {
                     minIndex = j;
                 }
@@ -20,7 +25,10 @@ public class Selection {
             int temp = array[minIndex];
             array[minIndex] = array[i];
             array[i] = temp;
+            if (SortMetrics.ENABLED) {
+                SortMetrics.compare(end - i);
+                SortMetrics.swap();
+            }
         }
-        return array;
     }
 }
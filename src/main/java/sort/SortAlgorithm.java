@@ -0,0 +1,16 @@
+package sort;
+
+/**
+ * 排序算法的统一接口，所有实现都按升序原地排序
+ */
+public interface SortAlgorithm {
+    /**
+     * 对区间[start, end]排序
+     */
+    void sort(int[] array, int start, int end);
+
+    default int[] sort(int[] array) {
+        sort(array, 0, array.length - 1);
+        return array;
+    }
+}
@@ -0,0 +1,91 @@
+package sort;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * sort包中各排序算法的SortAlgorithm实现
+ * 基准测试的@Param也直接使用这里的名字，新增排序算法时只需在这里登记
+ */
+public enum SortAlgorithms implements SortAlgorithm {
+    BUBBLE {
+        @Override
+        public void sort(int[] array, int start, int end) {
+            Bubble.bubbleSort(array, start, end);
+        }
+    },
+    INSERTION {
+        @Override
+        public void sort(int[] array, int start, int end) {
+            Insertion.insertionSort(array, start, end);
+        }
+    },
+    SELECTION {
+        @Override
+        public void sort(int[] array, int start, int end) {
+            Selection.selectionSort(array, start, end);
+        }
+    },
+    QUICK {
+        @Override
+        public void sort(int[] array, int start, int end) {
+            Quick.quickSort(array, start, end);
+        }
+    },
+    INTRO {
+        @Override
+        public void sort(int[] array, int start, int end) {
+            Quick.introSort(array, start, end);
+        }
+    },
+    HEAP {
+        @Override
+        public void sort(int[] array, int start, int end) {
+            Heap.heapSort(array, start, end);
+        }
+    },
+    MERGE {
+        @Override
+        public void sort(int[] array, int start, int end) {
+            Merge.mergeSort(array, start, end);
+        }
+    },
+    PARALLEL_MERGE {
+        @Override
+        public void sort(int[] array, int start, int end) {
+            Merge.parallelSort(array, start, end, ForkJoinPool.commonPool());
+        }
+    },
+    ADAPTIVE_MERGE {
+        @Override
+        public void sort(int[] array, int start, int end) {
+            Merge.adaptiveSort(array, start, end);
+        }
+    },
+    PARALLEL_SAMPLE {
+        @Override
+        public void sort(int[] array, int start, int end) {
+            SampleSort.parallelSort(array, start, end, ForkJoinPool.commonPool());
+        }
+    },
+    RADIX {
+        @Override
+        public void sort(int[] array, int start, int end) {
+            Radix.radixSort(array, start, end);
+        }
+    },
+    PARALLEL_RADIX {
+        @Override
+        public void sort(int[] array, int start, int end) {
+            Radix.parallelRadixSort(array, start, end, ForkJoinPool.commonPool());
+        }
+    },
+    /**
+     * 先对输入采样，再从上面的算法中选择最合适的一个
+     */
+    AUTO {
+        @Override
+        public void sort(int[] array, int start, int end) {
+            Sorter.sort(array, start, end);
+        }
+    }
+}
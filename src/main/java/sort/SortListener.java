@@ -0,0 +1,8 @@
+package sort;
+
+/**
+ * 排序统计的监听器，见SortMetrics.measure
+ */
+public interface SortListener {
+    void onSort(SortAlgorithm algorithm, int length, SortMetrics.Snapshot snapshot);
+}
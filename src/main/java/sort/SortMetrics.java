@@ -0,0 +1,193 @@
+package sort;
+
+import lombok.Value;
+
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 排序过程的统计：比较次数、交换次数、移动次数、最大递归深度和辅助数组分配的字节数
+ * 1. 通过系统属性-Dsort.metrics=true开启，默认关闭
+ * 2. ENABLED是static final常量，关闭时JIT会把各排序算法中的统计分支整体消除，热点循环没有任何额外开销
+ * 3. 计数器按线程隔离，可以通过snapshot()读取当前线程的计数，也可以注册SortListener，在measure()结束后收到结果
+ * 4. 并行排序中由工作线程完成的部分计入各工作线程自己的计数器，measure()结束时把参与这次排序的所有线程的计数加在一起
+ */
+public final class SortMetrics {
+    public static final boolean ENABLED = Boolean.getBoolean("sort.metrics");
+
+    private static final ThreadLocal<Counters> COUNTERS = ThreadLocal.withInitial(SortMetrics::register);
+    private static final List<SortListener> LISTENERS = new CopyOnWriteArrayList<>();
+    /**
+     * 所有线程的计数器，measure()汇总时遍历，线程结束后在下一次汇总时移除
+     */
+    private static final Queue<Counters> ALL = new ConcurrentLinkedQueue<>();
+    /**
+     * 每次measure()开始时加1，计数器在新的一轮中第一次被使用时先清零
+     */
+    private static volatile int round;
+
+    private SortMetrics() {
+    }
+
+    /**
+     * 当前线程的计数
+     */
+    public static Snapshot snapshot() {
+        Counters c = counters();
+        return new Snapshot(c.comparisons, c.swaps, c.moves, c.maxDepth, c.scratchBytes);
+    }
+
+    /**
+     * 清零当前线程的计数
+     */
+    public static void reset() {
+        counters().reset();
+    }
+
+    public static void addListener(SortListener listener) {
+        LISTENERS.add(listener);
+    }
+
+    public static void removeListener(SortListener listener) {
+        LISTENERS.remove(listener);
+    }
+
+    /**
+     * 执行一次排序，把这次排序的统计结果通知给所有监听器并返回
+     * 结果为调用线程和并行排序的工作线程的计数之和，maxDepth取各线程中的最大值，工作线程的深度从任务开始算起
+     * 多个measure()依次执行；measure()期间其它线程上进行的排序也会被计入，各线程通过snapshot()读到的计数会被清零
+     * 未开启统计时照常排序，返回的计数均为0
+     */
+    public static synchronized Snapshot measure(SortAlgorithm algorithm, int[] array, int start, int end) {
+        int current = ++round;
+        algorithm.sort(array, start, end);
+        // 并行排序返回前已经join了所有任务，工作线程写入的计数对这里可见
+        long comparisons = 0;
+        long swaps = 0;
+        long moves = 0;
+        int maxDepth = 0;
+        long scratchBytes = 0;
+        for (Iterator<Counters> it = ALL.iterator(); it.hasNext(); ) {
+            Counters c = it.next();
+            if (c.round == current) {
+                comparisons += c.comparisons;
+                swaps += c.swaps;
+                moves += c.moves;
+                maxDepth = Math.max(maxDepth, c.maxDepth);
+                scratchBytes += c.scratchBytes;
+            }
+            Thread owner = c.owner.get();
+            if (owner == null || !owner.isAlive()) {
+                it.remove();
+            }
+        }
+        Snapshot snapshot = new Snapshot(comparisons, swaps, moves, maxDepth, scratchBytes);
+        for (SortListener listener : LISTENERS) {
+            listener.onSort(algorithm, end - start + 1, snapshot);
+        }
+        return snapshot;
+    }
+
+    /*
+     * ---------------------以下方法供排序算法调用，调用处都要先判断ENABLED---------------------------
+     */
+    static void compare() {
+        counters().comparisons++;
+    }
+
+    static void compare(long count) {
+        counters().comparisons += count;
+    }
+
+    static void swap() {
+        counters().swaps++;
+    }
+
+    static void move(long count) {
+        counters().moves += count;
+    }
+
+    static void allocate(long bytes) {
+        counters().scratchBytes += bytes;
+    }
+
+    /**
+     * 进入一层递归
+     */
+    static void enter() {
+        Counters c = counters();
+        if (++c.depth > c.maxDepth) {
+            c.maxDepth = c.depth;
+        }
+    }
+
+    /**
+     * 退出一层递归
+     */
+    static void exit() {
+        counters().depth--;
+    }
+
+    private static Counters register() {
+        Counters c = new Counters(Thread.currentThread());
+        ALL.add(c);
+        return c;
+    }
+
+    /**
+     * 当前线程的计数器，进入新的一轮后第一次使用时清零
+     * 新的一轮可能在线程递归到一半时开始，当前深度要保留，否则之后的exit()会把深度减成负数
+     */
+    private static Counters counters() {
+        Counters c = COUNTERS.get();
+        int current = round;
+        if (c.round != current) {
+            c.reset();
+            c.round = current;
+        }
+        return c;
+    }
+
+    /**
+     * 某一时刻的计数
+     */
+    @Value
+    public static class Snapshot {
+        long comparisons;
+        long swaps;
+        long moves;
+        int maxDepth;
+        long scratchBytes;
+    }
+
+    private static final class Counters {
+        final WeakReference<Thread> owner;
+        int round;
+        long comparisons;
+        long swaps;
+        long moves;
+        int depth;
+        int maxDepth;
+        long scratchBytes;
+
+        Counters(Thread owner) {
+            this.owner = new WeakReference<>(owner);
+            this.round = SortMetrics.round;
+        }
+
+        /**
+         * 清零各项总数，当前深度保留，最大深度从当前深度重新开始
+         */
+        void reset() {
+            comparisons = 0;
+            swaps = 0;
+            moves = 0;
+            maxDepth = depth;
+            scratchBytes = 0;
+        }
+    }
+}
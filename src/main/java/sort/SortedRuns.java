@@ -0,0 +1,345 @@
+package sort;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 分批写入、随时可查询的有序多重集合，思路与LSM树相同：
+ * 1. 每批数据拷贝后用内省排序排成一个有序段(run)，写入只需对本批数据排序，不会重新排序已有的数据
+ * 2. 按长度把有序段分层，长度在[FAN_IN^t, FAN_IN^(t+1))之间的属于第t层，某一层攒够FAN_IN个段时由后台线程用Merge.merge合并
+ *    每个元素最多被合并O(log n)次，均摊到每个元素的写入代价为O(log n)
+ * 3. 查询只读当前所有有序段的快照，contains和区间计数在每个段上二分查找，遍历时多路归并
+ * 有序段创建后不会再修改，快照是不可变数组，查询不加锁，可以与写入和后台合并同时进行
+ */
+public class SortedRuns implements Iterable<Integer>, AutoCloseable {
+    /**
+     * 每层攒够多少个有序段后合并
+     */
+    static final int FAN_IN = 4;
+
+    private static final int[][] EMPTY = new int[0][];
+
+    private final ExecutorService merger;
+    /**
+     * 当前所有有序段的快照，每次修改都替换为新数组
+     */
+    private volatile int[][] runs = EMPTY;
+    private boolean merging;
+    private boolean closed;
+
+    public SortedRuns() {
+        this.merger = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "sorted-runs-merger");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void add(int[] batch) {
+        add(batch, 0, batch.length - 1);
+    }
+
+    /**
+     * 把batch的区间[start, end]排序后作为一个新的有序段加入，batch本身不会被修改
+     */
+    public void add(int[] batch, int start, int end) {
+        if (start > end) {
+            return;
+        }
+        int[] run = Arrays.copyOfRange(batch, start, end + 1);
+        Quick.introSort(run);
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("closed");
+            }
+            int[][] next = Arrays.copyOf(runs, runs.length + 1);
+            next[runs.length] = run;
+            runs = next;
+            if (!merging && pickGroup(next) != null) {
+                merging = true;
+                merger.execute(this::mergeLoop);
+            }
+        }
+    }
+
+    public long size() {
+        long size = 0;
+        for (int[] run : runs) {
+            size += run.length;
+        }
+        return size;
+    }
+
+    /**
+     * 当前的有序段个数，后台合并会不断减少它
+     */
+    public int runCount() {
+        return runs.length;
+    }
+
+    public boolean contains(int key) {
+        for (int[] run : runs) {
+            if (Arrays.binarySearch(run, key) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 统计[from, to]之间的元素个数，重复的元素分别计数
+     */
+    public long count(int from, int to) {
+        if (from > to) {
+            return 0;
+        }
+        long count = 0;
+        for (int[] run : runs) {
+            count += lowerBound(run, to, true) - lowerBound(run, from, false);
+        }
+        return count;
+    }
+
+    /**
+     * 按升序遍历调用时的快照，之后写入的数据不会出现在遍历结果中
+     */
+    @Override
+    public PrimitiveIterator.OfInt iterator() {
+        return new MergingIterator(runs);
+    }
+
+    /**
+     * 按升序返回当前所有元素
+     */
+    public int[] toArray() {
+        int[][] snapshot = runs;
+        long size = 0;
+        for (int[] run : snapshot) {
+            size += run.length;
+        }
+        int[] array = new int[Math.toIntExact(size)];
+        PrimitiveIterator.OfInt iterator = new MergingIterator(snapshot);
+        for (int i = 0; i < array.length; i++) {
+            array[i] = iterator.nextInt();
+        }
+        return array;
+    }
+
+    /**
+     * 等待后台合并完成，返回时每层的有序段都少于FAN_IN个
+     */
+    public synchronized void awaitMerges() throws InterruptedException {
+        while (merging) {
+            wait();
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+        }
+        merger.shutdown();
+        try {
+            merger.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 后台线程不断挑出攒满的一层合并，直到没有可以合并的层
+     * 只有这个线程会删除有序段，所以合并期间挑出的段一直留在快照中，合并完成后再整体替换
+     */
+    private void mergeLoop() {
+        while (true) {
+            int[][] group;
+            synchronized (this) {
+                group = pickGroup(runs);
+                if (group == null) {
+                    merging = false;
+                    notifyAll();
+                    return;
+                }
+            }
+            int[] merged;
+            try {
+                merged = mergeRuns(group);
+            } catch (RuntimeException | Error e) {
+                synchronized (this) {
+                    merging = false;
+                    notifyAll();
+                }
+                throw e;
+            }
+            synchronized (this) {
+                int[][] current = runs;
+                int[][] next = new int[current.length - group.length + 1][];
+                int size = 0;
+                for (int[] run : current) {
+                    if (!containsRun(group, run)) {
+                        next[size++] = run;
+                    }
+                }
+                next[size] = merged;
+                runs = next;
+            }
+        }
+    }
+
+    /**
+     * 找出最低的一个攒满FAN_IN个段的层，没有时返回null
+     */
+    private static int[][] pickGroup(int[][] runs) {
+        int[] counts = new int[32];
+        for (int[] run : runs) {
+            counts[tier(run.length)]++;
+        }
+        for (int t = 0; t < counts.length; t++) {
+            if (counts[t] >= FAN_IN) {
+                int[][] group = new int[counts[t]][];
+                int size = 0;
+                for (int[] run : runs) {
+                    if (tier(run.length) == t) {
+                        group[size++] = run;
+                    }
+                }
+                return group;
+            }
+        }
+        return null;
+    }
+
+    private static int tier(int length) {
+        int tier = 0;
+        while (length >= FAN_IN) {
+            length /= FAN_IN;
+            tier++;
+        }
+        return tier;
+    }
+
+    /**
+     * 把各段依次拷贝到同一个数组中，再像自底向上的归并排序那样两两合并相邻的段
+     */
+    private static int[] mergeRuns(int[][] group) {
+        int[] bounds = new int[group.length + 1];
+        for (int i = 0; i < group.length; i++) {
+            bounds[i + 1] = bounds[i] + group[i].length;
+        }
+        int[] merged = new int[bounds[group.length]];
+        int[] temp = new int[merged.length / 2 + 1];
+        for (int i = 0; i < group.length; i++) {
+            System.arraycopy(group[i], 0, merged, bounds[i], group[i].length);
+        }
+        for (int width = 1; width < group.length; width *= 2) {
+            for (int i = 0; i + width < group.length; i += 2 * width) {
+                int start = bounds[i];
+                int mid = bounds[i + width] - 1;
+                int end = bounds[Math.min(i + 2 * width, group.length)] - 1;
+                if (mid - start + 1 > temp.length) {
+                    temp = new int[mid - start + 1];
+                }
+                Merge.merge(merged, start, mid, end, temp);
+            }
+        }
+        return merged;
+    }
+
+    private static boolean containsRun(int[][] group, int[] run) {
+        for (int[] r : group) {
+            if (r == run) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * inclusive为false时返回第一个不小于key的位置，为true时返回第一个大于key的位置
+     */
+    private static int lowerBound(int[] run, int key, boolean inclusive) {
+        int left = 0;
+        int right = run.length;
+        while (left < right) {
+            int mid = (left + right) >>> 1;
+            if (run[mid] < key || inclusive && run[mid] == key) {
+                left = mid + 1;
+            } else {
+                right = mid;
+            }
+        }
+        return left;
+    }
+
+    /**
+     * 多路归并的迭代器，用小顶堆维护各段的当前元素
+     */
+    private static final class MergingIterator implements PrimitiveIterator.OfInt {
+        private final int[][] runs;
+        private final int[] positions;
+        /**
+         * 堆中存放段的编号，按段的当前元素排序
+         */
+        private final int[] heap;
+        private int size;
+
+        MergingIterator(int[][] runs) {
+            this.runs = runs;
+            this.positions = new int[runs.length];
+            this.heap = new int[runs.length];
+            for (int i = 0; i < runs.length; i++) {
+                if (runs[i].length > 0) {
+                    heap[size++] = i;
+                }
+            }
+            for (int i = (size >>> 1) - 1; i >= 0; i--) {
+                siftDown(i);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return size > 0;
+        }
+
+        @Override
+        public int nextInt() {
+            if (size == 0) {
+                throw new NoSuchElementException();
+            }
+            int run = heap[0];
+            int value = runs[run][positions[run]++];
+            if (positions[run] == runs[run].length) {
+                heap[0] = heap[--size];
+            }
+            siftDown(0);
+            return value;
+        }
+
+        private int head(int run) {
+            return runs[run][positions[run]];
+        }
+
+        private void siftDown(int node) {
+            int run = heap[node];
+            int half = size >>> 1;
+            while (node < half) {
+                int child = (node << 1) + 1;
+                if (child + 1 < size && head(heap[child + 1]) < head(heap[child])) {
+                    child++;
+                }
+                if (head(run) <= head(heap[child])) {
+                    break;
+                }
+                heap[node] = heap[child];
+                node = child;
+            }
+            heap[node] = run;
+        }
+    }
+}
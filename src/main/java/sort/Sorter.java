@@ -0,0 +1,123 @@
+package sort;
+
+/**
+ * 自动选择排序算法，排序前先用很小的代价了解输入的特征：
+ * 1. 规模：很小的输入直接用插入排序
+ * 2. 有序程度：从头扫描天然有序段的个数，段数超过上限就提前停止，平均段长足够长时用自适应归并
+ * 3. 值域和重复率：等距抽取一组样本，值域很窄，或者几乎没有重复且规模较大时用基数排序
+ * 4. 其余情况用内省排序，重复值多时它的三路划分同样高效
+ * 采样只影响速度，不影响结果的正确性
+ */
+public class Sorter {
+    /**
+     * 不超过该长度时使用插入排序
+     */
+    static final int TINY = 32;
+
+    /**
+     * 平均每个有序段的长度不小于该值时，认为输入基本有序
+     */
+    static final int MIN_AVERAGE_RUN = 64;
+
+    /**
+     * 抽样的元素个数
+     */
+    static final int SAMPLE_SIZE = 256;
+
+    /**
+     * 样本的值域小于该值时，认为值域很窄，基数排序的高位轮次大多可以跳过
+     */
+    static final long NARROW_RANGE = 1 << 16;
+
+    /**
+     * 样本中的重复率低于该值且规模不小于LARGE时，用基数排序代替比较排序
+     */
+    static final double LOW_DUPLICATE_RATIO = 0.05;
+    static final int LARGE = 1 << 16;
+
+    public static int[] sort(int[] array) {
+        sort(array, 0, array.length - 1);
+        return array;
+    }
+
+    public static void sort(int[] array, int start, int end) {
+        choose(array, start, end).sort(array, start, end);
+    }
+
+    /**
+     * 根据输入的特征选择排序算法，不会修改数组
+     */
+    public static SortAlgorithm choose(int[] array, int start, int end) {
+        int n = end - start + 1;
+        if (n <= TINY) {
+            return SortAlgorithms.INSERTION;
+        }
+        if (countRuns(array, start, end, n / MIN_AVERAGE_RUN) <= n / MIN_AVERAGE_RUN) {
+            return SortAlgorithms.ADAPTIVE_MERGE;
+        }
+        if (n < Radix.SMALL_THRESHOLD) {
+            return SortAlgorithms.INTRO;
+        }
+        int[] sample = sample(array, start, end);
+        long range = (long) sample[sample.length - 1] - sample[0];
+        if (range < NARROW_RANGE) {
+            return SortAlgorithms.RADIX;
+        }
+        if (n >= LARGE && duplicateRatio(sample) < LOW_DUPLICATE_RATIO) {
+            return SortAlgorithms.RADIX;
+        }
+        return SortAlgorithms.INTRO;
+    }
+
+    /**
+     * 统计天然有序段(升序或严格降序)的个数，超过limit后立即返回
+     */
+    static int countRuns(int[] array, int start, int end, int limit) {
+        int runs = 0;
+        int i = start;
+        while (i <= end) {
+            if (++runs > limit) {
+                return runs;
+            }
+            int j = i + 1;
+            if (j <= end && array[j] < array[i]) {
+                while (j <= end && array[j] < array[j - 1]) {
+                    j++;
+                }
+            } else {
+                while (j <= end && array[j] >= array[j - 1]) {
+                    j++;
+                }
+            }
+            i = j;
+        }
+        return runs;
+    }
+
+    /**
+     * 等距抽取样本并排序
+     */
+    private static int[] sample(int[] array, int start, int end) {
+        int n = end - start + 1;
+        int size = Math.min(SAMPLE_SIZE, n);
+        int[] sample = new int[size];
+        for (int i = 0; i < size; i++) {
+            sample[i] = array[start + (int) ((long) i * n / size)];
+        }
+        Quick.introSort(sample);
+        return sample;
+    }
+
+    /**
+     * 有序样本中与前一个元素相等的元素所占的比例
+     */
+    private static double duplicateRatio(int[] sample) {
+        int duplicates = 0;
+        for (int i = 1; i < sample.length; i++) {
+            if (sample[i] == sample[i - 1]) {
+                duplicates++;
+            }
+        }
+        return (double) duplicates / sample.length;
+    }
+}
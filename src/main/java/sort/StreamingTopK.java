@@ -0,0 +1,90 @@
+package sort;
+
+/**
+ * 流式top-K，数据逐个或分批到达时维护目前为止最大的k个元素
+ * 内部是容量为k的小顶堆，堆顶就是进入前k的门槛，小于门槛的元素只需一次比较就被丢弃
+ */
+public class StreamingTopK {
+    private final int[] heap;
+    private int size;
+
+    public StreamingTopK(int k) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("k must be positive: " + k);
+        }
+        this.heap = new int[k];
+    }
+
+    public void offer(int value) {
+        if (size < heap.length) {
+            heap[size] = value;
+            siftUp(size++);
+        } else if (value > heap[0]) {
+            heap[0] = value;
+            siftDown(0);
+        }
+    }
+
+    public void offer(int[] values, int start, int end) {
+        for (int i = start; i <= end; i++) {
+            offer(values[i]);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 当前前k个元素中的最小值，即进入前k的门槛
+     */
+    public int threshold() {
+        if (size == 0) {
+            throw new IllegalStateException("no element offered");
+        }
+        return heap[0];
+    }
+
+    /**
+     * 返回当前最大的k个元素，按降序排列
+     */
+    public int[] toArray() {
+        int[] top = new int[size];
+        System.arraycopy(heap, 0, top, 0, size);
+        Quick.introSort(top);
+        for (int i = 0, j = size - 1; i < j; i++, j--) {
+            Quick.swap(top, i, j);
+        }
+        return top;
+    }
+
+    private void siftUp(int node) {
+        int value = heap[node];
+        while (node > 0) {
+            int parent = (node - 1) >>> 1;
+            if (heap[parent] <= value) {
+                break;
+            }
+            heap[node] = heap[parent];
+            node = parent;
+        }
+        heap[node] = value;
+    }
+
+    private void siftDown(int node) {
+        int value = heap[node];
+        int half = size >>> 1;
+        while (node < half) {
+            int child = (node << 1) + 1;
+            if (child + 1 < size && heap[child + 1] < heap[child]) {
+                child++;
+            }
+            if (value <= heap[child]) {
+                break;
+            }
+            heap[node] = heap[child];
+            node = child;
+        }
+        heap[node] = value;
+    }
+}
@@ -0,0 +1,227 @@
+package sort;
+
+import java.util.Arrays;
+
+/**
+ * 字符串专用的排序，逐个字符比较，已经确定相同的前缀不会再重复比较
+ * 1. 多键快速排序(三路基数快速排序)：按第d个字符三路划分，等于枢轴的部分从第d+1个字符继续，适合前缀相同的大量字符串
+ * 2. MSD基数排序：每个UTF-16字符拆成高低两个字节，从高位开始逐字节计数分配，所有字符串在某一位都相同时直接跳过，排序是稳定的
+ * 两者在小区间上都改用从第d个字符开始比较的插入排序
+ * 字符串结束视为比任何字符都小，所以前缀排在前面；数组中不能有null
+ */
+public class StringSort {
+    /**
+     * 区间长度不超过该值时使用插入排序
+     */
+    static final int INSERTION_THRESHOLD = 16;
+
+    private static final int BYTE_RADIX = 256;
+
+    /**
+     * 字符的比较顺序
+     */
+    public enum Order {
+        /**
+         * 按UTF-16码元的数值比较，与String.compareTo一致
+         */
+        CODE_UNIT,
+        /**
+         * 按Unicode码点比较，增补字符(代理对)排在U+E000到U+FFFF之后，要求字符串是合法的UTF-16
+         */
+        CODE_POINT
+    }
+
+    public static String[] multikeySort(String[] array) {
+        multikeySort(array, 0, array.length - 1, Order.CODE_UNIT);
+        return array;
+    }
+
+    public static void multikeySort(String[] array, int start, int end, Order order) {
+        if (start < end) {
+            multikey(array, start, end, 0, order == Order.CODE_POINT);
+        }
+    }
+
+    public static String[] msdRadixSort(String[] array) {
+        msdRadixSort(array, 0, array.length - 1, Order.CODE_UNIT);
+        return array;
+    }
+
+    public static void msdRadixSort(String[] array, int start, int end, Order order) {
+        if (start < end) {
+            msd(array, start, end, 0, new String[end - start + 1], new int[BYTE_RADIX + 2], order == Order.CODE_POINT);
+        }
+    }
+
+    /**
+     * 对区间[start, end]按第d个字符开始的后缀排序，前d个字符已经全部相同
+     */
+    private static void multikey(String[] array, int start, int end, int d, boolean codePoint) {
+        while (end - start + 1 > INSERTION_THRESHOLD) {
+            int mid = (start + end) >>> 1;
+            swap(array, start, median3(array, start, mid, end, d, codePoint));
+            int pivot = charAt(array[start], d, codePoint);
+            // 三路划分：[start, lt)小于枢轴，[lt, i)等于枢轴，(gt, end]大于枢轴
+            int lt = start;
+            int gt = end;
+            int i = start + 1;
+            while (i <= gt) {
+                int c = charAt(array[i], d, codePoint);
+                if (c < pivot) {
+                    swap(array, lt++, i++);
+                } else if (c > pivot) {
+                    swap(array, i, gt--);
+                } else {
+                    i++;
+                }
+            }
+            multikey(array, start, lt - 1, d, codePoint);
+            multikey(array, gt + 1, end, d, codePoint);
+            // 等于枢轴的部分前d+1个字符都相同，枢轴为-1时这些字符串完全相等，不需要再排序
+            if (pivot < 0) {
+                return;
+            }
+            // 整个区间在第d个字符处都相同时，一次扫描跳过整段公共前缀，不再逐个字符划分
+            d = lt == start && gt == end ? commonPrefix(array, start, end, d + 1) : d + 1;
+            start = lt;
+            end = gt;
+        }
+        insertionSort(array, start, end, d, codePoint);
+    }
+
+    private static int median3(String[] array, int i, int j, int k, int d, boolean codePoint) {
+        int a = charAt(array[i], d, codePoint);
+        int b = charAt(array[j], d, codePoint);
+        int c = charAt(array[k], d, codePoint);
+        if (a < b) {
+            return b < c ? j : (a < c ? k : i);
+        }
+        return c < b ? j : (c < a ? k : i);
+    }
+
+    /**
+     * 对区间[start, end]按第b个字节开始的后缀排序，前b个字节已经全部相同
+     * 在第b个字节处已经结束的字符串排在最前面，它们完全相等，不需要再排序
+     */
+    private static void msd(String[] array, int start, int end, int b, String[] aux, int[] count, boolean codePoint) {
+        while (true) {
+            if (end - start + 1 <= INSERTION_THRESHOLD) {
+                insertionSort(array, start, end, b >>> 1, codePoint);
+                return;
+            }
+            Arrays.fill(count, 0);
+            for (int i = start; i <= end; i++) {
+                count[byteAt(array[i], b, codePoint) + 2]++;
+            }
+            // 所有字符串在这一位都相同时不需要分配，直接看下一位
+            int first = byteAt(array[start], b, codePoint);
+            if (count[first + 2] == end - start + 1) {
+                if (first < 0) {
+                    return;
+                }
+                // 一次扫描跳过整段公共前缀，前缀很长时不必逐字节计数
+                b = Math.max(b + 1, commonPrefix(array, start, end, b >>> 1) << 1);
+                continue;
+            }
+            for (int r = 0; r <= BYTE_RADIX; r++) {
+                count[r + 1] += count[r];
+            }
+            for (int i = start; i <= end; i++) {
+                String s = array[i];
+                aux[count[byteAt(s, b, codePoint) + 1]++] = s;
+            }
+            System.arraycopy(aux, 0, array, start, end - start + 1);
+            // 分配后count[r]为桶r - 1的结束位置，同时也是桶r的起始位置，递归会覆盖count，先拷贝一份
+            int[] bounds = count.clone();
+            for (int r = 0; r < BYTE_RADIX; r++) {
+                if (bounds[r + 1] - bounds[r] > 1) {
+                    msd(array, start + bounds[r], start + bounds[r + 1] - 1, b + 1, aux, count, codePoint);
+                }
+            }
+            return;
+        }
+    }
+
+    /**
+     * 从第d个字符开始比较的插入排序，相等的字符串保持原有顺序
+     */
+    private static void insertionSort(String[] array, int start, int end, int d, boolean codePoint) {
+        for (int i = start + 1; i <= end; i++) {
+            String curr = array[i];
+            int j = i - 1;
+            while (j >= start && compare(array[j], curr, d, codePoint) > 0) {
+                array[j + 1] = array[j];
+                j--;
+            }
+            array[j + 1] = curr;
+        }
+    }
+
+    /**
+     * 区间内所有字符串在[0, d)上都相同，返回它们最长公共前缀的长度
+     */
+    private static int commonPrefix(String[] array, int start, int end, int d) {
+        String first = array[start];
+        int limit = first.length();
+        for (int i = start + 1; i <= end && limit > d; i++) {
+            String s = array[i];
+            int n = Math.min(limit, s.length());
+            int k = d;
+            while (k < n && first.charAt(k) == s.charAt(k)) {
+                k++;
+            }
+            limit = k;
+        }
+        return Math.max(limit, d);
+    }
+
+    private static int compare(String a, String b, int d, boolean codePoint) {
+        int n = Math.min(a.length(), b.length());
+        for (int i = d; i < n; i++) {
+            char x = a.charAt(i);
+            char y = b.charAt(i);
+            if (x != y) {
+                return codePoint ? fixup(x) - fixup(y) : x - y;
+            }
+        }
+        return a.length() - b.length();
+    }
+
+    /**
+     * 第d个字符，字符串已经结束时返回-1
+     */
+    private static int charAt(String s, int d, boolean codePoint) {
+        if (d >= s.length()) {
+            return -1;
+        }
+        char c = s.charAt(d);
+        return codePoint ? fixup(c) : c;
+    }
+
+    /**
+     * 第b个字节，偶数位为第b / 2个字符的高字节，奇数位为低字节，字符串已经结束时返回-1
+     */
+    private static int byteAt(String s, int b, boolean codePoint) {
+        int c = charAt(s, b >>> 1, codePoint);
+        if (c < 0) {
+            return -1;
+        }
+        return (b & 1) == 0 ? c >>> 8 : c & 0xFF;
+    }
+
+    /**
+     * 把代理码元(U+D800到U+DFFF)移到U+E000到U+FFFF之后，码元的数值顺序就与码点顺序一致
+     */
+    private static int fixup(char c) {
+        if (c < 0xD800) {
+            return c;
+        }
+        return c <= 0xDFFF ? c + 0x2000 : c - 0x800;
+    }
+
+    private static void swap(String[] array, int i, int j) {
+        String temp = array[i];
+        array[i] = array[j];
+        array[j] = temp;
+    }
+}
@@ -0,0 +1,211 @@
+package sort.external;
+
+import sort.Quick;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 外部排序，对超过内存大小的int文件排序，文件内容为连续存放的4字节整数
+ * 1. 生成有序段：每次把内存预算大小的一块数据读入堆内数组，用内省排序排好后写入临时文件
+ * 2. 多路归并：用败者树把多个有序段归并为一个，有序段过多时分多轮归并
+ * 读写都通过FileChannel的内存映射完成，每个文件同一时刻只映射一个窗口，单个窗口不超过MAX_WINDOW_BYTES
+ * 内存预算约束的是同一时刻使用的堆内数组和映射窗口：第一阶段为int[]块加一个读或写窗口，第二阶段为每一路和输出各一个窗口
+ * 用过的映射窗口在被GC回收前仍占用虚拟地址空间，但它们对应的是可以随时换出的文件页，不计入预算
+ * Java没有公开的解除映射的接口，删除临时文件前只能释放所有窗口的引用：
+ * Linux和macOS上删除仍被映射的文件没有问题；Windows上映射被GC回收前文件无法删除，
+ * 删除失败的临时文件改为在JVM退出时删除，tempDir应当使用专用的目录
+ */
+public class ExternalSort {
+    /**
+     * 归并时每一路映射窗口的最小和最大字节数
+     */
+    static final int MIN_WINDOW_BYTES = 64 * 1024;
+    static final int MAX_WINDOW_BYTES = 64 * 1024 * 1024;
+
+    /**
+     * 单轮归并的最大路数
+     */
+    static final int MAX_FAN_IN = 1024;
+
+    /**
+     * 堆内数组的最大长度
+     */
+    static final int MAX_CHUNK_INTS = Integer.MAX_VALUE - 8;
+
+    private final long memoryBudget;
+    private final Path tempDir;
+    private final ByteOrder order;
+
+    public ExternalSort(long memoryBudget, Path tempDir) {
+        this(memoryBudget, tempDir, ByteOrder.BIG_ENDIAN);
+    }
+
+    /**
+     * @param memoryBudget 堆内数组和映射窗口可以使用的字节数
+     * @param tempDir      存放有序段的临时目录
+     * @param order        文件中整数的字节序，默认与DataOutputStream一致，为大端
+     */
+    public ExternalSort(long memoryBudget, Path tempDir, ByteOrder order) {
+        if (memoryBudget < 2L * MIN_WINDOW_BYTES) {
+            throw new IllegalArgumentException("memoryBudget must be at least " + 2 * MIN_WINDOW_BYTES + " bytes");
+        }
+        this.memoryBudget = memoryBudget;
+        this.tempDir = tempDir;
+        this.order = order;
+    }
+
+    public ExternalSortStats sort(Path input, Path output) throws IOException {
+        ExternalSortStats stats = new ExternalSortStats();
+        List<Path> runs = createRuns(input, output, stats);
+        try {
+            int fanIn = fanIn();
+            while (runs.size() > fanIn) {
+                List<Path> next = new ArrayList<>();
+                try {
+                    for (int i = 0; i < runs.size(); i += fanIn) {
+                        List<Path> group = runs.subList(i, Math.min(i + fanIn, runs.size()));
+                        Path merged = Files.createTempFile(tempDir, "merge", ".run");
+                        next.add(merged);
+                        merge(group, merged, stats);
+                    }
+                } catch (IOException | RuntimeException e) {
+                    deleteAll(next);
+                    throw e;
+                }
+                deleteAll(runs);
+                runs = next;
+                stats.addMergePass();
+            }
+            if (!runs.isEmpty()) {
+                merge(runs, output, stats);
+                stats.addMergePass();
+            }
+        } finally {
+            deleteAll(runs);
+        }
+        return stats;
+    }
+
+    /**
+     * 第一阶段，把输入切成内存预算大小的块，排序后写成有序段
+     * 输入能一次装入内存时直接写入输出文件，返回空列表
+     */
+    private List<Path> createRuns(Path input, Path output, ExternalSortStats stats) throws IOException {
+        List<Path> runs = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(input, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size % Integer.BYTES != 0) {
+                throw new IllegalArgumentException("input size " + size + " is not a multiple of " + Integer.BYTES);
+            }
+            long total = size / Integer.BYTES;
+            // 预算中留出一个读写窗口，其余用于堆内数组
+            int window = windowBytes(memoryBudget / 16);
+            int chunkInts = (int) Math.min(total, Math.min((memoryBudget - window) / Integer.BYTES, MAX_CHUNK_INTS));
+            int[] chunk = new int[chunkInts];
+            try {
+                for (long position = 0; position < size; ) {
+                    int count = (int) Math.min(chunkInts, (size - position) / Integer.BYTES);
+                    long bytes = (long) count * Integer.BYTES;
+                    read(channel, position, chunk, count, window);
+                    stats.addBytesRead(bytes);
+                    position += bytes;
+                    Quick.introSort(chunk, 0, count - 1);
+                    Path run = count == total ? output : Files.createTempFile(tempDir, "chunk", ".run");
+                    if (run != output) {
+                        runs.add(run);
+                        stats.addRun();
+                    }
+                    try (RunWriter writer = new RunWriter(run, order, window, bytes, stats)) {
+                        writer.write(chunk, 0, count);
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                deleteAll(runs);
+                throw e;
+            }
+            if (total == 0) {
+                new RunWriter(output, order, MIN_WINDOW_BYTES, 0, stats).close();
+            }
+        }
+        return runs;
+    }
+
+    /**
+     * 把从position开始的count个整数读入chunk，每次映射不超过window字节，单次映射不能超过2GB
+     */
+    private void read(FileChannel channel, long position, int[] chunk, int count, int window) throws IOException {
+        int windowInts = window / Integer.BYTES;
+        for (int offset = 0; offset < count; ) {
+            int length = Math.min(windowInts, count - offset);
+            channel.map(FileChannel.MapMode.READ_ONLY, position + (long) offset * Integer.BYTES,
+                    (long) length * Integer.BYTES).order(order).asIntBuffer().get(chunk, offset, length);
+            offset += length;
+        }
+    }
+
+    /**
+     * 第二阶段，用败者树把若干有序段归并到target
+     */
+    private void merge(List<Path> runs, Path target, ExternalSortStats stats) throws IOException {
+        int window = windowBytes(memoryBudget / (runs.size() + 1));
+        RunReader[] readers = new RunReader[runs.size()];
+        try {
+            long bytes = 0;
+            for (int i = 0; i < readers.length; i++) {
+                readers[i] = new RunReader(runs.get(i), order, window, stats);
+                bytes += readers[i].size();
+            }
+            try (RunWriter writer = new RunWriter(target, order, window, bytes, stats)) {
+                long[] keys = new long[readers.length];
+                for (int i = 0; i < readers.length; i++) {
+                    keys[i] = readers[i].hasNext() ? readers[i].next() : LoserTree.EXHAUSTED;
+                }
+                LoserTree tree = new LoserTree(keys);
+                while (tree.winnerKey() != LoserTree.EXHAUSTED) {
+                    writer.write((int) tree.winnerKey());
+                    RunReader reader = readers[tree.winner()];
+                    tree.replay(reader.hasNext() ? reader.next() : LoserTree.EXHAUSTED);
+                }
+            }
+        } finally {
+            for (RunReader reader : readers) {
+                if (reader != null) {
+                    reader.close();
+                }
+            }
+        }
+    }
+
+    /**
+     * 归并路数，保证每一路都能分到不小于MIN_WINDOW_BYTES的窗口
+     */
+    private int fanIn() {
+        return (int) Math.max(2, Math.min(MAX_FAN_IN, memoryBudget / MIN_WINDOW_BYTES - 1));
+    }
+
+    private static int windowBytes(long bytes) {
+        long window = Math.max(MIN_WINDOW_BYTES, Math.min(MAX_WINDOW_BYTES, bytes));
+        return (int) (window & -Integer.BYTES);
+    }
+
+    /**
+     * 调用前所有读写器都必须已经关闭，Windows上仍被映射的文件删除失败时改为在JVM退出时删除
+     */
+    private static void deleteAll(List<Path> paths) throws IOException {
+        for (Path path : paths) {
+            try {
+                Files.deleteIfExists(path);
+            } catch (FileSystemException e) {
+                path.toFile().deleteOnExit();
+            }
+        }
+    }
+}
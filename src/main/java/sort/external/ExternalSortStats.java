@@ -0,0 +1,44 @@
+package sort.external;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 外部排序的统计信息
+ */
+@Getter
+@ToString
+public class ExternalSortStats {
+    /**
+     * 从输入文件和临时文件中读取的字节数
+     */
+    private long bytesRead;
+    /**
+     * 写入临时文件和输出文件的字节数
+     */
+    private long bytesWritten;
+    /**
+     * 第一阶段生成的有序段数量
+     */
+    private int runs;
+    /**
+     * 归并的轮数，输入能一次装入内存时为0
+     */
+    private int mergePasses;
+
+    void addBytesRead(long bytes) {
+        bytesRead += bytes;
+    }
+
+    void addBytesWritten(long bytes) {
+        bytesWritten += bytes;
+    }
+
+    void addRun() {
+        runs++;
+    }
+
+    void addMergePass() {
+        mergePasses++;
+    }
+}
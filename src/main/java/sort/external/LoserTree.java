@@ -0,0 +1,69 @@
+package sort.external;
+
+/**
+ * 败者树，用于k路归并时从k个有序序列的当前元素中选出最小值
+ * 1. 叶子节点i对应第i路，内部节点1到k-1保存比赛的败者，tree[0]保存最终的胜者
+ * 2. 胜者所在的路取出下一个元素后，只需沿着该叶子到根的路径重新比赛一次，代价为log2(k)次比较
+ * 3. 键为long，某一路耗尽后把它的键设为Long.MAX_VALUE，它就不会再胜出
+ */
+final class LoserTree {
+    static final long EXHAUSTED = Long.MAX_VALUE;
+
+    private final int k;
+    private final int[] tree;
+    private final long[] keys;
+
+    LoserTree(long[] keys) {
+        this.k = keys.length;
+        this.keys = keys;
+        this.tree = new int[k];
+        // 自底向上建树，winner[node]为以node为根的子树中的胜者，叶子i位于k + i
+        int[] winner = new int[2 * k];
+        for (int i = 0; i < k; i++) {
+            winner[k + i] = i;
+        }
+        for (int node = k - 1; node > 0; node--) {
+            int a = winner[2 * node];
+            int b = winner[2 * node + 1];
+            if (beats(a, b)) {
+                winner[node] = a;
+                tree[node] = b;
+            } else {
+                winner[node] = b;
+                tree[node] = a;
+            }
+        }
+        tree[0] = k == 1 ? 0 : winner[1];
+    }
+
+    int winner() {
+        return tree[0];
+    }
+
+    long winnerKey() {
+        return keys[tree[0]];
+    }
+
+    /**
+     * 胜者所在的路更新为新的键后，重新比赛
+     */
+    void replay(long key) {
+        int w = tree[0];
+        keys[w] = key;
+        for (int node = (w + k) >>> 1; node > 0; node >>>= 1) {
+            int loser = tree[node];
+            if (beats(loser, w)) {
+                tree[node] = w;
+                w = loser;
+            }
+        }
+        tree[0] = w;
+    }
+
+    /**
+     * 键相等时下标小的胜出，保证归并是稳定的
+     */
+    private boolean beats(int a, int b) {
+        return keys[a] < keys[b] || (keys[a] == keys[b] && a < b);
+    }
+}
@@ -0,0 +1,67 @@
+package sort.external;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 按窗口映射读取一个有序段，每次只映射windowBytes大小的一段文件
+ */
+final class RunReader implements Closeable {
+    private final FileChannel channel;
+    private final ByteOrder order;
+    private final int windowBytes;
+    private final ExternalSortStats stats;
+    private final long size;
+    private long mapped;
+    private IntBuffer window;
+
+    RunReader(Path path, ByteOrder order, int windowBytes, ExternalSortStats stats) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.order = order;
+        this.windowBytes = windowBytes;
+        this.stats = stats;
+        this.size = channel.size();
+    }
+
+    boolean hasNext() throws IOException {
+        if (window != null && window.hasRemaining()) {
+            return true;
+        }
+        if (mapped >= size) {
+            return false;
+        }
+        long length = Math.min(windowBytes, size - mapped);
+        window = channel.map(FileChannel.MapMode.READ_ONLY, mapped, length).order(order).asIntBuffer();
+        mapped += length;
+        stats.addBytesRead(length);
+        return true;
+    }
+
+    /**
+     * 调用前必须先通过hasNext确认还有元素
+     */
+    int next() {
+        return window.get();
+    }
+
+    /**
+     * 有序段的字节数
+     */
+    long size() {
+        return size;
+    }
+
+    /**
+     * 释放对映射窗口的引用，映射在GC回收后才会解除
+     */
+    @Override
+    public void close() throws IOException {
+        window = null;
+        channel.close();
+    }
+}
@@ -0,0 +1,81 @@
+package sort.external;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 按窗口映射写入一个有序段，写满一个窗口后再映射下一段
+ * 有序段的长度在创建时就确定，最后一个窗口只映射剩余的长度，文件不会被映射扩展到超过实际长度，关闭时也不需要截断
+ * 映射存在期间截断文件在Windows上会失败，因此这里不能先按整窗口扩展、写完再截断
+ */
+final class RunWriter implements Closeable {
+    private final FileChannel channel;
+    private final ByteOrder order;
+    private final int windowBytes;
+    private final long bytes;
+    private final ExternalSortStats stats;
+    private long mapped;
+    private IntBuffer window;
+
+    /**
+     * @param bytes 有序段的字节数，调用方必须恰好写入这么多数据
+     */
+    RunWriter(Path path, ByteOrder order, int windowBytes, long bytes, ExternalSortStats stats) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.order = order;
+        this.windowBytes = windowBytes;
+        this.bytes = bytes;
+        this.stats = stats;
+    }
+
+    void write(int value) throws IOException {
+        if (window == null || !window.hasRemaining()) {
+            nextWindow();
+        }
+        window.put(value);
+    }
+
+    void write(int[] values, int offset, int length) throws IOException {
+        while (length > 0) {
+            if (window == null || !window.hasRemaining()) {
+                nextWindow();
+            }
+            int count = Math.min(length, window.remaining());
+            window.put(values, offset, count);
+            offset += count;
+            length -= count;
+        }
+    }
+
+    private void nextWindow() throws IOException {
+        flushWindow();
+        if (mapped >= bytes) {
+            throw new IllegalStateException("run is full: " + bytes + " bytes");
+        }
+        long length = Math.min(windowBytes, bytes - mapped);
+        window = channel.map(FileChannel.MapMode.READ_WRITE, mapped, length).order(order).asIntBuffer();
+        mapped += length;
+    }
+
+    private void flushWindow() {
+        if (window != null) {
+            stats.addBytesWritten((long) window.position() * Integer.BYTES);
+            window = null;
+        }
+    }
+
+    /**
+     * 释放对映射窗口的引用，映射在GC回收后才会解除
+     */
+    @Override
+    public void close() throws IOException {
+        flushWindow();
+        channel.close();
+    }
+}
@@ -0,0 +1,447 @@
+package text;
+
+import lombok.Value;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 预编译的Aho-Corasick自动机，一次扫描输入即可同时查找所有模式串，耗时与模式串个数无关
+ * 1. 字符先映射为字符类别：模式串中出现的每个字符一个类别，其它字符都是类别0；忽略大小写时按String.regionMatches的规则折叠
+ * 2. 状态数乘类别数不超过DENSE_LIMIT时，预先算出完整的转移表delta[state * alphabet + class]，每个字符只查一次数组
+ * 3. 否则按状态排序存放trie的边(edgeStart、edgeClass、edgeTarget)，找不到边时沿失败链回退，根状态的转移按类别直接查表
+ * 4. 每个状态记录以它结尾的模式串，以及失败链上最近的有模式串的状态，报告匹配时只走有模式串的状态
+ * 模式串为null或空串时不参与匹配，但仍占用它在数组中的下标；相同的模式串各自报告
+ * 匹配位置为输入中的[start, end)，findAll按end从小到大报告，end相同时先报告较长的模式串
+ * 创建后不再修改，可以在多个线程之间共享
+ */
+public final class AhoCorasick {
+    /**
+     * 完整转移表的最大项数，超过时改用稀疏的边表
+     */
+    static final int DENSE_LIMIT = 1 << 21;
+
+    /**
+     * 匹配回调，返回false时停止查找
+     */
+    @FunctionalInterface
+    public interface MatchHandler {
+        boolean onMatch(int pattern, int start, int end);
+    }
+
+    @Value
+    public static class Match {
+        /**
+         * 模式串在创建时数组中的下标
+         */
+        int pattern;
+        int start;
+        int end;
+    }
+
+    private final boolean ignoreCase;
+    private final int[] lengths;
+    private final int maxLength;
+    private final int states;
+    /**
+     * 字符到类别的映射，不小于数组长度的字符为类别0
+     */
+    private final int[] classes;
+    private final int alphabet;
+
+    private final int[] delta;
+
+    private final int[] fail;
+    private final int[] rootRow;
+    private final int[] edgeStart;
+    private final int[] edgeClass;
+    private final int[] edgeTarget;
+
+    /**
+     * 状态自身有模式串时为它自己，否则为失败链上最近的有模式串的状态，0表示没有
+     */
+    private final int[] report;
+    /**
+     * 有模式串的状态在失败链上的下一个有模式串的状态
+     */
+    private final int[] outLink;
+    private final int[] ownStart;
+    private final int[] ownPatterns;
+
+    private AhoCorasick(String[] patterns, boolean ignoreCase) {
+        this.ignoreCase = ignoreCase;
+        this.lengths = new int[patterns.length];
+        int[] folded = new int[Character.MAX_VALUE + 1];
+        int classCount = 1;
+        int nodes = 1;
+        int longest = 0;
+        for (int i = 0; i < patterns.length; i++) {
+            String p = patterns[i];
+            if (p == null || p.isEmpty()) {
+                continue;
+            }
+            lengths[i] = p.length();
+            longest = Math.max(longest, p.length());
+            nodes += p.length();
+            for (int k = 0; k < p.length(); k++) {
+                int f = fold(p.charAt(k));
+                if (folded[f] == 0) {
+                    folded[f] = classCount++;
+                }
+            }
+        }
+        this.maxLength = longest;
+        this.alphabet = classCount;
+        int tableSize = 0;
+        for (int c = Character.MAX_VALUE; c >= 0 && tableSize == 0; c--) {
+            if (folded[fold((char) c)] != 0) {
+                tableSize = c + 1;
+            }
+        }
+        this.classes = new int[tableSize];
+        for (int c = 0; c < tableSize; c++) {
+            classes[c] = folded[fold((char) c)];
+        }
+
+        // trie，每个非根状态只有一条入边，用label和兄弟链表示
+        int[] label = new int[nodes];
+        int[] firstChild = new int[nodes];
+        int[] sibling = new int[nodes];
+        int[] ownCount = new int[nodes];
+        int[] ends = new int[patterns.length];
+        Map<Long, Integer> edges = new HashMap<>(nodes * 2);
+        int count = 1;
+        for (int i = 0; i < patterns.length; i++) {
+            if (lengths[i] == 0) {
+                continue;
+            }
+            int s = 0;
+            for (int k = 0; k < lengths[i]; k++) {
+                int cls = classes[patterns[i].charAt(k)];
+                Integer t = edges.get((long) s * alphabet + cls);
+                if (t == null) {
+                    t = count++;
+                    edges.put((long) s * alphabet + cls, t);
+                    label[t] = cls;
+                    sibling[t] = firstChild[s];
+                    firstChild[s] = t;
+                }
+                s = t;
+            }
+            ends[i] = s;
+            ownCount[s]++;
+        }
+        this.states = count;
+
+        this.ownStart = new int[count + 1];
+        for (int s = 0; s < count; s++) {
+            ownStart[s + 1] = ownStart[s] + ownCount[s];
+        }
+        this.ownPatterns = new int[ownStart[count]];
+        int[] filled = new int[count];
+        for (int i = 0; i < patterns.length; i++) {
+            if (lengths[i] != 0) {
+                ownPatterns[ownStart[ends[i]] + filled[ends[i]]++] = i;
+            }
+        }
+
+        // 按广度优先顺序计算失败链，父状态的失败状态总是先于子状态算出
+        int[] failure = new int[count];
+        int[] queue = new int[count];
+        int tail = 0;
+        for (int t = firstChild[0]; t != 0; t = sibling[t]) {
+            queue[tail++] = t;
+        }
+        for (int head = 0; head < tail; head++) {
+            int s = queue[head];
+            for (int t = firstChild[s]; t != 0; t = sibling[t]) {
+                int f = failure[s];
+                Integer g;
+                while ((g = edges.get((long) f * alphabet + label[t])) == null && f != 0) {
+                    f = failure[f];
+                }
+                failure[t] = g == null ? 0 : g;
+                queue[tail++] = t;
+            }
+        }
+        this.report = new int[count];
+        this.outLink = new int[count];
+        for (int k = 0; k < tail; k++) {
+            int t = queue[k];
+            outLink[t] = report[failure[t]];
+            report[t] = ownCount[t] > 0 ? t : outLink[t];
+        }
+
+        if ((long) count * alphabet <= DENSE_LIMIT) {
+            this.delta = new int[count * alphabet];
+            for (int t = firstChild[0]; t != 0; t = sibling[t]) {
+                delta[label[t]] = t;
+            }
+            for (int k = 0; k < tail; k++) {
+                int s = queue[k];
+                System.arraycopy(delta, failure[s] * alphabet, delta, s * alphabet, alphabet);
+                for (int t = firstChild[s]; t != 0; t = sibling[t]) {
+                    delta[s * alphabet + label[t]] = t;
+                }
+            }
+            this.fail = null;
+            this.rootRow = null;
+            this.edgeStart = null;
+            this.edgeClass = null;
+            this.edgeTarget = null;
+        } else {
+            this.delta = null;
+            this.fail = failure;
+            this.rootRow = new int[alphabet];
+            for (int t = firstChild[0]; t != 0; t = sibling[t]) {
+                rootRow[label[t]] = t;
+            }
+            this.edgeStart = new int[count + 1];
+            this.edgeClass = new int[count - 1];
+            this.edgeTarget = new int[count - 1];
+            int e = 0;
+            for (int s = 0; s < count; s++) {
+                edgeStart[s] = e;
+                for (int t = firstChild[s]; t != 0; t = sibling[t]) {
+                    // 插入排序，使每个状态的边按类别有序，便于二分查找
+                    int k = e++;
+                    while (k > edgeStart[s] && edgeClass[k - 1] > label[t]) {
+                        edgeClass[k] = edgeClass[k - 1];
+                        edgeTarget[k] = edgeTarget[k - 1];
+                        k--;
+                    }
+                    edgeClass[k] = label[t];
+                    edgeTarget[k] = t;
+                }
+            }
+            edgeStart[count] = e;
+        }
+    }
+
+    public static AhoCorasick of(String... patterns) {
+        return new AhoCorasick(patterns.clone(), false);
+    }
+
+    /**
+     * 按String.equalsIgnoreCase的规则逐个字符忽略大小写
+     */
+    public static AhoCorasick ofIgnoreCase(String... patterns) {
+        return new AhoCorasick(patterns.clone(), true);
+    }
+
+    /**
+     * 模式串的下标为集合的迭代顺序
+     */
+    public static AhoCorasick of(Collection<String> patterns, boolean ignoreCase) {
+        return new AhoCorasick(patterns.toArray(new String[0]), ignoreCase);
+    }
+
+    public int patternCount() {
+        return lengths.length;
+    }
+
+    public boolean isIgnoreCase() {
+        return ignoreCase;
+    }
+
+    public int stateCount() {
+        return states;
+    }
+
+    /**
+     * 各数组占用的字节数，不含对象头
+     */
+    public long memoryBytes() {
+        long ints = lengths.length + classes.length + report.length + outLink.length + ownStart.length
+                + ownPatterns.length;
+        if (delta != null) {
+            ints += delta.length;
+        } else {
+            ints += fail.length + rootRow.length + edgeStart.length + edgeClass.length + edgeTarget.length;
+        }
+        return ints * 4;
+    }
+
+    /**
+     * 是否包含任意一个模式串，找到第一个匹配就返回
+     */
+    public boolean containsAny(CharSequence text) {
+        if (text == null) {
+            return false;
+        }
+        int state = 0;
+        if (delta != null) {
+            // 最常用的路径，数组放在局部变量中，循环内不再读取字段
+            int[] table = delta;
+            int[] map = classes;
+            int[] out = report;
+            int width = alphabet;
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                state = table[state * width + (c < map.length ? map[c] : 0)];
+                if (out[state] != 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            state = step(state, text.charAt(i));
+            if (report[state] != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 所有匹配中最小的开始位置，没有匹配时返回-1
+     * 模式串中没有空串时与StringUtils.indexOfAny(str, searchStrs)相同；空串在这里不参与匹配，
+     * 而StringUtils对任何非null的str都返回0，例如StringUtils.indexOfAny("abc", new CharSequence[]{""})为0，这里为-1
+     * 找到匹配后，再往后maxLength个字符内结束的匹配才可能更靠前，之后就不用再扫描
+     */
+    public int indexOfAny(CharSequence text) {
+        if (text == null) {
+            return -1;
+        }
+        int best = -1;
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (best >= 0 && i + 1 - maxLength >= best) {
+                break;
+            }
+            state = step(state, text.charAt(i));
+            // 失败链上的状态越来越短，第一个有模式串的状态就是最长的匹配
+            int s = report[state];
+            if (s != 0) {
+                int start = i + 1 - lengths[ownPatterns[ownStart[s]]];
+                if (best < 0 || start < best) {
+                    best = start;
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * 报告所有匹配，包括相互重叠的匹配
+     */
+    public void findAll(CharSequence text, MatchHandler handler) {
+        if (text == null) {
+            return;
+        }
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            state = step(state, text.charAt(i));
+            for (int s = report[state]; s != 0; s = outLink[s]) {
+                for (int k = ownStart[s]; k < ownStart[s + 1]; k++) {
+                    int p = ownPatterns[k];
+                    if (!handler.onMatch(p, i + 1 - lengths[p], i + 1)) {
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    public List<Match> findAll(CharSequence text) {
+        List<Match> matches = new ArrayList<>();
+        findAll(text, (pattern, start, end) -> matches.add(new Match(pattern, start, end)));
+        return matches;
+    }
+
+    /**
+     * 与StringUtils.replaceEach(text, patterns, replacements)的结果相同：
+     * 每次取开始位置最小的匹配，开始位置相同时取下标最小的模式串，替换后从匹配的结尾继续，替换结果不再参与匹配
+     * replacements[i]为null时模式串i不参与替换
+     * 确定一个匹配需要再往后看最多maxLength个字符，替换后从匹配的结尾重新开始，只有这部分字符会被再次扫描
+     */
+    public String replaceEach(CharSequence text, String[] replacements) {
+        if (replacements.length != lengths.length) {
+            throw new IllegalArgumentException("Search and Replace array lengths don't match: "
+                    + lengths.length + " vs " + replacements.length);
+        }
+        if (text == null) {
+            return null;
+        }
+        int n = text.length();
+        StringBuilder out = null;
+        int copied = 0;
+        int bestStart = -1;
+        int bestPattern = -1;
+        int state = 0;
+        int i = 0;
+        while (i < n) {
+            state = step(state, text.charAt(i++));
+            for (int s = report[state]; s != 0; s = outLink[s]) {
+                for (int k = ownStart[s]; k < ownStart[s + 1]; k++) {
+                    int p = ownPatterns[k];
+                    int start = i - lengths[p];
+                    if (replacements[p] != null
+                            && (bestStart < 0 || start < bestStart || start == bestStart && p < bestPattern)) {
+                        bestStart = start;
+                        bestPattern = p;
+                    }
+                }
+            }
+            if (bestStart >= 0 && (i >= bestStart + maxLength || i == n)) {
+                if (out == null) {
+                    out = new StringBuilder(n + n / 8);
+                }
+                out.append(text, copied, bestStart).append(replacements[bestPattern]);
+                copied = i = bestStart + lengths[bestPattern];
+                bestStart = -1;
+                state = 0;
+            }
+        }
+        if (out == null) {
+            return text.toString();
+        }
+        return out.append(text, copied, n).toString();
+    }
+
+    private int step(int state, char c) {
+        int cls = c < classes.length ? classes[c] : 0;
+        if (delta != null) {
+            return delta[state * alphabet + cls];
+        }
+        if (cls == 0) {
+            return 0;
+        }
+        while (state != 0) {
+            int next = child(state, cls);
+            if (next != 0) {
+                return next;
+            }
+            state = fail[state];
+        }
+        return rootRow[cls];
+    }
+
+    /**
+     * 在状态的有序边中二分查找，没有时返回0
+     */
+    private int child(int state, int cls) {
+        int low = edgeStart[state];
+        int high = edgeStart[state + 1] - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int c = edgeClass[mid];
+            if (c < cls) {
+                low = mid + 1;
+            } else if (c > cls) {
+                high = mid - 1;
+            } else {
+                return edgeTarget[mid];
+            }
+        }
+        return 0;
+    }
+
+    private int fold(char c) {
+        return ignoreCase ? Character.toLowerCase(Character.toUpperCase(c)) : c;
+    }
+}
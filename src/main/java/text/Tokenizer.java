@@ -0,0 +1,307 @@
+package text;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 可以复用的分词器，逐个给出token的位置，不创建子串和数组
+ * 支持与StringUtils相同的四种拆分方式，拆出的token与对应的StringUtils方法逐个相同：
+ * 1. split：按分隔字符集合拆分，相邻的分隔符视为一个，不产生空token；分隔字符为null时按空白字符拆分
+ * 2. splitPreserveAllTokens：按分隔字符集合拆分，每个分隔符都分出一个token，包括开头和结尾的空token
+ * 3. splitByWholeSeparator：按整个分隔字符串拆分，两个分隔串之间的空token被跳过
+ * 4. splitByWholeSeparatorPreserveAllTokens：按整个分隔字符串拆分，保留空token
+ * 分隔字符串为null或空串时，3和4按空白字符拆分，分别与1和2相同
+ * 输入可以是CharSequence，也可以是byte数组中的一段；byte按单字节字符(ISO-8859-1)解释，
+ * UTF-8的多字节字符每个字节都不小于0x80，不会被ASCII分隔符误拆，需要时用start和end自行按UTF-8解码
+ * 用法：while (tokenizer.next()) { tokenizer.start()、tokenizer.end()或tokenizer.token() }
+ * token的位置是输入中的[start, end)；token()返回同一个视图对象，调用next后指向下一个token
+ * 不是线程安全的，每个线程使用自己的实例
+ */
+public final class Tokenizer {
+    private enum Mode {
+        CHARS, WHOLE_SEPARATOR
+    }
+
+    private final Mode mode;
+    private final boolean preserveAllTokens;
+    /**
+     * 按字符拆分时ASCII分隔符的位图，whitespace为true时不使用
+     */
+    private final long lowMask;
+    private final long highMask;
+    /**
+     * 按字符拆分时非ASCII的分隔符
+     */
+    private final String otherSeparators;
+    private final boolean whitespace;
+    /**
+     * 按整个分隔字符串拆分时的分隔串
+     */
+    private final String separator;
+
+    private CharSequence chars;
+    private byte[] bytes;
+    private int limit;
+    private final Token token = new Token();
+
+    /**
+     * 按字符拆分时的状态，含义与StringUtils.splitWorker中的同名变量相同
+     */
+    private int i;
+    private int start;
+    private boolean match;
+    private boolean lastMatch;
+    private boolean finished;
+
+    private int tokenStart;
+    private int tokenEnd;
+
+    private Tokenizer(Mode mode, String separators, boolean preserveAllTokens) {
+        this.mode = mode;
+        this.preserveAllTokens = preserveAllTokens;
+        this.separator = mode == Mode.WHOLE_SEPARATOR ? separators : null;
+        this.whitespace = mode == Mode.CHARS && separators == null;
+        long low = 0;
+        long high = 0;
+        StringBuilder others = new StringBuilder();
+        if (mode == Mode.CHARS && separators != null) {
+            for (int k = 0; k < separators.length(); k++) {
+                char c = separators.charAt(k);
+                if (c < 64) {
+                    low |= 1L << c;
+                } else if (c < 128) {
+                    high |= 1L << c;
+                } else {
+                    others.append(c);
+                }
+            }
+        }
+        this.lowMask = low;
+        this.highMask = high;
+        this.otherSeparators = others.toString();
+    }
+
+    /**
+     * 对应StringUtils.split(str, separatorChars)
+     */
+    public static Tokenizer split(String separatorChars) {
+        return new Tokenizer(Mode.CHARS, separatorChars, false);
+    }
+
+    /**
+     * 对应StringUtils.splitPreserveAllTokens(str, separatorChars)
+     */
+    public static Tokenizer splitPreserveAllTokens(String separatorChars) {
+        return new Tokenizer(Mode.CHARS, separatorChars, true);
+    }
+
+    /**
+     * 对应StringUtils.splitByWholeSeparator(str, separator)
+     */
+    public static Tokenizer splitByWholeSeparator(String separator) {
+        return separator == null || separator.isEmpty() ? split(null)
+                : new Tokenizer(Mode.WHOLE_SEPARATOR, separator, false);
+    }
+
+    /**
+     * 对应StringUtils.splitByWholeSeparatorPreserveAllTokens(str, separator)
+     */
+    public static Tokenizer splitByWholeSeparatorPreserveAllTokens(String separator) {
+        return separator == null || separator.isEmpty() ? splitPreserveAllTokens(null)
+                : new Tokenizer(Mode.WHOLE_SEPARATOR, separator, true);
+    }
+
+    /**
+     * 开始拆分新的输入，input为null时没有token
+     */
+    public Tokenizer reset(CharSequence input) {
+        chars = input;
+        bytes = null;
+        return restart(0, input == null ? 0 : input.length());
+    }
+
+    /**
+     * 开始拆分bytes中的[from, to)，token的位置是bytes中的下标
+     */
+    public Tokenizer reset(byte[] input, int from, int to) {
+        if (from < 0 || to > input.length || from > to) {
+            throw new IndexOutOfBoundsException("from " + from + ", to " + to + ", length " + input.length);
+        }
+        chars = null;
+        bytes = input;
+        return restart(from, to);
+    }
+
+    private Tokenizer restart(int from, int to) {
+        limit = to;
+        i = start = from;
+        match = lastMatch = false;
+        finished = from == to;
+        tokenStart = tokenEnd = from;
+        return this;
+    }
+
+    /**
+     * 移动到下一个token，没有更多token时返回false
+     */
+    public boolean next() {
+        return mode == Mode.CHARS ? nextByChars() : nextByWholeSeparator();
+    }
+
+    public int start() {
+        return tokenStart;
+    }
+
+    public int end() {
+        return tokenEnd;
+    }
+
+    public int length() {
+        return tokenEnd - tokenStart;
+    }
+
+    /**
+     * 当前token的字符视图，始终是同一个对象，toString时才创建字符串
+     */
+    public CharSequence token() {
+        return token;
+    }
+
+    /**
+     * 统计剩余的token个数，调用后已经没有token
+     */
+    public int count() {
+        int count = 0;
+        while (next()) {
+            count++;
+        }
+        return count;
+    }
+
+    private boolean nextByChars() {
+        while (i < limit) {
+            if (isSeparator(charAt(i))) {
+                boolean emit = match || preserveAllTokens;
+                int tokenFrom = start;
+                int tokenTo = i;
+                if (emit) {
+                    match = false;
+                    lastMatch = true;
+                }
+                start = ++i;
+                if (emit) {
+                    return found(tokenFrom, tokenTo);
+                }
+                continue;
+            }
+            lastMatch = false;
+            match = true;
+            i++;
+        }
+        if (!finished) {
+            finished = true;
+            if (match || preserveAllTokens && lastMatch) {
+                return found(start, i);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 与StringUtils.splitByWholeSeparatorWorker相同：找不到分隔串时剩余部分(可能为空)作为最后一个token
+     */
+    private boolean nextByWholeSeparator() {
+        while (!finished) {
+            int at = indexOfSeparator(start);
+            if (at < 0) {
+                finished = true;
+                return found(start, limit);
+            }
+            int tokenFrom = start;
+            start = at + separator.length();
+            if (at > tokenFrom || preserveAllTokens) {
+                return found(tokenFrom, at);
+            }
+        }
+        return false;
+    }
+
+    private boolean found(int from, int to) {
+        tokenStart = from;
+        tokenEnd = to;
+        return true;
+    }
+
+    private boolean isSeparator(char c) {
+        if (whitespace) {
+            return Character.isWhitespace(c);
+        }
+        if (c < 64) {
+            return (lowMask & 1L << c) != 0;
+        }
+        if (c < 128) {
+            return (highMask & 1L << c) != 0;
+        }
+        return otherSeparators.indexOf(c) >= 0;
+    }
+
+    private int indexOfSeparator(int from) {
+        char first = separator.charAt(0);
+        for (int last = limit - separator.length(); from <= last; from++) {
+            if (charAt(from) == first && regionMatches(from)) {
+                return from;
+            }
+        }
+        return -1;
+    }
+
+    private boolean regionMatches(int from) {
+        for (int k = 1; k < separator.length(); k++) {
+            if (charAt(from + k) != separator.charAt(k)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private char charAt(int index) {
+        return chars != null ? chars.charAt(index) : (char) (bytes[index] & 0xFF);
+    }
+
+    /**
+     * 当前token的视图，各方法按调用时的token计算
+     */
+    private final class Token implements CharSequence {
+        @Override
+        public int length() {
+            return tokenEnd - tokenStart;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (index < 0 || index >= length()) {
+                throw new IndexOutOfBoundsException("index " + index + ", length " + length());
+            }
+            return Tokenizer.this.charAt(tokenStart + index);
+        }
+
+        @Override
+        public CharSequence subSequence(int from, int to) {
+            if (from < 0 || to > length() || from > to) {
+                throw new IndexOutOfBoundsException("from " + from + ", to " + to + ", length " + length());
+            }
+            return string(tokenStart + from, tokenStart + to);
+        }
+
+        @Override
+        public String toString() {
+            return string(tokenStart, tokenEnd);
+        }
+
+        private String string(int from, int to) {
+            if (chars != null) {
+                return chars.subSequence(from, to).toString();
+            }
+            return new String(bytes, from, to - from, StandardCharsets.ISO_8859_1);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package sort;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * sort.BufferSort的测试
+ */
+public class BufferSortTest {
+    @Test
+    public void heapIntBuffer() {
+        SortTestData.check((array, start, end) -> BufferSort.introSort(IntBuffer.wrap(array), start, end));
+    }
+
+    /**
+     * 堆外缓冲区：拷贝进去排序，再拷贝回数组比较
+     */
+    @Test
+    public void directIntBuffer() {
+        SortTestData.check((array, start, end) -> {
+            IntBuffer buffer = ByteBuffer.allocateDirect(array.length * Integer.BYTES)
+                    .order(ByteOrder.nativeOrder()).asIntBuffer();
+            buffer.put(array);
+            BufferSort.introSort(buffer, start, end);
+            buffer.clear();
+            buffer.get(array);
+        });
+    }
+
+    @Test
+    public void heapLongBuffer() {
+        SortTestData.checkLongs((array, start, end) -> BufferSort.introSort(LongBuffer.wrap(array), start, end));
+    }
+
+    @Test
+    public void directLongBuffer() {
+        SortTestData.checkLongs((array, start, end) -> {
+            LongBuffer buffer = ByteBuffer.allocateDirect(array.length * Long.BYTES)
+                    .order(ByteOrder.BIG_ENDIAN).asLongBuffer();
+            buffer.put(array);
+            BufferSort.introSort(buffer, start, end);
+            buffer.clear();
+            buffer.get(array);
+        });
+    }
+
+    /**
+     * 只排序[position, limit)，并且不改变position和limit
+     */
+    @Test
+    public void sortsBetweenPositionAndLimit() {
+        int[] input = new Random(79).ints(2000).toArray();
+        IntBuffer ints = IntBuffer.wrap(input.clone());
+        ints.position(300).limit(1700);
+        Assert.assertSame(ints, BufferSort.introSort(ints));
+        Assert.assertEquals(300, ints.position());
+        Assert.assertEquals(1700, ints.limit());
+        int[] expected = input.clone();
+        Arrays.sort(expected, 300, 1700);
+        Assert.assertArrayEquals(expected, ints.array());
+
+        long[] longInput = new Random(83).longs(2000).toArray();
+        LongBuffer longs = LongBuffer.wrap(longInput.clone());
+        longs.position(1).limit(1999);
+        Assert.assertSame(longs, BufferSort.introSort(longs));
+        Assert.assertEquals(1, longs.position());
+        Assert.assertEquals(1999, longs.limit());
+        long[] expectedLongs = longInput.clone();
+        Arrays.sort(expectedLongs, 1, 1999);
+        Assert.assertArrayEquals(expectedLongs, longs.array());
+    }
+}
@@ -0,0 +1,73 @@
+package sort;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * sort.KeyedSort测试，结果与稳定的Comparator排序逐个相同
+ */
+public class KeyedSortTest {
+    private static final class Item {
+        final int age;
+        final long phone;
+        final String name;
+        final int id;
+
+        Item(int age, long phone, String name, int id) {
+            this.age = age;
+            this.phone = phone;
+            this.name = name;
+            this.id = id;
+        }
+    }
+
+    private static List<Item> items(int n, long seed) {
+        Random random = new Random(seed);
+        List<Item> items = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            items.add(new Item(random.nextInt(50), random.nextInt(100) - 50L,
+                    "user" + random.nextInt(200), i));
+        }
+        return items;
+    }
+
+    @Test
+    public void multiColumnSortIsStable() {
+        // 超过CHUNK_MIN的长度才会并行提取键
+        for (int n : new int[]{0, 1, 100, KeyedSort.CHUNK_MIN * 4 + 3}) {
+            List<Item> actual = items(n, n);
+            List<Item> expected = new ArrayList<>(actual);
+            expected.sort(Comparator.<Item>comparingInt(x -> x.age).thenComparingLong(x -> x.phone));
+            KeyedSort.<Item>comparingInt(x -> x.age).thenComparingLong(x -> x.phone).sort(actual);
+            assertSameOrder(expected, actual);
+        }
+    }
+
+    @Test
+    public void stringColumnsMatchCompareTo() {
+        Item[] actual = items(10_000, 7).toArray(new Item[0]);
+        Item[] expected = actual.clone();
+        Arrays.sort(expected, Comparator.<Item, String>comparing(x -> x.name).thenComparingInt(x -> x.age));
+        KeyedSort.<Item>comparing(x -> x.name).thenComparingInt(x -> x.age).sort(actual);
+        assertSameOrder(Arrays.asList(expected), Arrays.asList(actual));
+
+        List<Item> list = items(10_000, 8);
+        List<Item> sorted = new ArrayList<>(list);
+        sorted.sort(Comparator.<Item>comparingInt(x -> x.age).thenComparing(x -> x.name));
+        KeyedSort.<Item>comparingInt(x -> x.age).thenComparing(x -> x.name).sort(list);
+        assertSameOrder(sorted, list);
+    }
+
+    private static void assertSameOrder(List<Item> expected, List<Item> actual) {
+        Assert.assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Assert.assertEquals("index " + i, expected.get(i).id, actual.get(i).id);
+        }
+    }
+}
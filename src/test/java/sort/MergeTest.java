@@ -0,0 +1,99 @@
+package sort;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * sort.Merge测试
+ */
+public class MergeTest {
+    /**
+     * 右半边为空时mid等于end，不能读取arr[mid + 1]
+     */
+    @Test
+    public void mergeEmptyRightAtArrayEnd() {
+        int[] arr = {1, 3, 5};
+        Merge.merge(arr, 0, 2, 2);
+        Assert.assertArrayEquals(new int[]{1, 3, 5}, arr);
+        Merge.merge(arr, 0, 2, 2, new int[3]);
+        Assert.assertArrayEquals(new int[]{1, 3, 5}, arr);
+    }
+
+    @Test
+    public void mergeEmptyLeftAtArrayStart() {
+        int[] arr = {2, 4, 6};
+        Merge.merge(arr, 0, -1, 2);
+        Assert.assertArrayEquals(new int[]{2, 4, 6}, arr);
+    }
+
+    @Test
+    public void mergeTwoRuns() {
+        int[] arr = {1, 4, 7, 2, 3, 9};
+        Merge.merge(arr, 0, 2, 5);
+        Assert.assertArrayEquals(new int[]{1, 2, 3, 4, 7, 9}, arr);
+    }
+
+    @Test
+    public void sortMatchesArraysSort() {
+        Random random = new Random(1);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int n : new int[]{0, 1, 2, 17, 1000, 100_000}) {
+                int[] arr = random.ints(n, -1000, 1000).toArray();
+                int[] expected = arr.clone();
+                Arrays.sort(expected);
+
+                int[] sequential = arr.clone();
+                Merge.mergeSort(sequential, 0, n - 1);
+                Assert.assertArrayEquals(expected, sequential);
+
+                int[] parallel = arr.clone();
+                Merge.parallelSort(parallel, pool);
+                Assert.assertArrayEquals(expected, parallel);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void mergeEmptyHalfForOtherTypes() {
+        long[] longs = {1, 3, 5};
+        Merge.merge(longs, 0, 2, 2, new long[3]);
+        Merge.merge(longs, 0, -1, 2, new long[0]);
+        Assert.assertArrayEquals(new long[]{1, 3, 5}, longs);
+
+        double[] doubles = {1, 3, 5};
+        Merge.merge(doubles, 0, 2, 2, new double[3]);
+        Merge.merge(doubles, 0, -1, 2, new double[0]);
+        Assert.assertArrayEquals(new double[]{1, 3, 5}, doubles, 0);
+
+        float[] floats = {1, 3, 5};
+        Merge.merge(floats, 0, 2, 2, new float[3]);
+        Merge.merge(floats, 0, -1, 2, new float[0]);
+        Assert.assertArrayEquals(new float[]{1, 3, 5}, floats, 0);
+    }
+
+    @Test
+    public void sortOtherTypes() {
+        Random random = new Random(2);
+        long[] longs = random.longs(1000).toArray();
+        long[] expectedLongs = longs.clone();
+        Arrays.sort(expectedLongs);
+        Merge.mergeSort(longs, 0, longs.length - 1);
+        Assert.assertArrayEquals(expectedLongs, longs);
+
+        double[] doubles = random.doubles(1000).toArray();
+        doubles[3] = Double.NaN;
+        doubles[7] = -0.0;
+        doubles[9] = 0.0;
+        double[] expectedDoubles = doubles.clone();
+        Arrays.sort(expectedDoubles);
+        Merge.mergeSort(doubles, 0, doubles.length - 1);
+        Assert.assertArrayEquals(expectedDoubles, doubles, 0);
+    }
+}
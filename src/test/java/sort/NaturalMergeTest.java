@@ -0,0 +1,167 @@
+package sort;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * sort.NaturalMerge的测试
+ */
+public class NaturalMergeTest {
+    @Test
+    public void matchesArraysSort() {
+        SortTestData.check((array, start, end) -> NaturalMerge.sort(array, start, end + 1));
+    }
+
+    /**
+     * 整体有序或严格降序的输入只有一个有序段，不需要辅助数组
+     */
+    @Test
+    public void sortedAndReversedNeedNoScratch() {
+        int n = 100_000;
+        int[] sorted = new int[n];
+        int[] reversed = new int[n];
+        for (int i = 0; i < n; i++) {
+            sorted[i] = i / 3;
+            reversed[i] = n - i;
+        }
+        int[] expected = sorted.clone();
+        NaturalMerge merge = new NaturalMerge(sorted);
+        merge.sort(0, n, NaturalMerge.minRun(n));
+        Assert.assertArrayEquals(expected, sorted);
+        Assert.assertEquals(0, merge.scratchLength());
+
+        expected = reversed.clone();
+        Arrays.sort(expected);
+        merge = new NaturalMerge(reversed);
+        merge.sort(0, n, NaturalMerge.minRun(n));
+        Assert.assertArrayEquals(expected, reversed);
+        Assert.assertEquals(0, merge.scratchLength());
+
+        // 有重复值的降序输入被切成多个严格降序段
+        int[] descending = new int[n];
+        for (int i = 0; i < n; i++) {
+            descending[i] = (n - i) / 2;
+        }
+        expected = descending.clone();
+        Arrays.sort(expected);
+        NaturalMerge.sort(descending, 0, n);
+        Assert.assertArrayEquals(expected, descending);
+    }
+
+    /**
+     * 两个有序段[1, 2, 3, 8]和[4, 5, 6, 7]，裁掉就位的元素后只剩8需要移动
+     */
+    @Test
+    public void twoShortRuns() {
+        int[] array = {1, 2, 3, 8, 4, 5, 6, 7};
+        NaturalMerge merge = new NaturalMerge(array);
+        merge.sort(0, array.length, 1);
+        Assert.assertArrayEquals(new int[]{1, 2, 3, 4, 5, 6, 7, 8}, array);
+        Assert.assertEquals(1, merge.scratchLength());
+
+        array = new int[]{1, 2, 3, 8, 4, 5, 6, 7};
+        NaturalMerge.sort(array, 0, array.length);
+        Assert.assertArrayEquals(new int[]{1, 2, 3, 4, 5, 6, 7, 8}, array);
+    }
+
+    /**
+     * 无论较短的一段在左边还是右边，辅助数组都不超过较短的一段
+     */
+    @Test
+    public void scratchNoLargerThanShorterRun() {
+        Random random = new Random(97);
+        int[][] lengths = {{5000, 300}, {300, 5000}, {4000, 4000}, {1, 9999}, {9999, 1}};
+        for (int[] length : lengths) {
+            int[] left = random.ints(length[0], 0, 1000).sorted().toArray();
+            int[] right = random.ints(length[1], 0, 1000).sorted().toArray();
+            int[] array = new int[left.length + right.length];
+            System.arraycopy(left, 0, array, 0, left.length);
+            System.arraycopy(right, 0, array, left.length, right.length);
+            int[] expected = array.clone();
+            Arrays.sort(expected);
+
+            NaturalMerge merge = new NaturalMerge(array);
+            merge.sort(0, array.length, 1);
+            String message = Arrays.toString(length);
+            Assert.assertArrayEquals(message, expected, array);
+            Assert.assertTrue(message + " scratch=" + merge.scratchLength(),
+                    merge.scratchLength() <= Math.min(length[0], length[1]));
+        }
+    }
+
+    /**
+     * 多个长短不一的有序段，辅助数组不超过总长度的一半
+     */
+    @Test
+    public void manyNaturalRuns() {
+        Random random = new Random(101);
+        int[] array = new int[200_000];
+        for (int i = 0; i < array.length; ) {
+            int length = Math.min(array.length - i, 1 + random.nextInt(5000));
+            int[] run = random.ints(length, -500, 500).sorted().toArray();
+            boolean descending = random.nextBoolean();
+            for (int j = 0; j < length; j++) {
+                array[i + j] = descending ? run[length - 1 - j] : run[j];
+            }
+            i += length;
+        }
+        int[] expected = array.clone();
+        Arrays.sort(expected);
+        NaturalMerge merge = new NaturalMerge(array);
+        merge.sort(0, array.length, NaturalMerge.minRun(array.length));
+        Assert.assertArrayEquals(expected, array);
+        Assert.assertTrue(merge.scratchLength() <= array.length / 2);
+    }
+
+    /**
+     * 稳定性依赖的三条规则：相等的元素不会被当作降序段翻转，
+     * 左段中等于右段首元素的元素留在原处，右段中等于左段末元素的元素也留在原处
+     */
+    @Test
+    public void stabilityRules() {
+        int[] run = {3, 2, 2, 1};
+        Assert.assertEquals(2, NaturalMerge.countRun(run, 0, 4));
+        Assert.assertArrayEquals(new int[]{2, 3, 2, 1}, run);
+
+        int[] array = {1, 2, 2, 2, 5};
+        Assert.assertEquals(4, NaturalMerge.gallopRight(array, 2, 0, 5));
+        Assert.assertEquals(1, NaturalMerge.gallopLeft(array, 2, 0, 5));
+        Assert.assertEquals(0, NaturalMerge.gallopRight(array, 0, 0, 5));
+        Assert.assertEquals(5, NaturalMerge.gallopRight(array, 5, 0, 5));
+        Assert.assertEquals(0, NaturalMerge.gallopLeft(array, 1, 0, 5));
+        Assert.assertEquals(5, NaturalMerge.gallopLeft(array, 6, 0, 5));
+    }
+
+    /**
+     * 倍增查找的每个位置都与线性查找一致
+     */
+    @Test
+    public void gallopMatchesLinearSearch() {
+        int[] array = new Random(103).ints(300, 0, 40).sorted().toArray();
+        for (int key = -1; key <= 41; key++) {
+            int right = 0;
+            while (right < array.length && array[right] <= key) {
+                right++;
+            }
+            int left = 0;
+            while (left < array.length && array[left] < key) {
+                left++;
+            }
+            Assert.assertEquals(right, NaturalMerge.gallopRight(array, key, 0, array.length));
+            Assert.assertEquals(left, NaturalMerge.gallopLeft(array, key, 0, array.length));
+        }
+    }
+
+    @Test
+    public void minRun() {
+        Assert.assertEquals(31, NaturalMerge.minRun(31));
+        Assert.assertEquals(16, NaturalMerge.minRun(32));
+        Assert.assertEquals(17, NaturalMerge.minRun(33));
+        Assert.assertEquals(32, NaturalMerge.minRun(63));
+        Assert.assertEquals(16, NaturalMerge.minRun(1 << 20));
+        Assert.assertEquals(17, NaturalMerge.minRun((1 << 20) + 1));
+    }
+}
@@ -0,0 +1,153 @@
+package sort;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * sort.QuickSelect的测试
+ */
+public class QuickSelectTest {
+    @Test
+    public void nthElementMatchesSortedOrder() {
+        Random random = new Random(13);
+        for (SortTestData.Shape shape : SortTestData.Shape.values()) {
+            for (int n : SortTestData.SIZES) {
+                if (n == 0) {
+                    continue;
+                }
+                int[] input = shape.ints(n, random);
+                int[] sorted = input.clone();
+                Arrays.sort(sorted);
+                for (int k : new int[]{0, n / 2, n - 1, random.nextInt(n)}) {
+                    int[] array = input.clone();
+                    Assert.assertEquals(shape + " n=" + n + " k=" + k, sorted[k], QuickSelect.nthElement(array, k));
+                    assertPartitioned(array, 0, n - 1, k);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void nthElementInRange() {
+        int[] input = new Random(17).ints(1000, -50, 50).toArray();
+        int[] array = input.clone();
+        QuickSelect.nthElement(array, 100, 899, 300);
+        int[] expected = input.clone();
+        Arrays.sort(expected, 100, 900);
+        Assert.assertEquals(expected[300], array[300]);
+        assertPartitioned(array, 100, 899, 300);
+        // 区间外的元素不变
+        Assert.assertArrayEquals(Arrays.copyOf(input, 100), Arrays.copyOf(array, 100));
+        Assert.assertArrayEquals(Arrays.copyOfRange(input, 900, 1000), Arrays.copyOfRange(array, 900, 1000));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nthElementRejectsKOutsideRange() {
+        QuickSelect.nthElement(new int[10], 2, 5, 6);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nthElementRejectsEmptyArray() {
+        QuickSelect.nthElement(new int[0], 0);
+    }
+
+    /**
+     * 深度限制为0时每一轮都用中位数的中位数选择枢轴
+     */
+    @Test
+    public void medianOfMediansFallback() {
+        Random random = new Random(19);
+        for (SortTestData.Shape shape : SortTestData.Shape.values()) {
+            int[] input = shape.ints(5000, random);
+            int[] sorted = input.clone();
+            Arrays.sort(sorted);
+            for (int k : new int[]{0, 1234, 2500, 4999}) {
+                int[] array = input.clone();
+                QuickSelect.select(array, 0, array.length - 1, k, 0);
+                Assert.assertEquals(shape + " k=" + k, sorted[k], array[k]);
+                assertPartitioned(array, 0, array.length - 1, k);
+            }
+        }
+    }
+
+    @Test
+    public void partialSort() {
+        int[] input = new Random(23).ints(500, 0, 20).toArray();
+        int[] sorted = input.clone();
+        Arrays.sort(sorted);
+        for (int k : new int[]{0, 1, 37, 499, 500, 600}) {
+            int[] array = QuickSelect.partialSort(input.clone(), k);
+            int m = Math.min(k, 500);
+            Assert.assertArrayEquals("k=" + k, Arrays.copyOf(sorted, m), Arrays.copyOf(array, m));
+            int[] rest = Arrays.copyOfRange(array, m, 500);
+            Arrays.sort(rest);
+            Assert.assertArrayEquals("k=" + k, Arrays.copyOfRange(sorted, m, 500), rest);
+        }
+    }
+
+    @Test
+    public void topKIsDescending() {
+        int[] input = new Random(29).ints(1000).toArray();
+        int[] sorted = input.clone();
+        Arrays.sort(sorted);
+        int[] top = QuickSelect.topK(input.clone(), 10);
+        Assert.assertEquals(10, top.length);
+        for (int i = 0; i < 10; i++) {
+            Assert.assertEquals(sorted[999 - i], top[i]);
+        }
+        Assert.assertEquals(0, QuickSelect.topK(input.clone(), 0).length);
+        Assert.assertEquals(1000, QuickSelect.topK(input.clone(), 5000).length);
+        Assert.assertArrayEquals(new int[]{7, 7, 7}, QuickSelect.topK(new int[]{7, 7, 7, 7}, 3));
+    }
+
+    /**
+     * 最近秩：第p百分位数是排序后第ceil(p / 100 * n)个元素
+     */
+    @Test
+    public void percentilesUseNearestRank() {
+        int[] array = {15, 20, 35, 40, 50};
+        Assert.assertArrayEquals(new int[]{15, 15, 20, 20, 50, 50},
+                QuickSelect.percentiles(array.clone(), 0, 5, 30, 40, 99, 100));
+        // 查询顺序与返回顺序一致，不要求有序
+        Assert.assertArrayEquals(new int[]{50, 15, 35}, QuickSelect.percentiles(array.clone(), 100, 0, 50));
+
+        int[] input = new Random(31).ints(10_001, 0, 8).toArray();
+        int[] sorted = input.clone();
+        Arrays.sort(sorted);
+        double[] percents = {0, 1, 25, 50, 75, 99, 99.9, 100};
+        int[] values = QuickSelect.percentiles(input, percents);
+        for (int i = 0; i < percents.length; i++) {
+            int rank = Math.max(0, (int) Math.ceil(percents[i] / 100 * sorted.length) - 1);
+            Assert.assertEquals("p=" + percents[i], sorted[rank], values[i]);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void percentilesRejectEmptyArray() {
+        QuickSelect.percentiles(new int[0], 50);
+    }
+
+    @Test
+    public void percentilesRejectOutOfRangePercent() {
+        for (double p : new double[]{-1, 100.5, Double.NaN}) {
+            try {
+                QuickSelect.percentiles(new int[]{1, 2, 3}, p);
+                Assert.fail("p=" + p);
+            } catch (IllegalArgumentException expected) {
+                // 预期的异常
+            }
+        }
+    }
+
+    private static void assertPartitioned(int[] array, int start, int end, int k) {
+        for (int i = start; i < k; i++) {
+            Assert.assertTrue(array[i] <= array[k]);
+        }
+        for (int i = k + 1; i <= end; i++) {
+            Assert.assertTrue(array[i] >= array[k]);
+        }
+    }
+}
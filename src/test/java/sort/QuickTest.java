@@ -0,0 +1,92 @@
+package sort;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * sort.Quick的测试
+ */
+public class QuickTest {
+    @Test
+    public void quickSortMatchesArraysSort() {
+        SortTestData.check((array, start, end) -> Quick.quickSort(array, start, end));
+    }
+
+    /**
+     * 三路划分后全部相等的输入一轮就结束，只有两种值时递归深度也不会随n增长
+     */
+    @Test
+    public void quickSortHandlesDuplicates() {
+        int[] equal = new int[1 << 20];
+        Arrays.fill(equal, 7);
+        Assert.assertArrayEquals(equal.clone(), Quick.quickSort(equal));
+
+        int[] binary = new Random(41).ints(1 << 20, 0, 2).toArray();
+        int[] expected = binary.clone();
+        Arrays.sort(expected);
+        Assert.assertArrayEquals(expected, Quick.quickSort(binary));
+    }
+
+    @Test
+    public void introSortMatchesArraysSort() {
+        SortTestData.check((array, start, end) -> Quick.introSort(array, start, end));
+        SortTestData.checkLongs(Quick::introSort);
+    }
+
+    /**
+     * 深度限制为0时直接改用堆排序
+     */
+    @Test
+    public void heapSortFallback() {
+        SortTestData.check((array, start, end) -> {
+            if (start < end) {
+                Quick.intro(array, start, end, 0);
+            }
+        });
+        SortTestData.check((array, start, end) -> Heap.heapSort(array, start, end));
+    }
+
+    /**
+     * NaN排在最后，-0.0排在0.0之前，与Arrays.sort一致
+     */
+    @Test
+    public void floatingPointOrderMatchesArraysSort() {
+        Random random = new Random(3);
+        double[] specials = {Double.NaN, -0.0, 0.0, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, -1, 1};
+        for (int n : SortTestData.SIZES) {
+            double[] doubles = new double[n];
+            float[] floats = new float[n];
+            for (int i = 0; i < n; i++) {
+                doubles[i] = random.nextInt(4) == 0 ? specials[random.nextInt(specials.length)]
+                        : random.nextGaussian();
+                floats[i] = (float) doubles[i];
+            }
+            double[] expectedDoubles = doubles.clone();
+            Arrays.sort(expectedDoubles);
+            Assert.assertArrayEquals(expectedDoubles, Quick.introSort(doubles.clone()), 0);
+            float[] expectedFloats = floats.clone();
+            Arrays.sort(expectedFloats);
+            Assert.assertArrayEquals(expectedFloats, Quick.introSort(floats.clone()), 0);
+            if (n >= 2) {
+                int start = n / 4;
+                int end = n - 1 - n / 4;
+                double[] partial = doubles.clone();
+                double[] expected = doubles.clone();
+                Arrays.sort(expected, start, end + 1);
+                Quick.introSort(partial, start, end);
+                Assert.assertArrayEquals(expected, partial, 0);
+            }
+        }
+    }
+
+    @Test
+    public void depthLimitIsTwiceLog2() {
+        Assert.assertEquals(0, Quick.depthLimit(1));
+        Assert.assertEquals(2, Quick.depthLimit(2));
+        Assert.assertEquals(20, Quick.depthLimit(1024));
+        Assert.assertEquals(20, Quick.depthLimit(2047));
+    }
+}
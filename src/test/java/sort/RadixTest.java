@@ -0,0 +1,90 @@
+package sort;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * sort.Radix的测试
+ */
+public class RadixTest {
+    /**
+     * 超过两个并行分块的长度，保证真正走到并行路径
+     */
+    private static final int PARALLEL_SIZE = 4 * Radix.PARALLEL_CHUNK_MIN + 17;
+
+    @Test
+    public void radixSortMatchesArraysSort() {
+        SortTestData.check((array, start, end) -> Radix.radixSort(array, start, end));
+    }
+
+    @Test
+    public void longRadixSortMatchesArraysSort() {
+        Random random = new Random(5);
+        for (SortTestData.Shape shape : SortTestData.Shape.values()) {
+            for (int n : SortTestData.SIZES) {
+                long[] input = shape.longs(n, random);
+                long[] expected = input.clone();
+                Arrays.sort(expected);
+                Assert.assertArrayEquals(shape + " n=" + n, expected, Radix.radixSort(input));
+            }
+        }
+    }
+
+    /**
+     * 负数、边界值和只在高位不同的键
+     */
+    @Test
+    public void negativesAndExtremes() {
+        int[] ints = new int[1000];
+        long[] longs = new long[1000];
+        int[] intSpecials = {Integer.MIN_VALUE, Integer.MAX_VALUE, -1, 0, 1, Integer.MIN_VALUE + 1};
+        long[] longSpecials = {Long.MIN_VALUE, Long.MAX_VALUE, -1, 0, 1, 1L << 62, -(1L << 62)};
+        Random random = new Random(7);
+        for (int i = 0; i < ints.length; i++) {
+            ints[i] = random.nextBoolean() ? intSpecials[random.nextInt(intSpecials.length)]
+                    : random.nextInt() & 0xFF000000;
+            longs[i] = random.nextBoolean() ? longSpecials[random.nextInt(longSpecials.length)]
+                    : random.nextLong() & 0xFFF0000000000000L;
+        }
+        int[] expectedInts = ints.clone();
+        Arrays.sort(expectedInts);
+        Assert.assertArrayEquals(expectedInts, Radix.radixSort(ints));
+        long[] expectedLongs = longs.clone();
+        Arrays.sort(expectedLongs);
+        Assert.assertArrayEquals(expectedLongs, Radix.radixSort(longs));
+    }
+
+    @Test
+    public void parallelRadixSortMatchesArraysSort() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            Random random = new Random(11);
+            for (SortTestData.Shape shape : SortTestData.Shape.values()) {
+                int[] ints = shape.ints(PARALLEL_SIZE, random);
+                int[] expectedInts = ints.clone();
+                Arrays.sort(expectedInts);
+                Assert.assertArrayEquals(shape.toString(), expectedInts, Radix.parallelRadixSort(ints, pool));
+
+                long[] longs = shape.longs(PARALLEL_SIZE, random);
+                long[] expectedLongs = longs.clone();
+                Arrays.sort(expectedLongs);
+                Assert.assertArrayEquals(shape.toString(), expectedLongs, Radix.parallelRadixSort(longs, pool));
+            }
+            // 只排序中间的子区间，区间外的元素不变
+            int[] input = random.ints(PARALLEL_SIZE + 200).toArray();
+            int[] expected = input.clone();
+            Arrays.sort(expected, 100, PARALLEL_SIZE + 100);
+            Radix.parallelRadixSort(input, 100, PARALLEL_SIZE + 99, pool);
+            Assert.assertArrayEquals(expected, input);
+            // 太短的数组退回串行排序
+            int[] small = {3, -1, 2};
+            Assert.assertArrayEquals(new int[]{-1, 2, 3}, Radix.parallelRadixSort(small, pool));
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
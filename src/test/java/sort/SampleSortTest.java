@@ -0,0 +1,26 @@
+package sort;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * sort.SampleSort测试
+ */
+public class SampleSortTest {
+    @Test
+    public void sortMatchesArraysSort() {
+        Random random = new Random(1);
+        for (int n : new int[]{0, 1, 1000, 1 << 20}) {
+            for (int bound : new int[]{4, Integer.MAX_VALUE}) {
+                int[] arr = random.ints(n, 0, bound).toArray();
+                int[] expected = arr.clone();
+                Arrays.sort(expected);
+                SampleSort.parallelSort(arr);
+                Assert.assertArrayEquals(expected, arr);
+            }
+        }
+    }
+}
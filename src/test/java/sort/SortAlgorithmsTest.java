@@ -0,0 +1,39 @@
+package sort;
+
+import org.junit.Test;
+
+/**
+ * 逐个检查SortAlgorithms中登记的排序算法
+ */
+public class SortAlgorithmsTest {
+    /**
+     * O(n^2)的算法只检查较小的规模
+     */
+    private static final int[] QUADRATIC_SIZES = {0, 1, 2, 3, 23, 24, 25, 100, 1000};
+
+    /**
+     * 超过并行分块阈值的规模，保证并行算法真正拆分
+     */
+    private static final int PARALLEL_SIZE = 300_000;
+
+    @Test
+    public void everyAlgorithmMatchesArraysSort() {
+        for (SortAlgorithms algorithm : SortAlgorithms.values()) {
+            switch (algorithm) {
+                case BUBBLE:
+                case INSERTION:
+                case SELECTION:
+                    SortTestData.check(algorithm, QUADRATIC_SIZES);
+                    break;
+                case PARALLEL_MERGE:
+                case PARALLEL_SAMPLE:
+                case PARALLEL_RADIX:
+                    SortTestData.check(algorithm);
+                    SortTestData.check(algorithm, PARALLEL_SIZE);
+                    break;
+                default:
+                    SortTestData.check(algorithm);
+            }
+        }
+    }
+}
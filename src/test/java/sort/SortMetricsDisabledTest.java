@@ -0,0 +1,47 @@
+package sort;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 关闭统计时的sort.SortMetrics测试，由surefire的metrics-disabled执行以-Dsort.metrics=false单独运行
+ */
+public class SortMetricsDisabledTest {
+    private static final SortMetrics.Snapshot ZERO = new SortMetrics.Snapshot(0, 0, 0, 0, 0);
+
+    @Test
+    public void disabledByDefault() {
+        Assert.assertFalse(SortMetrics.ENABLED);
+    }
+
+    /**
+     * 照常排序，返回和通知给监听器的计数都是0
+     */
+    @Test
+    public void measureSortsAndReportsZero() {
+        List<SortMetrics.Snapshot> received = new ArrayList<>();
+        SortListener listener = (algorithm, length, snapshot) -> received.add(snapshot);
+        SortMetrics.addListener(listener);
+        try {
+            for (SortAlgorithms algorithm : SortAlgorithms.values()) {
+                int[] array = new Random(107).ints(2000).toArray();
+                int[] expected = array.clone();
+                Arrays.sort(expected);
+                Assert.assertEquals(algorithm.name(), ZERO, SortMetrics.measure(algorithm, array, 0, 1999));
+                Assert.assertArrayEquals(algorithm.name(), expected, array);
+            }
+        } finally {
+            SortMetrics.removeListener(listener);
+        }
+        Assert.assertEquals(SortAlgorithms.values().length, received.size());
+        for (SortMetrics.Snapshot snapshot : received) {
+            Assert.assertEquals(ZERO, snapshot);
+        }
+        Assert.assertEquals(ZERO, SortMetrics.snapshot());
+    }
+}
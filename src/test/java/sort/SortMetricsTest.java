@@ -0,0 +1,80 @@
+package sort;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+/**
+ * sort.SortMetrics测试，需要-Dsort.metrics=true
+ */
+public class SortMetricsTest {
+    private static final int SIZE = 1 << 20;
+
+    @Before
+    public void requireMetrics() {
+        Assume.assumeTrue(SortMetrics.ENABLED);
+    }
+
+    /**
+     * 并行归并的比较次数主要发生在工作线程中，汇总后应与顺序归并相近
+     */
+    @Test
+    public void parallelMergeCountsWorkerThreads() {
+        int[] source = new Random(1).ints(SIZE).toArray();
+        SortMetrics.Snapshot sequential = SortMetrics.measure(SortAlgorithms.MERGE, source.clone(), 0, SIZE - 1);
+        SortMetrics.Snapshot parallel = SortMetrics.measure(SortAlgorithms.PARALLEL_MERGE, source.clone(), 0, SIZE - 1);
+        Assert.assertTrue(sequential.getComparisons() > SIZE);
+        Assert.assertTrue(parallel.getComparisons() > sequential.getComparisons() / 2);
+        Assert.assertTrue(parallel.getComparisons() < sequential.getComparisons() * 2);
+    }
+
+    @Test
+    public void parallelSampleCountsWorkerThreads() {
+        int[] source = new Random(2).ints(SIZE).toArray();
+        SortMetrics.Snapshot snapshot = SortMetrics.measure(SortAlgorithms.PARALLEL_SAMPLE, source, 0, SIZE - 1);
+        Assert.assertTrue(snapshot.getComparisons() > SIZE);
+    }
+
+    /**
+     * 每次measure只包含这一次排序的计数
+     */
+    @Test
+    public void measureStartsFromZero() {
+        int[] source = new Random(3).ints(1000).toArray();
+        SortMetrics.Snapshot first = SortMetrics.measure(SortAlgorithms.INTRO, source.clone(), 0, 999);
+        SortMetrics.Snapshot second = SortMetrics.measure(SortAlgorithms.INTRO, source.clone(), 0, 999);
+        Assert.assertEquals(first, second);
+    }
+
+    /**
+     * 经典快排的划分在每次比较时计数
+     */
+    @Test
+    public void quickSortCountsEveryComparison() {
+        int[] array = {3, 1, 2};
+        SortMetrics.Snapshot snapshot = SortMetrics.measure(SortAlgorithms.QUICK, array, 0, 2);
+        Assert.assertArrayEquals(new int[]{1, 2, 3}, array);
+        Assert.assertTrue(snapshot.getComparisons() > 0);
+    }
+
+    /**
+     * 新的一轮在递归到一半时开始，保留当前深度，之后的exit()不会把深度减成负数
+     */
+    @Test
+    public void roundChangeKeepsDepth() {
+        int[] source = new Random(5).ints(100_000).toArray();
+        SortMetrics.Snapshot baseline = SortMetrics.measure(SortAlgorithms.INTRO, source.clone(), 0, source.length - 1);
+        SortMetrics.enter();
+        SortMetrics.enter();
+        SortMetrics.Snapshot nested = SortMetrics.measure((array, start, end) -> {
+            SortMetrics.exit();
+            SortMetrics.exit();
+            Quick.introSort(array, start, end);
+        }, source.clone(), 0, source.length - 1);
+        Assert.assertEquals(baseline.getMaxDepth(), nested.getMaxDepth());
+        Assert.assertEquals(baseline.getComparisons(), nested.getComparisons());
+    }
+}
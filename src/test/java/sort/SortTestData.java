@@ -0,0 +1,122 @@
+package sort;
+
+import org.junit.Assert;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * 排序测试共用的输入数据和检查方法
+ * 每种形状、每个长度都与Arrays.sort比较，并且只排序一个子区间，检查区间外的元素没有被改动
+ */
+final class SortTestData {
+    /**
+     * 覆盖空数组、插入排序阈值附近和需要多层递归的长度
+     */
+    static final int[] SIZES = {0, 1, 2, 3, 23, 24, 25, 100, 1000, 20_000};
+
+    private SortTestData() {
+    }
+
+    enum Shape {
+        RANDOM,
+        SORTED,
+        REVERSED,
+        /**
+         * 只有4种不同的值
+         */
+        FEW_UNIQUE,
+        /**
+         * 先升后降
+         */
+        ORGAN_PIPE;
+
+        long[] longs(int n, Random random) {
+            long[] values = new long[n];
+            for (int i = 0; i < n; i++) {
+                switch (this) {
+                    case RANDOM:
+                        values[i] = random.nextLong();
+                        break;
+                    case SORTED:
+                        values[i] = i * 3L - n;
+                        break;
+                    case REVERSED:
+                        values[i] = (long) (n - i) * 3 - n;
+                        break;
+                    case FEW_UNIQUE:
+                        values[i] = random.nextInt(4) - 2;
+                        break;
+                    default:
+                        values[i] = Math.min(i, n - i);
+                }
+            }
+            return values;
+        }
+
+        int[] ints(int n, Random random) {
+            if (this == RANDOM) {
+                return random.ints(n).toArray();
+            }
+            return Arrays.stream(longs(n, random)).mapToInt(v -> (int) v).toArray();
+        }
+    }
+
+    @FunctionalInterface
+    interface LongRangeSort {
+        void sort(long[] array, int start, int end);
+    }
+
+    /**
+     * 对所有形状和长度检查整个数组和子区间[start, end]的排序结果
+     */
+    static void check(SortAlgorithm algorithm) {
+        check(algorithm, SIZES);
+    }
+
+    static void check(SortAlgorithm algorithm, int... sizes) {
+        Random random = new Random(42);
+        for (Shape shape : Shape.values()) {
+            for (int n : sizes) {
+                int[] input = shape.ints(n, random);
+                int[] expected = input.clone();
+                Arrays.sort(expected);
+                String message = shape + " n=" + n;
+                Assert.assertArrayEquals(message, expected, algorithm.sort(input.clone()));
+                if (n >= 2) {
+                    int start = random.nextInt(n / 2);
+                    int end = n - 1 - random.nextInt(n / 2);
+                    int[] actual = input.clone();
+                    expected = input.clone();
+                    Arrays.sort(expected, start, end + 1);
+                    algorithm.sort(actual, start, end);
+                    Assert.assertArrayEquals(message + " [" + start + ", " + end + "]", expected, actual);
+                }
+            }
+        }
+    }
+
+    static void checkLongs(LongRangeSort algorithm) {
+        Random random = new Random(43);
+        for (Shape shape : Shape.values()) {
+            for (int n : SIZES) {
+                long[] input = shape.longs(n, random);
+                long[] expected = input.clone();
+                Arrays.sort(expected);
+                long[] actual = input.clone();
+                algorithm.sort(actual, 0, n - 1);
+                String message = shape + " n=" + n;
+                Assert.assertArrayEquals(message, expected, actual);
+                if (n >= 2) {
+                    int start = random.nextInt(n / 2);
+                    int end = n - 1 - random.nextInt(n / 2);
+                    actual = input.clone();
+                    expected = input.clone();
+                    Arrays.sort(expected, start, end + 1);
+                    algorithm.sort(actual, start, end);
+                    Assert.assertArrayEquals(message + " [" + start + ", " + end + "]", expected, actual);
+                }
+            }
+        }
+    }
+}
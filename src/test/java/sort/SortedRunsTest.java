@@ -0,0 +1,132 @@
+package sort;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+
+/**
+ * sort.SortedRuns的测试
+ */
+public class SortedRunsTest {
+    @Test
+    public void mergedContentsMatchArraysSort() throws InterruptedException {
+        Random random = new Random(89);
+        int[] all = new int[0];
+        try (SortedRuns runs = new SortedRuns()) {
+            for (int b = 0; b < 200; b++) {
+                int[] batch = random.ints(random.nextInt(300), -1000, 1000).toArray();
+                int[] copy = batch.clone();
+                runs.add(batch);
+                // batch本身不会被修改
+                Assert.assertArrayEquals(copy, batch);
+                all = concat(all, batch);
+            }
+            runs.awaitMerges();
+            Arrays.sort(all);
+            Assert.assertEquals(all.length, runs.size());
+            Assert.assertArrayEquals(all, runs.toArray());
+            assertTiersBelowFanIn(runs.runCount(), all.length);
+
+            int[] iterated = new int[all.length];
+            int i = 0;
+            for (PrimitiveIterator.OfInt it = runs.iterator(); it.hasNext(); ) {
+                iterated[i++] = it.nextInt();
+            }
+            Assert.assertArrayEquals(all, iterated);
+
+            for (int key = -1005; key <= 1005; key += 7) {
+                Assert.assertEquals("key=" + key, Arrays.binarySearch(all, key) >= 0, runs.contains(key));
+            }
+            Assert.assertEquals(countBetween(all, -100, 250), runs.count(-100, 250));
+            Assert.assertEquals(countBetween(all, 0, 0), runs.count(0, 0));
+            Assert.assertEquals(all.length, runs.count(Integer.MIN_VALUE, Integer.MAX_VALUE));
+            Assert.assertEquals(0, runs.count(5, 4));
+        }
+    }
+
+    @Test
+    public void addRangeCopiesOnlyTheRange() throws InterruptedException {
+        try (SortedRuns runs = new SortedRuns()) {
+            runs.add(new int[]{9, 3, 1, 2, 8}, 1, 3);
+            runs.add(new int[]{7}, 0, -1);
+            runs.add(new int[]{2, 0});
+            runs.awaitMerges();
+            Assert.assertArrayEquals(new int[]{0, 1, 2, 2, 3}, runs.toArray());
+            Assert.assertEquals(2, runs.runCount());
+            Assert.assertEquals(2, runs.count(2, 2));
+            Assert.assertFalse(runs.contains(9));
+        }
+    }
+
+    /**
+     * 迭代器只看到创建时的快照
+     */
+    @Test
+    public void iteratorReadsSnapshot() {
+        try (SortedRuns runs = new SortedRuns()) {
+            runs.add(new int[]{5, 1});
+            PrimitiveIterator.OfInt iterator = runs.iterator();
+            runs.add(new int[]{3});
+            Assert.assertEquals(1, iterator.nextInt());
+            Assert.assertEquals(5, iterator.nextInt());
+            Assert.assertFalse(iterator.hasNext());
+            Assert.assertArrayEquals(new int[]{1, 3, 5}, runs.toArray());
+        }
+    }
+
+    @Test
+    public void emptyRuns() throws InterruptedException {
+        try (SortedRuns runs = new SortedRuns()) {
+            runs.awaitMerges();
+            Assert.assertEquals(0, runs.size());
+            Assert.assertEquals(0, runs.runCount());
+            Assert.assertEquals(0, runs.toArray().length);
+            Assert.assertFalse(runs.iterator().hasNext());
+            Assert.assertFalse(runs.contains(0));
+            Assert.assertEquals(0, runs.count(Integer.MIN_VALUE, Integer.MAX_VALUE));
+        }
+    }
+
+    /**
+     * 关闭后不能再写入，已有的数据仍然可以查询
+     */
+    @Test
+    public void closeRejectsWrites() {
+        SortedRuns runs = new SortedRuns();
+        for (int i = 0; i < SortedRuns.FAN_IN * 3; i++) {
+            runs.add(new int[]{i});
+        }
+        runs.close();
+        Assert.assertEquals(SortedRuns.FAN_IN * 3, runs.toArray().length);
+        try {
+            runs.add(new int[]{1});
+            Assert.fail();
+        } catch (IllegalStateException expected) {
+            // 预期的异常
+        }
+    }
+
+    /**
+     * 合并完成后每层少于FAN_IN个段，层数不超过log(FAN_IN, n) + 1
+     */
+    private static void assertTiersBelowFanIn(int runCount, int size) {
+        int tiers = 1;
+        for (long capacity = SortedRuns.FAN_IN; capacity <= size; capacity *= SortedRuns.FAN_IN) {
+            tiers++;
+        }
+        Assert.assertTrue("runs=" + runCount, runCount <= tiers * (SortedRuns.FAN_IN - 1));
+    }
+
+    private static long countBetween(int[] sorted, int from, int to) {
+        return Arrays.stream(sorted).filter(v -> v >= from && v <= to).count();
+    }
+
+    private static int[] concat(int[] a, int[] b) {
+        int[] result = Arrays.copyOf(a, a.length + b.length);
+        System.arraycopy(b, 0, result, a.length, b.length);
+        return result;
+    }
+}
@@ -0,0 +1,102 @@
+package sort;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * sort.Sorter的测试
+ */
+public class SorterTest {
+    @Test
+    public void sortMatchesArraysSort() {
+        SortTestData.check((array, start, end) -> Sorter.sort(array, start, end));
+    }
+
+    @Test
+    public void tinyInputUsesInsertionSort() {
+        int[] array = new Random(47).ints(Sorter.TINY).toArray();
+        Assert.assertSame(SortAlgorithms.INSERTION, choose(array));
+    }
+
+    @Test
+    public void presortedInputUsesAdaptiveMerge() {
+        Random random = new Random(53);
+        int[] sorted = random.ints(10_000).sorted().toArray();
+        Assert.assertSame(SortAlgorithms.ADAPTIVE_MERGE, choose(sorted));
+        int[] reversed = new int[10_000];
+        for (int i = 0; i < reversed.length; i++) {
+            reversed[i] = -i;
+        }
+        Assert.assertSame(SortAlgorithms.ADAPTIVE_MERGE, choose(reversed));
+        // 每段长128，平均段长超过MIN_AVERAGE_RUN
+        int[] sawtooth = new int[10_000];
+        for (int i = 0; i < sawtooth.length; i++) {
+            sawtooth[i] = i % 128;
+        }
+        Assert.assertSame(SortAlgorithms.ADAPTIVE_MERGE, choose(sawtooth));
+    }
+
+    @Test
+    public void smallRandomInputUsesIntroSort() {
+        int[] array = new Random(59).ints(Radix.SMALL_THRESHOLD - 1).toArray();
+        Assert.assertSame(SortAlgorithms.INTRO, choose(array));
+    }
+
+    @Test
+    public void narrowRangeUsesRadixSort() {
+        int[] array = new Random(61).ints(10_000, 1000, 1000 + (int) Sorter.NARROW_RANGE - 1).toArray();
+        Assert.assertSame(SortAlgorithms.RADIX, choose(array));
+    }
+
+    @Test
+    public void largeDistinctInputUsesRadixSort() {
+        Random random = new Random(67);
+        Assert.assertSame(SortAlgorithms.RADIX, choose(random.ints(Sorter.LARGE).toArray()));
+        // 规模不够大时仍然用内省排序
+        Assert.assertSame(SortAlgorithms.INTRO, choose(random.ints(Sorter.LARGE - 1).toArray()));
+    }
+
+    /**
+     * 值域很宽但重复值多，三路划分比基数排序更合适
+     */
+    @Test
+    public void wideRangeWithDuplicatesUsesIntroSort() {
+        Random random = new Random(71);
+        int[] array = new int[Sorter.LARGE * 2];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = (random.nextInt(32) - 16) << 24;
+        }
+        Assert.assertSame(SortAlgorithms.INTRO, choose(array));
+    }
+
+    @Test
+    public void chooseDoesNotModifyArray() {
+        int[] array = new Random(73).ints(5000).toArray();
+        int[] copy = array.clone();
+        Sorter.choose(array, 100, 4000);
+        Assert.assertArrayEquals(copy, array);
+    }
+
+    @Test
+    public void countRuns() {
+        Assert.assertEquals(0, Sorter.countRuns(new int[0], 0, -1, 10));
+        Assert.assertEquals(1, Sorter.countRuns(new int[]{1, 1, 2, 3}, 0, 3, 10));
+        // 降序段必须严格递减，相等的元素开启新的一段
+        Assert.assertEquals(2, Sorter.countRuns(new int[]{3, 2, 2, 1}, 0, 3, 10));
+        Assert.assertEquals(3, Sorter.countRuns(new int[]{1, 2, 0, -1, 5, 6}, 0, 5, 10));
+        // 超过上限后立即返回
+        Assert.assertEquals(2, Sorter.countRuns(new int[]{1, 0, 1, 0, 1, 0}, 0, 5, 1));
+        Assert.assertEquals(2, Sorter.countRuns(new int[]{9, 1, 2, 0, 7}, 1, 3, 10));
+    }
+
+    private static SortAlgorithm choose(int[] array) {
+        SortAlgorithm algorithm = Sorter.choose(array, 0, array.length - 1);
+        int[] expected = array.clone();
+        Arrays.sort(expected);
+        Assert.assertArrayEquals(expected, algorithm.sort(array.clone()));
+        return algorithm;
+    }
+}
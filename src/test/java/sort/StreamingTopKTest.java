@@ -0,0 +1,69 @@
+package sort;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * sort.StreamingTopK的测试
+ */
+public class StreamingTopKTest {
+    @Test
+    public void keepsLargestKInDescendingOrder() {
+        Random random = new Random(37);
+        for (SortTestData.Shape shape : SortTestData.Shape.values()) {
+            int[] input = shape.ints(10_000, random);
+            int[] sorted = input.clone();
+            Arrays.sort(sorted);
+            StreamingTopK top = new StreamingTopK(50);
+            for (int value : input) {
+                top.offer(value);
+            }
+            int[] expected = new int[50];
+            for (int i = 0; i < 50; i++) {
+                expected[i] = sorted[sorted.length - 1 - i];
+            }
+            Assert.assertEquals(50, top.size());
+            Assert.assertEquals(shape.toString(), expected[49], top.threshold());
+            Assert.assertArrayEquals(shape.toString(), expected, top.toArray());
+        }
+    }
+
+    /**
+     * 分批提供时end是闭区间，结果与逐个提供相同
+     */
+    @Test
+    public void offerRange() {
+        int[] values = {5, 1, 9, 3, 7, 8, 2};
+        StreamingTopK top = new StreamingTopK(3);
+        top.offer(values, 1, 4);
+        Assert.assertArrayEquals(new int[]{9, 7, 3}, top.toArray());
+        top.offer(values, 5, 5);
+        Assert.assertArrayEquals(new int[]{9, 8, 7}, top.toArray());
+    }
+
+    @Test
+    public void fewerThanKElements() {
+        StreamingTopK top = new StreamingTopK(5);
+        Assert.assertEquals(0, top.size());
+        Assert.assertEquals(0, top.toArray().length);
+        top.offer(4);
+        top.offer(-2);
+        top.offer(4);
+        Assert.assertEquals(3, top.size());
+        Assert.assertEquals(-2, top.threshold());
+        Assert.assertArrayEquals(new int[]{4, 4, -2}, top.toArray());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void thresholdRequiresAnElement() {
+        new StreamingTopK(1).threshold();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNonPositiveK() {
+        new StreamingTopK(0);
+    }
+}
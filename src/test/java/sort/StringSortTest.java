@@ -0,0 +1,63 @@
+package sort;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+/**
+ * sort.StringSort测试
+ */
+public class StringSortTest {
+    /**
+     * 包含空串、共同前缀、互为前缀的串、BMP之外的字符和U+FFFF附近的字符
+     */
+    private static String[] strings(int n, long seed) {
+        Random random = new Random(seed);
+        String[] alphabet = {"a", "b", "ab", "\uFFFF", "\uD83D\uDE00", "", ""};
+        String[] strings = new String[n];
+        for (int i = 0; i < n; i++) {
+            StringBuilder sb = new StringBuilder(random.nextBoolean() ? "shared-prefix-" : "");
+            for (int k = random.nextInt(6); k > 0; k--) {
+                sb.append(alphabet[random.nextInt(alphabet.length)]);
+            }
+            strings[i] = sb.toString();
+        }
+        return strings;
+    }
+
+    @Test
+    public void codeUnitOrderMatchesCompareTo() {
+        for (int n : new int[]{0, 1, 10, 5000}) {
+            String[] expected = strings(n, n);
+            String[] multikey = expected.clone();
+            String[] msd = expected.clone();
+            Arrays.sort(expected);
+            Assert.assertArrayEquals(expected, StringSort.multikeySort(multikey));
+            Assert.assertArrayEquals(expected, StringSort.msdRadixSort(msd));
+        }
+    }
+
+    @Test
+    public void codePointOrder() {
+        String[] expected = strings(5000, 9);
+        String[] multikey = expected.clone();
+        String[] msd = expected.clone();
+        Arrays.sort(expected, Comparator.comparing((String s) -> s.codePoints().toArray(), StringSortTest::compare));
+        StringSort.multikeySort(multikey, 0, multikey.length - 1, StringSort.Order.CODE_POINT);
+        StringSort.msdRadixSort(msd, 0, msd.length - 1, StringSort.Order.CODE_POINT);
+        Assert.assertArrayEquals(expected, multikey);
+        Assert.assertArrayEquals(expected, msd);
+    }
+
+    private static int compare(int[] a, int[] b) {
+        for (int i = 0; i < Math.min(a.length, b.length); i++) {
+            if (a[i] != b[i]) {
+                return Integer.compare(a[i], b[i]);
+            }
+        }
+        return Integer.compare(a.length, b.length);
+    }
+}
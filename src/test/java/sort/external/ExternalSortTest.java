@@ -0,0 +1,138 @@
+package sort.external;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * sort.external.ExternalSort测试，输入和临时文件都放在临时目录中
+ */
+public class ExternalSortTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * 最小的内存预算，每块16K个整数，每轮只能归并两路，需要多轮归并
+     */
+    @Test
+    public void sortWithManyRunsAndPasses() throws IOException {
+        int[] values = new Random(1).ints(200_000).toArray();
+        Path input = write(values, ByteOrder.BIG_ENDIAN);
+        Path output = folder.getRoot().toPath().resolve("out");
+        Path temp = folder.newFolder("temp").toPath();
+
+        ExternalSortStats stats = new ExternalSort(2L * ExternalSort.MIN_WINDOW_BYTES, temp).sort(input, output);
+
+        Arrays.sort(values);
+        Assert.assertArrayEquals(values, read(output, ByteOrder.BIG_ENDIAN));
+        Assert.assertTrue(stats.getRuns() > 2);
+        Assert.assertTrue(stats.getMergePasses() > 1);
+        try (Stream<Path> left = Files.list(temp)) {
+            Assert.assertEquals(0, left.count());
+        }
+    }
+
+    @Test
+    public void sortInMemoryWritesOutputDirectly() throws IOException {
+        int[] values = new Random(2).ints(10_000).toArray();
+        Path input = write(values, ByteOrder.LITTLE_ENDIAN);
+        Path output = folder.getRoot().toPath().resolve("out");
+
+        ExternalSortStats stats = new ExternalSort(1 << 20, folder.getRoot().toPath(), ByteOrder.LITTLE_ENDIAN)
+                .sort(input, output);
+
+        Arrays.sort(values);
+        Assert.assertArrayEquals(values, read(output, ByteOrder.LITTLE_ENDIAN));
+        Assert.assertEquals(0, stats.getRuns());
+        Assert.assertEquals(0, stats.getMergePasses());
+    }
+
+    @Test
+    public void sortEmptyInput() throws IOException {
+        Path input = write(new int[0], ByteOrder.BIG_ENDIAN);
+        Path output = folder.getRoot().toPath().resolve("out");
+        new ExternalSort(1 << 20, folder.getRoot().toPath()).sort(input, output);
+        Assert.assertEquals(0, Files.size(output));
+    }
+
+    /**
+     * 已存在且更长的输出文件被覆盖为恰好等于输入的长度
+     */
+    @Test
+    public void overwriteLongerOutput() throws IOException {
+        int[] values = new Random(3).ints(1000).toArray();
+        Path input = write(values, ByteOrder.BIG_ENDIAN);
+        Path output = folder.newFile("out").toPath();
+        Files.write(output, new byte[1 << 16]);
+        new ExternalSort(1 << 20, folder.getRoot().toPath()).sort(input, output);
+        Arrays.sort(values);
+        Assert.assertArrayEquals(values, read(output, ByteOrder.BIG_ENDIAN));
+    }
+
+    /**
+     * 最后一个窗口只映射剩余的长度，文件不会超过声明的长度，写满后继续写入会失败
+     */
+    @Test
+    public void runWriterMapsExactLength() throws IOException {
+        int[] values = new Random(4).ints(20_001).toArray();
+        Path path = folder.newFile().toPath();
+        ExternalSortStats stats = new ExternalSortStats();
+        long bytes = (long) values.length * Integer.BYTES;
+        try (RunWriter writer = new RunWriter(path, ByteOrder.LITTLE_ENDIAN, ExternalSort.MIN_WINDOW_BYTES, bytes,
+                stats)) {
+            writer.write(values[0]);
+            writer.write(values, 1, values.length - 1);
+            Assert.assertEquals(bytes, Files.size(path));
+            try {
+                writer.write(0);
+                Assert.fail();
+            } catch (IllegalStateException expected) {
+                // 预期的异常
+            }
+        }
+        Assert.assertEquals(bytes, Files.size(path));
+        Assert.assertEquals(bytes, stats.getBytesWritten());
+        Assert.assertArrayEquals(values, read(path, ByteOrder.LITTLE_ENDIAN));
+
+        try (RunReader reader = new RunReader(path, ByteOrder.LITTLE_ENDIAN, ExternalSort.MIN_WINDOW_BYTES, stats)) {
+            Assert.assertEquals(bytes, reader.size());
+            for (int value : values) {
+                Assert.assertTrue(reader.hasNext());
+                Assert.assertEquals(value, reader.next());
+            }
+            Assert.assertFalse(reader.hasNext());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectTruncatedInput() throws IOException {
+        Path input = folder.newFile("odd").toPath();
+        Files.write(input, new byte[]{1, 2, 3});
+        new ExternalSort(1 << 20, folder.getRoot().toPath()).sort(input, folder.getRoot().toPath().resolve("out"));
+    }
+
+    private Path write(int[] values, ByteOrder order) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(values.length * Integer.BYTES).order(order);
+        buffer.asIntBuffer().put(values);
+        Path path = folder.newFile().toPath();
+        Files.write(path, buffer.array());
+        return path;
+    }
+
+    private static int[] read(Path path, ByteOrder order) throws IOException {
+        byte[] bytes = Files.readAllBytes(path);
+        int[] values = new int[bytes.length / Integer.BYTES];
+        ByteBuffer.wrap(bytes).order(order).asIntBuffer().get(values);
+        return values;
+    }
+}
@@ -0,0 +1,156 @@
+package text;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * text.AhoCorasick测试，在随机输入上与StringUtils和逐个位置比较的结果对照
+ */
+public class AhoCorasickTest {
+    private static String random(Random random, String alphabet, int minLength, int maxLength) {
+        int length = minLength + random.nextInt(maxLength - minLength + 1);
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 逐个位置、逐个模式串比较，按end从小到大，end相同时较长的在前
+     */
+    private static List<AhoCorasick.Match> bruteForce(String text, String[] patterns, boolean ignoreCase) {
+        List<AhoCorasick.Match> matches = new ArrayList<>();
+        for (int end = 1; end <= text.length(); end++) {
+            List<AhoCorasick.Match> atEnd = new ArrayList<>();
+            for (int p = 0; p < patterns.length; p++) {
+                String pattern = patterns[p];
+                int start = end - pattern.length();
+                if (!pattern.isEmpty() && start >= 0 && text.regionMatches(ignoreCase, start, pattern, 0,
+                        pattern.length())) {
+                    atEnd.add(new AhoCorasick.Match(p, start, end));
+                }
+            }
+            atEnd.sort((a, b) -> a.getStart() != b.getStart() ? Integer.compare(a.getStart(), b.getStart())
+                    : Integer.compare(a.getPattern(), b.getPattern()));
+            matches.addAll(atEnd);
+        }
+        return matches;
+    }
+
+    private static void check(AhoCorasick matcher, String[] patterns, String text, boolean ignoreCase) {
+        String message = "text [" + text + "], patterns " + Arrays.toString(patterns);
+        List<AhoCorasick.Match> expected = bruteForce(text, patterns, ignoreCase);
+        Assert.assertEquals(message, expected, matcher.findAll(text));
+        Assert.assertEquals(message, !expected.isEmpty(), matcher.containsAny(text));
+        int first = expected.stream().mapToInt(AhoCorasick.Match::getStart).min().orElse(-1);
+        Assert.assertEquals(message, first, matcher.indexOfAny(text));
+        if (!ignoreCase) {
+            Assert.assertEquals(message, StringUtils.indexOfAny(text, patterns), matcher.indexOfAny(text));
+            Assert.assertEquals(message, StringUtils.containsAny(text, patterns), matcher.containsAny(text));
+            String[] replacements = new String[patterns.length];
+            for (int i = 0; i < replacements.length; i++) {
+                replacements[i] = i % 5 == 4 ? null : "<" + i + ">";
+            }
+            Assert.assertEquals(message, StringUtils.replaceEach(text, patterns, replacements),
+                    matcher.replaceEach(text, replacements));
+        }
+    }
+
+    @Test
+    public void denseTableMatchesStringUtils() {
+        Random random = new Random(11);
+        for (int n = 0; n < 3_000; n++) {
+            String[] patterns = new String[1 + random.nextInt(8)];
+            for (int i = 0; i < patterns.length; i++) {
+                patterns[i] = random(random, "abc", 1, 4);
+            }
+            AhoCorasick matcher = AhoCorasick.of(patterns);
+            for (int t = 0; t < 10; t++) {
+                check(matcher, patterns, random(random, "abcd", 0, 30), false);
+            }
+        }
+    }
+
+    @Test
+    public void ignoreCaseMatchesRegionMatches() {
+        Random random = new Random(12);
+        for (int n = 0; n < 3_000; n++) {
+            String[] patterns = new String[1 + random.nextInt(8)];
+            for (int i = 0; i < patterns.length; i++) {
+                patterns[i] = random(random, "aBc\u00e9\u00c9", 1, 4);
+            }
+            AhoCorasick matcher = AhoCorasick.ofIgnoreCase(patterns);
+            Assert.assertTrue(matcher.isIgnoreCase());
+            for (int t = 0; t < 10; t++) {
+                check(matcher, patterns, random(random, "AbCd\u00e9\u00c9", 0, 30), true);
+            }
+        }
+    }
+
+    /**
+     * 状态数乘类别数超过DENSE_LIMIT时使用稀疏的边表
+     */
+    @Test
+    public void sparseTableMatchesStringUtils() {
+        Random random = new Random(13);
+        StringBuilder alphabet = new StringBuilder();
+        for (char c = 0x4e00; c < 0x4e00 + 600; c++) {
+            alphabet.append(c);
+        }
+        String wide = alphabet.toString();
+        String[] patterns = new String[4_000];
+        for (int i = 0; i < patterns.length; i++) {
+            patterns[i] = random(random, wide, 1, 6);
+        }
+        AhoCorasick matcher = AhoCorasick.of(patterns);
+        Assert.assertTrue((long) matcher.stateCount() * wide.length() > AhoCorasick.DENSE_LIMIT);
+        for (int t = 0; t < 200; t++) {
+            String text = random(random, wide.substring(0, 40), 0, 200);
+            // 在随机文本中插入几个模式串，保证有匹配
+            for (int k = 0; k < 3 && !text.isEmpty(); k++) {
+                int at = random.nextInt(text.length());
+                text = text.substring(0, at) + patterns[random.nextInt(patterns.length)] + text.substring(at);
+            }
+            check(matcher, patterns, text, false);
+        }
+    }
+
+    /**
+     * null和空的模式串不参与匹配；StringUtils.indexOfAny(str, searchStrs)对空串返回0，这里不同
+     */
+    @Test
+    public void nullAndEmptyPatternsNeverMatch() {
+        AhoCorasick matcher = AhoCorasick.of(null, "", "bc");
+        Assert.assertEquals(3, matcher.patternCount());
+        // 一个String参数时调用的是按字符集合查找的重载，要传数组才是按字符串查找
+        Assert.assertEquals(0, StringUtils.indexOfAny("abc", new CharSequence[]{""}));
+        Assert.assertEquals(-1, AhoCorasick.of("").indexOfAny("abc"));
+        Assert.assertFalse(AhoCorasick.of("").containsAny("abc"));
+        Assert.assertEquals(1, matcher.indexOfAny("abc"));
+        Assert.assertEquals(Arrays.asList(new AhoCorasick.Match(2, 1, 3)), matcher.findAll("abc"));
+        Assert.assertEquals("aX", matcher.replaceEach("abc", new String[]{"N", "E", "X"}));
+        Assert.assertEquals(-1, matcher.indexOfAny(null));
+        Assert.assertFalse(matcher.containsAny(null));
+        Assert.assertNull(matcher.replaceEach(null, new String[3]));
+    }
+
+    @Test
+    public void handlerCanStopEarly() {
+        AhoCorasick matcher = AhoCorasick.of("a", "aa");
+        int[] count = new int[1];
+        matcher.findAll("aaaa", (pattern, start, end) -> ++count[0] < 2);
+        Assert.assertEquals(2, count[0]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void replaceEachRejectsLengthMismatch() {
+        AhoCorasick.of("a", "b").replaceEach("ab", new String[]{"x"});
+    }
+}
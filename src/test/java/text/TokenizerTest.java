@@ -0,0 +1,177 @@
+package text;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * text.Tokenizer测试，四种拆分方式在随机输入上逐个与StringUtils的结果比较
+ */
+public class TokenizerTest {
+    private static final char[] ALPHABET = {'a', 'b', '.', ';', ' ', '\t', '\u00e9', '\u4e2d', '-', '!'};
+    private static final String[] SEPARATORS = {null, "", ".", ".;", ";.", " ", "\u4e2d", "\u00e9.", "-!-", "ab", "a"};
+
+    private static List<String> tokens(Tokenizer tokenizer) {
+        List<String> tokens = new ArrayList<>();
+        while (tokenizer.next()) {
+            Assert.assertEquals(tokenizer.end() - tokenizer.start(), tokenizer.token().length());
+            Assert.assertEquals(tokenizer.length(), tokenizer.token().length());
+            tokens.add(tokenizer.token().toString());
+        }
+        return tokens;
+    }
+
+    private static Tokenizer[] tokenizers(String separator) {
+        return new Tokenizer[]{Tokenizer.split(separator), Tokenizer.splitPreserveAllTokens(separator),
+                Tokenizer.splitByWholeSeparator(separator),
+                Tokenizer.splitByWholeSeparatorPreserveAllTokens(separator)};
+    }
+
+    private static String[][] expected(String s, String separator) {
+        return new String[][]{StringUtils.split(s, separator), StringUtils.splitPreserveAllTokens(s, separator),
+                StringUtils.splitByWholeSeparator(s, separator),
+                StringUtils.splitByWholeSeparatorPreserveAllTokens(s, separator)};
+    }
+
+    private static String random(Random random, char[] alphabet, int maxLength) {
+        int length = random.nextInt(maxLength);
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append(alphabet[random.nextInt(alphabet.length)]);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 每个tokenizer在多个输入之间复用，也检验reset能完全清除上一次的状态
+     */
+    @Test
+    public void matchesStringUtilsOnRandomInput() {
+        Random random = new Random(5);
+        Tokenizer[][] tokenizers = new Tokenizer[SEPARATORS.length][];
+        for (int i = 0; i < SEPARATORS.length; i++) {
+            tokenizers[i] = tokenizers(SEPARATORS[i]);
+        }
+        for (int n = 0; n < 20_000; n++) {
+            String s = random(random, ALPHABET, 12);
+            for (int i = 0; i < SEPARATORS.length; i++) {
+                String[][] expected = expected(s, SEPARATORS[i]);
+                for (int mode = 0; mode < 4; mode++) {
+                    String message = "mode " + mode + ", input [" + s + "], separator [" + SEPARATORS[i] + "]";
+                    List<String> expectedTokens = Arrays.asList(expected[mode]);
+                    Assert.assertEquals(message, expectedTokens, tokens(tokenizers[i][mode].reset(s)));
+                    Assert.assertEquals(message, expectedTokens,
+                            tokens(tokenizers[i][mode].reset(new StringBuilder(s))));
+                }
+            }
+        }
+    }
+
+    /**
+     * byte输入按ISO-8859-1解释，在ASCII输入上与StringUtils相同，token的位置是数组中的下标
+     */
+    @Test
+    public void byteRangeMatchesStringUtils() {
+        Random random = new Random(6);
+        char[] alphabet = {'a', 'b', '.', ';', ' ', '\t', '-', '!'};
+        String[] separators = {null, ".", ".;", " ", "-!-", "ab"};
+        for (int n = 0; n < 20_000; n++) {
+            String s = random(random, alphabet, 12);
+            byte[] padded = ("xy" + s + "z").getBytes(StandardCharsets.ISO_8859_1);
+            for (String separator : separators) {
+                String[][] expected = expected(s, separator);
+                Tokenizer[] tokenizers = tokenizers(separator);
+                for (int mode = 0; mode < 4; mode++) {
+                    Tokenizer tokenizer = tokenizers[mode].reset(padded, 2, padded.length - 1);
+                    List<String> tokens = new ArrayList<>();
+                    while (tokenizer.next()) {
+                        String token = new String(padded, tokenizer.start(), tokenizer.length(),
+                                StandardCharsets.ISO_8859_1);
+                        Assert.assertEquals(token, tokenizer.token().toString());
+                        tokens.add(token);
+                    }
+                    Assert.assertEquals("mode " + mode + ", input [" + s + "], separator [" + separator + "]",
+                            Arrays.asList(expected[mode]), tokens);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void utf8BytesAreNotSplitInsideCharacters() {
+        byte[] line = "xx,a,,b,\u4e2d\u6587,".getBytes(StandardCharsets.UTF_8);
+        Tokenizer tokenizer = Tokenizer.splitPreserveAllTokens(",").reset(line, 2, line.length);
+        List<String> tokens = new ArrayList<>();
+        while (tokenizer.next()) {
+            tokens.add(new String(line, tokenizer.start(), tokenizer.length(), StandardCharsets.UTF_8));
+        }
+        Assert.assertEquals(Arrays.asList("", "a", "", "b", "\u4e2d\u6587", ""), tokens);
+    }
+
+    @Test
+    public void nullInputAndCount() {
+        Tokenizer tokenizer = Tokenizer.split(",");
+        Assert.assertFalse(tokenizer.reset((CharSequence) null).next());
+        Assert.assertEquals(3, tokenizer.reset(",a,,b,c,").count());
+        Assert.assertFalse(tokenizer.next());
+        Assert.assertEquals(5, Tokenizer.splitPreserveAllTokens(",").reset(",a,,b,c").count());
+    }
+
+    @Test
+    public void tokenViewSupportsSubSequence() {
+        Tokenizer tokenizer = Tokenizer.split(" ").reset("hello world");
+        Assert.assertTrue(tokenizer.next());
+        CharSequence token = tokenizer.token();
+        Assert.assertEquals("ell", token.subSequence(1, 4).toString());
+        Assert.assertEquals('h', token.charAt(0));
+        Assert.assertTrue(tokenizer.next());
+        Assert.assertSame(token, tokenizer.token());
+        Assert.assertEquals("world", token.toString());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void rejectsBadByteRange() {
+        Tokenizer.split(",").reset(new byte[4], 2, 5);
+    }
+
+    /**
+     * 预热后逐个读取token不应分配内存
+     */
+    @Test
+    public void allocatesNothingPerToken() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(threads instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean mx = (com.sun.management.ThreadMXBean) threads;
+        Assume.assumeTrue(mx.isThreadAllocatedMemorySupported() && mx.isThreadAllocatedMemoryEnabled());
+        Tokenizer tokenizer = Tokenizer.split(" ,");
+        String line = "2024-01-01 12:00:00,INFO,user=bob,phone=13800000000,age=35 took 12ms";
+        long thread = Thread.currentThread().getId();
+        int sum = scan(tokenizer, line, 100_000);
+        long before = mx.getThreadAllocatedBytes(thread);
+        sum += scan(tokenizer, line, 100_000);
+        long allocated = mx.getThreadAllocatedBytes(thread) - before;
+        Assert.assertTrue(sum != 0);
+        // 100000行、每行9个token，允许少量与测试本身有关的分配
+        Assert.assertTrue("allocated " + allocated + " bytes", allocated < 10_000);
+    }
+
+    private static int scan(Tokenizer tokenizer, String line, int times) {
+        int sum = 0;
+        for (int i = 0; i < times; i++) {
+            tokenizer.reset(line);
+            while (tokenizer.next()) {
+                sum += tokenizer.token().charAt(0);
+            }
+        }
+        return sum;
+    }
+}